@@ -63,6 +63,14 @@ public interface CollectionFactory extends AutoCloseable {
 	 */
 	public Set<BindingSet> createSetOfBindingSets();
 
+	/**
+	 * @return {@code true} if {@link #createSetOfBindingSets()} returns plain in-memory sets, which a caller may then
+	 *         replace with its own in-memory representation
+	 */
+	public default boolean createsInMemorySetsOfBindingSets() {
+		return false;
+	}
+
 	/**
 	 * @return a set that may be optimised and/or disk based for Values
 	 */
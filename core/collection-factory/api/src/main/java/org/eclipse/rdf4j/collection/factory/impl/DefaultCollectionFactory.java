@@ -58,6 +58,12 @@ public class DefaultCollectionFactory implements CollectionFactory {
 		return new HashSet<>();
 	}
 
+	@Override
+	public boolean createsInMemorySetsOfBindingSets() {
+		// subclasses may create other sets
+		return getClass() == DefaultCollectionFactory.class;
+	}
+
 	@Override
 	public <K, V> Map<K, V> createMap() {
 		return new HashMap<K, V>();
@@ -112,6 +112,11 @@ public class MapDbCollectionFactory implements CollectionFactory {
 		}
 	}
 
+	@Override
+	public boolean createsInMemorySetsOfBindingSets() {
+		return iterationCacheSyncThreshold <= 0 && delegate.createsInMemorySetsOfBindingSets();
+	}
+
 	@Override
 	public Set<Value> createValueSet() {
 		if (iterationCacheSyncThreshold > 0) {
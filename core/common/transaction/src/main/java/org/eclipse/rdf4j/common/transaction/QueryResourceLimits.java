@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.transaction;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Limits on the resources that a single query may use during evaluation. A query that exceeds one of the limits fails
+ * with an error instead of degrading the performance of other queries.
+ * <p>
+ * Stores can be configured with default limits, which can be overridden for the queries of a single transaction by
+ * passing an instance to {@code RepositoryConnection.begin(TransactionSetting...)}. A limit of {@code 0} means that the
+ * resource is not limited.
+ */
+public final class QueryResourceLimits implements TransactionSetting {
+
+	/**
+	 * Limits that do not restrict queries.
+	 */
+	public static final QueryResourceLimits UNLIMITED = new QueryResourceLimits(0, 0, 0);
+
+	private final long maxBufferedBytes;
+
+	private final long maxRows;
+
+	private final long maxCpuTimeMillis;
+
+	private QueryResourceLimits(long maxBufferedBytes, long maxRows, long maxCpuTimeMillis) {
+		if (maxBufferedBytes < 0 || maxRows < 0 || maxCpuTimeMillis < 0) {
+			throw new IllegalArgumentException("limits must not be negative");
+		}
+		this.maxBufferedBytes = maxBufferedBytes;
+		this.maxRows = maxRows;
+		this.maxCpuTimeMillis = maxCpuTimeMillis;
+	}
+
+	/**
+	 * @param maxBufferedBytes the estimated number of bytes that operators such as ORDER BY, GROUP BY, DISTINCT and
+	 *                         hash joins may hold in memory at the same time, or {@code 0} for no limit
+	 * @return a copy of these limits with the supplied limit on buffered state
+	 */
+	public QueryResourceLimits withMaxBufferedBytes(long maxBufferedBytes) {
+		return new QueryResourceLimits(maxBufferedBytes, maxRows, maxCpuTimeMillis);
+	}
+
+	/**
+	 * @param maxRows the number of results that a query may produce, or {@code 0} for no limit
+	 * @return a copy of these limits with the supplied limit on results
+	 */
+	public QueryResourceLimits withMaxRows(long maxRows) {
+		return new QueryResourceLimits(maxBufferedBytes, maxRows, maxCpuTimeMillis);
+	}
+
+	/**
+	 * @param maxCpuTime the CPU time that the evaluation of a query may use, or {@link Duration#ZERO} for no limit
+	 * @return a copy of these limits with the supplied limit on CPU time
+	 */
+	public QueryResourceLimits withMaxCpuTime(Duration maxCpuTime) {
+		return new QueryResourceLimits(maxBufferedBytes, maxRows, maxCpuTime.toMillis());
+	}
+
+	/**
+	 * @return the maximum estimated number of buffered bytes, or {@code 0} for no limit
+	 */
+	public long getMaxBufferedBytes() {
+		return maxBufferedBytes;
+	}
+
+	/**
+	 * @return the maximum number of results, or {@code 0} for no limit
+	 */
+	public long getMaxRows() {
+		return maxRows;
+	}
+
+	/**
+	 * @return the maximum CPU time in milliseconds, or {@code 0} for no limit
+	 */
+	public long getMaxCpuTimeMillis() {
+		return maxCpuTimeMillis;
+	}
+
+	/**
+	 * @return {@code true} if none of the resources is limited
+	 */
+	public boolean isUnlimited() {
+		return maxBufferedBytes == 0 && maxRows == 0 && maxCpuTimeMillis == 0;
+	}
+
+	@Override
+	public String getValue() {
+		return maxBufferedBytes + "," + maxRows + "," + maxCpuTimeMillis;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof QueryResourceLimits)) {
+			return false;
+		}
+		QueryResourceLimits other = (QueryResourceLimits) o;
+		return maxBufferedBytes == other.maxBufferedBytes && maxRows == other.maxRows
+				&& maxCpuTimeMillis == other.maxCpuTimeMillis;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(maxBufferedBytes, maxRows, maxCpuTimeMillis);
+	}
+
+	@Override
+	public String toString() {
+		return "QueryResourceLimits{maxBufferedBytes=" + maxBufferedBytes + ", maxRows=" + maxRows
+				+ ", maxCpuTimeMillis=" + maxCpuTimeMillis + "}";
+	}
+}
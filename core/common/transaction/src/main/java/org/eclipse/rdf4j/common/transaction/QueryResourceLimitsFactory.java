@@ -0,0 +1,43 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.common.transaction;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Creates {@link QueryResourceLimits} from their {@link QueryResourceLimits#getValue() value}, so that limits can be
+ * passed to remote repositories.
+ */
+public class QueryResourceLimitsFactory implements TransactionSettingFactory {
+
+	@Override
+	public String getName() {
+		return QueryResourceLimits.class.getCanonicalName();
+	}
+
+	@Override
+	public Optional<TransactionSetting> getTransactionSetting(String value) {
+		String[] parts = value.split(",");
+		if (parts.length != 3) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(QueryResourceLimits.UNLIMITED
+					.withMaxBufferedBytes(Long.parseLong(parts[0].trim()))
+					.withMaxRows(Long.parseLong(parts[1].trim()))
+					.withMaxCpuTime(Duration.ofMillis(Long.parseLong(parts[2].trim()))));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
+	}
+
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client;
+
+import java.net.CookieManager;
+import java.net.ProxySelector;
+import java.net.http.HttpClient.Redirect;
+import java.net.http.HttpClient.Version;
+import java.time.Duration;
+
+import org.eclipse.rdf4j.http.client.util.JavaNetHttpClient;
+
+/**
+ * A Manager for HTTP sessions that executes requests with the HTTP/2 capable {@link java.net.http.HttpClient} of the
+ * JDK instead of a pool of HTTP/1.1 connections. Concurrent requests to the same server, as issued by federated queries
+ * or by many threads sharing a repository, are multiplexed as streams over a single connection, avoiding connection
+ * setup costs and head-of-line blocking. The client falls back to HTTP/1.1 for servers that do not support HTTP/2.
+ * <p>
+ * Use it by passing an instance to {@link SessionManagerDependent#setHttpClientSessionManager}, for example on a
+ * {@code SPARQLRepository} or {@code HTTPRepository}.
+ *
+ * @see JavaNetHttpClient
+ */
+public class Http2ClientSessionManager extends SharedHttpClientSessionManager {
+
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.client.http2.connectTimeout} for the connect timeout of the
+	 * default client, in milliseconds. Defaults to {@code 30000}.
+	 */
+	public static final String CONNECT_TIMEOUT_PROPERTY = "org.eclipse.rdf4j.client.http2.connectTimeout";
+
+	private final JavaNetHttpClient client;
+
+	/**
+	 * Creates a session manager with a default HTTP/2 client, which follows redirects, keeps cookies and uses the
+	 * default proxy settings.
+	 */
+	public Http2ClientSessionManager() {
+		this(createDefaultClient());
+	}
+
+	/**
+	 * Creates a session manager that executes requests with the supplied client, for example one with a custom
+	 * {@link javax.net.ssl.SSLContext}.
+	 *
+	 * @param client the client to execute requests with
+	 */
+	public Http2ClientSessionManager(java.net.http.HttpClient client) {
+		super();
+		this.client = new JavaNetHttpClient(client, getExecutorService());
+		setHttpClient(this.client);
+	}
+
+	/**
+	 * @return the JDK client that executes the requests of this session manager
+	 */
+	public java.net.http.HttpClient getJavaNetHttpClient() {
+		return client.getClient();
+	}
+
+	@Override
+	public void shutDown() {
+		try {
+			super.shutDown();
+		} finally {
+			client.close();
+		}
+	}
+
+	private static java.net.http.HttpClient createDefaultClient() {
+		java.net.http.HttpClient.Builder builder = java.net.http.HttpClient.newBuilder()
+				.version(Version.HTTP_2)
+				.followRedirects(Redirect.NORMAL)
+				.cookieHandler(new CookieManager())
+				.connectTimeout(Duration.ofMillis(Long.getLong(CONNECT_TIMEOUT_PROPERTY, 30_000)));
+		ProxySelector proxySelector = ProxySelector.getDefault();
+		if (proxySelector != null) {
+			builder.proxy(proxySelector);
+		}
+		return builder.build();
+	}
+}
@@ -40,6 +40,7 @@ import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.HttpClient;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
@@ -104,6 +105,14 @@ import org.slf4j.LoggerFactory;
  */
 public class RDF4JProtocolSession extends SPARQLProtocolSession {
 
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.http.client.compressUploads} for enabling gzip compression
+	 * of uploaded RDF data by default. Defaults to {@code false}.
+	 *
+	 * @see #setCompressUploads(boolean)
+	 */
+	public static final String COMPRESS_UPLOADS_PROPERTY = "org.eclipse.rdf4j.http.client.compressUploads";
+
 	/**
 	 * How long the client should wait before sending another PING to the server
 	 */
@@ -115,12 +124,16 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 
 	private String transactionURL;
 
+	private final ExecutorService executor;
+
 	private final ScheduledExecutorService pingScheduler;
 
 	private ScheduledFuture<?> ping;
 
 	private long pingDelay = PINGDELAY;
 
+	private volatile boolean compressUploads = Boolean.getBoolean(COMPRESS_UPLOADS_PROPERTY);
+
 	/**
 	 * @deprecated Use {@link #RDF4JProtocolSession(HttpClient, ExecutorService)} instead
 	 */
@@ -131,6 +144,7 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 
 	public RDF4JProtocolSession(HttpClient client, ExecutorService executor) {
 		super(client, executor);
+		this.executor = executor;
 
 		// we want to preserve bnode ids to allow RDF4J API methods to match
 		// blank nodes.
@@ -171,6 +185,27 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 		return serverURL;
 	}
 
+	/**
+	 * Sets whether RDF data uploaded by add and remove operations, inside and outside of transactions, is compressed
+	 * with gzip while it is streamed to the server. This reduces the transfer time of large uploads over slow links at
+	 * the cost of some CPU time on both ends. The RDF4J Server accepts compressed uploads, other servers may reject
+	 * them.
+	 *
+	 * @param compressUploads whether to compress uploads
+	 * @see #COMPRESS_UPLOADS_PROPERTY
+	 */
+	public void setCompressUploads(boolean compressUploads) {
+		this.compressUploads = compressUploads;
+	}
+
+	/**
+	 * @return whether uploaded RDF data is compressed
+	 * @see #setCompressUploads(boolean)
+	 */
+	public boolean isCompressUploads() {
+		return compressUploads;
+	}
+
 	public String getRepositoryURL() {
 		return this.getQueryURL();
 	}
@@ -1063,19 +1098,7 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 		try {
 
 			String baseLocation = useTransaction ? transactionURL : Protocol.getStatementsLocation(getQueryURL());
-			URIBuilder url = new URIBuilder(baseLocation);
-
-			// Set relevant query parameters
-			for (String encodedContext : Protocol.encodeContexts(contexts)) {
-				url.addParameter(Protocol.CONTEXT_PARAM_NAME, encodedContext);
-			}
-			if (baseURI != null && baseURI.trim().length() != 0) {
-				String encodedBaseURI = Protocol.encodeValue(SimpleValueFactory.getInstance().createIRI(baseURI));
-				url.setParameter(Protocol.BASEURI_PARAM_NAME, encodedBaseURI);
-			}
-			if (preserveNodeIds) {
-				url.setParameter(Protocol.PRESERVE_BNODE_ID_PARAM_NAME, "true");
-			}
+			URIBuilder url = createUploadURL(baseLocation, baseURI, preserveNodeIds, contexts);
 
 			if (useTransaction) {
 				if (action == null) {
@@ -1094,7 +1117,7 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 				}
 
 				// Set payload
-				method.setEntity(reqEntity);
+				method.setEntity(compressUploads ? new GzipCompressingEntity(reqEntity) : reqEntity);
 
 				// Send request
 				try {
@@ -1115,6 +1138,76 @@ public class RDF4JProtocolSession extends SPARQLProtocolSession {
 		pingTransaction();
 	}
 
+	/**
+	 * Opens a stream for adding data to the active transaction in a single request. In contrast to
+	 * {@link #addData(InputStream, String, RDFFormat, Resource...)}, the data does not need to be available up front:
+	 * it is sent to the server while it is written, and the server adds it to the transaction as it arrives. This
+	 * avoids a request per batch when large numbers of statements are added. Blank node identifiers are preserved.
+	 * <p>
+	 * The stream must be closed before any other operation is executed on the transaction, as the server processes the
+	 * operations of a transaction one by one.
+	 *
+	 * @param dataFormat the format of the data that will be written to the stream
+	 * @param contexts   the contexts to add the data to. If none are specified, statements are added to their own
+	 *                   context
+	 * @return a stream that uploads the written data to the active transaction
+	 * @throws IllegalStateException if there is no active transaction
+	 */
+	public TransactionUploadStream openAddStream(RDFFormat dataFormat, Resource... contexts) throws IOException {
+		Objects.requireNonNull(contexts,
+				"contexts argument may not be null; either the value should be cast to Resource or an empty array should be supplied");
+
+		String transactionURL = getTransactionURL();
+		if (transactionURL == null) {
+			throw new IllegalStateException("Transaction URL has not been set");
+		}
+
+		try {
+			URIBuilder url = createUploadURL(transactionURL, null, true, contexts);
+			url.setParameter(Protocol.ACTION_PARAM_NAME, Action.ADD.toString());
+
+			TransactionUploadStream stream = new TransactionUploadStream(
+					ContentType.parse(dataFormat.getDefaultMIMEType()));
+			HttpPut method = applyAdditionalHeaders(new HttpPut(url.build()));
+			HttpEntity entity = stream.getEntity();
+			method.setEntity(compressUploads ? new GzipCompressingEntity(entity) : entity);
+
+			stream.setRequest(executor.submit(() -> {
+				try {
+					executeNoContent(method);
+				} catch (RepositoryException | RDFParseException e) {
+					throw e;
+				} catch (RDF4JException e) {
+					throw new RepositoryException(e);
+				} finally {
+					method.reset();
+				}
+				return null;
+			}));
+			return stream;
+		} catch (URISyntaxException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	private URIBuilder createUploadURL(String baseLocation, String baseURI, boolean preserveNodeIds,
+			Resource... contexts) throws URISyntaxException {
+		URIBuilder url = new URIBuilder(baseLocation);
+
+		// Set relevant query parameters
+		for (String encodedContext : Protocol.encodeContexts(contexts)) {
+			url.addParameter(Protocol.CONTEXT_PARAM_NAME, encodedContext);
+		}
+		if (baseURI != null && baseURI.trim().length() != 0) {
+			String encodedBaseURI = Protocol.encodeValue(SimpleValueFactory.getInstance().createIRI(baseURI));
+			url.setParameter(Protocol.BASEURI_PARAM_NAME, encodedBaseURI);
+		}
+		if (preserveNodeIds) {
+			url.setParameter(Protocol.PRESERVE_BNODE_ID_PARAM_NAME, "true");
+		}
+		return url;
+	}
+
 	@Override
 	public void setUsernameAndPassword(String username, String password) {
 		checkServerURL();
@@ -0,0 +1,241 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ContentType;
+
+/**
+ * An {@link OutputStream} that is uploaded to the server as the body of a single, chunked transaction request while it
+ * is being written. Written data is handed over to the request in blocks, so that the server can process it
+ * incrementally, and the writer is blocked when the server falls behind. {@link #close()} completes the request and
+ * reports any error raised by the server.
+ * <p>
+ * Instances are not thread-safe.
+ *
+ * @see RDF4JProtocolSession#openAddStream(org.eclipse.rdf4j.rio.RDFFormat, org.eclipse.rdf4j.model.Resource...)
+ */
+public class TransactionUploadStream extends OutputStream {
+
+	private static final int BLOCK_SIZE = 64 * 1024;
+
+	private static final int MAX_PENDING_BLOCKS = 16;
+
+	/**
+	 * Marks the end of the data.
+	 */
+	private static final byte[] END = new byte[0];
+
+	/**
+	 * Makes the request fail instead of completing it.
+	 */
+	private static final byte[] ABORT = new byte[0];
+
+	private final BlockingQueue<byte[]> blocks = new ArrayBlockingQueue<>(MAX_PENDING_BLOCKS);
+
+	private final HttpEntity entity;
+
+	private Future<?> request;
+
+	private byte[] buffer = new byte[BLOCK_SIZE];
+
+	private int count;
+
+	private boolean closed;
+
+	TransactionUploadStream(ContentType contentType) {
+		AbstractHttpEntity entity = new BlockEntity();
+		entity.setContentType(contentType.toString());
+		entity.setChunked(true);
+		this.entity = entity;
+	}
+
+	/**
+	 * @return the request entity that sends the data written to this stream
+	 */
+	HttpEntity getEntity() {
+		return entity;
+	}
+
+	/**
+	 * @param request the executing request that sends the {@link #getEntity() entity}
+	 */
+	void setRequest(Future<?> request) {
+		this.request = request;
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		ensureOpen();
+		buffer[count++] = (byte) b;
+		if (count == buffer.length) {
+			sendBuffer();
+		}
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		ensureOpen();
+		while (len > 0) {
+			int n = Math.min(len, buffer.length - count);
+			System.arraycopy(b, off, buffer, count, n);
+			count += n;
+			off += n;
+			len -= n;
+			if (count == buffer.length) {
+				sendBuffer();
+			}
+		}
+	}
+
+	/**
+	 * Sends the remaining data and waits for the server to process it.
+	 *
+	 * @throws IOException if the data could not be sent. Errors reported by the server are thrown as the
+	 *                     {@link org.eclipse.rdf4j.repository.RepositoryException} or
+	 *                     {@link org.eclipse.rdf4j.rio.RDFParseException} that the corresponding single-request upload
+	 *                     would have thrown.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		if (count > 0) {
+			sendBuffer();
+		}
+		enqueue(END);
+		closed = true;
+		awaitRequest();
+	}
+
+	/**
+	 * Cancels the upload. The server discards the request, but may have already processed part of the data.
+	 */
+	public void abort() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		blocks.clear();
+		blocks.offer(ABORT);
+		request.cancel(true);
+	}
+
+	private void ensureOpen() throws IOException {
+		if (closed) {
+			throw new IOException("Stream is closed");
+		}
+	}
+
+	private void sendBuffer() throws IOException {
+		enqueue(count == buffer.length ? buffer : Arrays.copyOf(buffer, count));
+		buffer = new byte[BLOCK_SIZE];
+		count = 0;
+	}
+
+	private void enqueue(byte[] block) throws IOException {
+		try {
+			while (!blocks.offer(block, 100, TimeUnit.MILLISECONDS)) {
+				if (request.isDone()) {
+					// the server ended the request before it consumed all data
+					closed = true;
+					awaitRequest();
+					throw new IOException("Upload ended before all data was sent");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			abort();
+			throw new InterruptedIOException("Interrupted while uploading data");
+		}
+	}
+
+	private void awaitRequest() throws IOException {
+		try {
+			request.get();
+		} catch (CancellationException e) {
+			throw new IOException("Upload was aborted", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			request.cancel(true);
+			throw new InterruptedIOException("Interrupted while waiting for the upload to complete");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	/**
+	 * Writes the blocks handed over by the stream to the request body, until the end of the data.
+	 */
+	private class BlockEntity extends AbstractHttpEntity {
+
+		@Override
+		public boolean isRepeatable() {
+			return false;
+		}
+
+		@Override
+		public long getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public boolean isStreaming() {
+			return true;
+		}
+
+		@Override
+		public InputStream getContent() {
+			throw new UnsupportedOperationException("Entity can only be written");
+		}
+
+		@Override
+		public void writeTo(OutputStream out) throws IOException {
+			try {
+				while (true) {
+					byte[] block = blocks.take();
+					if (block == END) {
+						break;
+					} else if (block == ABORT) {
+						throw new IOException("Upload was aborted");
+					}
+					out.write(block);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Upload was aborted");
+			}
+			out.flush();
+		}
+	}
+}
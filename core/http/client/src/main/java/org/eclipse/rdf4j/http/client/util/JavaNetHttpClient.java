@@ -0,0 +1,434 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpRequest.BodyPublisher;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpVersion;
+import org.apache.http.ProtocolVersion;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.Configurable;
+import org.apache.http.client.methods.HttpExecutionAware;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.conn.ClientConnectionManager;
+import org.apache.http.entity.BasicHttpEntity;
+import org.apache.http.impl.EnglishReasonPhraseCatalog;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.CoreConnectionPNames;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * A {@link CloseableHttpClient} that executes requests with a {@link java.net.http.HttpClient}. This makes the HTTP/2
+ * support of the JDK client, with many concurrent requests multiplexed over a single connection per server, available
+ * to the protocol sessions, which are written against the Apache HttpClient API.
+ * <p>
+ * Request bodies are streamed and response bodies are consumed as they arrive. Socket timeouts set through the request
+ * parameters or {@link RequestConfig} are applied as the time to wait for the response headers, and preemptive basic
+ * authentication is applied from the credentials in the {@link HttpClientContext}. Like the Apache client, gzip and
+ * deflate compressed responses are requested and transparently decoded. Connection pooling, retries, cookies and
+ * redirects are handled by the JDK client.
+ *
+ * @see org.eclipse.rdf4j.http.client.Http2ClientSessionManager
+ */
+@SuppressWarnings("deprecation")
+public class JavaNetHttpClient extends CloseableHttpClient {
+
+	/**
+	 * Request body sizes up to this size are buffered, larger or unknown sizes are streamed.
+	 */
+	private static final int BUFFERED_BODY_SIZE = 64 * 1024;
+
+	private static final int STREAMED_CHUNK_SIZE = 16 * 1024;
+
+	/**
+	 * Headers the JDK client sets itself and does not allow to be set on a request.
+	 */
+	private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host",
+			"upgrade", "keep-alive", "transfer-encoding", "te");
+
+	private final java.net.http.HttpClient client;
+
+	private final Executor executor;
+
+	/**
+	 * @param client   the JDK client to execute requests with
+	 * @param executor the executor used to stream request bodies
+	 */
+	public JavaNetHttpClient(java.net.http.HttpClient client, Executor executor) {
+		this.client = Objects.requireNonNull(client, "HTTP client was null");
+		this.executor = Objects.requireNonNull(executor, "Executor was null");
+	}
+
+	/**
+	 * @return the JDK client that executes the requests
+	 */
+	public java.net.http.HttpClient getClient() {
+		return client;
+	}
+
+	@Override
+	protected CloseableHttpResponse doExecute(HttpHost target, HttpRequest request, HttpContext context)
+			throws IOException {
+		HttpClientContext clientContext = HttpClientContext.adapt(context != null ? context : new HttpClientContext());
+		URI uri = resolve(target, request);
+
+		java.net.http.HttpRequest.Builder builder = java.net.http.HttpRequest.newBuilder(uri);
+		for (Header header : request.getAllHeaders()) {
+			if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+				builder.header(header.getName(), header.getValue());
+			}
+		}
+
+		HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+				? ((HttpEntityEnclosingRequest) request).getEntity()
+				: null;
+		if (entity != null) {
+			if (entity.getContentType() != null && !request.containsHeader(HttpHeaders.CONTENT_TYPE)) {
+				builder.header(HttpHeaders.CONTENT_TYPE, entity.getContentType().getValue());
+			}
+			if (entity.getContentEncoding() != null && !request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+				builder.header(HttpHeaders.CONTENT_ENCODING, entity.getContentEncoding().getValue());
+			}
+		}
+		builder.method(request.getRequestLine().getMethod(), createBodyPublisher(entity));
+
+		if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+			builder.header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+		}
+
+		if (!request.containsHeader(HttpHeaders.AUTHORIZATION)) {
+			String authorization = getBasicAuthorization(uri, clientContext);
+			if (authorization != null) {
+				builder.header(HttpHeaders.AUTHORIZATION, authorization);
+			}
+		}
+
+		int timeout = getSocketTimeout(request, clientContext);
+		if (timeout > 0) {
+			builder.timeout(Duration.ofMillis(timeout));
+		}
+
+		CompletableFuture<java.net.http.HttpResponse<InputStream>> future = client.sendAsync(builder.build(),
+				BodyHandlers.ofInputStream());
+		if (request instanceof HttpExecutionAware) {
+			((HttpExecutionAware) request).setCancellable(() -> future.cancel(true));
+		}
+
+		try {
+			return toResponse(future.get());
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for response from " + uri);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof HttpTimeoutException) {
+				SocketTimeoutException timeoutException = new SocketTimeoutException(cause.getMessage());
+				timeoutException.initCause(cause);
+				throw timeoutException;
+			} else if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new ClientProtocolException(cause);
+		} catch (CancellationException e) {
+			throw new InterruptedIOException("Request to " + uri + " was aborted");
+		}
+	}
+
+	private static URI resolve(HttpHost target, HttpRequest request) throws ClientProtocolException {
+		try {
+			URI uri = request instanceof HttpUriRequest ? ((HttpUriRequest) request).getURI()
+					: new URI(request.getRequestLine().getUri());
+			if (!uri.isAbsolute()) {
+				if (target == null) {
+					throw new ClientProtocolException("Request URI is not absolute: " + uri);
+				}
+				uri = new URI(target.toURI()).resolve(uri);
+			}
+			return uri;
+		} catch (URISyntaxException e) {
+			throw new ClientProtocolException(e);
+		}
+	}
+
+	private BodyPublisher createBodyPublisher(HttpEntity entity) throws IOException {
+		if (entity == null) {
+			return BodyPublishers.noBody();
+		}
+		long length = entity.getContentLength();
+		if (entity.isRepeatable() && length >= 0 && length <= BUFFERED_BODY_SIZE) {
+			return BodyPublishers.ofByteArray(EntityUtils.toByteArray(entity));
+		}
+		Flow.Publisher<ByteBuffer> publisher = subscriber -> {
+			SubmissionPublisher<ByteBuffer> submissionPublisher = new SubmissionPublisher<>(executor,
+					Flow.defaultBufferSize());
+			submissionPublisher.subscribe(subscriber);
+			executor.execute(() -> {
+				try (OutputStream out = new PublishingOutputStream(submissionPublisher)) {
+					entity.writeTo(out);
+				} catch (IOException | RuntimeException e) {
+					submissionPublisher.closeExceptionally(e);
+				}
+			});
+		};
+		return length >= 0 ? BodyPublishers.fromPublisher(publisher, length) : BodyPublishers.fromPublisher(publisher);
+	}
+
+	private static String getBasicAuthorization(URI uri, HttpClientContext context) {
+		CredentialsProvider credentialsProvider = context.getCredentialsProvider();
+		if (credentialsProvider == null) {
+			return null;
+		}
+		Credentials credentials = credentialsProvider.getCredentials(new AuthScope(uri.getHost(), uri.getPort()));
+		if (credentials == null || credentials.getUserPrincipal() == null) {
+			return null;
+		}
+		String password = credentials.getPassword() != null ? credentials.getPassword() : "";
+		String userPass = credentials.getUserPrincipal().getName() + ":" + password;
+		return "Basic " + Base64.getEncoder().encodeToString(userPass.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static int getSocketTimeout(HttpRequest request, HttpClientContext context) {
+		RequestConfig config = request instanceof Configurable ? ((Configurable) request).getConfig() : null;
+		if (config == null) {
+			config = context.getRequestConfig();
+		}
+		if (config != null && config.getSocketTimeout() > 0) {
+			return config.getSocketTimeout();
+		}
+		return request.getParams().getIntParameter(CoreConnectionPNames.SO_TIMEOUT, 0);
+	}
+
+	private static CloseableHttpResponse toResponse(java.net.http.HttpResponse<InputStream> response) {
+		ProtocolVersion version = response.version() == java.net.http.HttpClient.Version.HTTP_2
+				? new ProtocolVersion("HTTP", 2, 0)
+				: HttpVersion.HTTP_1_1;
+		int statusCode = response.statusCode();
+		String reason = EnglishReasonPhraseCatalog.INSTANCE.getReason(statusCode, Locale.ENGLISH);
+		Response result = new Response(new BasicStatusLine(version, statusCode, reason));
+
+		java.net.http.HttpHeaders headers = response.headers();
+		String contentEncoding = headers.firstValue(HttpHeaders.CONTENT_ENCODING)
+				.map(encoding -> encoding.trim().toLowerCase(Locale.ROOT))
+				.orElse(null);
+		boolean decode = "gzip".equals(contentEncoding) || "x-gzip".equals(contentEncoding)
+				|| "deflate".equals(contentEncoding);
+		for (Map.Entry<String, List<String>> header : headers.map().entrySet()) {
+			if (header.getKey().startsWith(":")) {
+				// HTTP/2 pseudo-header
+				continue;
+			}
+			if (decode && (header.getKey().equalsIgnoreCase(HttpHeaders.CONTENT_ENCODING)
+					|| header.getKey().equalsIgnoreCase(HttpHeaders.CONTENT_LENGTH))) {
+				// describe the decoded body, as the Apache client does
+				continue;
+			}
+			for (String value : header.getValue()) {
+				result.addHeader(header.getKey(), value);
+			}
+		}
+
+		BasicHttpEntity entity = new BasicHttpEntity();
+		InputStream body = response.body();
+		if (decode) {
+			entity.setContent(new LazyDecodingInputStream(body, !"deflate".equals(contentEncoding)));
+			entity.setContentLength(-1);
+		} else {
+			entity.setContent(body);
+			entity.setContentLength(headers.firstValueAsLong(HttpHeaders.CONTENT_LENGTH).orElse(-1));
+			headers.firstValue(HttpHeaders.CONTENT_ENCODING).ifPresent(entity::setContentEncoding);
+		}
+		headers.firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(entity::setContentType);
+		result.setEntity(entity);
+		return result;
+	}
+
+	@Override
+	public HttpParams getParams() {
+		return new BasicHttpParams();
+	}
+
+	@Override
+	public ClientConnectionManager getConnectionManager() {
+		throw new UnsupportedOperationException("Connections are managed by the java.net.http client");
+	}
+
+	/**
+	 * No-op, the JDK client releases its connections when it is no longer referenced.
+	 */
+	@Override
+	public void close() {
+	}
+
+	/**
+	 * A response whose {@link #close()} releases the response body, which cancels the stream if it was not fully
+	 * consumed.
+	 */
+	private static final class Response extends BasicHttpResponse implements CloseableHttpResponse {
+
+		Response(BasicStatusLine statusLine) {
+			super(statusLine);
+		}
+
+		@Override
+		public void close() throws IOException {
+			HttpEntity entity = getEntity();
+			if (entity != null) {
+				entity.getContent().close();
+			}
+		}
+	}
+
+	/**
+	 * Decodes a compressed response body. The decoder is created on first read, as reading the gzip header blocks until
+	 * the first bytes of the body arrive.
+	 */
+	private static final class LazyDecodingInputStream extends FilterInputStream {
+
+		private final boolean gzip;
+
+		private boolean decoding;
+
+		LazyDecodingInputStream(InputStream body, boolean gzip) {
+			super(body);
+			this.gzip = gzip;
+		}
+
+		private void startDecoding() throws IOException {
+			if (!decoding) {
+				decoding = true;
+				in = gzip ? new GZIPInputStream(in, 8192) : new InflaterInputStream(in);
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			startDecoding();
+			return super.read();
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			startDecoding();
+			return super.read(b, off, len);
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			startDecoding();
+			return super.skip(n);
+		}
+
+		@Override
+		public int available() throws IOException {
+			return decoding ? super.available() : 0;
+		}
+	}
+
+	/**
+	 * Hands the written bytes in chunks to a publisher, blocking while the subscriber is not ready to accept more.
+	 */
+	private static final class PublishingOutputStream extends OutputStream {
+
+		private final SubmissionPublisher<ByteBuffer> publisher;
+
+		private byte[] buffer = new byte[STREAMED_CHUNK_SIZE];
+
+		private int count;
+
+		PublishingOutputStream(SubmissionPublisher<ByteBuffer> publisher) {
+			this.publisher = publisher;
+		}
+
+		@Override
+		public void write(int b) {
+			if (count == buffer.length) {
+				flushBuffer();
+			}
+			buffer[count++] = (byte) b;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			while (len > 0) {
+				if (count == buffer.length) {
+					flushBuffer();
+				}
+				int n = Math.min(len, buffer.length - count);
+				System.arraycopy(b, off, buffer, count, n);
+				count += n;
+				off += n;
+				len -= n;
+			}
+		}
+
+		private void flushBuffer() {
+			if (count > 0) {
+				publisher.submit(ByteBuffer.wrap(buffer, 0, count));
+				buffer = new byte[STREAMED_CHUNK_SIZE];
+				count = 0;
+			}
+		}
+
+		@Override
+		public void close() {
+			flushBuffer();
+			publisher.close();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockserver.model.HttpRequest.request;
+import static org.mockserver.model.HttpResponse.response;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockserver.client.MockServerClient;
+import org.mockserver.junit.jupiter.MockServerExtension;
+import org.mockserver.model.HttpRequest;
+import org.mockserver.model.MediaType;
+
+/**
+ * Runs the {@link RDF4JProtocolSession} tests with sessions created by the {@link Http2ClientSessionManager}.
+ */
+@ExtendWith(MockServerExtension.class)
+public class Http2RDF4JProtocolSessionTest extends RDF4JProtocolSessionTest {
+
+	private Http2ClientSessionManager sessionManager;
+
+	@Override
+	RDF4JProtocolSession createProtocolSession() {
+		sessionManager = new Http2ClientSessionManager();
+		RDF4JProtocolSession session = sessionManager.createRDF4JProtocolSession(serverURL);
+		session.setRepository(Protocol.getRepositoryLocation(serverURL, repositoryID));
+		HashMap<String, String> additionalHeaders = new HashMap<>();
+		additionalHeaders.put("X-testing-header", "foobar");
+		session.setAdditionalHttpHeaders(additionalHeaders);
+		return session;
+	}
+
+	@AfterEach
+	public void tearDown() {
+		sessionManager.shutDown();
+	}
+
+	@Override
+	@Test
+	public void testConnectionTimeoutRetry(MockServerClient client) {
+		// 408 responses are not retried by the JDK client, it closes idle connections itself
+	}
+
+	@Override
+	@Test
+	public void testConnectionPoolTimeoutRetry(MockServerClient client) {
+		// 408 responses are not retried by the JDK client, it closes idle connections itself
+	}
+
+	@Test
+	public void testBasicAuthentication(MockServerClient client) throws Exception {
+		client.when(request().withMethod("GET").withPath("/rdf4j-server/repositories/test/size"))
+				.respond(response().withBody("3"));
+
+		getRDF4JSession().setUsernameAndPassword("user", "secret");
+
+		assertThat(getRDF4JSession().size()).isEqualTo(3);
+		client.verify(request()
+				.withPath("/rdf4j-server/repositories/test/size")
+				.withHeader("Authorization", "Basic "
+						+ Base64.getEncoder().encodeToString("user:secret".getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@Test
+	public void testStreamedUpload(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/rdf4j-server/repositories/test/statements"))
+				.respond(response().withStatusCode(204));
+
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			data.append("<urn:s").append(i).append("> <urn:p> \"o").append(i).append("\" .\n");
+		}
+
+		getRDF4JSession().upload(new ByteArrayInputStream(data.toString().getBytes(StandardCharsets.UTF_8)), null,
+				RDFFormat.NTRIPLES, false, false);
+
+		HttpRequest[] requests = client.retrieveRecordedRequests(
+				request().withMethod("POST").withPath("/rdf4j-server/repositories/test/statements"));
+		assertThat(requests).hasSize(1);
+		assertThat(requests[0].getBodyAsRawBytes()).isEqualTo(data.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testConcurrentQueries(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/rdf4j-server/repositories/test"))
+				.respond(response()
+						.withBody(readFileToString("repository-list.xml"))
+						.withContentType(MediaType.parse(TupleQueryResultFormat.SPARQL.getDefaultMIMEType())));
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Integer>> results = new ArrayList<>();
+			for (int i = 0; i < 32; i++) {
+				results.add(executor.submit(() -> {
+					QueryResultCollector collector = new QueryResultCollector();
+					sparqlSession.sendTupleQuery(QueryLanguage.SPARQL, "SELECT * WHERE { ?s ?p ?o }", null, null,
+							true, -1, collector);
+					return collector.getBindingSets().size();
+				}));
+			}
+			for (Future<Integer> result : results) {
+				assertThat(result.get()).isPositive();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
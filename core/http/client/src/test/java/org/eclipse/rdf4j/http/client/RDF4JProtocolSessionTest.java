@@ -11,14 +11,20 @@
 package org.eclipse.rdf4j.http.client;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.http.protocol.Protocol;
 import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.config.RepositoryConfig;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.helpers.StatementCollector;
@@ -27,6 +33,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.junit.jupiter.MockServerExtension;
 import org.mockserver.matchers.Times;
+import org.mockserver.model.BinaryBody;
 import org.mockserver.model.HttpRequest;
 import org.mockserver.model.MediaType;
 import org.mockserver.verify.VerificationTimes;
@@ -218,4 +225,96 @@ public class RDF4JProtocolSessionTest extends SPARQLProtocolSessionTest {
 				VerificationTimes.exactly(2)
 		);
 	}
+
+	@Test
+	public void testCompressedUpload(MockServerClient client) throws Exception {
+		client.when(request().withMethod("POST").withPath("/rdf4j-server/repositories/test/statements"))
+				.respond(response().withStatusCode(204));
+
+		String data = "<urn:s> <urn:p> <urn:o> .\n";
+		getRDF4JSession().setCompressUploads(true);
+		getRDF4JSession().upload(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), null,
+				RDFFormat.NTRIPLES, false, false);
+
+		HttpRequest[] requests = client.retrieveRecordedRequests(
+				request().withMethod("POST").withPath("/rdf4j-server/repositories/test/statements"));
+		assertThat(requests).hasSize(1);
+		assertThat(requests[0].getFirstHeader("Content-Encoding")).isEqualTo("gzip");
+		// the mock server decodes the body according to its content encoding
+		assertThat(requests[0].getBodyAsRawBytes()).isEqualTo(data.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testCompressedResponse(MockServerClient client) throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write("42".getBytes(StandardCharsets.UTF_8));
+		}
+		client.when(request().withMethod("GET").withPath("/rdf4j-server/repositories/test/size"))
+				.respond(response()
+						.withHeader("Content-Encoding", "gzip")
+						.withBody(BinaryBody.binary(compressed.toByteArray())));
+
+		assertThat(getRDF4JSession().size()).isEqualTo(42);
+		client.verify(request()
+				.withPath("/rdf4j-server/repositories/test/size")
+				.withHeader("Accept-Encoding", ".*gzip.*"));
+	}
+
+	@Test
+	public void testAddStream(MockServerClient client) throws Exception {
+		beginTransaction(client);
+		HttpRequest addRequest = request()
+				.withMethod("PUT")
+				.withPath("/rdf4j-server/repositories/test/transactions/1")
+				.withQueryStringParameter("action", "ADD");
+		client.when(addRequest).respond(response().withStatusCode(200));
+
+		StringBuilder data = new StringBuilder();
+		for (int i = 0; i < 10_000; i++) {
+			data.append("<urn:s").append(i).append("> <urn:p> \"").append(i).append("\" .\n");
+		}
+		byte[] bytes = data.toString().getBytes(StandardCharsets.UTF_8);
+
+		try (TransactionUploadStream stream = getRDF4JSession().openAddStream(RDFFormat.NTRIPLES)) {
+			for (int i = 0; i < bytes.length; i += 1000) {
+				stream.write(bytes, i, Math.min(1000, bytes.length - i));
+			}
+		}
+
+		HttpRequest[] requests = client.retrieveRecordedRequests(addRequest);
+		assertThat(requests).hasSize(1);
+		assertThat(requests[0].getFirstQueryStringParameter(Protocol.PRESERVE_BNODE_ID_PARAM_NAME)).isEqualTo("true");
+		assertThat(requests[0].getFirstHeader("Content-Type")).startsWith(RDFFormat.NTRIPLES.getDefaultMIMEType());
+		assertThat(requests[0].getBodyAsRawBytes()).isEqualTo(bytes);
+	}
+
+	@Test
+	public void testAddStreamReportsServerError(MockServerClient client) throws Exception {
+		beginTransaction(client);
+		client.when(request()
+				.withMethod("PUT")
+				.withPath("/rdf4j-server/repositories/test/transactions/1")
+				.withQueryStringParameter("action", "ADD"))
+				.respond(response().withStatusCode(500).withBody("Transaction handling error"));
+
+		TransactionUploadStream stream = getRDF4JSession().openAddStream(RDFFormat.NTRIPLES);
+		stream.write("<urn:s> <urn:p> <urn:o> .\n".getBytes(StandardCharsets.UTF_8));
+		assertThatThrownBy(stream::close).isInstanceOf(RepositoryException.class)
+				.hasMessageContaining("Transaction handling error");
+	}
+
+	@Test
+	public void testAddStreamRequiresTransaction() {
+		assertThatThrownBy(() -> getRDF4JSession().openAddStream(RDFFormat.NTRIPLES))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	private void beginTransaction(MockServerClient client) throws Exception {
+		String transactionStartUrl = Protocol.getTransactionsLocation(getRDF4JSession().getRepositoryURL());
+		client.when(request().withMethod("POST").withPath("/rdf4j-server/repositories/test/transactions"),
+				Times.once())
+				.respond(response().withStatusCode(201).withHeader("Location", transactionStartUrl + "/1"));
+		getRDF4JSession().beginTransaction(IsolationLevels.SNAPSHOT);
+	}
 }
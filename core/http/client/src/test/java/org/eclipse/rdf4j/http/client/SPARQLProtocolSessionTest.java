@@ -42,6 +42,7 @@ import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
 import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLStarResultsJSONWriter;
 import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLStarResultsXMLWriter;
 import org.eclipse.rdf4j.rio.RDFFormat;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -73,10 +74,18 @@ public class SPARQLProtocolSessionTest {
 
 	@BeforeEach
 	public void setUp(MockServerClient client) throws Exception {
+		// the mock server is shared by all tests of this class and its subclasses, and expectations that a test
+		// registers without a limit would otherwise also answer the requests of the following tests
+		client.reset();
 		serverURL = "http://localhost:" + client.getPort() + "/rdf4j-server";
 		sparqlSession = createProtocolSession();
 	}
 
+	@AfterEach
+	public void tearDown() {
+		sparqlSession.close();
+	}
+
 	@Test
 	public void testConnectionTimeoutRetry(MockServerClient client) throws Exception {
 		// Simulate that the server wants to close the connection after idle timeout
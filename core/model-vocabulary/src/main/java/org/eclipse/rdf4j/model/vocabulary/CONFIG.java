@@ -277,6 +277,11 @@ public class CONFIG {
 		 * <var>tag:rdf4j.org,2023:config/native.namespaceIDCacheSize</var>
 		 */
 		public final static IRI namespaceIDCacheSize = Vocabularies.createIRI(NAMESPACE, "native.namespaceIDCacheSize");
+
+		/**
+		 * <var>tag:rdf4j.org,2023:config/native.flushWhileReading</var>
+		 */
+		public final static IRI flushWhileReading = Vocabularies.createIRI(NAMESPACE, "native.flushWhileReading");
 	}
 
 	/**
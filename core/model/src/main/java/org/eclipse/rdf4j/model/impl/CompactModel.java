@@ -0,0 +1,736 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Memory efficient implementation of the <var>{@link Model}</var> interface.
+ * <p>
+ * Every distinct value is stored once in a dictionary that assigns it an integer id, and every statement is stored as
+ * four ids in a single <code>int</code> array, in the order in which the statements were added. Statements are looked
+ * up through open-addressing hash tables of ints rather than through hash sets of objects, so this implementation needs
+ * a fraction of the memory of a {@link LinkedHashModel}. The {@link Statement} objects returned by this model are
+ * created when they are iterated over.
+ * <p>
+ * A filter with a complete statement uses a hash table of all statements. For other filters an index of the statements
+ * of each value is built for every position, subject, predicate, object or context, the first time that a filter uses
+ * that position. When multiple terms are provided in a filter the index, of the term that reduces the possible
+ * {@link Statement}s the most, is used and a sequential scan is used to filter additional terms. Removed statements are
+ * only marked as removed, and are dropped once they outnumber the statements in the model and another statement is
+ * added.
+ * <p>
+ * <b>Note that this implementation is not synchronized.</b> If multiple threads access a model concurrently, and at
+ * least one of the threads modifies the model, it must be synchronized externally. This is typically accomplished by
+ * synchronizing on some object that naturally encapsulates the model. If no such object exists, the set should be
+ * "wrapped" using the * Models.synchronizedModel method.
+ * </p>
+ */
+public class CompactModel extends AbstractModel {
+
+	private static final long serialVersionUID = 4129620845723087314L;
+
+	private static final Resource[] NULL_CTX = new Resource[] { null };
+
+	private static final int[] NO_SLOTS = new int[0];
+
+	/**
+	 * The positions of the ids of a statement in {@link #quads}. The id 0 stands for the default graph in the context
+	 * position, and marks a removed statement in the subject position.
+	 */
+	private static final int SUBJECT = 0, PREDICATE = 1, OBJECT = 2, CONTEXT = 3;
+
+	/**
+	 * Marks an entry of {@link #statementTable} whose statement was removed.
+	 */
+	private static final int REMOVED = -1;
+
+	private static final int MIN_CAPACITY = 16;
+
+	final Set<Namespace> namespaces = new LinkedHashSet<>();
+
+	/**
+	 * The values by id. The id 0 is reserved for the default graph.
+	 */
+	private transient Value[] values;
+
+	private transient int valueCount;
+
+	/**
+	 * The ids of the values, in an open-addressing hash table on the hash code of the value. Empty entries are 0.
+	 */
+	private transient int[] valueTable;
+
+	/**
+	 * The subject, predicate, object and context id of every statement slot.
+	 */
+	private transient int[] quads;
+
+	private transient int slotCount;
+
+	private transient int size;
+
+	/**
+	 * The slots of the statements plus one, in an open-addressing hash table on the ids of the statement. Empty entries
+	 * are 0.
+	 */
+	private transient int[] statementTable;
+
+	private transient int usedStatementEntries;
+
+	/**
+	 * The slots of the statements of every value id, for each position, or {@code null} if the position is not indexed
+	 * yet. The slots are in ascending order and may include removed statements.
+	 */
+	private transient int[][][] postings;
+
+	private transient int[][] postingSizes;
+
+	private transient int modCount;
+
+	public CompactModel() {
+		this(128);
+	}
+
+	public CompactModel(Model model) {
+		this(model.getNamespaces(), model.size());
+		addAll(model);
+	}
+
+	public CompactModel(Collection<? extends Statement> c) {
+		this(c.size());
+		addAll(c);
+	}
+
+	public CompactModel(int size) {
+		super();
+		init(size);
+	}
+
+	public CompactModel(Set<Namespace> namespaces, Collection<? extends Statement> c) {
+		this(c);
+		this.namespaces.addAll(namespaces);
+	}
+
+	public CompactModel(Set<Namespace> namespaces) {
+		this();
+		this.namespaces.addAll(namespaces);
+	}
+
+	public CompactModel(Set<Namespace> namespaces, int size) {
+		this(size);
+		this.namespaces.addAll(namespaces);
+	}
+
+	@Override
+	public Optional<Namespace> getNamespace(String prefix) {
+		for (Namespace nextNamespace : namespaces) {
+			if (prefix.equals(nextNamespace.getPrefix())) {
+				return Optional.of(nextNamespace);
+			}
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public Set<Namespace> getNamespaces() {
+		return namespaces;
+	}
+
+	@Override
+	public Namespace setNamespace(String prefix, String name) {
+		removeNamespace(prefix);
+		Namespace result = new SimpleNamespace(prefix, name);
+		namespaces.add(result);
+		return result;
+	}
+
+	@Override
+	public void setNamespace(Namespace namespace) {
+		removeNamespace(namespace.getPrefix());
+		namespaces.add(namespace);
+	}
+
+	@Override
+	public Optional<Namespace> removeNamespace(String prefix) {
+		Optional<Namespace> result = getNamespace(prefix);
+		result.ifPresent(namespace -> namespaces.remove(namespace));
+		return result;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public boolean add(Statement statement) {
+		return add(statement.getSubject(), statement.getPredicate(), statement.getObject(),
+				statement.getContext());
+	}
+
+	@Override
+	public boolean add(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		if (subj == null || pred == null || obj == null) {
+			throw new UnsupportedOperationException("Incomplete statement");
+		}
+		Resource[] ctxs = notNull(contexts);
+		if (ctxs.length == 0) {
+			ctxs = NULL_CTX;
+		}
+		boolean changed = false;
+		for (Resource ctx : ctxs) {
+			changed |= add(subj, pred, obj, ctx);
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		init(MIN_CAPACITY);
+		modCount++;
+	}
+
+	@Override
+	public Iterator<Statement> iterator() {
+		return matchPattern(null, null, null);
+	}
+
+	@Override
+	public boolean contains(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		return matchPattern(subj, pred, obj, contexts).hasNext();
+	}
+
+	@Override
+	public boolean remove(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		CompactIterator iter = matchPattern(subj, pred, obj, contexts);
+		boolean changed = false;
+		int slot;
+		while ((slot = iter.nextSlot()) >= 0) {
+			removeSlot(slot);
+			iter.expectedModCount = modCount;
+			changed = true;
+		}
+		return changed;
+	}
+
+	@Override
+	public Model filter(final Resource subj, final IRI pred, final Value obj, final Resource... contexts) {
+		return new FilteredModel(this, subj, pred, obj, contexts) {
+
+			private static final long serialVersionUID = -3834026632361358191L;
+
+			@Override
+			public Iterator<Statement> iterator() {
+				return matchPattern(subj, pred, obj, contexts);
+			}
+
+			@Override
+			protected void removeFilteredTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+					Resource... contexts) {
+				CompactModel.this.removeTermIteration(iter, subj, pred, obj, contexts);
+			}
+		};
+	}
+
+	@Override
+	public void removeTermIteration(Iterator<Statement> iter, Resource subj, IRI pred, Value obj,
+			Resource... contexts) {
+		remove(subj, pred, obj, contexts);
+		if (iter instanceof CompactIterator) {
+			// removed statements are skipped, so the iteration can go on
+			((CompactIterator) iter).expectedModCount = modCount;
+		}
+	}
+
+	private void init(int capacity) {
+		capacity = Math.max(capacity, MIN_CAPACITY);
+		values = new Value[capacity];
+		valueCount = 1;
+		valueTable = new int[tableSize(capacity)];
+		quads = new int[capacity * 4];
+		slotCount = 0;
+		size = 0;
+		statementTable = new int[tableSize(capacity)];
+		usedStatementEntries = 0;
+		postings = new int[4][][];
+		postingSizes = new int[4][];
+	}
+
+	private boolean add(Resource subj, IRI pred, Value obj, Resource ctx) {
+		if (slotCount - size > size && slotCount - size >= MIN_CAPACITY) {
+			compact();
+		}
+		int s = getOrAddId(subj);
+		int p = getOrAddId(pred);
+		int o = getOrAddId(obj);
+		int c = ctx == null ? 0 : getOrAddId(ctx);
+
+		int mask = statementTable.length - 1;
+		int free = -1;
+		int i = hashQuad(s, p, o, c) & mask;
+		for (int entry; (entry = statementTable[i]) != 0; i = (i + 1) & mask) {
+			if (entry == REMOVED) {
+				if (free < 0) {
+					free = i;
+				}
+			} else if (matches(entry - 1, s, p, o, c)) {
+				return false;
+			}
+		}
+		if (free < 0) {
+			free = i;
+			usedStatementEntries++;
+		}
+
+		if (slotCount * 4 == quads.length) {
+			quads = Arrays.copyOf(quads, quads.length * 2);
+		}
+		int slot = slotCount++;
+		quads[slot * 4 + SUBJECT] = s;
+		quads[slot * 4 + PREDICATE] = p;
+		quads[slot * 4 + OBJECT] = o;
+		quads[slot * 4 + CONTEXT] = c;
+		statementTable[free] = slot + 1;
+		size++;
+		modCount++;
+
+		if (usedStatementEntries * 2 > statementTable.length) {
+			rehashStatements();
+		}
+		for (int position = SUBJECT; position <= CONTEXT; position++) {
+			if (postings[position] != null) {
+				addPosting(position, quads[slot * 4 + position], slot);
+			}
+		}
+		return true;
+	}
+
+	private void removeSlot(int slot) {
+		int offset = slot * 4;
+		int mask = statementTable.length - 1;
+		int i = hashQuad(quads[offset + SUBJECT], quads[offset + PREDICATE], quads[offset + OBJECT],
+				quads[offset + CONTEXT]) & mask;
+		while (statementTable[i] != slot + 1) {
+			i = (i + 1) & mask;
+		}
+		statementTable[i] = REMOVED;
+		// the slot stays in the indexes, where it is skipped
+		quads[offset + SUBJECT] = 0;
+		size--;
+		modCount++;
+	}
+
+	/**
+	 * Drops the slots of removed statements and the values that are no longer used, and rebuilds the tables.
+	 */
+	private void compact() {
+		int[] newIds = new int[valueCount];
+		Value[] newValues = new Value[Math.max(valueCount, MIN_CAPACITY)];
+		int newValueCount = 1;
+		int newSlotCount = 0;
+		for (int slot = 0; slot < slotCount; slot++) {
+			int offset = slot * 4;
+			if (quads[offset + SUBJECT] == 0) {
+				continue;
+			}
+			int newOffset = newSlotCount++ * 4;
+			for (int position = SUBJECT; position <= CONTEXT; position++) {
+				int id = quads[offset + position];
+				if (id != 0) {
+					if (newIds[id] == 0) {
+						newIds[id] = newValueCount;
+						newValues[newValueCount++] = values[id];
+					}
+					id = newIds[id];
+				}
+				quads[newOffset + position] = id;
+			}
+		}
+		values = newValues;
+		valueCount = newValueCount;
+		slotCount = newSlotCount;
+		quads = Arrays.copyOf(quads, Math.max(slotCount * 2, MIN_CAPACITY) * 4);
+		postings = new int[4][][];
+		postingSizes = new int[4][];
+		modCount++;
+
+		valueTable = new int[tableSize(valueCount)];
+		int mask = valueTable.length - 1;
+		for (int id = 1; id < valueCount; id++) {
+			int i = hash(values[id].hashCode()) & mask;
+			while (valueTable[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			valueTable[i] = id;
+		}
+		rehashStatements();
+	}
+
+	private void rehashStatements() {
+		statementTable = new int[tableSize(size)];
+		usedStatementEntries = 0;
+		int mask = statementTable.length - 1;
+		for (int slot = 0; slot < slotCount; slot++) {
+			int offset = slot * 4;
+			if (quads[offset + SUBJECT] == 0) {
+				continue;
+			}
+			int i = hashQuad(quads[offset + SUBJECT], quads[offset + PREDICATE], quads[offset + OBJECT],
+					quads[offset + CONTEXT]) & mask;
+			while (statementTable[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			statementTable[i] = slot + 1;
+			usedStatementEntries++;
+		}
+	}
+
+	/**
+	 * @return the id of the value, or -1 if the value does not occur in this model
+	 */
+	private int getId(Value value) {
+		if (value == null) {
+			return 0;
+		}
+		int mask = valueTable.length - 1;
+		for (int i = hash(value.hashCode()) & mask, id; (id = valueTable[i]) != 0; i = (i + 1) & mask) {
+			if (values[id].equals(value)) {
+				return id;
+			}
+		}
+		return -1;
+	}
+
+	private int getOrAddId(Value value) {
+		int mask = valueTable.length - 1;
+		int i = hash(value.hashCode()) & mask;
+		for (int id; (id = valueTable[i]) != 0; i = (i + 1) & mask) {
+			if (values[id].equals(value)) {
+				return id;
+			}
+		}
+		if (valueCount == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		int id = valueCount++;
+		values[id] = value;
+		valueTable[i] = id;
+		if (valueCount * 2 > valueTable.length) {
+			valueTable = new int[valueTable.length * 2];
+			mask = valueTable.length - 1;
+			for (int v = 1; v < valueCount; v++) {
+				int j = hash(values[v].hashCode()) & mask;
+				while (valueTable[j] != 0) {
+					j = (j + 1) & mask;
+				}
+				valueTable[j] = v;
+			}
+		}
+		return id;
+	}
+
+	private void buildIndex(int position) {
+		int[] sizes = new int[values.length];
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (quads[slot * 4 + SUBJECT] != 0) {
+				sizes[quads[slot * 4 + position]]++;
+			}
+		}
+		int[][] lists = new int[values.length][];
+		for (int id = 0; id < valueCount; id++) {
+			if (sizes[id] > 0) {
+				lists[id] = new int[sizes[id]];
+				sizes[id] = 0;
+			}
+		}
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (quads[slot * 4 + SUBJECT] != 0) {
+				int id = quads[slot * 4 + position];
+				lists[id][sizes[id]++] = slot;
+			}
+		}
+		postings[position] = lists;
+		postingSizes[position] = sizes;
+	}
+
+	private void addPosting(int position, int id, int slot) {
+		int[][] lists = postings[position];
+		int[] sizes = postingSizes[position];
+		if (id >= lists.length) {
+			postings[position] = lists = Arrays.copyOf(lists, values.length);
+			postingSizes[position] = sizes = Arrays.copyOf(sizes, values.length);
+		}
+		int[] list = lists[id];
+		if (list == null) {
+			list = lists[id] = new int[2];
+		} else if (sizes[id] == list.length) {
+			list = lists[id] = Arrays.copyOf(list, list.length * 2);
+		}
+		list[sizes[id]++] = slot;
+	}
+
+	private CompactIterator matchPattern(Resource subj, IRI pred, Value obj, Resource... contexts) {
+		contexts = notNull(contexts);
+		int s = subj == null ? 0 : getId(subj);
+		int p = pred == null ? 0 : getId(pred);
+		int o = obj == null ? 0 : getId(obj);
+		int[] c = null;
+		if (contexts.length > 0) {
+			c = new int[contexts.length];
+			int n = 0;
+			for (Resource context : contexts) {
+				int id = getId(context);
+				if (id >= 0) {
+					c[n++] = id;
+				}
+			}
+			c = Arrays.copyOf(c, n);
+		}
+		if (s < 0 || p < 0 || o < 0 || c != null && c.length == 0) {
+			return new CompactIterator(NO_SLOTS, 0, s, p, o, c);
+		}
+		if (s > 0 && p > 0 && o > 0 && c != null && c.length == 1) {
+			int slot = find(s, p, o, c[0]);
+			return slot < 0 ? new CompactIterator(NO_SLOTS, 0, s, p, o, c)
+					: new CompactIterator(new int[] { slot }, 1, s, p, o, c);
+		}
+
+		int[] candidates = null;
+		int candidateCount = slotCount;
+		int[] ids = { s, p, o, c != null && c.length == 1 ? c[0] : -1 };
+		for (int position = SUBJECT; position <= CONTEXT; position++) {
+			int id = ids[position];
+			if (id > 0 || position == CONTEXT && id == 0) {
+				if (postings[position] == null) {
+					buildIndex(position);
+				}
+				int[][] lists = postings[position];
+				int count = id < lists.length ? postingSizes[position][id] : 0;
+				if (count < candidateCount || candidates == null) {
+					candidates = count == 0 ? NO_SLOTS : lists[id];
+					candidateCount = count;
+				}
+			}
+		}
+		return new CompactIterator(candidates, candidateCount, s, p, o, c);
+	}
+
+	/**
+	 * @return the slot of the statement, or -1 if the statement is not in this model
+	 */
+	private int find(int s, int p, int o, int c) {
+		int mask = statementTable.length - 1;
+		for (int i = hashQuad(s, p, o, c) & mask, entry; (entry = statementTable[i]) != 0; i = (i + 1) & mask) {
+			if (entry != REMOVED && matches(entry - 1, s, p, o, c)) {
+				return entry - 1;
+			}
+		}
+		return -1;
+	}
+
+	private boolean matches(int slot, int s, int p, int o, int c) {
+		int offset = slot * 4;
+		return quads[offset + SUBJECT] == s && quads[offset + PREDICATE] == p && quads[offset + OBJECT] == o
+				&& quads[offset + CONTEXT] == c;
+	}
+
+	private Statement statement(int slot) {
+		int offset = slot * 4;
+		return SimpleValueFactory.getInstance()
+				.createStatement((Resource) values[quads[offset + SUBJECT]], (IRI) values[quads[offset + PREDICATE]],
+						values[quads[offset + OBJECT]], (Resource) values[quads[offset + CONTEXT]]);
+	}
+
+	private Resource[] notNull(Resource[] contexts) {
+		if (contexts == null) {
+			return new Resource[] { null };
+		}
+		return contexts;
+	}
+
+	private static int tableSize(int capacity) {
+		// keep the tables at most half full
+		return Math.max(Integer.highestOneBit(Math.max(capacity, MIN_CAPACITY) * 2 - 1) << 1, MIN_CAPACITY);
+	}
+
+	private static int hashQuad(int s, int p, int o, int c) {
+		return hash(((s * 31 + p) * 31 + o) * 31 + c);
+	}
+
+	private static int hash(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	private class CompactIterator implements Iterator<Statement> {
+
+		/**
+		 * The slots to check, or {@code null} to check all slots.
+		 */
+		private final int[] candidates;
+
+		private final int candidateCount;
+
+		private final int subj;
+
+		private final int pred;
+
+		private final int obj;
+
+		private final int[] contexts;
+
+		private int position;
+
+		private int next = -1;
+
+		private int last = -1;
+
+		int expectedModCount = modCount;
+
+		/**
+		 * @param subj     the subject id, or 0 for any subject
+		 * @param pred     the predicate id, or 0 for any predicate
+		 * @param obj      the object id, or 0 for any object
+		 * @param contexts the context ids, or {@code null} for any context
+		 */
+		CompactIterator(int[] candidates, int candidateCount, int subj, int pred, int obj, int[] contexts) {
+			this.candidates = candidates;
+			this.candidateCount = candidateCount;
+			this.subj = subj;
+			this.pred = pred;
+			this.obj = obj;
+			this.contexts = contexts;
+		}
+
+		@Override
+		public boolean hasNext() {
+			// an iterator that is exhausted stays exhausted
+			if (next < 0 && position < candidateCount) {
+				checkForComodification();
+				next = findNext();
+			}
+			return next >= 0;
+		}
+
+		@Override
+		public Statement next() {
+			int slot = nextSlot();
+			if (slot < 0) {
+				throw new NoSuchElementException();
+			}
+			return statement(last = slot);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+			removeSlot(last);
+			last = -1;
+			expectedModCount = modCount;
+		}
+
+		/**
+		 * @return the slot of the next matching statement, or -1 if there is none
+		 */
+		int nextSlot() {
+			checkForComodification();
+			if (!hasNext()) {
+				return -1;
+			}
+			int slot = next;
+			next = -1;
+			return slot;
+		}
+
+		private int findNext() {
+			while (position < candidateCount) {
+				int slot = candidates == null ? position++ : candidates[position++];
+				int offset = slot * 4;
+				if (quads[offset + SUBJECT] != 0 && (subj == 0 || quads[offset + SUBJECT] == subj)
+						&& (pred == 0 || quads[offset + PREDICATE] == pred)
+						&& (obj == 0 || quads[offset + OBJECT] == obj) && matchesContext(quads[offset + CONTEXT])) {
+					return slot;
+				}
+			}
+			return -1;
+		}
+
+		private boolean matchesContext(int context) {
+			if (contexts == null) {
+				return true;
+			}
+			for (int c : contexts) {
+				if (c == context) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	private void writeObject(ObjectOutputStream s) throws IOException {
+		// Write out any hidden serialization magic
+		s.defaultWriteObject();
+		// Write in size
+		s.writeInt(size);
+		// Write in all elements
+		for (int slot = 0; slot < slotCount; slot++) {
+			if (quads[slot * 4 + SUBJECT] != 0) {
+				s.writeObject(statement(slot));
+			}
+		}
+	}
+
+	private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+		// Read in any hidden serialization magic
+		s.defaultReadObject();
+		// Read in size
+		int size = s.readInt();
+		init(size);
+		// Read in all elements
+		for (int i = 0; i < size; i++) {
+			Statement st = (Statement) s.readObject();
+			add(st);
+		}
+	}
+}
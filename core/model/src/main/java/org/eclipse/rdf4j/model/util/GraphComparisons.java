@@ -24,7 +24,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -75,10 +74,11 @@ class GraphComparisons {
 	 * are considered isomorphic if for each of the graphs in one model, an isomorphic graph exists in the other model,
 	 * and the context identifiers of these graphs are identical.
 	 *
-	 * @implNote The algorithm used by this comparison is a depth-first search for an iso-canonical blank node mapping
-	 *           for each model, and using that as a basis for comparison. The algorithm is described in detail in:
-	 *           Hogan, A. (2017). Canonical forms for isomorphic and equivalent RDF graphs: algorithms for leaning and
-	 *           labelling blank nodes. ACM Transactions on the Web (TWEB), 11(4), 1-62.
+	 * @implNote Each graph is compared by {@link GraphIsomorphism}, which refines the colours of the blank nodes of
+	 *           both graphs together and searches for a mapping between them. Blank node context identifiers are
+	 *           matched by a depth-first search for an iso-canonical blank node mapping for each model, as described
+	 *           in: Hogan, A. (2017). Canonical forms for isomorphic and equivalent RDF graphs: algorithms for leaning
+	 *           and labelling blank nodes. ACM Transactions on the Web (TWEB), 11(4), 1-62.
 	 * @see <a href="http://www.w3.org/TR/rdf11-concepts/#graph-isomorphism">RDF Concepts &amp; Abstract Syntax, section
 	 *      3.6 (Graph Comparison)</a>
 	 * @see <a href="http://aidanhogan.com/docs/rdf-canonicalisation.pdf">Hogan, A. (2017). Canonical forms for
@@ -133,9 +133,7 @@ class GraphComparisons {
 					if (contextInModel1.size() != contextInModel2.size()) {
 						return false;
 					}
-					final Model canonicalizedContext1 = isoCanonicalize(contextInModel1);
-					final Model canonicalizedContext2 = isoCanonicalize(contextInModel2);
-					if (!canonicalizedContext1.equals(canonicalizedContext2)) {
+					if (!isomorphicSingleContext(contextInModel1, contextInModel2)) {
 						return false;
 					}
 				}
@@ -148,42 +146,7 @@ class GraphComparisons {
 	}
 
 	private static boolean isomorphicSingleContext(Model model1, Model model2) {
-		final Map<BNode, HashCode> mapping1 = getIsoCanonicalMapping(model1);
-		if (mapping1.isEmpty()) {
-			// no blank nodes in model1 - simple collection equality will do
-			return model1.equals(model2);
-		}
-		final Map<BNode, HashCode> mapping2 = getIsoCanonicalMapping(model2);
-
-		if (mappingsIncompatible(mapping1, mapping2)) {
-			return false;
-		}
-
-		// Compatible blank node mapping found. We need to check that statements not involving blank nodes are equal in
-		// both models.
-		Optional<Statement> missingInModel2 = model1.stream()
-				.filter(st -> !(st.getSubject().isBNode() || st.getObject().isBNode()
-						|| st.getContext() instanceof BNode))
-				.filter(st -> !model2.contains(st))
-				.findAny();
-
-		// Because we have previously already checked that the models are the same size, we don't have to check both
-		// ways to establish model equality.
-		return !missingInModel2.isPresent();
-	}
-
-	private static boolean mappingsIncompatible(Map<BNode, HashCode> mapping1, Map<BNode, HashCode> mapping2) {
-		if (mapping1.size() != mapping2.size()) {
-			return true;
-		}
-		Set<HashCode> values1 = new HashSet<>(mapping1.values());
-		Set<HashCode> values2 = new HashSet<>(mapping2.values());
-
-		if (!(values1.equals(values2))) {
-			return true;
-		}
-
-		return false;
+		return GraphIsomorphism.isomorphic(model1, model2);
 	}
 
 	protected static Model isoCanonicalize(Model m) {
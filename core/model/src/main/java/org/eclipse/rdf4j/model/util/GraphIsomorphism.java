@@ -0,0 +1,580 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+
+/**
+ * Decides whether two RDF graphs are isomorphic by searching for a mapping between their blank nodes.
+ * <p>
+ * Statements without blank nodes must occur in both graphs and are compared directly. The other statements are encoded
+ * as four integers each, an id for every value and a negative index for every blank node, and the blank nodes of both
+ * graphs are coloured together by iterative colour refinement: every round, the colour of a blank node is combined with
+ * a hash of the statements that it occurs in, until the number of colours no longer grows. Isomorphic blank nodes
+ * always get the same colour, so the graphs are not isomorphic as soon as a colour is given to more blank nodes of one
+ * graph than of the other. Rounds over many blank nodes hash the nodes in parallel.
+ * <p>
+ * Blank nodes that occur in the same statement belong to the same component. Every component of the first graph is
+ * matched with a component of the second graph that has the same colours. To compare two components, a node of the
+ * first component and a node of the second component with the same colour are given a new colour and the colours of
+ * both components are refined again, until every colour is given to a single node of each component. The resulting
+ * mapping is then checked against the statements of the components, and the search backtracks to the next candidate
+ * node if it does not hold.
+ */
+class GraphIsomorphism {
+
+	/**
+	 * The number of blank nodes from which the hashes of a refinement round are computed in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 10_000;
+
+	/**
+	 * The hash of the occurrences of a blank node in its own statements.
+	 */
+	private static final long SELF = 0x2545F4914F6CDD1DL;
+
+	/**
+	 * The number of blank nodes of each graph. The blank nodes of the second graph have the indexes that follow those
+	 * of the first graph.
+	 */
+	private final int nodeCount;
+
+	/**
+	 * The subject, predicate, object and context of every statement with a blank node, first those of the first graph,
+	 * then those of the second graph. Values are stored as their id, blank nodes as minus their index minus one.
+	 */
+	private final int[] terms;
+
+	/**
+	 * The statements that each blank node occurs in, starting at the offset of the node.
+	 */
+	private final int[] offsets;
+
+	private final int[] incidences;
+
+	/**
+	 * The statements of the second graph plus one, in an open-addressing hash table on their terms.
+	 */
+	private final int[] statementTable;
+
+	/**
+	 * The position of every blank node in the nodes that are currently refined.
+	 */
+	private final int[] positions;
+
+	/**
+	 * The blank node of the second graph that each blank node of the first graph is mapped to.
+	 */
+	private final int[] mapping;
+
+	private GraphIsomorphism(int nodeCount, int[] terms, int firstStatementOfSecondGraph) {
+		this.nodeCount = nodeCount;
+		this.terms = terms;
+		int statementCount = terms.length / 4;
+
+		offsets = new int[nodeCount * 2 + 1];
+		for (int statement = 0; statement < statementCount; statement++) {
+			for (int i = 0; i < 4; i++) {
+				int node = node(statement, i);
+				if (node >= 0 && isFirstOccurrence(statement, i)) {
+					offsets[node + 1]++;
+				}
+			}
+		}
+		for (int node = 0; node < nodeCount * 2; node++) {
+			offsets[node + 1] += offsets[node];
+		}
+		incidences = new int[offsets[nodeCount * 2]];
+		int[] next = Arrays.copyOf(offsets, nodeCount * 2);
+		for (int statement = 0; statement < statementCount; statement++) {
+			for (int i = 0; i < 4; i++) {
+				int node = node(statement, i);
+				if (node >= 0 && isFirstOccurrence(statement, i)) {
+					incidences[next[node]++] = statement;
+				}
+			}
+		}
+
+		statementTable = new int[Integer.highestOneBit(Math.max(statementCount - firstStatementOfSecondGraph, 1)) * 4];
+		int mask = statementTable.length - 1;
+		for (int statement = firstStatementOfSecondGraph; statement < statementCount; statement++) {
+			int i = hash(terms, statement * 4) & mask;
+			while (statementTable[i] != 0) {
+				i = (i + 1) & mask;
+			}
+			statementTable[i] = statement + 1;
+		}
+
+		positions = new int[nodeCount * 2];
+		mapping = new int[nodeCount];
+	}
+
+	/**
+	 * @param model1 a graph, in which all statements have the same context
+	 * @param model2 a graph, in which all statements have the same context
+	 * @return {@code true} if the graphs are isomorphic, including their contexts
+	 */
+	static boolean isomorphic(Model model1, Model model2) {
+		if (model1.size() != model2.size()) {
+			return false;
+		}
+		Map<Value, Integer> values = new HashMap<>();
+		Map<BNode, Integer> nodes1 = new HashMap<>();
+		IntArray terms = new IntArray();
+		int groundStatements1 = 0;
+		for (Statement st : model1) {
+			if (!hasBlankNode(st)) {
+				if (!model2.contains(st)) {
+					return false;
+				}
+				groundStatements1++;
+			} else {
+				encode(st, values, true, nodes1, 0, terms);
+			}
+		}
+		int nodeCount = nodes1.size();
+		int firstStatementOfSecondGraph = terms.size / 4;
+
+		Map<BNode, Integer> nodes2 = new HashMap<>();
+		int groundStatements2 = 0;
+		for (Statement st : model2) {
+			if (!hasBlankNode(st)) {
+				groundStatements2++;
+			} else if (!encode(st, values, false, nodes2, nodeCount, terms)) {
+				return false;
+			}
+		}
+		// the models have the same size, so they now have the same statements without blank nodes
+		if (groundStatements1 != groundStatements2 || nodes2.size() != nodeCount) {
+			return false;
+		}
+		if (nodeCount == 0) {
+			return true;
+		}
+		return new GraphIsomorphism(nodeCount, terms.toArray(), firstStatementOfSecondGraph).match();
+	}
+
+	private static boolean hasBlankNode(Statement st) {
+		return st.getSubject().isBNode() || st.getObject().isBNode()
+				|| (st.getContext() != null && st.getContext().isBNode());
+	}
+
+	/**
+	 * @return {@code false} if the statement has a value that the first graph does not have
+	 */
+	private static boolean encode(Statement st, Map<Value, Integer> values, boolean addValues,
+			Map<BNode, Integer> nodes, int firstNode, IntArray terms) {
+		for (Value value : new Value[] { st.getSubject(), st.getPredicate(), st.getObject(), st.getContext() }) {
+			if (value != null && value.isBNode()) {
+				int node = nodes.computeIfAbsent((BNode) value, n -> firstNode + nodes.size());
+				terms.add(-node - 1);
+			} else {
+				// the default graph is encoded as the null value
+				Integer id = addValues ? values.computeIfAbsent(value, v -> values.size()) : values.get(value);
+				if (id == null) {
+					return false;
+				}
+				terms.add(id);
+			}
+		}
+		return true;
+	}
+
+	private boolean match() {
+		int[] all = IntStream.range(0, nodeCount * 2).toArray();
+		int[] colours = new int[nodeCount * 2];
+		System.arraycopy(all, 0, positions, 0, all.length);
+		if (refine(all, nodeCount, colours) < 0) {
+			return false;
+		}
+
+		List<int[]> components = components();
+		Map<Long, List<int[]>> candidates = new HashMap<>();
+		for (int[] component : components) {
+			if (component[0] >= nodeCount) {
+				candidates.computeIfAbsent(invariant(component, colours), i -> new ArrayList<>()).add(component);
+			}
+		}
+		for (int[] component : components) {
+			if (component[0] >= nodeCount) {
+				continue;
+			}
+			List<int[]> sameColours = candidates.get(invariant(component, colours));
+			if (sameColours == null) {
+				return false;
+			}
+			int matched = -1;
+			for (int i = 0; i < sameColours.size() && matched < 0; i++) {
+				if (match(component, sameColours.get(i), colours)) {
+					matched = i;
+				}
+			}
+			if (matched < 0) {
+				return false;
+			}
+			// every component of the second graph is matched once
+			sameColours.set(matched, sameColours.get(sameColours.size() - 1));
+			sameColours.remove(sameColours.size() - 1);
+		}
+		return true;
+	}
+
+	/**
+	 * @return the blank nodes of each component, in ascending order
+	 */
+	private List<int[]> components() {
+		int[] parents = IntStream.range(0, nodeCount * 2).toArray();
+		for (int statement = 0; statement < terms.length / 4; statement++) {
+			int first = -1;
+			for (int i = 0; i < 4; i++) {
+				int node = node(statement, i);
+				if (node >= 0) {
+					if (first < 0) {
+						first = root(parents, node);
+					} else {
+						parents[root(parents, node)] = first;
+					}
+				}
+			}
+		}
+		int[] sizes = new int[nodeCount * 2];
+		for (int node = 0; node < nodeCount * 2; node++) {
+			sizes[root(parents, node)]++;
+		}
+		int[][] members = new int[nodeCount * 2][];
+		List<int[]> components = new ArrayList<>();
+		for (int node = 0; node < nodeCount * 2; node++) {
+			int root = root(parents, node);
+			if (members[root] == null) {
+				members[root] = new int[sizes[root]];
+				components.add(members[root]);
+				sizes[root] = 0;
+			}
+			members[root][sizes[root]++] = node;
+		}
+		return components;
+	}
+
+	private static int root(int[] parents, int node) {
+		while (parents[node] != node) {
+			node = parents[node] = parents[parents[node]];
+		}
+		return node;
+	}
+
+	private static long invariant(int[] component, int[] colours) {
+		long hash = component.length;
+		for (int node : component) {
+			hash += mix(colours[node]);
+		}
+		return mix(hash);
+	}
+
+	/**
+	 * @return {@code true} if a mapping of the first component onto the second one maps their statements onto each
+	 *         other
+	 */
+	private boolean match(int[] component1, int[] component2, int[] globalColours) {
+		if (component1.length != component2.length) {
+			return false;
+		}
+		int split = component1.length;
+		int[] nodes = new int[split * 2];
+		System.arraycopy(component1, 0, nodes, 0, split);
+		System.arraycopy(component2, 0, nodes, split, split);
+		int[] colours = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			positions[nodes[i]] = i;
+			colours[i] = globalColours[nodes[i]];
+		}
+		int colourCount = refine(nodes, split, colours);
+		return colourCount >= 0 && search(nodes, split, colours, colourCount);
+	}
+
+	/**
+	 * Refines the colours of the nodes until the number of colours no longer grows.
+	 *
+	 * @param nodes   the nodes to refine, those of the first graph before those of the second graph
+	 * @param split   the number of nodes of the first graph
+	 * @param colours the colour of each node, by position, replaced by the refined colours
+	 * @return the number of colours, or -1 if a colour is given to a different number of nodes of each graph
+	 */
+	private int refine(int[] nodes, int split, int[] colours) {
+		long[] signatures = new long[nodes.length];
+		int colourCount = -1;
+		while (true) {
+			if (nodes.length >= PARALLEL_THRESHOLD) {
+				IntStream.range(0, nodes.length)
+						.parallel()
+						.forEach(i -> signatures[i] = signature(nodes[i], colours));
+			} else {
+				for (int i = 0; i < nodes.length; i++) {
+					signatures[i] = signature(nodes[i], colours);
+				}
+			}
+
+			Map<Long, Integer> ids = new HashMap<>();
+			for (int i = 0; i < nodes.length; i++) {
+				colours[i] = ids.computeIfAbsent(signatures[i], s -> ids.size());
+			}
+			int[] balance = new int[ids.size()];
+			for (int i = 0; i < nodes.length; i++) {
+				balance[colours[i]] += i < split ? 1 : -1;
+			}
+			for (int difference : balance) {
+				if (difference != 0) {
+					return -1;
+				}
+			}
+			// the colours of a round refine those of the previous round, so equal counts mean equal colours
+			if (ids.size() == colourCount) {
+				return colourCount;
+			}
+			colourCount = ids.size();
+		}
+	}
+
+	private long signature(int node, int[] colours) {
+		long signature = mix(colours[positions[node]]);
+		for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+			int offset = incidences[k] * 4;
+			long hash = 0;
+			for (int i = 0; i < 4; i++) {
+				int term = terms[offset + i];
+				long code;
+				if (term >= 0) {
+					code = mix(2L * term);
+				} else if (-term - 1 == node) {
+					code = SELF;
+				} else {
+					code = mix(2L * colours[positions[-term - 1]] + 1);
+				}
+				hash = mix(hash + code + i);
+			}
+			// the statements of a node are a bag, so their hashes are combined in any order
+			signature += mix(hash);
+		}
+		return signature;
+	}
+
+	/**
+	 * Searches for colours that give each colour to a single node of each graph and that map the statements of the
+	 * nodes onto each other, by giving nodes of both graphs with the same colour a new colour.
+	 */
+	private boolean search(int[] nodes, int split, int[] colours, int colourCount) {
+		Deque<Branch> branches = new ArrayDeque<>();
+		while (true) {
+			if (colours != null) {
+				Branch branch = branch(split, colours, colourCount);
+				if (branch == null) {
+					if (verify(nodes, split, colours, colourCount)) {
+						return true;
+					}
+				} else {
+					branches.push(branch);
+				}
+			}
+			colours = null;
+			while (colours == null) {
+				Branch branch = branches.peek();
+				if (branch == null) {
+					return false;
+				}
+				if (branch.candidate == nodes.length) {
+					branches.pop();
+					continue;
+				}
+				int candidate = branch.candidate++;
+				if (branch.colours[candidate] == branch.colour) {
+					int[] next = branch.colours.clone();
+					next[branch.node] = next[candidate] = branch.colourCount;
+					int count = refine(nodes, split, next);
+					if (count >= 0) {
+						colours = next;
+						colourCount = count;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the choices for the smallest colour that is given to more than one node, or {@code null} if every colour
+	 *         is given to a single node of each graph
+	 */
+	private static Branch branch(int split, int[] colours, int colourCount) {
+		int[] sizes = new int[colourCount];
+		for (int i = 0; i < split; i++) {
+			sizes[colours[i]]++;
+		}
+		int colour = -1;
+		for (int c = 0; c < colourCount; c++) {
+			if (sizes[c] > 1 && (colour < 0 || sizes[c] < sizes[colour])) {
+				colour = c;
+			}
+		}
+		if (colour < 0) {
+			return null;
+		}
+		int node = 0;
+		while (colours[node] != colour) {
+			node++;
+		}
+		return new Branch(colours, colourCount, colour, node, split);
+	}
+
+	/**
+	 * @return {@code true} if the nodes with the same colour map the statements of the nodes onto each other
+	 */
+	private boolean verify(int[] nodes, int split, int[] colours, int colourCount) {
+		int[] partners = new int[colourCount];
+		for (int i = split; i < nodes.length; i++) {
+			partners[colours[i]] = nodes[i];
+		}
+		for (int i = 0; i < split; i++) {
+			mapping[nodes[i]] = partners[colours[i]];
+		}
+
+		int mask = statementTable.length - 1;
+		int[] mapped = new int[4];
+		int statements1 = 0;
+		for (int i = 0; i < split; i++) {
+			int node = nodes[i];
+			for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+				int statement = incidences[k];
+				if (firstNode(statement) != node) {
+					// counted for another node
+					continue;
+				}
+				statements1++;
+				for (int j = 0; j < 4; j++) {
+					int term = terms[statement * 4 + j];
+					mapped[j] = term >= 0 ? term : -mapping[-term - 1] - 1;
+				}
+				if (!containsMapped(mapped, mask)) {
+					return false;
+				}
+			}
+		}
+		int statements2 = 0;
+		for (int i = split; i < nodes.length; i++) {
+			int node = nodes[i];
+			for (int k = offsets[node]; k < offsets[node + 1]; k++) {
+				if (firstNode(incidences[k]) == node) {
+					statements2++;
+				}
+			}
+		}
+		return statements1 == statements2;
+	}
+
+	private boolean containsMapped(int[] mapped, int mask) {
+		for (int i = hash(mapped, 0) & mask, entry; (entry = statementTable[i]) != 0; i = (i + 1) & mask) {
+			int offset = (entry - 1) * 4;
+			if (terms[offset] == mapped[0] && terms[offset + 1] == mapped[1] && terms[offset + 2] == mapped[2]
+					&& terms[offset + 3] == mapped[3]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the blank node at a position of a statement, or -1 if the term at that position is not a blank node
+	 */
+	private int node(int statement, int position) {
+		int term = terms[statement * 4 + position];
+		return term < 0 ? -term - 1 : -1;
+	}
+
+	private boolean isFirstOccurrence(int statement, int position) {
+		for (int i = 0; i < position; i++) {
+			if (terms[statement * 4 + i] == terms[statement * 4 + position]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private int firstNode(int statement) {
+		for (int i = 0;; i++) {
+			int node = node(statement, i);
+			if (node >= 0) {
+				return node;
+			}
+		}
+	}
+
+	private static int hash(int[] terms, int offset) {
+		return (int) mix(((terms[offset] * 31L + terms[offset + 1]) * 31 + terms[offset + 2]) * 31
+				+ terms[offset + 3]);
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * The nodes of the second graph that remain to be tried for a node of the first graph.
+	 */
+	private static final class Branch {
+
+		private final int[] colours;
+
+		private final int colourCount;
+
+		private final int colour;
+
+		private final int node;
+
+		private int candidate;
+
+		Branch(int[] colours, int colourCount, int colour, int node, int candidate) {
+			this.colours = colours;
+			this.colourCount = colourCount;
+			this.colour = colour;
+			this.node = node;
+			this.candidate = candidate;
+		}
+	}
+
+	private static final class IntArray {
+
+		private int[] values = new int[64];
+
+		private int size;
+
+		void add(int value) {
+			if (size == values.length) {
+				values = Arrays.copyOf(values, size * 2);
+			}
+			values[size++] = value;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.junit.jupiter.api.Test;
+
+public class CompactModelTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final Random random = new Random(42);
+
+	@Test
+	public void testSameStatementsAsLinkedHashModel() {
+		Model expected = new LinkedHashModel();
+		Model model = new CompactModel();
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 200; i++) {
+				Statement st = randomStatement();
+				assertThat(model.add(st)).isEqualTo(expected.add(st));
+			}
+			// remove most statements, so that the removed slots are dropped by the next additions
+			for (int i = 0; i < 50; i++) {
+				Resource subj = random.nextBoolean() ? subject() : null;
+				IRI pred = random.nextBoolean() ? predicate() : null;
+				Value obj = random.nextBoolean() ? object() : null;
+				assertThat(model.remove(subj, pred, obj)).isEqualTo(expected.remove(subj, pred, obj));
+			}
+			assertThat(model.size()).isEqualTo(expected.size());
+			assertThat(new ArrayList<>(model)).isEqualTo(new ArrayList<>(expected));
+
+			for (int i = 0; i < 50; i++) {
+				Resource subj = random.nextBoolean() ? subject() : null;
+				IRI pred = random.nextBoolean() ? predicate() : null;
+				Value obj = random.nextBoolean() ? object() : null;
+				Resource[] contexts = random.nextBoolean() ? new Resource[0] : new Resource[] { context() };
+				assertThat(new ArrayList<>(model.filter(subj, pred, obj, contexts)))
+						.isEqualTo(new ArrayList<>(expected.filter(subj, pred, obj, contexts)));
+				assertThat(model.contains(subj, pred, obj, contexts))
+						.isEqualTo(expected.contains(subj, pred, obj, contexts));
+			}
+		}
+	}
+
+	@Test
+	public void testRemoveWhileIterating() {
+		Model model = new CompactModel();
+		List<Statement> statements = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Statement st = vf.createStatement(vf.createIRI("urn:s" + (i % 10)), vf.createIRI("urn:p"),
+					vf.createLiteral(i));
+			statements.add(st);
+			model.add(st);
+		}
+
+		Iterator<Statement> iter = model.filter(null, vf.createIRI("urn:p"), null).iterator();
+		while (iter.hasNext()) {
+			if (iter.next().getSubject().equals(vf.createIRI("urn:s0"))) {
+				iter.remove();
+			}
+		}
+		assertThat(model).hasSize(90);
+		assertThat(model.contains(vf.createIRI("urn:s0"), null, null)).isFalse();
+
+		// removes every statement of the other subjects through the term iterator
+		model.subjects().removeIf(subj -> !subj.equals(vf.createIRI("urn:s1")));
+		assertThat(model).hasSize(10);
+		assertThat(model.subjects()).containsExactly(vf.createIRI("urn:s1"));
+
+		model.addAll(statements);
+		assertThat(new ArrayList<>(model)).containsExactlyInAnyOrderElementsOf(statements);
+	}
+
+	private Statement randomStatement() {
+		return vf.createStatement(subject(), predicate(), object(), random.nextBoolean() ? null : context());
+	}
+
+	private Resource subject() {
+		return random.nextInt(10) == 0 ? vf.createBNode("b" + random.nextInt(5))
+				: vf.createIRI("urn:s" + random.nextInt(50));
+	}
+
+	private IRI predicate() {
+		return vf.createIRI("urn:p" + random.nextInt(5));
+	}
+
+	private Value object() {
+		return random.nextBoolean() ? vf.createLiteral(random.nextInt(20)) : vf.createIRI("urn:s" + random.nextInt(50));
+	}
+
+	private Resource context() {
+		return vf.createIRI("urn:g" + random.nextInt(3));
+	}
+}
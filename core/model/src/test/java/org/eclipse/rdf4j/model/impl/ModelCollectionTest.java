@@ -38,6 +38,7 @@ public class ModelCollectionTest {
 		suite.addTest(testModelImpl("LinkedHashModel", new LinkedHashModelFactory()));
 		suite.addTest(testModelImpl("TreeModel", new TreeModelFactory()));
 		suite.addTest(testModelImpl("DynamicModel", new DynamicModelFactory()));
+		suite.addTest(testModelImpl("CompactModel", new CompactModelFactory()));
 		return suite;
 	}
 
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.model.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.rdf4j.model.util.Values.bnode;
+import static org.eclipse.rdf4j.model.util.Values.iri;
+import static org.eclipse.rdf4j.model.util.Values.literal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.junit.jupiter.api.Test;
+
+public class GraphIsomorphismTest {
+
+	private static final String ex = "http://example.org/";
+
+	private final IRI p = iri(ex, "p");
+
+	private final IRI q = iri(ex, "q");
+
+	@Test
+	public void testCyclesNeedSearch() {
+		// every node of a cycle gets the same colour, so the mapping is found by trying candidates
+		assertThat(GraphIsomorphism.isomorphic(cycles(6, 6, "a"), cycles(6, 6, "b"))).isTrue();
+		assertThat(GraphIsomorphism.isomorphic(cycles(6, 6, "a"), cycles(6, 3, "b"))).isFalse();
+	}
+
+	@Test
+	public void testSymmetricNodesWithinComponent() {
+		// the two children can only be told apart by their literals
+		assertThat(GraphIsomorphism.isomorphic(tree("x", "y"), tree("y", "x"))).isTrue();
+		assertThat(GraphIsomorphism.isomorphic(tree("x", "x"), tree("x", "y"))).isFalse();
+	}
+
+	@Test
+	public void testManyIdenticalComponents() {
+		Model model1 = reifications(1000, new Random(1));
+		Model model2 = reifications(1000, new Random(2));
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isTrue();
+
+		BNode changed = (BNode) model2.filter(null, RDF.OBJECT, literal(9)).subjects().iterator().next();
+		model2.remove(changed, RDF.OBJECT, literal(9));
+		model2.add(changed, RDF.OBJECT, literal(10));
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isFalse();
+	}
+
+	@Test
+	public void testContexts() {
+		Model model1 = new LinkedHashModel();
+		Model model2 = new LinkedHashModel();
+		model1.add(bnode(), p, literal("x"), iri(ex, "g1"));
+		model2.add(bnode(), p, literal("x"), iri(ex, "g2"));
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isFalse();
+
+		model1.clear();
+		model2.clear();
+		model1.add(iri(ex, "s"), p, literal("x"), bnode("g"));
+		model2.add(iri(ex, "s"), p, literal("x"), bnode("g"));
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isTrue();
+	}
+
+	@Test
+	public void testLargeGraph() {
+		// enough blank nodes to refine their colours in parallel
+		Model model1 = new LinkedHashModel();
+		Model model2 = new LinkedHashModel();
+		List<BNode> nodes = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			nodes.add(bnode());
+		}
+		List<BNode> shuffled = new ArrayList<>(nodes);
+		Collections.shuffle(shuffled, new Random(3));
+		for (int i = 0; i < nodes.size(); i++) {
+			model1.add(nodes.get(i), p, literal(i % 100));
+			model2.add(shuffled.get(i), p, literal(i % 100));
+			if (i > 0) {
+				model1.add(nodes.get(i), q, nodes.get(i / 2));
+				model2.add(shuffled.get(i), q, shuffled.get(i / 2));
+			}
+		}
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isTrue();
+
+		model2.remove(shuffled.get(5), p, literal(5));
+		model2.add(shuffled.get(5), p, literal(6));
+		assertThat(GraphIsomorphism.isomorphic(model1, model2)).isFalse();
+	}
+
+	private Model tree(String left, String right) {
+		Model model = new LinkedHashModel();
+		BNode root = bnode();
+		BNode leftChild = bnode();
+		BNode rightChild = bnode();
+		model.add(root, p, leftChild);
+		model.add(root, p, rightChild);
+		model.add(leftChild, q, literal(left));
+		model.add(rightChild, q, literal(right));
+		return model;
+	}
+
+	private Model cycles(int nodeCount, int cycleLength, String prefix) {
+		Model model = new LinkedHashModel();
+		for (int i = 0; i < nodeCount; i++) {
+			int next = i / cycleLength * cycleLength + (i + 1) % cycleLength;
+			model.add(bnode(prefix + i), p, bnode(prefix + next));
+		}
+		return model;
+	}
+
+	private Model reifications(int count, Random random) {
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			order.add(i);
+		}
+		Collections.shuffle(order, random);
+		Model model = new LinkedHashModel();
+		for (int i : order) {
+			BNode statement = bnode();
+			model.add(statement, RDF.TYPE, RDF.STATEMENT);
+			model.add(statement, RDF.SUBJECT, iri(ex, "s"));
+			model.add(statement, RDF.PREDICATE, p);
+			model.add(statement, RDF.OBJECT, literal(i % 10));
+		}
+		return model;
+	}
+}
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query;
+
+/**
+ * An exception indicating that the evaluation of a query has been stopped because it exceeded one of its resource
+ * limits, such as the amount of memory it may buffer or the number of results it may produce.
+ */
+public class QueryResourceLimitException extends QueryInterruptedException {
+
+	private static final long serialVersionUID = 4017745376327981547L;
+
+	public QueryResourceLimitException(String message) {
+		super(message);
+	}
+}
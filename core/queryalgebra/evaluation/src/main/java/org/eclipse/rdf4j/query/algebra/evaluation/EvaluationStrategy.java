@@ -197,4 +197,19 @@ public interface EvaluationStrategy extends FederatedServiceResolver {
 	public default Supplier<CollectionFactory> getCollectionFactory() {
 		return DefaultCollectionFactory::new;
 	}
+
+	/**
+	 * Set the accountant that tracks and limits the resources used by the query evaluated with this strategy.
+	 *
+	 * @param resourceAccountant the accountant of the query
+	 */
+	@Experimental
+	default void setResourceAccountant(QueryResourceAccountant resourceAccountant) {
+		// no-op for backwards compatibility
+	}
+
+	@Experimental
+	default QueryResourceAccountant getResourceAccountant() {
+		return QueryResourceAccountant.UNLIMITED;
+	}
 }
@@ -0,0 +1,228 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResourceLimitException;
+
+/**
+ * Keeps track of the resources used by the evaluation of a single query and enforces its {@link QueryResourceLimits}.
+ * <p>
+ * Operators that buffer solutions, such as ORDER BY, GROUP BY, DISTINCT and hash joins, report the estimated size of
+ * the solutions they hold with {@link #allocate(long)} and {@link #release(long)}. The root of the query reports each
+ * result with {@link #countRow()}, and statement patterns report each of their evaluations and matches with
+ * {@link #checkCpuTime()}, so that joins that discard most of their input are checked as well. CPU time is measured on
+ * the threads that report to the accountant, every few hundred reports, and includes any work those threads do between
+ * reports. A limit that is exceeded fails the query with a {@link QueryResourceLimitException}.
+ * <p>
+ * An accountant can be used by several threads at once.
+ */
+public class QueryResourceAccountant {
+
+	/**
+	 * An accountant that neither tracks nor limits resources.
+	 */
+	public static final QueryResourceAccountant UNLIMITED = new QueryResourceAccountant(QueryResourceLimits.UNLIMITED);
+
+	private static final int CPU_TIME_CHECK_INTERVAL = 256;
+
+	private static final long BINDING_SET_OVERHEAD = 48;
+
+	private static final long BINDING_OVERHEAD = 32;
+
+	private static final long VALUE_OVERHEAD = 48;
+
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	private final QueryResourceLimits limits;
+
+	private final boolean unlimited;
+
+	private final boolean trackCpuTime;
+
+	private final AtomicLong bufferedBytes = new AtomicLong();
+
+	private final AtomicLong rows = new AtomicLong();
+
+	private final AtomicLong peakBufferedBytes = new AtomicLong();
+
+	private final AtomicInteger reports = new AtomicInteger();
+
+	private long cpuTime;
+
+	private long cpuThread = -1;
+
+	private long cpuThreadTime;
+
+	/**
+	 * @param limits the limits to enforce
+	 */
+	public QueryResourceAccountant(QueryResourceLimits limits) {
+		this.limits = limits;
+		this.unlimited = limits.isUnlimited();
+		this.trackCpuTime = limits.getMaxCpuTimeMillis() > 0 && THREADS.isCurrentThreadCpuTimeSupported();
+	}
+
+	/**
+	 * @return {@code true} if this accountant does not limit any resource, in which case operators can skip reporting
+	 */
+	public boolean isUnlimited() {
+		return unlimited;
+	}
+
+	/**
+	 * @return the limits enforced by this accountant
+	 */
+	public QueryResourceLimits getLimits() {
+		return limits;
+	}
+
+	/**
+	 * Records that an operator buffers state of the supplied estimated size.
+	 *
+	 * @param bytes the estimated number of bytes
+	 * @throws QueryResourceLimitException if the query buffers more than allowed
+	 */
+	public void allocate(long bytes) throws QueryResourceLimitException {
+		if (unlimited) {
+			return;
+		}
+		long buffered = bufferedBytes.addAndGet(bytes);
+		if (buffered > peakBufferedBytes.get()) {
+			peakBufferedBytes.accumulateAndGet(buffered, Math::max);
+		}
+		long maxBufferedBytes = limits.getMaxBufferedBytes();
+		if (maxBufferedBytes > 0 && buffered > maxBufferedBytes) {
+			throw new QueryResourceLimitException("Query exceeded its memory limit: buffered state of about "
+					+ buffered + " bytes, limit is " + maxBufferedBytes + " bytes");
+		}
+		checkCpuTime();
+	}
+
+	/**
+	 * Records that an operator no longer buffers state that it {@link #allocate(long) allocated} before.
+	 *
+	 * @param bytes the estimated number of bytes
+	 */
+	public void release(long bytes) {
+		if (!unlimited && bytes != 0) {
+			bufferedBytes.addAndGet(-bytes);
+		}
+	}
+
+	/**
+	 * Records that the query produced a result.
+	 *
+	 * @throws QueryResourceLimitException if the query produced more results than allowed
+	 */
+	public void countRow() throws QueryResourceLimitException {
+		if (unlimited) {
+			return;
+		}
+		long count = rows.incrementAndGet();
+		long maxRows = limits.getMaxRows();
+		if (maxRows > 0 && count > maxRows) {
+			throw new QueryResourceLimitException("Query exceeded its limit of " + maxRows + " results");
+		}
+		checkCpuTime();
+	}
+
+	/**
+	 * @return the estimated number of bytes currently buffered by the query
+	 */
+	public long getBufferedBytes() {
+		return bufferedBytes.get();
+	}
+
+	/**
+	 * @return the highest estimated number of bytes buffered by the query at any time
+	 */
+	public long getPeakBufferedBytes() {
+		return peakBufferedBytes.get();
+	}
+
+	/**
+	 * @return the number of results produced by the query
+	 */
+	public long getRows() {
+		return rows.get();
+	}
+
+	/**
+	 * Records progress of the query without a result, such as a solution that an operator reads from its input. The CPU
+	 * time of the query is measured on every few hundred calls.
+	 *
+	 * @throws QueryResourceLimitException if the query used more CPU time than allowed
+	 */
+	public void checkCpuTime() throws QueryResourceLimitException {
+		if (!trackCpuTime || reports.incrementAndGet() % CPU_TIME_CHECK_INTERVAL != 0) {
+			return;
+		}
+		long elapsed;
+		synchronized (this) {
+			long thread = Thread.currentThread().getId();
+			long threadTime = THREADS.getCurrentThreadCpuTime();
+			if (thread == cpuThread) {
+				cpuTime += threadTime - cpuThreadTime;
+			}
+			cpuThread = thread;
+			cpuThreadTime = threadTime;
+			elapsed = cpuTime;
+		}
+		long maxCpuTime = TimeUnit.MILLISECONDS.toNanos(limits.getMaxCpuTimeMillis());
+		if (elapsed > maxCpuTime) {
+			throw new QueryResourceLimitException("Query exceeded its CPU time limit of "
+					+ limits.getMaxCpuTimeMillis() + " ms");
+		}
+	}
+
+	/**
+	 * Estimates the memory used by a solution that is buffered by an operator. The estimate does not take into account
+	 * that values may be shared with other solutions or with the store.
+	 *
+	 * @param bindings a solution
+	 * @return the estimated number of bytes
+	 */
+	public static long estimateSize(BindingSet bindings) {
+		long size = BINDING_SET_OVERHEAD;
+		for (Binding binding : bindings) {
+			size += BINDING_OVERHEAD + estimateSize(binding.getValue());
+		}
+		return size;
+	}
+
+	private static long estimateSize(Value value) {
+		if (value instanceof Literal) {
+			// only the labels of string literals are known without computing them
+			CoreDatatype datatype = ((Literal) value).getCoreDatatype();
+			if (datatype == CoreDatatype.XSD.STRING || datatype == CoreDatatype.RDF.LANGSTRING) {
+				return VALUE_OVERHEAD + ((Literal) value).getLabel().length();
+			}
+		} else if (value instanceof Triple) {
+			Triple triple = (Triple) value;
+			return VALUE_OVERHEAD + estimateSize(triple.getSubject()) + estimateSize(triple.getPredicate())
+					+ estimateSize(triple.getObject());
+		}
+		return VALUE_OVERHEAD;
+	}
+}
@@ -51,4 +51,18 @@ public interface TripleSource {
 	 * @return a ValueFactory object for this TripleSource.
 	 */
 	ValueFactory getValueFactory();
+
+	/**
+	 * Gets the number of statements in the supplied contexts, if the triple source can determine it without iterating
+	 * over the statements. The number includes every statement that
+	 * {@link #getStatements(Resource, IRI, Value, Resource...) getStatements(null, null, null, contexts)} would return.
+	 *
+	 * @param contexts The context(s) to count the statements of. Note that this parameter is a vararg and as such is
+	 *                 optional. If no contexts are supplied the method operates on the entire repository.
+	 * @return The number of statements, or <var>-1</var> if it is not known.
+	 * @throws QueryEvaluationException If the triple source failed to determine the number of statements.
+	 */
+	default long size(Resource... contexts) throws QueryEvaluationException {
+		return -1;
+	}
 }
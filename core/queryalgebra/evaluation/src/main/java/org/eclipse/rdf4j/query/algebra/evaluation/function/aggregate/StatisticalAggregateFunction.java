@@ -33,6 +33,11 @@ public class StatisticalAggregateFunction extends AggregateFunction<StatisticCol
 		super(evaluationStep);
 	}
 
+	@Override
+	public boolean isParallelizable() {
+		return true;
+	}
+
 	@Override
 	public void processAggregate(BindingSet bindingSet, Predicate<Value> distinctValue, StatisticCollector collector)
 			throws QueryEvaluationException {
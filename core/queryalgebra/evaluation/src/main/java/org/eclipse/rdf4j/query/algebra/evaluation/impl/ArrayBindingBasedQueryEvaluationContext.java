@@ -39,6 +39,7 @@ import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.ZeroLengthPath;
 import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ZeroLengthPathIteration;
 import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
@@ -91,6 +92,11 @@ public final class ArrayBindingBasedQueryEvaluationContext implements QueryEvalu
 		return context.getDataset();
 	}
 
+	@Override
+	public QueryResourceAccountant getResourceAccountant() {
+		return context.getResourceAccountant();
+	}
+
 	@Override
 	public ArrayBindingSet createBindingSet() {
 		return new ArrayBindingSet(allVariables);
@@ -11,10 +11,13 @@
 package org.eclipse.rdf4j.query.algebra.evaluation.impl;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -35,13 +38,16 @@ import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
 import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
 import org.eclipse.rdf4j.model.impl.BooleanLiteral;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.util.Literals;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.MutableBindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.AggregateOperator;
 import org.eclipse.rdf4j.query.algebra.And;
 import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
 import org.eclipse.rdf4j.query.algebra.BNodeGenerator;
@@ -53,6 +59,7 @@ import org.eclipse.rdf4j.query.algebra.Coalesce;
 import org.eclipse.rdf4j.query.algebra.Compare;
 import org.eclipse.rdf4j.query.algebra.CompareAll;
 import org.eclipse.rdf4j.query.algebra.CompareAny;
+import org.eclipse.rdf4j.query.algebra.Count;
 import org.eclipse.rdf4j.query.algebra.Datatype;
 import org.eclipse.rdf4j.query.algebra.DescribeOperator;
 import org.eclipse.rdf4j.query.algebra.Difference;
@@ -115,6 +122,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizerPipeline;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep.ConstantQueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.RDFStarTripleSource;
@@ -153,12 +161,14 @@ import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.Li
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.OrValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.QueryValueEvaluationStepSupplier;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.values.ValueExprTripleRefEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.CompactDistinctIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.DescribeIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.ExtensionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.FilterIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.GroupIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.MultiProjectionIterator;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.PathIteration;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.TransitivePathIteration;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryEvaluationUtil;
@@ -214,6 +224,8 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 
 	private Supplier<CollectionFactory> collectionFactory = DefaultCollectionFactory::new;
 
+	private QueryResourceAccountant resourceAccountant = QueryResourceAccountant.UNLIMITED;
+
 	static CloseableIteration<BindingSet, QueryEvaluationException> evaluate(TupleFunction func,
 			final List<Var> resultVars, final BindingSet bindings, ValueFactory valueFactory, Value... argValues)
 			throws QueryEvaluationException {
@@ -400,7 +412,8 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 
 	@Override
 	public QueryEvaluationStep precompile(TupleExpr expr) {
-		QueryEvaluationContext context = new QueryEvaluationContext.Minimal(dataset, tripleSource.getValueFactory());
+		QueryEvaluationContext context = new QueryEvaluationContext.Minimal(dataset, tripleSource.getValueFactory(),
+				resourceAccountant);
 		if (expr instanceof QueryRoot) {
 			String[] allVariables = ArrayBindingBasedQueryEvaluationContext
 					.findAllVariablesUsedInQuery((QueryRoot) expr);
@@ -440,6 +453,9 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		}
 
 		if (ret != null) {
+			if (expr instanceof StatementPattern && !context.getResourceAccountant().isUnlimited()) {
+				ret = trackCpuTime(ret, context.getResourceAccountant());
+			}
 			if (trackTime) {
 				ret = trackTime(expr, ret);
 			}
@@ -459,6 +475,22 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		});
 	}
 
+	private static QueryEvaluationStep trackCpuTime(QueryEvaluationStep qes, QueryResourceAccountant accountant) {
+		// joins evaluate their inner statement patterns once per solution, and may discard most of the matches
+		return bindings -> {
+			accountant.checkCpuTime();
+			return new IterationWrapper<>(qes.evaluate(bindings)) {
+
+				@Override
+				public BindingSet next() throws QueryEvaluationException {
+					BindingSet next = super.next();
+					accountant.checkCpuTime();
+					return next;
+				}
+			};
+		};
+	}
+
 	private QueryEvaluationStep trackTime(TupleExpr expr, QueryEvaluationStep qes) {
 		return QueryEvaluationStep.wrap(qes, (iter) -> {
 			expr.setTotalTimeNanosActual(Math.max(0, expr.getTotalTimeNanosActual()));
@@ -480,10 +512,16 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		final Var objVar = alp.getObjectVar();
 		final Var contextVar = alp.getContextVar();
 		final long minLength = alp.getMinLength();
+		// paths over a single predicate are searched directly in the triple source, unless the dataset restricts
+		// the graphs to search
+		final boolean transitive = dataset == null && TransitivePathIteration.supports(alp);
 		return new QueryEvaluationStep() {
 
 			@Override
 			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+				if (transitive && TransitivePathIteration.supports(alp, bindings)) {
+					return new TransitivePathIteration(DefaultEvaluationStrategy.this, tripleSource, alp, bindings);
+				}
 				return new PathIteration(DefaultEvaluationStrategy.this, scope, subjectVar, pathExpression, objVar,
 						contextVar, minLength, bindings);
 			}
@@ -538,15 +576,71 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	}
 
 	protected QueryEvaluationStep prepare(Group node, QueryEvaluationContext context) throws QueryEvaluationException {
+		// counting all statements can be answered by the triple source, if it keeps count of them
+		final StatementPattern countedPattern = dataset == null ? getCountedStatementPattern(node) : null;
+		final BiConsumer<Value, MutableBindingSet> setCount = countedPattern != null
+				? context.setBinding(node.getGroupElements().get(0).getName())
+				: null;
 		return new QueryEvaluationStep() {
 			@Override
 			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+				if (countedPattern != null && !hasAnyBinding(countedPattern, bindings)) {
+					long size = tripleSource.size();
+					if (size >= 0) {
+						MutableBindingSet result = context.createBindingSet(bindings);
+						setCount.accept(
+								tripleSource.getValueFactory()
+										.createLiteral(Long.toString(size),
+												CoreDatatype.XSD.INTEGER),
+								result);
+						return new SingletonIteration<>(result);
+					}
+				}
 				return new GroupIterator(DefaultEvaluationStrategy.this, node, bindings, iterationCacheSyncThreshold,
 						context);
 			}
 		};
 	}
 
+	/**
+	 * Checks whether a group computes nothing but the number of all statements, as in {@code SELECT (COUNT(*) AS ?c)
+	 * WHERE { ?s ?p ?o }}.
+	 *
+	 * @return the statement pattern whose solutions are counted, or {@code null} if the group computes anything else
+	 */
+	private static StatementPattern getCountedStatementPattern(Group node) {
+		if (!node.getGroupBindingNames().isEmpty() || node.getGroupElements().size() != 1
+				|| node.getArg().getClass() != StatementPattern.class) {
+			return null;
+		}
+		StatementPattern pattern = (StatementPattern) node.getArg();
+		if (pattern.getScope() != Scope.DEFAULT_CONTEXTS || pattern.getContextVar() != null) {
+			return null;
+		}
+		Set<String> names = new HashSet<>();
+		for (Var var : List.of(pattern.getSubjectVar(), pattern.getPredicateVar(), pattern.getObjectVar())) {
+			// constants restrict the statements, and a variable that occurs twice requires equal values
+			if (var.hasValue() || !names.add(var.getName())) {
+				return null;
+			}
+		}
+		AggregateOperator operator = node.getGroupElements().get(0).getOperator();
+		if (!(operator instanceof Count) || operator.isDistinct()) {
+			return null;
+		}
+		ValueExpr arg = ((Count) operator).getArg();
+		if (arg == null || arg instanceof Var && names.contains(((Var) arg).getName())) {
+			return pattern;
+		}
+		return null;
+	}
+
+	private static boolean hasAnyBinding(StatementPattern pattern, BindingSet bindings) {
+		return bindings.hasBinding(pattern.getSubjectVar().getName())
+				|| bindings.hasBinding(pattern.getPredicateVar().getName())
+				|| bindings.hasBinding(pattern.getObjectVar().getName());
+	}
+
 	protected QueryEvaluationStep prepare(Intersection node, QueryEvaluationContext context)
 			throws QueryEvaluationException {
 		QueryEvaluationStep leftArg = precompile(node.getLeftArg(), context);
@@ -651,7 +745,8 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 		boolean reduced = isReducedOrDistinct(node);
 		long limit = getLimit(node);
 		QueryEvaluationStep preparedArg = precompile(node.getArg(), context);
-		return new OrderQueryEvaluationStep(cmp, limit, reduced, preparedArg, iterationCacheSyncThreshold);
+		return new OrderQueryEvaluationStep(cmp, limit, reduced, preparedArg, iterationCacheSyncThreshold,
+				context.getResourceAccountant());
 	}
 
 	protected QueryEvaluationStep prepare(BindingSetAssignment node, QueryEvaluationContext context)
@@ -718,18 +813,86 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	protected QueryEvaluationStep prepare(Distinct node, QueryEvaluationContext context)
 			throws QueryEvaluationException {
 		final QueryEvaluationStep child = precompile(node.getArg(), context);
+		if (overridesMakeSet()) {
+			return new QueryEvaluationStep() {
+
+				@Override
+				public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+					return new AccountingDistinctIteration(child.evaluate(bindings),
+							DefaultEvaluationStrategy.this::makeSet, context.getResourceAccountant());
+				}
+			};
+		}
+		if (!hasInMemoryCollectionFactory()) {
+			// the store keeps large collections in its own way
+			return new QueryEvaluationStep() {
+
+				@Override
+				public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+					CollectionFactory cf = collectionFactory.get();
+					return new AccountingDistinctIteration(child.evaluate(bindings), cf::createSetOfBindingSets,
+							context.getResourceAccountant()) {
+
+						@Override
+						protected void handleClose() throws QueryEvaluationException {
+							try {
+								super.handleClose();
+							} finally {
+								cf.close();
+							}
+						}
+					};
+				}
+			};
+		}
+		// ordered solutions must keep their order, so they are never partitioned on disk
+		final ValueFactory vf = tripleSource != null ? tripleSource.getValueFactory()
+				: SimpleValueFactory.getInstance();
+		final long spillThreshold = isOrdered(node.getArg()) ? 0 : iterationCacheSyncThreshold;
 		return new QueryEvaluationStep() {
 
 			@Override
 			public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
-				final CloseableIteration<BindingSet, QueryEvaluationException> evaluate = child.evaluate(bindings);
-				return new DistinctIteration<BindingSet, QueryEvaluationException>(evaluate,
-						DefaultEvaluationStrategy.this::makeSet);
+				return new CompactDistinctIteration(child.evaluate(bindings), spillThreshold, null, vf,
+						context.getResourceAccountant());
 			}
 		};
 
 	}
 
+	/**
+	 * @return {@code true} if a subclass provides its own sets through {@link #makeSet()}, which must then be used to
+	 *         remove duplicate solutions
+	 */
+	private boolean overridesMakeSet() {
+		try {
+			return getClass().getMethod("makeSet").getDeclaringClass() != EvaluationStrategy.class;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * @return {@code true} if the collection factory of this strategy keeps sets of solutions in plain in-memory sets,
+	 *         like the {@link DefaultCollectionFactory}
+	 */
+	private boolean hasInMemoryCollectionFactory() {
+		try (CollectionFactory cf = collectionFactory.get()) {
+			return cf.createsInMemorySetsOfBindingSets();
+		}
+	}
+
+	/**
+	 * @return {@code true} if the solutions of the expression are put in order by an {@link Order} that is only
+	 *         followed by unary operators
+	 */
+	private static boolean isOrdered(TupleExpr expr) {
+		while (expr instanceof UnaryTupleOperator && !(expr instanceof Order)) {
+			expr = ((UnaryTupleOperator) expr).getArg();
+		}
+		return expr instanceof Order;
+	}
+
 	protected QueryEvaluationStep prepare(Reduced node, QueryEvaluationContext context)
 			throws QueryEvaluationException {
 		QueryEvaluationStep arg = precompile(node.getArg(), context);
@@ -853,7 +1016,21 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 			// new query, reset shared return value for successive calls of
 			// NOW()
 			this.sharedValueOfNow = null;
-			return precompile(expr.getArg(), context);
+			QueryEvaluationStep arg = precompile(expr.getArg(), context);
+			QueryResourceAccountant accountant = context.getResourceAccountant();
+			if (accountant.isUnlimited()) {
+				return arg;
+			}
+			// count the results of the query
+			return bindings -> new IterationWrapper<>(arg.evaluate(bindings)) {
+
+				@Override
+				public BindingSet next() throws QueryEvaluationException {
+					BindingSet next = super.next();
+					accountant.countRow();
+					return next;
+				}
+			};
 		} else if (expr instanceof DescribeOperator) {
 			return prepare((DescribeOperator) expr, context);
 		} else if (expr == null) {
@@ -2170,4 +2347,51 @@ public class DefaultEvaluationStrategy implements EvaluationStrategy, FederatedS
 	public void setCollectionFactory(Supplier<CollectionFactory> cf) {
 		this.collectionFactory = cf;
 	}
+
+	@Override
+	public QueryResourceAccountant getResourceAccountant() {
+		return resourceAccountant;
+	}
+
+	@Override
+	public void setResourceAccountant(QueryResourceAccountant resourceAccountant) {
+		this.resourceAccountant = Objects.requireNonNull(resourceAccountant);
+	}
+
+	/**
+	 * A {@link DistinctIteration} that reports the solutions it remembers to a {@link QueryResourceAccountant}.
+	 */
+	private static class AccountingDistinctIteration extends DistinctIteration<BindingSet, QueryEvaluationException> {
+
+		private final QueryResourceAccountant accountant;
+
+		private long allocated;
+
+		private AccountingDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+				Supplier<Set<BindingSet>> setMaker, QueryResourceAccountant accountant) {
+			super(iter, setMaker);
+			this.accountant = accountant;
+		}
+
+		@Override
+		protected boolean add(BindingSet object) throws QueryEvaluationException {
+			boolean added = super.add(object);
+			if (added && !accountant.isUnlimited()) {
+				long size = QueryResourceAccountant.estimateSize(object);
+				allocated += size;
+				accountant.allocate(size);
+			}
+			return added;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			try {
+				super.handleClose();
+			} finally {
+				accountant.release(allocated);
+				allocated = 0;
+			}
+		}
+	}
 }
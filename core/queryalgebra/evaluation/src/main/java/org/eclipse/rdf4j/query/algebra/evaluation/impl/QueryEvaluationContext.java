@@ -26,6 +26,7 @@ import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.Dataset;
 import org.eclipse.rdf4j.query.MutableBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 
 /**
  * A QueryEvaluationContext stores values and methods that are valid throughout the lifetime of a query execution.
@@ -55,6 +56,7 @@ public interface QueryEvaluationContext {
 		private volatile Literal now;
 		private final Dataset dataset;
 		private final ValueFactory vf;
+		private final QueryResourceAccountant resourceAccountant;
 
 		/**
 		 * Set the shared now value to a preexisting object
@@ -67,6 +69,7 @@ public interface QueryEvaluationContext {
 			this.now = now;
 			this.dataset = dataset;
 			this.vf = SimpleValueFactory.getInstance();
+			this.resourceAccountant = QueryResourceAccountant.UNLIMITED;
 		}
 
 		/**
@@ -75,14 +78,24 @@ public interface QueryEvaluationContext {
 		public Minimal(Dataset dataset) {
 			this.dataset = dataset;
 			this.vf = SimpleValueFactory.getInstance();
+			this.resourceAccountant = QueryResourceAccountant.UNLIMITED;
 		}
 
 		/**
 		 * @param dataset that a query should use to the evaluate
 		 */
 		public Minimal(Dataset dataset, ValueFactory vf) {
+			this(dataset, vf, QueryResourceAccountant.UNLIMITED);
+		}
+
+		/**
+		 * @param dataset            that a query should use to the evaluate
+		 * @param resourceAccountant that tracks the resources used by the query
+		 */
+		public Minimal(Dataset dataset, ValueFactory vf, QueryResourceAccountant resourceAccountant) {
 			this.dataset = dataset;
 			this.vf = vf;
+			this.resourceAccountant = resourceAccountant;
 		}
 
 		@Override
@@ -106,6 +119,11 @@ public interface QueryEvaluationContext {
 		public Dataset getDataset() {
 			return dataset;
 		}
+
+		@Override
+		public QueryResourceAccountant getResourceAccountant() {
+			return resourceAccountant;
+		}
 	}
 
 	/**
@@ -118,6 +136,13 @@ public interface QueryEvaluationContext {
 	 */
 	Dataset getDataset();
 
+	/**
+	 * @return The accountant that tracks and limits the resources used by this query.
+	 */
+	default QueryResourceAccountant getResourceAccountant() {
+		return QueryResourceAccountant.UNLIMITED;
+	}
+
 	default MutableBindingSet createBindingSet() {
 		return new QueryBindingSet();
 	}
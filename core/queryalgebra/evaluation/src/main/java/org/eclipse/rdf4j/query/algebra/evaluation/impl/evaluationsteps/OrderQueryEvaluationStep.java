@@ -16,7 +16,10 @@ import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.iterator.OrderIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.iterator.TopKIterator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
 
 public class OrderQueryEvaluationStep implements QueryEvaluationStep {
 
@@ -25,19 +28,43 @@ public class OrderQueryEvaluationStep implements QueryEvaluationStep {
 	private final long limit;
 	private final boolean reduced;
 	private final QueryEvaluationStep preparedArg;
+	private final QueryResourceAccountant resourceAccountant;
 
 	public OrderQueryEvaluationStep(Comparator<BindingSet> cmp, long limit, boolean reduced,
 			QueryEvaluationStep preparedArg, long iterationCacheSyncThreshold) {
+		this(cmp, limit, reduced, preparedArg, iterationCacheSyncThreshold, QueryResourceAccountant.UNLIMITED);
+	}
+
+	public OrderQueryEvaluationStep(Comparator<BindingSet> cmp, long limit, boolean reduced,
+			QueryEvaluationStep preparedArg, long iterationCacheSyncThreshold,
+			QueryResourceAccountant resourceAccountant) {
 		super();
 		this.cmp = cmp;
 		this.limit = limit;
 		this.reduced = reduced;
 		this.preparedArg = preparedArg;
 		this.iterationCacheSyncThreshold = iterationCacheSyncThreshold;
+		this.resourceAccountant = resourceAccountant;
 	}
 
 	@Override
 	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bs) {
-		return new OrderIterator(preparedArg.evaluate(bs), cmp, limit, reduced, iterationCacheSyncThreshold);
+		if (cmp instanceof OrderComparator && isTopK()) {
+			return new TopKIterator(preparedArg.evaluate(bs), (OrderComparator) cmp, (int) limit, reduced,
+					resourceAccountant);
+		}
+		return new OrderIterator(preparedArg.evaluate(bs), cmp, limit, reduced, iterationCacheSyncThreshold,
+				resourceAccountant);
+	}
+
+	/**
+	 * @return {@code true} if the first solutions up to the limit can be kept in a heap, as the {@link OrderIterator}
+	 *         would not sync that many solutions to disk
+	 */
+	private boolean isTopK() {
+		if (limit >= Integer.MAX_VALUE - 8) {
+			return false;
+		}
+		return iterationCacheSyncThreshold <= 0 || limit <= iterationCacheSyncThreshold;
 	}
 }
@@ -0,0 +1,625 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
+
+/**
+ * Removes duplicate solutions from its input. Instead of holding on to every solution that it has returned, the
+ * iteration encodes each solution as a compact binary key and keeps the keys in pages of bytes, indexed by an
+ * open-addressing table of primitive longs. The memory held per solution is therefore little more than the encoded
+ * values of its bindings, and the keys are invisible to the garbage collector.
+ * <p>
+ * Once the table holds as many solutions as the spill threshold, it stops growing. Solutions that are not in the table
+ * are then written to one of a number of partition files, chosen by the hash of their key, and each partition is made
+ * distinct on its own once the input is exhausted. As the solutions of the partitions are returned after all others, a
+ * spill threshold must only be given if the order of the input need not be kept.
+ */
+public class CompactDistinctIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private static final int PARTITION_BITS = 4;
+
+	/**
+	 * The number of times that a partition is split again using other bits of the hash, after which it is made distinct
+	 * in memory.
+	 */
+	private static final int MAX_DEPTH = 4;
+
+	private static final int PAGE_SIZE = 1 << 16;
+
+	private static final byte IRI_TAG = 1;
+
+	private static final byte BNODE_TAG = 2;
+
+	private static final byte LITERAL_TAG = 3;
+
+	private static final byte LANGUAGE_LITERAL_TAG = 4;
+
+	private static final byte TRIPLE_TAG = 5;
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+	/**
+	 * Number of distinct solutions kept in memory before further solutions are partitioned on disk. If set to 0, no
+	 * disk-syncing is done.
+	 */
+	private final long spillThreshold;
+
+	/**
+	 * The directory of the partition files, or {@code null} for the default temporary-file directory.
+	 */
+	private final File directory;
+
+	/**
+	 * The factory of the values of the solutions that are read back from the partition files.
+	 */
+	private final ValueFactory valueFactory;
+
+	private final QueryResourceAccountant accountant;
+
+	private final int depth;
+
+	/**
+	 * The hashes of the keys in the table.
+	 */
+	private long[] hashes = new long[16];
+
+	/**
+	 * The addresses of the keys in the table, plus one, so that an empty slot is 0. The upper half of an address is the
+	 * index of a page and the lower half an offset in that page.
+	 */
+	private long[] addresses = new long[16];
+
+	private int size;
+
+	private final List<byte[]> pages = new ArrayList<>();
+
+	private byte[] page;
+
+	private int pageOffset;
+
+	/**
+	 * Bytes of the table and its pages, as reported to the {@link #accountant}.
+	 */
+	private long allocated;
+
+	/**
+	 * The encoded key of the current solution.
+	 */
+	private byte[] buffer = new byte[256];
+
+	private int length;
+
+	private Binding[] bindings = new Binding[8];
+
+	private Partition[] partitions;
+
+	private int nextPartition;
+
+	private CompactDistinctIteration partitionIteration;
+
+	public CompactDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter) {
+		this(iter, 0, QueryResourceAccountant.UNLIMITED);
+	}
+
+	/**
+	 * @param iter           the solutions to remove duplicates from
+	 * @param spillThreshold the number of distinct solutions kept in memory before the others are partitioned on disk,
+	 *                       or 0 to keep them all in memory, and with them the order of the input
+	 * @param accountant     the accountant to report the memory held by the keys to
+	 */
+	public CompactDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			long spillThreshold, QueryResourceAccountant accountant) {
+		this(iter, spillThreshold, null, SimpleValueFactory.getInstance(), accountant);
+	}
+
+	/**
+	 * @param iter           the solutions to remove duplicates from
+	 * @param spillThreshold the number of distinct solutions kept in memory before the others are partitioned on disk,
+	 *                       or 0 to keep them all in memory, and with them the order of the input
+	 * @param directory      the directory of the partition files, or {@code null} for the default temporary-file
+	 *                       directory
+	 * @param valueFactory   the factory of the values of the solutions that are read back from the partition files
+	 * @param accountant     the accountant to report the memory held by the keys to
+	 */
+	public CompactDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			long spillThreshold, File directory, ValueFactory valueFactory, QueryResourceAccountant accountant) {
+		this(iter, spillThreshold, directory, valueFactory, accountant, 0);
+	}
+
+	private CompactDistinctIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			long spillThreshold, File directory, ValueFactory valueFactory, QueryResourceAccountant accountant,
+			int depth) {
+		this.iter = iter;
+		this.spillThreshold = depth < MAX_DEPTH ? spillThreshold : 0;
+		this.directory = directory;
+		this.valueFactory = valueFactory;
+		this.accountant = accountant;
+		this.depth = depth;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		while (iter.hasNext()) {
+			BindingSet next = iter.next();
+			length = 0;
+			writeBindingSet(next, true);
+			long hash = hash(buffer, length);
+			int slot = find(hash);
+			if (addresses[slot] != 0) {
+				continue;
+			}
+			if (partitions == null) {
+				insert(slot, hash);
+				if (spillThreshold > 0 && size >= spillThreshold) {
+					partitions = new Partition[1 << PARTITION_BITS];
+				}
+				return next;
+			}
+			spill(next, hash);
+		}
+		return partitions == null ? null : nextFromPartitions();
+	}
+
+	private BindingSet nextFromPartitions() throws QueryEvaluationException {
+		// the solutions in the table are never seen again, as the partitions only hold the others
+		release();
+		while (true) {
+			if (partitionIteration != null) {
+				if (partitionIteration.hasNext()) {
+					return partitionIteration.next();
+				}
+				partitionIteration.close();
+				partitionIteration = null;
+			}
+			while (nextPartition < partitions.length && partitions[nextPartition] == null) {
+				nextPartition++;
+			}
+			if (nextPartition == partitions.length) {
+				return null;
+			}
+			Partition partition = partitions[nextPartition];
+			partitions[nextPartition++] = null;
+			partitionIteration = new CompactDistinctIteration(partition.read(valueFactory), spillThreshold, directory,
+					valueFactory, accountant, depth + 1);
+		}
+	}
+
+	private void spill(BindingSet next, long hash) throws QueryEvaluationException {
+		// use other bits of the hash at each depth, so that a partition that is too large is split again
+		int index = (int) (mix(hash + (depth + 1) * 0x9E3779B97F4A7C15L) >>> (Long.SIZE - PARTITION_BITS));
+		try {
+			if (partitions[index] == null) {
+				partitions[index] = new Partition(directory);
+			}
+			// the partition keeps language tags as they are, they are only compared ignoring case
+			length = 0;
+			writeBindingSet(next, false);
+			partitions[index].write(buffer, length);
+		} catch (IOException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
+	private int find(long hash) {
+		int mask = hashes.length - 1;
+		int slot = (int) hash & mask;
+		while (addresses[slot] != 0 && (hashes[slot] != hash || !keyEquals(addresses[slot] - 1))) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private boolean keyEquals(long address) {
+		byte[] keyPage = pages.get((int) (address >>> 32));
+		int offset = (int) address;
+		int keyLength = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = keyPage[offset++];
+			keyLength |= (b & 0x7f) << shift;
+			shift += 7;
+		} while (b < 0);
+		return keyLength == length && Arrays.equals(keyPage, offset, offset + length, buffer, 0, length);
+	}
+
+	private void insert(int slot, long hash) {
+		int recordLength = varIntLength(length) + length;
+		if (page == null || pageOffset + recordLength > page.length) {
+			page = new byte[Math.max(PAGE_SIZE, recordLength)];
+			pageOffset = 0;
+			pages.add(page);
+			allocate(page.length);
+		}
+		hashes[slot] = hash;
+		addresses[slot] = ((long) (pages.size() - 1) << 32 | pageOffset) + 1;
+		int value = length;
+		while ((value & ~0x7f) != 0) {
+			page[pageOffset++] = (byte) (value & 0x7f | 0x80);
+			value >>>= 7;
+		}
+		page[pageOffset++] = (byte) value;
+		System.arraycopy(buffer, 0, page, pageOffset, length);
+		pageOffset += length;
+
+		if (++size * 2 > hashes.length) {
+			grow();
+		}
+	}
+
+	private void grow() {
+		long[] oldHashes = hashes;
+		long[] oldAddresses = addresses;
+		allocate((long) oldHashes.length * 2 * Long.BYTES);
+		hashes = new long[oldHashes.length * 2];
+		addresses = new long[oldHashes.length * 2];
+		int mask = hashes.length - 1;
+		for (int i = 0; i < oldHashes.length; i++) {
+			if (oldAddresses[i] != 0) {
+				int slot = (int) oldHashes[i] & mask;
+				while (addresses[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				hashes[slot] = oldHashes[i];
+				addresses[slot] = oldAddresses[i];
+			}
+		}
+	}
+
+	private void allocate(long bytes) {
+		allocated += bytes;
+		accountant.allocate(bytes);
+	}
+
+	private void release() {
+		if (size == 0 && allocated == 0) {
+			return;
+		}
+		accountant.release(allocated);
+		allocated = 0;
+		pages.clear();
+		page = null;
+		hashes = new long[1];
+		addresses = new long[1];
+		size = 0;
+	}
+
+	/**
+	 * Writes the bindings ordered by name, as binding sets are equal regardless of the order of their bindings.
+	 *
+	 * @param canonical if language tags should be written in lower case, as they are compared ignoring case
+	 */
+	private void writeBindingSet(BindingSet bindingSet, boolean canonical) {
+		int count = 0;
+		for (Binding binding : bindingSet) {
+			if (count == bindings.length) {
+				bindings = Arrays.copyOf(bindings, count * 2);
+			}
+			int i = count++;
+			while (i > 0 && bindings[i - 1].getName().compareTo(binding.getName()) > 0) {
+				bindings[i] = bindings[i - 1];
+				i--;
+			}
+			bindings[i] = binding;
+		}
+		writeVarInt(count);
+		for (int i = 0; i < count; i++) {
+			writeString(bindings[i].getName());
+			writeValue(bindings[i].getValue(), canonical);
+			bindings[i] = null;
+		}
+	}
+
+	private void writeValue(Value value, boolean canonical) {
+		if (value.isIRI()) {
+			writeByte(IRI_TAG);
+			writeString(value.stringValue());
+		} else if (value.isBNode()) {
+			writeByte(BNODE_TAG);
+			writeString(((BNode) value).getID());
+		} else if (value.isLiteral()) {
+			Literal literal = (Literal) value;
+			Optional<String> language = literal.getLanguage();
+			if (language.isPresent()) {
+				writeByte(LANGUAGE_LITERAL_TAG);
+				writeString(literal.getLabel());
+				writeString(canonical ? language.get().toLowerCase(Locale.ROOT) : language.get());
+			} else {
+				writeByte(LITERAL_TAG);
+				writeString(literal.getLabel());
+				writeString(literal.getDatatype().stringValue());
+			}
+		} else if (value.isTriple()) {
+			Triple triple = (Triple) value;
+			writeByte(TRIPLE_TAG);
+			writeValue(triple.getSubject(), canonical);
+			writeValue(triple.getPredicate(), canonical);
+			writeValue(triple.getObject(), canonical);
+		} else {
+			throw new QueryEvaluationException("Unsupported value: " + value);
+		}
+	}
+
+	/**
+	 * Writes the number of chars of the string, followed by each char in one to three bytes as in UTF-8.
+	 */
+	private void writeString(String string) {
+		int stringLength = string.length();
+		writeVarInt(stringLength);
+		ensureCapacity(stringLength * 3);
+		byte[] buffer = this.buffer;
+		int length = this.length;
+		for (int i = 0; i < stringLength; i++) {
+			char c = string.charAt(i);
+			if (c < 0x80) {
+				buffer[length++] = (byte) c;
+			} else if (c < 0x800) {
+				buffer[length++] = (byte) (0xc0 | c >> 6);
+				buffer[length++] = (byte) (0x80 | c & 0x3f);
+			} else {
+				buffer[length++] = (byte) (0xe0 | c >> 12);
+				buffer[length++] = (byte) (0x80 | c >> 6 & 0x3f);
+				buffer[length++] = (byte) (0x80 | c & 0x3f);
+			}
+		}
+		this.length = length;
+	}
+
+	private void writeVarInt(int value) {
+		ensureCapacity(5);
+		while ((value & ~0x7f) != 0) {
+			buffer[length++] = (byte) (value & 0x7f | 0x80);
+			value >>>= 7;
+		}
+		buffer[length++] = (byte) value;
+	}
+
+	private void writeByte(byte value) {
+		ensureCapacity(1);
+		buffer[length++] = value;
+	}
+
+	private void ensureCapacity(int bytes) {
+		if (length + bytes > buffer.length) {
+			buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + bytes));
+		}
+	}
+
+	private static int varIntLength(int value) {
+		int bytes = 1;
+		while ((value & ~0x7f) != 0) {
+			value >>>= 7;
+			bytes++;
+		}
+		return bytes;
+	}
+
+	private static long hash(byte[] bytes, int length) {
+		long hash = 0xcbf29ce484222325L;
+		for (int i = 0; i < length; i++) {
+			hash = (hash ^ (bytes[i] & 0xff)) * 0x100000001b3L;
+		}
+		return mix(hash);
+	}
+
+	private static long mix(long hash) {
+		hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+		return hash ^ (hash >>> 31);
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			release();
+			try {
+				iter.close();
+			} finally {
+				try {
+					if (partitionIteration != null) {
+						partitionIteration.close();
+					}
+				} finally {
+					closePartitions();
+				}
+			}
+		}
+	}
+
+	private void closePartitions() throws QueryEvaluationException {
+		if (partitions == null) {
+			return;
+		}
+		IOException exception = null;
+		for (int i = 0; i < partitions.length; i++) {
+			if (partitions[i] != null) {
+				try {
+					partitions[i].close();
+				} catch (IOException e) {
+					exception = e;
+				}
+				partitions[i] = null;
+			}
+		}
+		if (exception != null) {
+			throw new QueryEvaluationException(exception);
+		}
+	}
+
+	/**
+	 * A temporary file of solutions, in the same encoding as the keys.
+	 */
+	private static final class Partition implements Closeable {
+
+		private final File file;
+
+		private final DataOutputStream output;
+
+		private DataInputStream input;
+
+		private int size;
+
+		private Partition(File directory) throws IOException {
+			file = File.createTempFile("distinct", "", directory);
+			output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+		}
+
+		private void write(byte[] bytes, int length) throws IOException {
+			output.write(bytes, 0, length);
+			size++;
+		}
+
+		private CloseableIteration<BindingSet, QueryEvaluationException> read(ValueFactory vf)
+				throws QueryEvaluationException {
+			try {
+				output.close();
+				input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			} catch (IOException e) {
+				throw new QueryEvaluationException(e);
+			}
+			return new LookAheadIteration<>() {
+
+				private int remaining = size;
+
+				@Override
+				protected BindingSet getNextElement() throws QueryEvaluationException {
+					if (remaining == 0) {
+						return null;
+					}
+					remaining--;
+					try {
+						return readBindingSet(input, vf);
+					} catch (IOException e) {
+						throw new QueryEvaluationException(e);
+					}
+				}
+
+				@Override
+				protected void handleClose() throws QueryEvaluationException {
+					try {
+						super.handleClose();
+					} finally {
+						try {
+							Partition.this.close();
+						} catch (IOException e) {
+							throw new QueryEvaluationException(e);
+						}
+					}
+				}
+			};
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				output.close();
+				if (input != null) {
+					input.close();
+				}
+			} finally {
+				file.delete();
+			}
+		}
+
+		private static BindingSet readBindingSet(DataInputStream input, ValueFactory vf) throws IOException {
+			int count = readVarInt(input);
+			QueryBindingSet bindingSet = new QueryBindingSet(count);
+			for (int i = 0; i < count; i++) {
+				String name = readString(input);
+				bindingSet.addBinding(name, readValue(input, vf));
+			}
+			return bindingSet;
+		}
+
+		private static Value readValue(DataInputStream input, ValueFactory vf) throws IOException {
+			byte tag = input.readByte();
+			switch (tag) {
+			case IRI_TAG:
+				return vf.createIRI(readString(input));
+			case BNODE_TAG:
+				return vf.createBNode(readString(input));
+			case LITERAL_TAG:
+				String label = readString(input);
+				return vf.createLiteral(label, vf.createIRI(readString(input)));
+			case LANGUAGE_LITERAL_TAG:
+				String languageLabel = readString(input);
+				return vf.createLiteral(languageLabel, readString(input));
+			case TRIPLE_TAG:
+				Resource subject = (Resource) readValue(input, vf);
+				IRI predicate = (IRI) readValue(input, vf);
+				return vf.createTriple(subject, predicate, readValue(input, vf));
+			default:
+				throw new IOException("Unknown value tag " + tag);
+			}
+		}
+
+		private static String readString(DataInputStream input) throws IOException {
+			int length = readVarInt(input);
+			char[] chars = new char[length];
+			for (int i = 0; i < length; i++) {
+				int b = input.readUnsignedByte();
+				if (b < 0x80) {
+					chars[i] = (char) b;
+				} else if (b < 0xe0) {
+					chars[i] = (char) ((b & 0x1f) << 6 | input.readUnsignedByte() & 0x3f);
+				} else {
+					int b2 = input.readUnsignedByte();
+					chars[i] = (char) ((b & 0x0f) << 12 | (b2 & 0x3f) << 6 | input.readUnsignedByte() & 0x3f);
+				}
+			}
+			return new String(chars);
+		}
+
+		private static int readVarInt(DataInputStream input) throws IOException {
+			int value = 0;
+			int shift = 0;
+			int b;
+			do {
+				b = input.readUnsignedByte();
+				value |= (b & 0x7f) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+	}
+}
@@ -19,6 +19,16 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
@@ -30,6 +40,7 @@ import org.eclipse.rdf4j.collection.factory.api.BindingSetEntry;
 import org.eclipse.rdf4j.collection.factory.api.BindingSetKey;
 import org.eclipse.rdf4j.collection.factory.api.CollectionFactory;
 import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
 import org.eclipse.rdf4j.model.Literal;
@@ -38,30 +49,39 @@ import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.base.CoreDatatype;
 import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FN;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.MutableBindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.QueryInterruptedException;
 import org.eclipse.rdf4j.query.algebra.AggregateFunctionCall;
 import org.eclipse.rdf4j.query.algebra.AggregateOperator;
 import org.eclipse.rdf4j.query.algebra.Avg;
 import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.FunctionCall;
 import org.eclipse.rdf4j.query.algebra.Group;
 import org.eclipse.rdf4j.query.algebra.GroupConcat;
 import org.eclipse.rdf4j.query.algebra.GroupElem;
 import org.eclipse.rdf4j.query.algebra.MathExpr.MathOp;
 import org.eclipse.rdf4j.query.algebra.Max;
 import org.eclipse.rdf4j.query.algebra.Min;
+import org.eclipse.rdf4j.query.algebra.QueryModelNode;
 import org.eclipse.rdf4j.query.algebra.Sample;
 import org.eclipse.rdf4j.query.algebra.Sum;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.UnaryValueOperator;
 import org.eclipse.rdf4j.query.algebra.ValueExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryValueEvaluationStep;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 import org.eclipse.rdf4j.query.parser.sparql.aggregate.AggregateCollector;
 import org.eclipse.rdf4j.query.parser.sparql.aggregate.AggregateFunction;
@@ -81,6 +101,45 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	 * Constants *
 	 *-----------*/
 
+	/**
+	 * Estimated size of the state kept for each aggregate of a group.
+	 */
+	private static final long AGGREGATE_STATE_SIZE = 64;
+
+	/**
+	 * System property that sets the number of threads that aggregate the solutions of a grouping with many groups in
+	 * parallel. Defaults to {@code 1}, which disables parallel aggregation. The threads are taken from a pool that is
+	 * shared by all queries and has as many threads as there are available processors, so a query may use fewer threads
+	 * than configured.
+	 */
+	public static final String PARALLELISM_PROPERTY = "org.eclipse.rdf4j.query.algebra.evaluation.groupByParallelism";
+
+	private static final int DEFAULT_PARALLELISM = Integer.getInteger(PARALLELISM_PROPERTY, 1);
+
+	/**
+	 * Number of solutions that are aggregated by the calling thread before the remaining solutions are aggregated in
+	 * parallel, so that small groupings do not pay for handing solutions over to other threads.
+	 */
+	private static final int DEFAULT_PARALLEL_THRESHOLD = 10_000;
+
+	/**
+	 * Number of groups that each aggregating thread should own before the solutions are aggregated in parallel. Each
+	 * group is aggregated by a single thread, so groupings with few groups would keep only a few threads busy.
+	 */
+	private static final int MIN_GROUPS_PER_THREAD = 16;
+
+	/**
+	 * Number of solutions handed over to an aggregating thread at a time.
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	/**
+	 * Number of batches that may wait for each aggregating thread before the calling thread blocks.
+	 */
+	private static final int QUEUED_BATCHES = 4;
+
+	private static final AggregatorPool AGGREGATORS = new AggregatorPool(Runtime.getRuntime().availableProcessors());
+
 	private final EvaluationStrategy strategy;
 
 	private final BindingSet parentBindings;
@@ -95,6 +154,17 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 
 	private final CollectionFactory cf;
 
+	private final int parallelism;
+
+	private final int parallelThreshold;
+
+	private final AggregatorPool aggregators;
+
+	/**
+	 * Estimated size of the groups held in memory, as reported to the resource accountant of the query.
+	 */
+	private long bufferedBytes;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -114,6 +184,13 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	public GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings,
 			long iterationCacheSyncThreshold, QueryEvaluationContext context, ValueFactory vf, CollectionFactory cf)
 			throws QueryEvaluationException {
+		this(strategy, group, parentBindings, context, vf, cf, DEFAULT_PARALLELISM, DEFAULT_PARALLEL_THRESHOLD,
+				AGGREGATORS);
+	}
+
+	GroupIterator(EvaluationStrategy strategy, Group group, BindingSet parentBindings, QueryEvaluationContext context,
+			ValueFactory vf, CollectionFactory cf, int parallelism, int parallelThreshold, AggregatorPool aggregators)
+			throws QueryEvaluationException {
 		this.strategy = strategy;
 		this.group = group;
 		this.parentBindings = parentBindings;
@@ -122,6 +199,9 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		this.context = context;
 		this.vf = vf;
 		this.cf = cf;
+		this.parallelism = parallelism;
+		this.parallelThreshold = parallelThreshold;
+		this.aggregators = aggregators;
 		this.arguments = strategy.precompile(group.getArg(), context);
 	}
 
@@ -132,6 +212,8 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 	@Override
 	public void handleClose() throws QueryEvaluationException {
 		try {
+			context.getResourceAccountant().release(bufferedBytes);
+			bufferedBytes = 0;
 			cf.close();
 		} finally {
 			super.handleClose();
@@ -292,26 +374,212 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 				Map<BindingSetKey, Entry> entries = new LinkedHashMap<>();
 				// Make an optimized hash function valid during this query evaluation step.
 				ToIntFunction<BindingSet> hashMaker = cf.hashOfBindingSetFuntion(getValues);
+				boolean parallel = isParallelizable(aggregates);
+				long count = 0;
 				while (iter.hasNext()) {
+					if (parallel && count++ == parallelThreshold) {
+						parallel = false;
+						if (entries.size() >= (long) parallelism * MIN_GROUPS_PER_THREAD) {
+							int threads = aggregators.acquire(parallelism);
+							try {
+								if (threads > 1) {
+									aggregateInParallel(iter, entries, getValues, hashMaker, aggregates, threads);
+									break;
+								}
+							} finally {
+								aggregators.release(threads);
+							}
+						}
+					}
 					BindingSet sol = iter.next();
 					// The binding set key will be constant
 					BindingSetKey key = cf.createBindingSetKey(sol, getValues, hashMaker);
-					Entry entry = entries.get(key);
-					if (entry == null) {
-						List<AggregateCollector> collectors = makeCollectors(aggregates);
-						List<Predicate<?>> predicates = new ArrayList<>(aggregates.size());
-						for (AggregatePredicateCollectorSupplier<?, ?> a : aggregates) {
-							predicates.add(a.makePotentialDistinctTest.get());
-						}
+					getEntry(entries, key, sol, aggregates).addSolution(sol, aggregates);
+				}
+				return entries.values();
+			}
+		}
+	}
 
-						entry = new Entry(sol, collectors, predicates);
-						entries.put(key, entry);
-					}
+	private Entry getEntry(Map<BindingSetKey, Entry> entries, BindingSetKey key, BindingSet sol,
+			List<AggregatePredicateCollectorSupplier<?, ?>> aggregates) {
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			List<AggregateCollector> collectors = makeCollectors(aggregates);
+			List<Predicate<?>> predicates = new ArrayList<>(aggregates.size());
+			for (AggregatePredicateCollectorSupplier<?, ?> a : aggregates) {
+				predicates.add(a.makePotentialDistinctTest.get());
+			}
+
+			entry = new Entry(sol, collectors, predicates);
+			entries.put(key, entry);
+			QueryResourceAccountant accountant = context.getResourceAccountant();
+			if (!accountant.isUnlimited()) {
+				// the group key, its prototype solution and the state of each aggregate
+				long size = QueryResourceAccountant.estimateSize(sol)
+						+ AGGREGATE_STATE_SIZE * (aggregates.size() + 1);
+				bufferedBytes += size;
+				accountant.allocate(size);
+			}
+		}
+		return entry;
+	}
+
+	/**
+	 * Checks whether the aggregates can be computed by several threads. Aggregates over distinct values keep their
+	 * values in sets of the collection factory, which need not be safe to use from several threads. Arguments that
+	 * contain a subquery, such as EXISTS, or a call of a custom function could use the triple source of the query, and
+	 * thereby its connection, from several threads.
+	 */
+	private boolean isParallelizable(List<AggregatePredicateCollectorSupplier<?, ?>> aggregates) {
+		if (parallelism <= 1) {
+			return false;
+		}
+		for (GroupElem ge : group.getGroupElements()) {
+			AggregateOperator operator = ge.getOperator();
+			if (operator.isDistinct() || !isThreadSafe(operator)) {
+				return false;
+			}
+		}
+		for (AggregatePredicateCollectorSupplier<?, ?> a : aggregates) {
+			if (!a.agg.isParallelizable()) {
+				return false;
+			}
+		}
+		return true;
+	}
 
-					entry.addSolution(sol, aggregates);
+	private static boolean isThreadSafe(QueryModelNode node) {
+		boolean[] threadSafe = { true };
+		node.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+			@Override
+			protected void meetNode(QueryModelNode node) {
+				if (node instanceof TupleExpr
+						|| node instanceof FunctionCall && !isBuiltinFunction(((FunctionCall) node).getURI())) {
+					threadSafe[0] = false;
+				} else {
+					super.meetNode(node);
+				}
+			}
+		});
+		return threadSafe[0];
+	}
+
+	/**
+	 * The SPARQL functions that are evaluated as function calls are named without a namespace, or are in the XPath
+	 * functions, XML Schema or RDF namespace.
+	 */
+	private static boolean isBuiltinFunction(String uri) {
+		return uri.indexOf(':') < 0 || uri.startsWith(FN.NAMESPACE) || uri.startsWith(XSD.NAMESPACE)
+				|| uri.startsWith(RDF.NAMESPACE);
+	}
+
+	/**
+	 * Aggregates the remaining solutions of the iteration on several threads. The calling thread looks up the group of
+	 * each solution and hands the solution over to the thread that owns the group, based on the hash of the group key.
+	 * Each group is therefore only updated by a single thread, which processes its solutions in their original order,
+	 * and the groups of all threads together form the result without the need to merge partial aggregates. This only
+	 * pays off if there are many more groups than threads, as the solutions of a single group are never aggregated in
+	 * parallel.
+	 */
+	private void aggregateInParallel(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			Map<BindingSetKey, Entry> entries, List<Function<BindingSet, Value>> getValues,
+			ToIntFunction<BindingSet> hashMaker, List<AggregatePredicateCollectorSupplier<?, ?>> aggregates,
+			int threads) throws QueryEvaluationException {
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		List<BlockingQueue<Batch>> queues = new ArrayList<>(threads);
+		List<Future<?>> workers = new ArrayList<>(threads);
+		Batch[] batches = new Batch[threads];
+		try {
+			for (int i = 0; i < threads; i++) {
+				BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+				queues.add(queue);
+				workers.add(aggregators.submit(() -> aggregate(queue, aggregates, failure)));
+				batches[i] = new Batch();
+			}
+			while (failure.get() == null && iter.hasNext()) {
+				BindingSet sol = iter.next();
+				BindingSetKey key = cf.createBindingSetKey(sol, getValues, hashMaker);
+				Entry entry = getEntry(entries, key, sol, aggregates);
+
+				int hash = key.hashCode();
+				int partition = Math.floorMod(hash ^ (hash >>> 16), threads);
+				Batch batch = batches[partition];
+				batch.entries[batch.size] = entry;
+				batch.solutions[batch.size] = sol;
+				if (++batch.size == BATCH_SIZE) {
+					handOver(queues.get(partition), batch, workers.get(partition));
+					batches[partition] = new Batch();
 				}
-				return entries.values();
 			}
+			for (int i = 0; i < threads; i++) {
+				if (batches[i].size > 0) {
+					handOver(queues.get(i), batches[i], workers.get(i));
+				}
+			}
+		} finally {
+			for (int i = 0; i < workers.size(); i++) {
+				handOver(queues.get(i), Batch.END, workers.get(i));
+			}
+			for (Future<?> worker : workers) {
+				try {
+					worker.get();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new QueryInterruptedException(e);
+				} catch (ExecutionException e) {
+					failure.compareAndSet(null, e.getCause());
+				}
+			}
+		}
+
+		Throwable t = failure.get();
+		if (t instanceof RuntimeException) {
+			throw (RuntimeException) t;
+		} else if (t instanceof Error) {
+			throw (Error) t;
+		} else if (t != null) {
+			throw new QueryEvaluationException(t);
+		}
+	}
+
+	private static void handOver(BlockingQueue<Batch> queue, Batch batch, Future<?> aggregator) {
+		try {
+			while (!queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+				if (aggregator.isDone()) {
+					// the aggregator stopped unexpectedly, its failure is reported when it is joined
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QueryInterruptedException(e);
+		}
+	}
+
+	private static void aggregate(BlockingQueue<Batch> queue,
+			List<AggregatePredicateCollectorSupplier<?, ?>> aggregates, AtomicReference<Throwable> failure) {
+		try {
+			while (true) {
+				Batch batch = queue.take();
+				if (batch == Batch.END) {
+					return;
+				}
+				if (failure.get() != null) {
+					// keep taking batches so that the calling thread does not block
+					continue;
+				}
+				try {
+					for (int i = 0; i < batch.size; i++) {
+						batch.entries[i].addSolution(batch.solutions[i], aggregates);
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			}
+		} catch (InterruptedException e) {
+			failure.compareAndSet(null, new QueryInterruptedException(e));
+			Thread.currentThread().interrupt();
 		}
 	}
 
@@ -345,6 +613,65 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 		return collectors;
 	}
 
+	/**
+	 * The threads that aggregate solutions in parallel, shared by all groupings. A grouping reserves its threads before
+	 * it hands solutions over to them, so that each of its aggregating tasks runs on its own thread and the pool never
+	 * runs more tasks than it has threads.
+	 */
+	static final class AggregatorPool {
+
+		private final ThreadPoolExecutor executor;
+
+		private final Semaphore permits;
+
+		AggregatorPool(int threads) {
+			executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+					runnable -> {
+						Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+						thread.setName("rdf4j-group-aggregator-" + thread.getId());
+						thread.setDaemon(true);
+						return thread;
+					});
+			executor.allowCoreThreadTimeOut(true);
+			permits = new Semaphore(threads);
+		}
+
+		/**
+		 * Reserves up to the requested number of threads, without waiting for threads used by other groupings.
+		 *
+		 * @return the number of reserved threads
+		 */
+		int acquire(int requested) {
+			int acquired = 0;
+			while (acquired < requested && permits.tryAcquire()) {
+				acquired++;
+			}
+			return acquired;
+		}
+
+		void release(int threads) {
+			permits.release(threads);
+		}
+
+		Future<?> submit(Runnable task) {
+			return executor.submit(task);
+		}
+	}
+
+	/**
+	 * Solutions that are handed over to an aggregating thread, together with the groups they belong to.
+	 */
+	private static final class Batch {
+
+		private static final Batch END = new Batch();
+
+		private final Entry[] entries = new Entry[BATCH_SIZE];
+
+		private final BindingSet[] solutions = new BindingSet[BATCH_SIZE];
+
+		private int size;
+	}
+
 	private static class Entry implements BindingSetEntry {
 
 		private static final long serialVersionUID = 1L;
@@ -611,6 +938,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			super(f);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, CountCollector agv)
 				throws QueryEvaluationException {
@@ -627,6 +959,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			super(null);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<BindingSet> distinctValue, CountCollector agv)
 				throws QueryEvaluationException {
@@ -646,6 +983,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			comparator.setStrict(strict);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, ValueCollector min)
 				throws QueryEvaluationException {
@@ -670,6 +1012,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			comparator.setStrict(strict);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, ValueCollector max)
 				throws QueryEvaluationException {
@@ -689,6 +1036,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			super(f);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, IntegerCollector sum)
 				throws QueryEvaluationException {
@@ -722,6 +1074,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			super(operator);
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, AvgCollector avg)
 				throws QueryEvaluationException {
@@ -774,6 +1131,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			random = new Random(System.currentTimeMillis());
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinct, SampleCollector sample)
 				throws QueryEvaluationException {
@@ -821,6 +1183,11 @@ public class GroupIterator extends CloseableIteratorIteration<BindingSet, QueryE
 			this.separator = DEFAULT_SEPERATOR;
 		}
 
+		@Override
+		public boolean isParallelizable() {
+			return true;
+		}
+
 		@Override
 		public void processAggregate(BindingSet s, Predicate<Value> distinctValue, StringBuilderCollector collector)
 				throws QueryEvaluationException {
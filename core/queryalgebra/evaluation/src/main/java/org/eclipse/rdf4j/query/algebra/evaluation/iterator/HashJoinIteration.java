@@ -35,6 +35,7 @@ import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
 
@@ -61,6 +62,13 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 	private final IntFunction<List<BindingSet>> mapValueMaker;
 	private final Function<BindingSet, MutableBindingSet> bsMaker;
 
+	private final QueryResourceAccountant resourceAccountant;
+
+	/**
+	 * Estimated size of the solutions buffered by this join, as reported to the {@link #resourceAccountant}.
+	 */
+	private long bufferedBytes;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -96,6 +104,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.mapMaker = this::makeHashTable;
 		this.mapValueMaker = this::makeHashValue;
 		this.bsMaker = context::createBindingSet;
+		this.resourceAccountant = context.getResourceAccountant();
 	}
 
 	public HashJoinIteration(
@@ -112,6 +121,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.leftJoin = leftJoin;
 		this.mapValueMaker = this::makeHashValue;
 		this.bsMaker = QueryBindingSet::new;
+		this.resourceAccountant = QueryResourceAccountant.UNLIMITED;
 	}
 
 	@Deprecated(forRemoval = true)
@@ -130,6 +140,7 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		this.leftJoin = leftJoin;
 		this.mapValueMaker = mapValueMaker;
 		this.bsMaker = QueryBindingSet::new;
+		this.resourceAccountant = QueryResourceAccountant.UNLIMITED;
 	}
 
 	/*---------*
@@ -245,6 +256,8 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 						} finally {
 							Map<BindingSetHashKey, List<BindingSet>> toCloseHashTable = hashTable;
 							hashTable = null;
+							resourceAccountant.release(bufferedBytes);
+							bufferedBytes = 0;
 							if (toCloseHashTable != null) {
 								disposeHashTable(toCloseHashTable);
 							}
@@ -263,14 +276,14 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 			leftArgResults = makeIterationCache(leftIter);
 
 			while (leftIter.hasNext() && rightIter.hasNext()) {
-				add(leftArgResults, leftIter.next());
-				add(rightArgResults, rightIter.next());
+				buffer(leftArgResults, leftIter.next());
+				buffer(rightArgResults, rightIter.next());
 			}
 		} else {
 			leftArgResults = Collections.emptyList();
 
 			while (rightIter.hasNext()) {
-				add(rightArgResults, rightIter.next());
+				buffer(rightArgResults, rightIter.next());
 			}
 		}
 
@@ -312,6 +325,15 @@ public class HashJoinIteration extends LookAheadIteration<BindingSet, QueryEvalu
 		return resultHashTable;
 	}
 
+	private void buffer(Collection<BindingSet> cache, BindingSet bindings) throws QueryEvaluationException {
+		add(cache, bindings);
+		if (!resourceAccountant.isUnlimited()) {
+			long size = QueryResourceAccountant.estimateSize(bindings);
+			bufferedBytes += size;
+			resourceAccountant.allocate(size);
+		}
+	}
+
 	protected void putHashTableEntry(Map<BindingSetHashKey, List<BindingSet>> nextHashTable, BindingSetHashKey hashKey,
 			List<BindingSet> hashValue, boolean newEntry) throws QueryEvaluationException {
 		// by default, we use a standard memory hash map
@@ -37,6 +37,9 @@ import org.eclipse.rdf4j.common.iteration.Iteration;
 import org.eclipse.rdf4j.common.iteration.LimitIteration;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueSortKey;
 
 /**
  * Sorts the input and optionally applies limit and distinct.
@@ -244,6 +247,13 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 	 */
 	private final long iterationSyncThreshold;
 
+	private final QueryResourceAccountant resourceAccountant;
+
+	/**
+	 * Estimated size of the solutions held in memory, as reported to the {@link #resourceAccountant}.
+	 */
+	private long bufferedBytes;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -260,11 +270,18 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 
 	public OrderIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter,
 			Comparator<BindingSet> comparator, long limit, boolean distinct, long iterationSyncThreshold) {
+		this(iter, comparator, limit, distinct, iterationSyncThreshold, QueryResourceAccountant.UNLIMITED);
+	}
+
+	public OrderIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter,
+			Comparator<BindingSet> comparator, long limit, boolean distinct, long iterationSyncThreshold,
+			QueryResourceAccountant resourceAccountant) {
 		this.iter = iter;
 		this.comparator = comparator;
 		this.limit = limit;
 		this.distinct = distinct;
 		this.iterationSyncThreshold = iterationSyncThreshold > 0 ? iterationSyncThreshold : Integer.MAX_VALUE;
+		this.resourceAccountant = resourceAccountant;
 	}
 
 	/*---------*
@@ -284,6 +301,8 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 					sort(list).forEach(queue::add);
 					serialized.add(queue);
 					decrement(list.size() - queue.size());
+					resourceAccountant.release(bufferedBytes);
+					bufferedBytes = 0;
 					list = new ArrayList<>(list.size());
 					if (threshold == null && serialized.stream().mapToLong(SerializedQueue::size).sum() >= limit) {
 						Stream<BindingSet> stream = serialized.stream().map(SerializedQueue::peekLast);
@@ -293,6 +312,10 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 					List<BindingSet> sorted = new ArrayList<>(limit2);
 					sort(list).forEach(sorted::add);
 					decrement(list.size() - sorted.size());
+					// assume that the discarded solutions were of average size
+					long retainedBytes = list.isEmpty() ? 0 : bufferedBytes / list.size() * sorted.size();
+					resourceAccountant.release(bufferedBytes - retainedBytes);
+					bufferedBytes = retainedBytes;
 					list = sorted;
 					if (sorted.size() >= limit) {
 						threshold = sorted.get(sorted.size() - 1);
@@ -302,6 +325,11 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 				if (threshold == null || comparator.compare(next, threshold) < 0) {
 					list.add(next);
 					increment();
+					if (!resourceAccountant.isUnlimited()) {
+						long size = QueryResourceAccountant.estimateSize(next);
+						bufferedBytes += size;
+						resourceAccountant.allocate(size);
+					}
 				}
 			}
 		} catch (IOException e) {
@@ -333,7 +361,11 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 
 	private Stream<BindingSet> sort(Collection<BindingSet> collection) {
 		BindingSet[] array = collection.toArray(new BindingSet[collection.size()]);
-		Arrays.parallelSort(array, comparator);
+		if (comparator instanceof OrderComparator) {
+			sort(array, (OrderComparator) comparator);
+		} else {
+			Arrays.parallelSort(array, comparator);
+		}
 		Stream<BindingSet> stream = Stream.of(array);
 		if (distinct) {
 			stream = stream.distinct();
@@ -344,6 +376,22 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 		return stream;
 	}
 
+	/**
+	 * Sorts the solutions on the keys of their order elements, which are prepared once per solution rather than once
+	 * per comparison.
+	 */
+	private static void sort(BindingSet[] array, OrderComparator comparator) {
+		ValueSortKey[][] keys = new ValueSortKey[array.length][];
+		Arrays.parallelSetAll(keys, i -> comparator.getSortKeys(array[i]));
+		Integer[] indexes = new Integer[array.length];
+		Arrays.setAll(indexes, i -> i);
+		Arrays.parallelSort(indexes, (i, j) -> comparator.compare(array[i], keys[i], array[j], keys[j]));
+		BindingSet[] unsorted = array.clone();
+		for (int i = 0; i < indexes.length; i++) {
+			array[i] = unsorted[indexes[i]];
+		}
+	}
+
 	@Override
 	public void remove() throws QueryEvaluationException {
 		throw new UnsupportedOperationException();
@@ -354,6 +402,8 @@ public class OrderIterator extends DelayedIteration<BindingSet, QueryEvaluationE
 		try {
 			super.handleClose();
 		} finally {
+			resourceAccountant.release(bufferedBytes);
+			bufferedBytes = 0;
 			try {
 				iter.close();
 			} finally {
@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueSortKey;
+
+/**
+ * Returns the first solutions of the input in the order of an {@link OrderComparator}, up to a limit. The solutions are
+ * kept in a binary heap that holds at most as many solutions as the limit, with the last of them at the top, so that a
+ * solution that does not come before the top is discarded with a single comparison. The values of the order elements
+ * are evaluated once per solution, and kept next to it in the heap as {@link ValueSortKey}s.
+ */
+public class TopKIterator extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private final CloseableIteration<BindingSet, QueryEvaluationException> iter;
+
+	private final OrderComparator comparator;
+
+	private final int limit;
+
+	private final QueryResourceAccountant resourceAccountant;
+
+	/**
+	 * The solutions in the heap, if the solutions must be distinct.
+	 */
+	private final Set<BindingSet> distinct;
+
+	private BindingSet[] solutions = new BindingSet[16];
+
+	private ValueSortKey[][] sortKeys = new ValueSortKey[16][];
+
+	private long[] sizes;
+
+	private int size;
+
+	private int next = -1;
+
+	/**
+	 * Estimated size of the solutions in the heap, as reported to the {@link #resourceAccountant}.
+	 */
+	private long bufferedBytes;
+
+	/**
+	 * @param iter               the solutions to order
+	 * @param comparator         the order of the solutions
+	 * @param limit              the number of solutions to return
+	 * @param distinct           if duplicate solutions should be returned once
+	 * @param resourceAccountant the accountant to report the solutions in the heap to
+	 */
+	public TopKIterator(CloseableIteration<BindingSet, QueryEvaluationException> iter, OrderComparator comparator,
+			int limit, boolean distinct, QueryResourceAccountant resourceAccountant) {
+		this.iter = iter;
+		this.comparator = comparator;
+		this.limit = limit;
+		this.distinct = distinct ? new HashSet<>() : null;
+		this.resourceAccountant = resourceAccountant;
+		if (!resourceAccountant.isUnlimited()) {
+			sizes = new long[16];
+		}
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (next < 0) {
+			fill();
+			next = 0;
+		}
+		if (next == size) {
+			return null;
+		}
+		BindingSet solution = solutions[next];
+		solutions[next++] = null;
+		return solution;
+	}
+
+	private void fill() throws QueryEvaluationException {
+		try {
+			while (iter.hasNext() && limit > 0) {
+				BindingSet solution = iter.next();
+				if (distinct != null && distinct.contains(solution)) {
+					continue;
+				}
+				ValueSortKey[] keys = comparator.getSortKeys(solution);
+				if (size < limit) {
+					add(solution, keys);
+				} else if (comparator.compare(solution, keys, solutions[0], sortKeys[0]) < 0) {
+					replaceTop(solution, keys);
+				}
+			}
+		} finally {
+			iter.close();
+		}
+		sort();
+	}
+
+	private void add(BindingSet solution, ValueSortKey[] keys) {
+		if (size == solutions.length) {
+			int capacity = (int) Math.min((long) size * 2, limit);
+			solutions = Arrays.copyOf(solutions, capacity);
+			sortKeys = Arrays.copyOf(sortKeys, capacity);
+			if (sizes != null) {
+				sizes = Arrays.copyOf(sizes, capacity);
+			}
+		}
+		int i = size++;
+		set(i, solution, keys);
+		// sift up while the solution comes after its parent
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (compare(i, parent) <= 0) {
+				break;
+			}
+			swap(i, parent);
+			i = parent;
+		}
+	}
+
+	private void replaceTop(BindingSet solution, ValueSortKey[] keys) {
+		if (distinct != null) {
+			distinct.remove(solutions[0]);
+		}
+		if (sizes != null) {
+			resourceAccountant.release(sizes[0]);
+			bufferedBytes -= sizes[0];
+		}
+		set(0, solution, keys);
+		siftDown(0, size);
+	}
+
+	private void set(int i, BindingSet solution, ValueSortKey[] keys) {
+		solutions[i] = solution;
+		sortKeys[i] = keys;
+		if (distinct != null) {
+			distinct.add(solution);
+		}
+		if (sizes != null) {
+			long bytes = QueryResourceAccountant.estimateSize(solution);
+			resourceAccountant.allocate(bytes);
+			bufferedBytes += bytes;
+			sizes[i] = bytes;
+		}
+	}
+
+	private void siftDown(int i, int size) {
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				return;
+			}
+			if (child + 1 < size && compare(child + 1, child) > 0) {
+				child++;
+			}
+			if (compare(child, i) <= 0) {
+				return;
+			}
+			swap(i, child);
+			i = child;
+		}
+	}
+
+	/**
+	 * Sorts the heap in place, by moving the top, the last of the remaining solutions, to the end.
+	 */
+	private void sort() {
+		for (int end = size - 1; end > 0; end--) {
+			swap(0, end);
+			siftDown(0, end);
+		}
+		sortKeys = null;
+	}
+
+	private int compare(int i, int j) {
+		return comparator.compare(solutions[i], sortKeys[i], solutions[j], sortKeys[j]);
+	}
+
+	private void swap(int i, int j) {
+		BindingSet solution = solutions[i];
+		solutions[i] = solutions[j];
+		solutions[j] = solution;
+		ValueSortKey[] keys = sortKeys[i];
+		sortKeys[i] = sortKeys[j];
+		sortKeys[j] = keys;
+		if (sizes != null) {
+			long bytes = sizes[i];
+			sizes[i] = sizes[j];
+			sizes[j] = bytes;
+		}
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			resourceAccountant.release(bufferedBytes);
+			bufferedBytes = 0;
+			iter.close();
+		}
+	}
+}
@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import java.util.Queue;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.StatementPattern.Scope;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+
+/**
+ * Evaluates an {@link ArbitraryLengthPath} over a single predicate, such as {@code ?x rdfs:subClassOf+ ?y} or
+ * {@code ?x ^ex:parent* ?y}, directly against a {@link TripleSource}.
+ * <p>
+ * Where {@link PathIteration} re-evaluates the path expression for every pair of values it reaches, this iteration
+ * follows the edges of the predicate from a single node at a time and only keeps the set of visited nodes. The search
+ * starts from the end of the path that is bound: forwards from a bound subject, backwards from a bound object, and from
+ * both ends at once if both are bound, in which case the search stops as soon as the two meet. If neither end is bound,
+ * a forward search is run from every subject of the predicate.
+ *
+ * @see #supports(ArbitraryLengthPath)
+ */
+public class TransitivePathIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+
+	private final EvaluationStrategy strategy;
+
+	private final TripleSource tripleSource;
+
+	private final IRI predicate;
+
+	private final boolean inverse;
+
+	private final Var subjectVar;
+
+	private final Var objectVar;
+
+	private final boolean includeZeroLength;
+
+	private final BindingSet bindings;
+
+	private final Value subject;
+
+	private final Value object;
+
+	private Search search;
+
+	private CloseableIteration<? extends Statement, QueryEvaluationException> startNodes;
+
+	private Set<Value> visitedStartNodes;
+
+	private boolean done;
+
+	/**
+	 * @param strategy     the strategy that provides the sets and queues to search with
+	 * @param tripleSource the source of the statements
+	 * @param path         a path for which {@link #supports(ArbitraryLengthPath)} returned {@code true}
+	 * @param bindings     bindings for which {@link #supports(ArbitraryLengthPath, BindingSet)} returned {@code true}
+	 */
+	public TransitivePathIteration(EvaluationStrategy strategy, TripleSource tripleSource, ArbitraryLengthPath path,
+			BindingSet bindings) {
+		StatementPattern pattern = (StatementPattern) path.getPathExpression();
+		this.strategy = strategy;
+		this.tripleSource = tripleSource;
+		this.predicate = (IRI) pattern.getPredicateVar().getValue();
+		this.inverse = !pattern.getSubjectVar().getName().equals(path.getSubjectVar().getName());
+		this.subjectVar = path.getSubjectVar();
+		this.objectVar = path.getObjectVar();
+		this.includeZeroLength = path.getMinLength() == 0;
+		this.bindings = bindings;
+		this.subject = getValue(subjectVar, bindings);
+		this.object = getValue(objectVar, bindings);
+	}
+
+	/**
+	 * Checks whether a path can be evaluated by this iteration: its path expression is a single statement pattern with
+	 * a constant predicate that connects the subject and object of the path, in either direction, and neither the path
+	 * nor the pattern is restricted to a graph. The caller must in addition make sure that the query does not specify a
+	 * dataset.
+	 *
+	 * @param path an arbitrary-length path
+	 * @return {@code true} if the path can be evaluated by this iteration
+	 */
+	public static boolean supports(ArbitraryLengthPath path) {
+		TupleExpr pathExpression = path.getPathExpression();
+		// subclasses of statement patterns may be evaluated differently, for example by a federation
+		if (pathExpression.getClass() != StatementPattern.class || path.getMinLength() > 1
+				|| path.getContextVar() != null
+				|| path.getScope() != Scope.DEFAULT_CONTEXTS) {
+			return false;
+		}
+		StatementPattern pattern = (StatementPattern) pathExpression;
+		if (pattern.getContextVar() != null || pattern.getScope() != Scope.DEFAULT_CONTEXTS
+				|| !(pattern.getPredicateVar().getValue() instanceof IRI)) {
+			return false;
+		}
+		String subjectName = path.getSubjectVar().getName();
+		String objectName = path.getObjectVar().getName();
+		if (subjectName.equals(objectName)) {
+			return false;
+		}
+		String patternSubject = pattern.getSubjectVar().getName();
+		String patternObject = pattern.getObjectVar().getName();
+		return subjectName.equals(patternSubject) && objectName.equals(patternObject)
+				|| subjectName.equals(patternObject) && objectName.equals(patternSubject);
+	}
+
+	/**
+	 * Checks whether a path that is {@link #supports(ArbitraryLengthPath) supported} can be evaluated with the supplied
+	 * bindings. Zero-length paths between any two nodes are left to {@link PathIteration}, because they include every
+	 * node of the graph rather than only the nodes connected by the predicate.
+	 *
+	 * @param path     an arbitrary-length path for which {@link #supports(ArbitraryLengthPath)} returned {@code true}
+	 * @param bindings the bindings to evaluate the path with
+	 * @return {@code true} if the path can be evaluated by this iteration with the supplied bindings
+	 */
+	public static boolean supports(ArbitraryLengthPath path, BindingSet bindings) {
+		Var subjectVar = path.getSubjectVar();
+		Var objectVar = path.getObjectVar();
+		if (isUnbound(subjectVar, bindings) || isUnbound(objectVar, bindings)) {
+			return false;
+		}
+		return path.getMinLength() > 0 || getValue(subjectVar, bindings) != null
+				|| getValue(objectVar, bindings) != null;
+	}
+
+	private static boolean isUnbound(Var var, BindingSet bindings) {
+		return bindings.hasBinding(var.getName()) && bindings.getValue(var.getName()) == null;
+	}
+
+	@Override
+	protected BindingSet getNextElement() throws QueryEvaluationException {
+		if (done) {
+			return null;
+		}
+		if (subject != null && object != null) {
+			done = true;
+			return isReachable() ? result(subject, object) : null;
+		}
+		if (subject != null || object != null) {
+			if (search == null) {
+				search = subject != null ? new Search(subject, true, includeZeroLength)
+						: new Search(object, false, includeZeroLength);
+			}
+			Value reached = search.next();
+			if (reached == null) {
+				done = true;
+				return null;
+			}
+			return subject != null ? result(subject, reached) : result(reached, object);
+		}
+		return nextFromAnyStartNode();
+	}
+
+	private BindingSet nextFromAnyStartNode() throws QueryEvaluationException {
+		if (startNodes == null) {
+			startNodes = tripleSource.getStatements(null, predicate, null);
+			visitedStartNodes = strategy.makeSet();
+		}
+		while (true) {
+			if (search != null) {
+				Value reached = search.next();
+				if (reached != null) {
+					return result(search.origin, reached);
+				}
+				search.close();
+				search = null;
+			}
+			Value start = null;
+			while (start == null && startNodes.hasNext()) {
+				Statement st = startNodes.next();
+				Value candidate = inverse ? st.getObject() : st.getSubject();
+				if (visitedStartNodes.add(candidate)) {
+					start = candidate;
+				}
+			}
+			if (start == null) {
+				done = true;
+				return null;
+			}
+			search = new Search(start, true, false);
+		}
+	}
+
+	/**
+	 * Searches from both ends of the path at once, each time advancing the search with the smaller frontier, until one
+	 * search reaches a node that the other one already visited.
+	 */
+	private boolean isReachable() throws QueryEvaluationException {
+		if (includeZeroLength && subject.equals(object)) {
+			return true;
+		}
+		// the forward search only visits nodes at a distance of at least one, the backward search includes the object
+		Search forward = new Search(subject, true, false);
+		Search backward = new Search(object, false, true);
+		backward.next();
+		try {
+			boolean backwardExhausted = false;
+			while (true) {
+				if (backwardExhausted || forward.frontierSize() <= backward.frontierSize()) {
+					Value reached = forward.next();
+					if (reached == null) {
+						// every node reachable from the subject was checked against the backward search
+						return false;
+					} else if (backward.visited.contains(reached)) {
+						return true;
+					}
+				} else {
+					Value reached = backward.next();
+					if (reached == null) {
+						backwardExhausted = true;
+					} else if (reached.equals(subject) || forward.visited.contains(reached)) {
+						return true;
+					}
+				}
+			}
+		} finally {
+			forward.close();
+			backward.close();
+		}
+	}
+
+	private BindingSet result(Value subjectValue, Value objectValue) {
+		QueryBindingSet result = new QueryBindingSet(bindings);
+		if (!result.hasBinding(subjectVar.getName())) {
+			result.addBinding(subjectVar.getName(), subjectValue);
+		}
+		if (!result.hasBinding(objectVar.getName())) {
+			result.addBinding(objectVar.getName(), objectValue);
+		}
+		return result;
+	}
+
+	private static Value getValue(Var var, BindingSet bindings) {
+		return var.hasValue() ? var.getValue() : bindings.getValue(var.getName());
+	}
+
+	@Override
+	protected void handleClose() throws QueryEvaluationException {
+		try {
+			super.handleClose();
+		} finally {
+			try {
+				if (search != null) {
+					search.close();
+				}
+			} finally {
+				Iterations.closeCloseable(startNodes);
+			}
+		}
+	}
+
+	/**
+	 * A breadth-first search from a single node that lazily reports every node it reaches once.
+	 */
+	private final class Search {
+
+		private final Value origin;
+
+		private final boolean forward;
+
+		private final Set<Value> visited = strategy.makeSet();
+
+		private final Queue<Value> frontier = strategy.makeQueue();
+
+		private CloseableIteration<? extends Statement, QueryEvaluationException> edges;
+
+		private boolean reportOrigin;
+
+		/**
+		 * @param origin        the node to start from
+		 * @param forward       whether to follow the path from its subject to its object, or the other way around
+		 * @param includeOrigin whether to report the origin itself, as reached by a path of length zero
+		 */
+		Search(Value origin, boolean forward, boolean includeOrigin) {
+			this.origin = origin;
+			this.forward = forward;
+			this.reportOrigin = includeOrigin;
+			if (includeOrigin) {
+				visited.add(origin);
+			}
+			frontier.add(origin);
+		}
+
+		int frontierSize() {
+			return frontier.size();
+		}
+
+		/**
+		 * @return the next node that was not reported before, or {@code null} if no other node is reachable
+		 */
+		Value next() throws QueryEvaluationException {
+			if (reportOrigin) {
+				reportOrigin = false;
+				return origin;
+			}
+			// statements are followed from subject to object if the search and the pattern have the same direction
+			boolean subjectToObject = forward != inverse;
+			while (true) {
+				while (edges != null && edges.hasNext()) {
+					Statement st = edges.next();
+					Value reached = subjectToObject ? st.getObject() : st.getSubject();
+					if (visited.add(reached)) {
+						frontier.add(reached);
+						return reached;
+					}
+				}
+				Iterations.closeCloseable(edges);
+				edges = null;
+
+				Value node = frontier.poll();
+				if (node == null) {
+					return null;
+				}
+				if (subjectToObject) {
+					if (node instanceof Resource) {
+						edges = tripleSource.getStatements((Resource) node, predicate, null);
+					}
+				} else {
+					edges = tripleSource.getStatements(null, predicate, node);
+				}
+			}
+		}
+
+		void close() throws QueryEvaluationException {
+			Iterations.closeCloseable(edges);
+			edges = null;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+
+/**
+ * Utility methods for {@link Dataset}s of queries.
+ */
+public final class Datasets {
+
+	private Datasets() {
+	}
+
+	/**
+	 * Copies a dataset, so that a cache can keep or hand out a dataset that later changes to the original do not
+	 * affect.
+	 *
+	 * @param dataset the dataset to copy, may be {@code null}
+	 * @return a {@link SimpleDataset} with the same graphs, or {@code null} if the supplied dataset is {@code null}
+	 */
+	public static Dataset copy(Dataset dataset) {
+		if (dataset == null) {
+			return null;
+		}
+		SimpleDataset copy = new SimpleDataset();
+		for (IRI graph : dataset.getDefaultGraphs()) {
+			copy.addDefaultGraph(graph);
+		}
+		for (IRI graph : dataset.getNamedGraphs()) {
+			copy.addNamedGraph(graph);
+		}
+		for (IRI graph : dataset.getDefaultRemoveGraphs()) {
+			copy.addDefaultRemoveGraph(graph);
+		}
+		copy.setDefaultInsertGraph(dataset.getDefaultInsertGraph());
+		return copy;
+	}
+}
@@ -21,6 +21,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryEvaluationException;
 import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
 import org.eclipse.rdf4j.query.algebra.ValueExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.ArrayBindingSet;
@@ -45,136 +46,164 @@ public class OrderComparator implements Comparator<BindingSet> {
 
 	private final ValueComparator cmp;
 
-	private final Comparator<BindingSet> bindingContentsComparator;
+	/**
+	 * Evaluate the expressions of the order elements, or return {@code null} if an expression cannot be evaluated.
+	 */
+	private final Function<BindingSet, Value>[] sortValues;
 
+	private final boolean[] ascending;
+
+	@SuppressWarnings("unchecked")
 	public OrderComparator(EvaluationStrategy strategy, Order order, ValueComparator cmp,
 			QueryEvaluationContext context) {
 		this.cmp = cmp;
-		this.bindingContentsComparator = precompileComparator(strategy, order, context);
+		List<OrderElem> elements = order.getElements();
+		this.sortValues = new Function[elements.size()];
+		this.ascending = new boolean[elements.size()];
+		for (int i = 0; i < elements.size(); i++) {
+			OrderElem element = elements.get(i);
+			ascending[i] = element.isAscending();
+			sortValues[i] = precompileSortValue(strategy, element.getExpr(), context);
+		}
 	}
 
-	private Comparator<BindingSet> precompileComparator(EvaluationStrategy strategy, Order order,
+	private Function<BindingSet, Value> precompileSortValue(EvaluationStrategy strategy, ValueExpr expr,
 			QueryEvaluationContext context) {
+		if (expr instanceof Var) {
+			// Here we optimize for the most common case where the ORDER BY clause uses Var(s) e.g. "ORDER BY ?a"
+			return context.getValue(((Var) expr).getName());
+		}
+		QueryValueEvaluationStep prepared = strategy.precompile(expr, context);
+		return bindings -> {
+			try {
+				return prepared.evaluate(bindings);
+			} catch (ValueExprEvaluationException ignored) {
+				return null;
+			}
+		};
+	}
 
-		return order.getElements()
-				.stream()
-				.map(element -> {
-					boolean ascending = element.isAscending();
-					ValueExpr expr = element.getExpr();
-
-					if (expr instanceof Var) {
-						// Here we optimize for the most common case where the ORDER BY clause uses Var(s) e.g. "ORDER
-						// BY ?a"
-
-						Function<BindingSet, Value> getValue = context.getValue(((Var) expr).getName());
-
-						return (Comparator<BindingSet>) (o1, o2) -> {
-							Value v1 = getValue.apply(o1);
-							Value v2 = getValue.apply(o2);
-
-							int compare = cmp.compare(v1, v2);
-							return ascending ? compare : -compare;
-						};
-					} else {
-						QueryValueEvaluationStep prepared = strategy.precompile(expr, context);
-
-						return (Comparator<BindingSet>) (o1, o2) -> {
-							Value v1 = null;
-							Value v2 = null;
-
-							try {
-								v1 = prepared.evaluate(o1);
-							} catch (ValueExprEvaluationException ignored) {
-							}
-
-							try {
-								v2 = prepared.evaluate(o2);
-							} catch (ValueExprEvaluationException ignored) {
-							}
-
-							int compare = cmp.compare(v1, v2);
-							return ascending ? compare : -compare;
-						};
-					}
-				})
-				.reduce(Comparator::thenComparing)
-				.orElse((o1, o2) -> 0);
-
+	/**
+	 * Evaluates the expressions of the order elements on a solution once and prepares their values for comparison, so
+	 * that solutions can be compared with {@link #compare(BindingSet, ValueSortKey[], BindingSet, ValueSortKey[])}
+	 * without evaluating, inspecting or parsing the values again.
+	 *
+	 * @param bindings a solution
+	 * @return the keys of the values of the order elements
+	 */
+	public ValueSortKey[] getSortKeys(BindingSet bindings) {
+		ValueSortKey[] keys = new ValueSortKey[sortValues.length];
+		for (int i = 0; i < sortValues.length; i++) {
+			keys[i] = ValueSortKey.of(sortValues[i].apply(bindings));
+		}
+		return keys;
 	}
 
 	@Override
 	public int compare(BindingSet o1, BindingSet o2) {
 		try {
-			int comparedContents = bindingContentsComparator.compare(o1, o2);
-			if (comparedContents != 0) {
-				return comparedContents;
+			for (int i = 0; i < sortValues.length; i++) {
+				int compare = compareSortValues(i, sortValues[i].apply(o1), sortValues[i].apply(o2));
+				if (compare != 0) {
+					return compare;
+				}
 			}
+			return compareContents(o1, o2);
+		} catch (QueryEvaluationException | IllegalArgumentException e) {
+			logger.debug(e.getMessage(), e);
+			return 0;
+		}
+	}
 
-			// On the basis of the order clause elements the two binding sets are
-			// unordered.
-			// We now need to impose a total ordering (as per the
-			// contract of java.util.Comparator). We order by
-			// size first, then by binding names, then finally by values.
-
-			// null check
-			if (o1 == null || o2 == null) {
-				if (o1 == null) {
-					return o2 == null ? 0 : 1;
+	/**
+	 * Compares two solutions in the same way as {@link #compare(BindingSet, BindingSet)}, using the keys of the order
+	 * elements that were prepared before.
+	 *
+	 * @param keys1 the {@link #getSortKeys(BindingSet) sort keys} of the first solution
+	 * @param keys2 the {@link #getSortKeys(BindingSet) sort keys} of the second solution
+	 */
+	public int compare(BindingSet o1, ValueSortKey[] keys1, BindingSet o2, ValueSortKey[] keys2) {
+		try {
+			for (int i = 0; i < keys1.length; i++) {
+				int compare = cmp.compareKeys(keys1[i], keys2[i]);
+				if (compare != 0) {
+					return ascending[i] ? compare : -compare;
 				}
-				return -1;
 			}
+			return compareContents(o1, o2);
+		} catch (QueryEvaluationException | IllegalArgumentException e) {
+			logger.debug(e.getMessage(), e);
+			return 0;
+		}
+	}
 
-			if (o2.size() != o1.size()) {
-				return o1.size() < o2.size() ? 1 : -1;
-			}
+	private int compareSortValues(int element, Value v1, Value v2) {
+		int compare = cmp.compare(v1, v2);
+		return ascending[element] ? compare : -compare;
+	}
 
-			// we create an ordered list of binding names (using natural string order) to use for
-			// consistent iteration over binding names and binding values.
-			List<String> o1bindingNamesOrdered;
-			List<String> o2bindingNamesOrdered;
-
-			if (o1 instanceof ArrayBindingSet && o2 instanceof ArrayBindingSet) {
-				o1bindingNamesOrdered = ((ArrayBindingSet) o1).getSortedBindingNames();
-				o2bindingNamesOrdered = ((ArrayBindingSet) o2).getSortedBindingNames();
-			} else {
-				o1bindingNamesOrdered = getSortedBindingNames(o1.getBindingNames());
-				o2bindingNamesOrdered = null;
+	private int compareContents(BindingSet o1, BindingSet o2) {
+		// On the basis of the order clause elements the two binding sets are
+		// unordered.
+		// We now need to impose a total ordering (as per the
+		// contract of java.util.Comparator). We order by
+		// size first, then by binding names, then finally by values.
+
+		// null check
+		if (o1 == null || o2 == null) {
+			if (o1 == null) {
+				return o2 == null ? 0 : 1;
 			}
+			return -1;
+		}
 
-			// binding set sizes are equal. compare on binding names.
-			if ((o2bindingNamesOrdered != null && !sortedEquals(o1bindingNamesOrdered, o2bindingNamesOrdered))
-					|| (!o1.getBindingNames().equals(o2.getBindingNames()))) {
+		if (o2.size() != o1.size()) {
+			return o1.size() < o2.size() ? 1 : -1;
+		}
 
-				if (o2bindingNamesOrdered == null) {
-					o2bindingNamesOrdered = getSortedBindingNames(o2.getBindingNames());
-				}
+		// we create an ordered list of binding names (using natural string order) to use for
+		// consistent iteration over binding names and binding values.
+		List<String> o1bindingNamesOrdered;
+		List<String> o2bindingNamesOrdered;
+
+		if (o1 instanceof ArrayBindingSet && o2 instanceof ArrayBindingSet) {
+			o1bindingNamesOrdered = ((ArrayBindingSet) o1).getSortedBindingNames();
+			o2bindingNamesOrdered = ((ArrayBindingSet) o2).getSortedBindingNames();
+		} else {
+			o1bindingNamesOrdered = getSortedBindingNames(o1.getBindingNames());
+			o2bindingNamesOrdered = null;
+		}
 
-				for (int i = 0; i < o1bindingNamesOrdered.size(); i++) {
-					String o1bn = o1bindingNamesOrdered.get(i);
-					String o2bn = o2bindingNamesOrdered.get(i);
-					int compare = o1bn.compareTo(o2bn);
-					if (compare != 0) {
-						return compare;
-					}
-				}
-			}
+		// binding set sizes are equal. compare on binding names.
+		if ((o2bindingNamesOrdered != null && !sortedEquals(o1bindingNamesOrdered, o2bindingNamesOrdered))
+				|| (!o1.getBindingNames().equals(o2.getBindingNames()))) {
 
-			// binding names equal. compare on all values.
-			for (String bindingName : o1bindingNamesOrdered) {
-				final Value v1 = o1.getValue(bindingName);
-				final Value v2 = o2.getValue(bindingName);
+			if (o2bindingNamesOrdered == null) {
+				o2bindingNamesOrdered = getSortedBindingNames(o2.getBindingNames());
+			}
 
-				final int compare = cmp.compare(v1, v2);
+			for (int i = 0; i < o1bindingNamesOrdered.size(); i++) {
+				String o1bn = o1bindingNamesOrdered.get(i);
+				String o2bn = o2bindingNamesOrdered.get(i);
+				int compare = o1bn.compareTo(o2bn);
 				if (compare != 0) {
 					return compare;
 				}
 			}
+		}
 
-			return 0;
-		} catch (QueryEvaluationException | IllegalArgumentException e) {
-			logger.debug(e.getMessage(), e);
-			return 0;
+		// binding names equal. compare on all values.
+		for (String bindingName : o1bindingNamesOrdered) {
+			final Value v1 = o1.getValue(bindingName);
+			final Value v2 = o2.getValue(bindingName);
+
+			final int compare = cmp.compare(v1, v2);
+			if (compare != 0) {
+				return compare;
+			}
 		}
+
+		return 0;
 	}
 
 	private boolean sortedEquals(List<String> o1bindingNamesOrdered, List<String> o2bindingNamesOrdered) {
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keys of the queries that query models were parsed from. A cache of parsed queries registers the key of each copy of a
+ * parsed model that it hands out, so that a Sail that evaluates the model can recognise a repeated query, which the
+ * structure of the model alone does not identify reliably.
+ */
+public final class QueryKeys {
+
+	/**
+	 * Query keys of query models, by identity of the query model.
+	 */
+	private static final Cache<TupleExpr, Object> KEYS = CacheBuilder.newBuilder().weakKeys().build();
+
+	private QueryKeys() {
+	}
+
+	/**
+	 * Registers the key of the query that the supplied query model was parsed from. Registrations are held weakly and
+	 * do not prevent garbage collection of the query model.
+	 *
+	 * @param query    a query model that is handed out for evaluation
+	 * @param queryKey a key that identifies the query, compared by {@link Object#equals(Object)}
+	 */
+	public static void set(TupleExpr query, Object queryKey) {
+		KEYS.put(query, queryKey);
+	}
+
+	/**
+	 * @param query a query model
+	 * @return the key registered for the query model, or {@code null} if there is none
+	 */
+	public static Object get(TupleExpr query) {
+		return KEYS.getIfPresent(query);
+	}
+}
@@ -89,6 +89,39 @@ public class ValueComparator implements Comparator<Value> {
 		return compareTriples((Triple) o1, (Triple) o2);
 	}
 
+	/**
+	 * Compares the values of two keys, in the same way as {@link #compare(Value, Value)} but without inspecting or
+	 * parsing the values again where the keys allow it.
+	 *
+	 * @param k1 the key of the first value
+	 * @param k2 the key of the second value
+	 * @return a negative integer, zero, or a positive integer as the first value is lower than, equal to, or greater
+	 *         than the second
+	 */
+	public int compareKeys(ValueSortKey k1, ValueSortKey k2) {
+		if (getClass() != ValueComparator.class) {
+			// a subclass may order values differently
+			return compare(k1.getValue(), k2.getValue());
+		}
+		ValueSortKey.Kind kind1 = k1.getKind();
+		ValueSortKey.Kind kind2 = k2.getKind();
+		if (kind1 != kind2) {
+			return kind1.compareTo(kind2) < 0 ? -1 : 1;
+		}
+		switch (kind1) {
+		case NULL:
+			return 0;
+		case BNODE:
+		case IRI:
+			return k1.getString().compareTo(k2.getString());
+		case LITERAL:
+			int compare = k1.compareLiterals(k2);
+			return compare != ValueSortKey.UNKNOWN ? compare : compare(k1.getValue(), k2.getValue());
+		default:
+			return compare(k1.getValue(), k2.getValue());
+		}
+	}
+
 	public void setStrict(boolean flag) {
 		this.strict = flag;
 	}
@@ -0,0 +1,271 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+
+/**
+ * A value prepared for being compared many times by a {@link ValueComparator}. The kind of the value, its datatype and
+ * the parsed form of numeric, calendar and boolean literals are determined once, when the key is created, so that
+ * comparing two keys of the same kind does not look at datatypes or parse lexical forms again. Keys that cannot be
+ * compared that way, for example literals of unrelated datatypes, are compared as values by the comparator, so the
+ * order of the keys is always the order of their values.
+ * <p>
+ * Keys are immutable and can be compared from several threads.
+ *
+ * @see ValueComparator#compareKeys(ValueSortKey, ValueSortKey)
+ */
+public final class ValueSortKey {
+
+	/**
+	 * Returned by {@link #compareLiterals(ValueSortKey)} if the literals must be compared as values.
+	 */
+	static final int UNKNOWN = Integer.MIN_VALUE;
+
+	private static final ValueSortKey NULL = new ValueSortKey(null, Kind.NULL, null);
+
+	/**
+	 * The kinds of values, in the order of the SPARQL value ordering.
+	 */
+	enum Kind {
+		NULL,
+		BNODE,
+		IRI,
+		LITERAL,
+		TRIPLE
+	}
+
+	private enum LiteralKind {
+		STRING,
+		INTEGER,
+		DECIMAL,
+		FLOAT,
+		DOUBLE,
+		BOOLEAN,
+		CALENDAR,
+		OTHER
+	}
+
+	private final Value value;
+
+	private final Kind kind;
+
+	/**
+	 * The id of a blank node, the string of an IRI or the label of a literal.
+	 */
+	private final String string;
+
+	private final LiteralKind literalKind;
+
+	private final CoreDatatype.XSD datatype;
+
+	private final long longValue;
+
+	private final BigInteger integerValue;
+
+	private final BigDecimal decimalValue;
+
+	private final float floatValue;
+
+	private final double doubleValue;
+
+	private final XMLGregorianCalendar calendarValue;
+
+	private ValueSortKey(Value value, Kind kind, String string) {
+		this.value = value;
+		this.kind = kind;
+		this.string = string;
+		this.literalKind = null;
+		this.datatype = null;
+		this.longValue = 0;
+		this.integerValue = null;
+		this.decimalValue = null;
+		this.floatValue = 0;
+		this.doubleValue = 0;
+		this.calendarValue = null;
+	}
+
+	private ValueSortKey(Literal literal) {
+		this.value = literal;
+		this.kind = Kind.LITERAL;
+		this.string = literal.getLabel();
+		CoreDatatype.XSD datatype = literal.getCoreDatatype().asXSDDatatype().orElse(null);
+		LiteralKind literalKind = literalKind(datatype);
+		long longValue = 0;
+		BigInteger integerValue = null;
+		BigDecimal decimalValue = null;
+		float floatValue = 0;
+		double doubleValue = 0;
+		XMLGregorianCalendar calendarValue = null;
+		try {
+			switch (literalKind) {
+			case INTEGER:
+				integerValue = literal.integerValue();
+				if (integerValue.bitLength() < Long.SIZE) {
+					longValue = integerValue.longValue();
+					integerValue = null;
+				}
+				doubleValue = literal.doubleValue();
+				break;
+			case DECIMAL:
+				decimalValue = literal.decimalValue();
+				doubleValue = literal.doubleValue();
+				break;
+			case FLOAT:
+				floatValue = literal.floatValue();
+				doubleValue = literal.doubleValue();
+				break;
+			case DOUBLE:
+				doubleValue = literal.doubleValue();
+				break;
+			case BOOLEAN:
+				longValue = literal.booleanValue() ? 1 : 0;
+				break;
+			case CALENDAR:
+				calendarValue = literal.calendarValue();
+				break;
+			default:
+			}
+		} catch (RuntimeException e) {
+			// the lexical form is not valid for the datatype, which the comparator handles on its own
+			literalKind = LiteralKind.OTHER;
+		}
+		this.literalKind = literalKind;
+		this.datatype = datatype;
+		this.longValue = longValue;
+		this.integerValue = integerValue;
+		this.decimalValue = decimalValue;
+		this.floatValue = floatValue;
+		this.doubleValue = doubleValue;
+		this.calendarValue = calendarValue;
+	}
+
+	/**
+	 * @param value a value, or {@code null} for an unbound variable
+	 * @return the key of the value
+	 */
+	public static ValueSortKey of(Value value) {
+		if (value == null) {
+			return NULL;
+		} else if (value.isBNode()) {
+			return new ValueSortKey(value, Kind.BNODE, ((BNode) value).getID());
+		} else if (value.isIRI()) {
+			return new ValueSortKey(value, Kind.IRI, value.toString());
+		} else if (value.isLiteral()) {
+			return new ValueSortKey((Literal) value);
+		} else {
+			return new ValueSortKey(value, Kind.TRIPLE, null);
+		}
+	}
+
+	/**
+	 * @return the value of the key, {@code null} for an unbound variable
+	 */
+	public Value getValue() {
+		return value;
+	}
+
+	Kind getKind() {
+		return kind;
+	}
+
+	String getString() {
+		return string;
+	}
+
+	/**
+	 * Compares two literals in the same way as {@link ValueComparator#compare(Value, Value)} if that can be done on the
+	 * prepared forms of both.
+	 *
+	 * @return the comparison of this literal with the other, or {@link #UNKNOWN}
+	 */
+	int compareLiterals(ValueSortKey other) {
+		LiteralKind left = literalKind;
+		LiteralKind right = other.literalKind;
+		if (left == LiteralKind.STRING && right == LiteralKind.STRING) {
+			return string.compareTo(other.string);
+		} else if (left == LiteralKind.BOOLEAN && right == LiteralKind.BOOLEAN) {
+			return Long.compare(longValue, other.longValue);
+		} else if (left == LiteralKind.CALENDAR && right == LiteralKind.CALENDAR) {
+			if (datatype != other.datatype) {
+				return UNKNOWN;
+			}
+			int compare = calendarValue.compare(other.calendarValue);
+			return compare == DatatypeConstants.INDETERMINATE ? UNKNOWN : compare;
+		} else if (isNumeric(left) && isNumeric(right)) {
+			// numbers are compared in the most general of their datatypes
+			try {
+				if (left == LiteralKind.DOUBLE || right == LiteralKind.DOUBLE) {
+					return Double.compare(doubleValue, other.doubleValue);
+				} else if (left == LiteralKind.FLOAT || right == LiteralKind.FLOAT) {
+					return Float.compare(floatValue(), other.floatValue());
+				} else if (left == LiteralKind.DECIMAL || right == LiteralKind.DECIMAL) {
+					return decimalValue().compareTo(other.decimalValue());
+				} else if (integerValue == null && other.integerValue == null) {
+					return Long.compare(longValue, other.longValue);
+				} else {
+					return integerValue().compareTo(other.integerValue());
+				}
+			} catch (RuntimeException e) {
+				return UNKNOWN;
+			}
+		}
+		return UNKNOWN;
+	}
+
+	private float floatValue() {
+		// only the float form of a float literal is kept, as other numbers are rarely compared with floats
+		return literalKind == LiteralKind.FLOAT ? floatValue : ((Literal) value).floatValue();
+	}
+
+	private BigDecimal decimalValue() {
+		return literalKind == LiteralKind.DECIMAL ? decimalValue : ((Literal) value).decimalValue();
+	}
+
+	private BigInteger integerValue() {
+		return integerValue != null ? integerValue : BigInteger.valueOf(longValue);
+	}
+
+	private static boolean isNumeric(LiteralKind kind) {
+		return kind == LiteralKind.INTEGER || kind == LiteralKind.DECIMAL || kind == LiteralKind.FLOAT
+				|| kind == LiteralKind.DOUBLE;
+	}
+
+	private static LiteralKind literalKind(CoreDatatype.XSD datatype) {
+		if (datatype == null) {
+			return LiteralKind.OTHER;
+		} else if (datatype == CoreDatatype.XSD.STRING) {
+			return LiteralKind.STRING;
+		} else if (datatype.isIntegerDatatype()) {
+			return LiteralKind.INTEGER;
+		} else if (datatype == CoreDatatype.XSD.DECIMAL) {
+			return LiteralKind.DECIMAL;
+		} else if (datatype == CoreDatatype.XSD.FLOAT) {
+			return LiteralKind.FLOAT;
+		} else if (datatype == CoreDatatype.XSD.DOUBLE) {
+			return LiteralKind.DOUBLE;
+		} else if (datatype == CoreDatatype.XSD.BOOLEAN) {
+			return LiteralKind.BOOLEAN;
+		} else if (datatype.isCalendarDatatype()) {
+			return LiteralKind.CALENDAR;
+		}
+		return LiteralKind.OTHER;
+	}
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.QueryResourceLimitException;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.junit.jupiter.api.Test;
+
+public class QueryResourceAccountantTest {
+
+	@Test
+	public void testBufferedBytes() {
+		QueryResourceAccountant accountant = new QueryResourceAccountant(
+				QueryResourceLimits.UNLIMITED.withMaxBufferedBytes(100));
+
+		accountant.allocate(60);
+		accountant.release(30);
+		accountant.allocate(70);
+		assertThat(accountant.getBufferedBytes()).isEqualTo(100);
+		assertThat(accountant.getPeakBufferedBytes()).isEqualTo(100);
+
+		assertThatThrownBy(() -> accountant.allocate(1)).isInstanceOf(QueryResourceLimitException.class)
+				.hasMessageContaining("memory limit");
+	}
+
+	@Test
+	public void testRows() {
+		QueryResourceAccountant accountant = new QueryResourceAccountant(
+				QueryResourceLimits.UNLIMITED.withMaxRows(2));
+
+		accountant.countRow();
+		accountant.countRow();
+
+		assertThatThrownBy(accountant::countRow).isInstanceOf(QueryResourceLimitException.class);
+	}
+
+	@Test
+	public void testCpuTime() {
+		QueryResourceAccountant accountant = new QueryResourceAccountant(
+				QueryResourceLimits.UNLIMITED.withMaxCpuTime(Duration.ofMillis(1)));
+
+		assertThatThrownBy(() -> {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+			while (System.nanoTime() < deadline) {
+				accountant.checkCpuTime();
+			}
+		}).isInstanceOf(QueryResourceLimitException.class).hasMessageContaining("CPU time limit");
+	}
+
+	@Test
+	public void testUnlimitedDoesNotTrack() {
+		QueryResourceAccountant accountant = QueryResourceAccountant.UNLIMITED;
+
+		accountant.allocate(Long.MAX_VALUE);
+		accountant.countRow();
+
+		assertThat(accountant.getBufferedBytes()).isZero();
+		assertThat(accountant.getRows()).isZero();
+	}
+
+	@Test
+	public void testEstimateSize() {
+		QueryBindingSet bindings = new QueryBindingSet();
+		long empty = QueryResourceAccountant.estimateSize(EmptyBindingSet.getInstance());
+		bindings.addBinding("a", SimpleValueFactory.getInstance().createLiteral("x".repeat(1000)));
+
+		assertThat(QueryResourceAccountant.estimateSize(bindings)).isGreaterThan(empty + 1000);
+	}
+}
@@ -26,6 +26,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.base.CoreDatatype;
@@ -248,4 +249,33 @@ public class StrictEvaluationStrategyTest {
 			assertTrue(p == n);
 		}
 	}
+
+	@Test
+	public void testCountFromTripleSourceSize() {
+		// the triple source does not return any statements, but claims to contain 42 of them
+		EvaluationStrategy strategy = new StrictEvaluationStrategy(new EmptyTripleSource() {
+
+			@Override
+			public long size(Resource... contexts) {
+				return 42;
+			}
+		}, null);
+
+		assertThat(count(strategy, "SELECT (COUNT(*) AS ?c) WHERE { ?s ?p ?o }")).isEqualTo(42);
+		assertThat(count(strategy, "SELECT (COUNT(?s) AS ?c) WHERE { ?s ?p ?o }")).isEqualTo(42);
+
+		// counts that depend on the statements themselves are computed from the statements
+		assertThat(count(strategy, "SELECT (COUNT(*) AS ?c) WHERE { ?s <urn:p> ?o }")).isZero();
+		assertThat(count(strategy, "SELECT (COUNT(*) AS ?c) WHERE { ?s ?p ?s }")).isZero();
+		assertThat(count(strategy, "SELECT (COUNT(DISTINCT ?s) AS ?c) WHERE { ?s ?p ?o }")).isZero();
+		assertThat(count(strategy, "SELECT (COUNT(*) AS ?c) WHERE { GRAPH ?g { ?s ?p ?o } }")).isZero();
+	}
+
+	private static int count(EvaluationStrategy strategy, String query) {
+		ParsedQuery pq = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, query, null);
+		List<BindingSet> result = QueryResults
+				.asList(strategy.precompile(pq.getTupleExpr()).evaluate(EmptyBindingSet.getInstance()));
+		assertThat(result).hasSize(1);
+		return ((Literal) result.get(0).getValue("c")).intValue();
+	}
 }
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CompactDistinctIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testKeepsFirstOccurrenceInOrder() {
+		List<BindingSet> input = List.of(
+				bindings("a", vf.createIRI("urn:x"), "b", vf.createLiteral("x", "en-GB")),
+				bindings("b", vf.createLiteral("x", "en-gb"), "a", vf.createIRI("urn:x")),
+				bindings("a", vf.createIRI("urn:x")),
+				bindings("b", vf.createIRI("urn:x")),
+				bindings("a", vf.createLiteral("urn:x")),
+				bindings("a", vf.createLiteral("urn:x", XSD.ANYURI)),
+				bindings("a", vf.createBNode("x")),
+				bindings("a", vf.createTriple(vf.createBNode("x"), vf.createIRI("urn:p"), vf.createLiteral("é€"))),
+				bindings("a", vf.createTriple(vf.createBNode("x"), vf.createIRI("urn:p"), vf.createLiteral("é€"))),
+				bindings("a", vf.createIRI("urn:x")),
+				new QueryBindingSet());
+
+		List<BindingSet> expected = new ArrayList<>(new LinkedHashSet<>(input));
+		assertThat(expected).hasSize(8);
+		assertThat(Iterations.asList(new CompactDistinctIteration(new CloseableIteratorIteration<>(input.iterator()))))
+				.isEqualTo(expected);
+	}
+
+	@Test
+	public void testSpillsPartitions() {
+		Random random = new Random(42);
+		List<BindingSet> input = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			int n = random.nextInt(5_000);
+			input.add(bindings("a", vf.createLiteral(n), "b", vf.createLiteral("é" + n % 7, "fr")));
+		}
+		LinkedHashSet<BindingSet> expected = new LinkedHashSet<>(input);
+
+		QueryResourceAccountant accountant = new QueryResourceAccountant(QueryResourceLimits.UNLIMITED
+				.withMaxBufferedBytes(Long.MAX_VALUE));
+		// a small threshold, so that the partitions are split again
+		CompactDistinctIteration iteration = new CompactDistinctIteration(
+				new CloseableIteratorIteration<>(input.iterator()), 20, accountant);
+		List<BindingSet> result = Iterations.asList(iteration);
+
+		assertThat(result).hasSize(expected.size()).containsExactlyInAnyOrderElementsOf(expected);
+		// the solutions before the first spill keep their order
+		assertThat(result.subList(0, 20)).isEqualTo(new ArrayList<>(expected).subList(0, 20));
+		assertThat(accountant.getPeakBufferedBytes()).isPositive();
+		assertThat(accountant.getBufferedBytes()).isZero();
+	}
+
+	@Test
+	public void testSpillsIntoDirectory(@TempDir File directory) {
+		List<BindingSet> input = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			input.add(bindings("a", vf.createLiteral(i % 500)));
+		}
+
+		try (CompactDistinctIteration iteration = new CompactDistinctIteration(
+				new CloseableIteratorIteration<>(input.iterator()), 20, directory, vf,
+				QueryResourceAccountant.UNLIMITED)) {
+			for (int i = 0; i < 100; i++) {
+				iteration.next();
+			}
+			assertThat(directory.list()).isNotEmpty();
+		}
+		assertThat(directory.list()).isEmpty();
+	}
+
+	private BindingSet bindings(String name, Value value) {
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding(name, value);
+		return bindings;
+	}
+
+	private BindingSet bindings(String name1, Value value1, String name2, Value value2) {
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding(name1, value1);
+		bindings.addBinding(name2, value2);
+		return bindings;
+	}
+}
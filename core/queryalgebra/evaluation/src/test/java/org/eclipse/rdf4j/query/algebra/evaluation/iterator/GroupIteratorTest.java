@@ -17,9 +17,14 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
+import org.eclipse.rdf4j.collection.factory.impl.DefaultCollectionFactory;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -33,6 +38,7 @@ import org.eclipse.rdf4j.query.algebra.AggregateFunctionCall;
 import org.eclipse.rdf4j.query.algebra.Avg;
 import org.eclipse.rdf4j.query.algebra.BindingSetAssignment;
 import org.eclipse.rdf4j.query.algebra.Count;
+import org.eclipse.rdf4j.query.algebra.FunctionCall;
 import org.eclipse.rdf4j.query.algebra.Group;
 import org.eclipse.rdf4j.query.algebra.GroupConcat;
 import org.eclipse.rdf4j.query.algebra.GroupElem;
@@ -45,6 +51,7 @@ import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
 import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.function.FunctionRegistry;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.util.MathUtil;
@@ -68,6 +75,7 @@ public class GroupIteratorTest {
 	private static BindingSetAssignment EMPTY_ASSIGNMENT;
 	private static BindingSetAssignment NONEMPTY_ASSIGNMENT;
 	private static AggregateFunctionFactory aggregateFunctionFactory;
+	private static final GroupIterator.AggregatorPool aggregators = new GroupIterator.AggregatorPool(4);
 
 	@BeforeAll
 	public static void init() {
@@ -260,6 +268,160 @@ public class GroupIteratorTest {
 		}
 	}
 
+	@Test
+	public void testParallelAggregation() throws QueryEvaluationException {
+		Group group = new Group(assignment(20_000, 997), List.of("g"));
+		group.addGroupElement(new GroupElem("count", new Count(null)));
+		group.addGroupElement(new GroupElem("sum", new Sum(new Var("a"))));
+		group.addGroupElement(new GroupElem("avg", new Avg(new Var("a"))));
+		group.addGroupElement(new GroupElem("min", new Min(new Var("a"))));
+		group.addGroupElement(new GroupElem("max", new Max(new Var("a"))));
+		group.addGroupElement(new GroupElem("concat", new GroupConcat(new Var("a"))));
+
+		Set<BindingSet> sequential = evaluate(group, 1);
+		assertThat(sequential).hasSize(997);
+		assertThat(evaluate(group, 4)).isEqualTo(sequential);
+	}
+
+	@Test
+	public void testParallelAggregationOnlyForParallelizableFunctions() throws QueryEvaluationException {
+		Set<String> parallelThreads = ConcurrentHashMap.newKeySet();
+		Set<String> sequentialThreads = ConcurrentHashMap.newKeySet();
+		ThreadRecordingAggregateFactory parallel = new ThreadRecordingAggregateFactory("urn:parallel", true,
+				parallelThreads);
+		ThreadRecordingAggregateFactory sequential = new ThreadRecordingAggregateFactory("urn:sequential", false,
+				sequentialThreads);
+		CustomAggregateFunctionRegistry.getInstance().add(parallel);
+		CustomAggregateFunctionRegistry.getInstance().add(sequential);
+		try {
+			Group group = new Group(assignment(1000, 100), List.of("g"));
+			group.addGroupElement(new GroupElem("x", new AggregateFunctionCall(new Var("a"), "urn:parallel", false)));
+			assertThat(evaluate(group, 4)).hasSize(100);
+			assertThat(parallelThreads).anyMatch(name -> name.startsWith("rdf4j-group-aggregator-"));
+
+			group.addGroupElement(
+					new GroupElem("y", new AggregateFunctionCall(new Var("a"), "urn:sequential", false)));
+			assertThat(evaluate(group, 4)).hasSize(100);
+			assertThat(sequentialThreads).containsExactly(Thread.currentThread().getName());
+		} finally {
+			CustomAggregateFunctionRegistry.getInstance().remove(parallel);
+			CustomAggregateFunctionRegistry.getInstance().remove(sequential);
+		}
+	}
+
+	@Test
+	public void testParallelAggregationOnlyForManyGroups() throws QueryEvaluationException {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		ThreadRecordingAggregateFactory parallel = new ThreadRecordingAggregateFactory("urn:parallel", true, threads);
+		CustomAggregateFunctionRegistry.getInstance().add(parallel);
+		try {
+			Group group = new Group(assignment(1000, 10), List.of("g"));
+			group.addGroupElement(new GroupElem("x", new AggregateFunctionCall(new Var("a"), "urn:parallel", false)));
+			assertThat(evaluate(group, 4)).hasSize(10);
+			assertThat(threads).containsExactly(Thread.currentThread().getName());
+		} finally {
+			CustomAggregateFunctionRegistry.getInstance().remove(parallel);
+		}
+	}
+
+	@Test
+	public void testParallelAggregationNotForCustomFunctionCalls() throws QueryEvaluationException {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		ThreadRecordingAggregateFactory parallel = new ThreadRecordingAggregateFactory("urn:parallel", true, threads);
+		org.eclipse.rdf4j.query.algebra.evaluation.function.Function identity = new org.eclipse.rdf4j.query.algebra.evaluation.function.Function() {
+
+			@Override
+			public String getURI() {
+				return "urn:identity";
+			}
+
+			@Override
+			public Value evaluate(ValueFactory valueFactory, Value... args) {
+				return args[0];
+			}
+		};
+		CustomAggregateFunctionRegistry.getInstance().add(parallel);
+		FunctionRegistry.getInstance().add(identity);
+		try {
+			Group group = new Group(assignment(1000, 100), List.of("g"));
+			group.addGroupElement(new GroupElem("x",
+					new AggregateFunctionCall(new FunctionCall("urn:identity", new Var("a")), "urn:parallel", false)));
+			assertThat(evaluate(group, 4)).hasSize(100);
+			assertThat(threads).containsExactly(Thread.currentThread().getName());
+		} finally {
+			CustomAggregateFunctionRegistry.getInstance().remove(parallel);
+			FunctionRegistry.getInstance().remove(identity);
+		}
+	}
+
+	private static BindingSetAssignment assignment(int count, int groups) {
+		BindingSetAssignment assignment = new BindingSetAssignment();
+		List<BindingSet> solutions = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			QueryBindingSet bindings = new QueryBindingSet();
+			bindings.addBinding("g", vf.createLiteral(i % groups));
+			bindings.addBinding("a", vf.createLiteral(i));
+			solutions.add(bindings);
+		}
+		assignment.setBindingSets(solutions);
+		return assignment;
+	}
+
+	private static Set<BindingSet> evaluate(Group group, int parallelism) {
+		Set<BindingSet> result = new HashSet<>();
+		try (GroupIterator gi = new GroupIterator(evaluator, group, EmptyBindingSet.getInstance(), context, vf,
+				new DefaultCollectionFactory(), parallelism, 100, aggregators)) {
+			while (gi.hasNext()) {
+				result.add(gi.next());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Custom aggregate function that records the threads that use it
+	 */
+	private static class ThreadRecordingAggregateFactory implements AggregateFunctionFactory {
+
+		private final String iri;
+
+		private final boolean parallelizable;
+
+		private final Set<String> threads;
+
+		ThreadRecordingAggregateFactory(String iri, boolean parallelizable, Set<String> threads) {
+			this.iri = iri;
+			this.parallelizable = parallelizable;
+			this.threads = threads;
+		}
+
+		@Override
+		public String getIri() {
+			return iri;
+		}
+
+		@Override
+		public AggregateFunction<SumCollector, Value> buildFunction(Function<BindingSet, Value> evaluationStep) {
+			return new AggregateFunction<>(evaluationStep) {
+
+				@Override
+				public boolean isParallelizable() {
+					return parallelizable;
+				}
+
+				@Override
+				public void processAggregate(BindingSet s, Predicate<Value> distinctValue, SumCollector sum) {
+					threads.add(Thread.currentThread().getName());
+				}
+			};
+		}
+
+		@Override
+		public SumCollector getCollector() {
+			return new SumCollector();
+		}
+	}
+
 	/**
 	 * Dummy collector to verify custom aggregate functions
 	 */
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.OrderElem;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EmptyTripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.junit.jupiter.api.Test;
+
+public class TopKIteratorTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final Random random = new Random(42);
+
+	private final OrderComparator comparator = new OrderComparator(
+			new DefaultEvaluationStrategy(new EmptyTripleSource(), null),
+			order(new OrderElem(new Var("a"), false), new OrderElem(new Var("b"), true)), new ValueComparator(),
+			new QueryEvaluationContext.Minimal(null));
+
+	@Test
+	public void testSameAsSortedInput() {
+		List<BindingSet> input = solutions(10_000);
+		List<BindingSet> sorted = new ArrayList<>(input);
+		sorted.sort(comparator);
+
+		for (int limit : new int[] { 0, 1, 10, 1000, 20_000 }) {
+			assertThat(topK(input, limit, false, QueryResourceAccountant.UNLIMITED))
+					.isEqualTo(sorted.subList(0, Math.min(limit, sorted.size())));
+		}
+	}
+
+	@Test
+	public void testDistinct() {
+		List<BindingSet> input = solutions(10_000);
+		List<BindingSet> sorted = input.stream().distinct().sorted(comparator).collect(Collectors.toList());
+
+		QueryResourceAccountant accountant = new QueryResourceAccountant(
+				QueryResourceLimits.UNLIMITED.withMaxBufferedBytes(Long.MAX_VALUE));
+		assertThat(topK(input, 100, true, accountant)).isEqualTo(sorted.subList(0, 100));
+		assertThat(accountant.getPeakBufferedBytes()).isPositive();
+		assertThat(accountant.getBufferedBytes()).isZero();
+	}
+
+	private List<BindingSet> topK(List<BindingSet> input, int limit, boolean distinct,
+			QueryResourceAccountant accountant) {
+		return Iterations.asList(new TopKIterator(new CloseableIteratorIteration<>(input.iterator()), comparator,
+				limit, distinct, accountant));
+	}
+
+	private List<BindingSet> solutions(int count) {
+		List<BindingSet> solutions = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			QueryBindingSet bindings = new QueryBindingSet();
+			if (random.nextInt(10) > 0) {
+				bindings.addBinding("a", vf.createLiteral(random.nextInt(500)));
+			}
+			bindings.addBinding("b", vf.createLiteral("b" + random.nextInt(20)));
+			solutions.add(bindings);
+		}
+		return solutions;
+	}
+
+	private static Order order(OrderElem... elements) {
+		Order order = new Order();
+		for (OrderElem element : elements) {
+			order.addElement(element);
+		}
+		return order;
+	}
+}
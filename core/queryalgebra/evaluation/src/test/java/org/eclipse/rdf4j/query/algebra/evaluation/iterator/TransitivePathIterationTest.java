@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.iterator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.ArbitraryLengthPath;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.StatementPattern.Scope;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TransitivePathIterationTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI p = vf.createIRI("urn:p");
+
+	private static final IRI a = vf.createIRI("urn:a");
+	private static final IRI b = vf.createIRI("urn:b");
+	private static final IRI c = vf.createIRI("urn:c");
+	private static final IRI d = vf.createIRI("urn:d");
+	private static final IRI e = vf.createIRI("urn:e");
+	private static final IRI f = vf.createIRI("urn:f");
+	private static final Value literal = vf.createLiteral("leaf");
+
+	private final List<Value> nodes = List.of(a, b, c, d, e, f, literal, vf.createIRI("urn:unknown"));
+
+	private Model model;
+
+	private TripleSource tripleSource;
+
+	private DefaultEvaluationStrategy strategy;
+
+	private int lookups;
+
+	@BeforeEach
+	public void setUp() {
+		Model m = model = new LinkedHashModel();
+		m.add(a, p, b);
+		m.add(b, p, c);
+		m.add(c, p, d);
+		m.add(d, p, b);
+		m.add(d, p, literal);
+		m.add(e, p, e);
+		m.add(e, p, f);
+		m.add(a, vf.createIRI("urn:other"), f);
+
+		tripleSource = new TripleSource() {
+
+			@Override
+			public CloseableIteration<? extends Statement, QueryEvaluationException> getStatements(Resource subj,
+					IRI pred, Value obj, Resource... contexts) throws QueryEvaluationException {
+				lookups++;
+				return new CloseableIteratorIteration<>(m.getStatements(subj, pred, obj, contexts).iterator());
+			}
+
+			@Override
+			public ValueFactory getValueFactory() {
+				return vf;
+			}
+		};
+		strategy = new DefaultEvaluationStrategy(tripleSource, null);
+	}
+
+	@Test
+	public void testSameResultsAsPathIteration() {
+		for (boolean inverse : new boolean[] { false, true }) {
+			for (long minLength = 0; minLength <= 1; minLength++) {
+				List<QueryBindingSet> bindings = new ArrayList<>();
+				if (minLength > 0) {
+					bindings.add(new QueryBindingSet());
+				}
+				for (Value node : nodes) {
+					bindings.add(bind("x", node));
+					bindings.add(bind("y", node));
+					for (Value other : nodes) {
+						QueryBindingSet both = bind("x", node);
+						both.addBinding("y", other);
+						bindings.add(both);
+					}
+				}
+				for (QueryBindingSet binding : bindings) {
+					ArbitraryLengthPath path = path(inverse, minLength);
+					assertThat(TransitivePathIteration.supports(path)).isTrue();
+					assertThat(TransitivePathIteration.supports(path, binding)).isTrue();
+
+					assertThat(evaluate(new TransitivePathIteration(strategy, tripleSource, path, binding)))
+							.as("%s path of length %d with %s", inverse ? "inverse" : "forward", minLength, binding)
+							.isEqualTo(evaluate(new PathIteration(strategy, Scope.DEFAULT_CONTEXTS,
+									path.getSubjectVar(), path.getPathExpression(), path.getObjectVar(), null,
+									minLength, binding)));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testBidirectionalSearchStopsWhenEndsMeet() {
+		// the target is only reachable through the last of many successors of the start node
+		IRI start = vf.createIRI("urn:start");
+		IRI target = vf.createIRI("urn:target");
+		for (int i = 0; i < 1000; i++) {
+			model.add(start, p, vf.createIRI("urn:n" + i));
+		}
+		model.add(vf.createIRI("urn:n999"), p, target);
+		QueryBindingSet binding = bind("x", start);
+		binding.addBinding("y", target);
+		ArbitraryLengthPath path = path(false, 1);
+
+		lookups = 0;
+		assertThat(evaluate(new TransitivePathIteration(strategy, tripleSource, path, binding))).hasSize(1);
+		assertThat(lookups).isLessThan(5);
+	}
+
+	@Test
+	public void testUnsupportedPaths() {
+		ArbitraryLengthPath zeroLengthUnbound = path(false, 0);
+		assertThat(TransitivePathIteration.supports(zeroLengthUnbound, new QueryBindingSet())).isFalse();
+
+		QueryBindingSet unbound = new QueryBindingSet();
+		unbound.addBinding("x", null);
+		assertThat(TransitivePathIteration.supports(path(false, 1), unbound)).isFalse();
+
+		StatementPattern variablePredicate = new StatementPattern(new Var("x"), new Var("p"), new Var("y"));
+		assertThat(TransitivePathIteration
+				.supports(new ArbitraryLengthPath(new Var("x"), variablePredicate, new Var("y"), 1))).isFalse();
+
+		StatementPattern namedGraph = new StatementPattern(Scope.NAMED_CONTEXTS, new Var("x"), predicate(),
+				new Var("y"), new Var("g"));
+		assertThat(TransitivePathIteration
+				.supports(new ArbitraryLengthPath(new Var("x"), namedGraph, new Var("y"), 1))).isFalse();
+	}
+
+	private ArbitraryLengthPath path(boolean inverse, long minLength) {
+		Var x = new Var("x");
+		Var y = new Var("y");
+		StatementPattern pattern = inverse ? new StatementPattern(y.clone(), predicate(), x.clone())
+				: new StatementPattern(x.clone(), predicate(), y.clone());
+		return new ArbitraryLengthPath(x, pattern, y, minLength);
+	}
+
+	private static Var predicate() {
+		return new Var("_const_p", p, true, true);
+	}
+
+	private static QueryBindingSet bind(String name, Value value) {
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding(name, value);
+		return bindings;
+	}
+
+	private static Set<List<Value>> evaluate(CloseableIteration<BindingSet, QueryEvaluationException> iteration) {
+		Set<List<Value>> results = new HashSet<>();
+		try (iteration) {
+			while (iteration.hasNext()) {
+				BindingSet next = iteration.next();
+				assertThat(results.add(List.of(next.getValue("x"), next.getValue("y"))))
+						.as("duplicate result %s", next)
+						.isTrue();
+			}
+		}
+		return results;
+	}
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.junit.jupiter.api.Test;
+
+public class ValueSortKeyTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private final List<Value> values = Arrays.asList(
+			null,
+			vf.createBNode("b1"),
+			vf.createBNode("b2"),
+			vf.createIRI("urn:a"),
+			vf.createIRI("urn:b"),
+			vf.createLiteral("a"),
+			vf.createLiteral("b"),
+			vf.createLiteral("a", "en"),
+			vf.createLiteral("a", "EN"),
+			vf.createLiteral("1", XSD.INT),
+			vf.createLiteral("01", XSD.INT),
+			vf.createLiteral("2", XSD.LONG),
+			vf.createLiteral("-3", XSD.INTEGER),
+			vf.createLiteral("123456789012345678901234567890", XSD.INTEGER),
+			vf.createLiteral("abc", XSD.INT),
+			vf.createLiteral("1.5", XSD.DECIMAL),
+			vf.createLiteral("1.0", XSD.DECIMAL),
+			vf.createLiteral("0.1", XSD.FLOAT),
+			vf.createLiteral("1", XSD.FLOAT),
+			vf.createLiteral("0.1", XSD.DOUBLE),
+			vf.createLiteral("NaN", XSD.DOUBLE),
+			vf.createLiteral("-INF", XSD.DOUBLE),
+			vf.createLiteral("true", XSD.BOOLEAN),
+			vf.createLiteral("0", XSD.BOOLEAN),
+			vf.createLiteral("2023-01-01", XSD.DATE),
+			vf.createLiteral("2023-01-01T10:00:00Z", XSD.DATETIME),
+			vf.createLiteral("2023-01-01T11:00:00", XSD.DATETIME),
+			vf.createLiteral("2023-01-01T12:00:00+02:00", XSD.DATETIME),
+			vf.createLiteral("2023-13-01T12:00:00", XSD.DATETIME),
+			vf.createLiteral("P1D", XSD.DURATION),
+			vf.createLiteral("PT24H", XSD.DURATION),
+			vf.createLiteral("x", vf.createIRI("urn:type")),
+			vf.createTriple(vf.createIRI("urn:a"), vf.createIRI("urn:p"), vf.createLiteral(1)));
+
+	@Test
+	public void testSameOrderAsValues() {
+		for (boolean strict : new boolean[] { true, false }) {
+			ValueComparator comparator = new ValueComparator();
+			comparator.setStrict(strict);
+
+			List<ValueSortKey> keys = new ArrayList<>();
+			for (Value value : values) {
+				keys.add(ValueSortKey.of(value));
+			}
+			for (int i = 0; i < values.size(); i++) {
+				for (int j = 0; j < values.size(); j++) {
+					assertThat(Integer.signum(comparator.compareKeys(keys.get(i), keys.get(j))))
+							.as("%s <=> %s", values.get(i), values.get(j))
+							.isEqualTo(Integer.signum(comparator.compare(values.get(i), values.get(j))));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSubclassComparesValues() {
+		ValueComparator reversed = new ValueComparator() {
+
+			@Override
+			public int compare(Value o1, Value o2) {
+				return super.compare(o2, o1);
+			}
+		};
+		assertThat(reversed.compareKeys(ValueSortKey.of(vf.createLiteral(1)), ValueSortKey.of(vf.createLiteral(2))))
+				.isPositive();
+	}
+}
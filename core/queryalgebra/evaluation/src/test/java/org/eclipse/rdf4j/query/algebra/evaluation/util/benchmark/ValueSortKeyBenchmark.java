@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.algebra.evaluation.util.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueSortKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the same values as {@link ValueComparatorBenchmark}, but on {@link ValueSortKey}s. The keys are created in
+ * each benchmark, so that the cost of preparing them is measured too.
+ */
+public class ValueSortKeyBenchmark extends ValueComparatorBenchmark {
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder().include("ValueSortKeyBenchmark.*")
+				.build();
+
+		new Runner(opt).run();
+	}
+
+	@Benchmark
+	public int sortSubjectKeys() {
+		return compareAll(subjects);
+	}
+
+	@Benchmark
+	public int sortPredicateKeys() {
+		return compareAll(predicates);
+	}
+
+	@Benchmark
+	public int sortObjectKeys() {
+		return compareAll(objects);
+	}
+
+	@Benchmark
+	public int sortManyPointerEqualsKeys() {
+		return compareAll(manyPointerEquals);
+	}
+
+	@Benchmark
+	public int sortManyDeepEqualsKeys() {
+		return compareAll(manyDeepEquals);
+	}
+
+	@Benchmark
+	public List<Value> sortObjectsByValue() {
+		List<Value> sorted = new ArrayList<>(objects);
+		sorted.sort(new ValueComparator());
+		return sorted;
+	}
+
+	@Benchmark
+	public List<ValueSortKey> sortObjectsByKey() {
+		List<ValueSortKey> sorted = keys(objects);
+		ValueComparator valueComparator = new ValueComparator();
+		sorted.sort(valueComparator::compareKeys);
+		return sorted;
+	}
+
+	private int compareAll(List<Value> values) {
+		List<ValueSortKey> keys = keys(values);
+		ValueComparator valueComparator = new ValueComparator();
+		int compare = 0;
+		for (ValueSortKey k1 : keys) {
+			for (ValueSortKey k2 : keys) {
+				compare += valueComparator.compareKeys(k1, k2);
+			}
+		}
+
+		return compare;
+	}
+
+	private static List<ValueSortKey> keys(List<Value> values) {
+		List<ValueSortKey> keys = new ArrayList<>(values.size());
+		for (Value value : values) {
+			keys.add(ValueSortKey.of(value));
+		}
+		return keys;
+	}
+}
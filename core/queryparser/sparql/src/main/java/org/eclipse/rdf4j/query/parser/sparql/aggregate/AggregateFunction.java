@@ -34,6 +34,18 @@ public abstract class AggregateFunction<T extends AggregateCollector, D> {
 	public abstract void processAggregate(BindingSet bindingSet, Predicate<D> distinctValue, T agv)
 			throws QueryEvaluationException;
 
+	/**
+	 * Indicates whether the solutions of different groups may be aggregated by this function on several threads at the
+	 * same time. This is the case if {@link #processAggregate(BindingSet, Predicate, AggregateCollector)} keeps all its
+	 * state in the supplied collector and the evaluation step is safe to use from several threads. The solutions of a
+	 * single group are always processed one at a time, in the order in which they are produced.
+	 *
+	 * @return {@code true} if the function can be used for parallel aggregation, {@code false} by default
+	 */
+	public boolean isParallelizable() {
+		return false;
+	}
+
 	protected Value evaluate(BindingSet s) throws QueryEvaluationException {
 		return evaluationStep.apply(s);
 	}
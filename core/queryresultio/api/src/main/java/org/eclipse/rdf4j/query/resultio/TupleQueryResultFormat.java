@@ -63,6 +63,13 @@ public class TupleQueryResultFormat extends QueryResultFormat {
 	public static final TupleQueryResultFormat BINARY = new TupleQueryResultFormat("BINARY",
 			"application/x-binary-rdf-results-table", null, "brt", SUPPORTS_RDF_STAR);
 
+	/**
+	 * Columnar binary RDF results format, with dictionary encoded values in compressed blocks of rows.
+	 */
+	@Experimental
+	public static final TupleQueryResultFormat BINARY_COLUMNAR = new TupleQueryResultFormat("BINARY-COLUMNAR",
+			"application/x-binary-rdf-results-columnar", null, "brc", SUPPORTS_RDF_STAR);
+
 	/**
 	 * SPARQL Query Results JSON Format.
 	 */
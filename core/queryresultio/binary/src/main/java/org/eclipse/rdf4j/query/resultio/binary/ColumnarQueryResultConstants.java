@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+/**
+ * Constants for the columnar binary tuple result format.
+ * <p>
+ * Where the {@link BinaryQueryResultConstants binary format} writes a result row by row, the columnar format groups
+ * rows into blocks and writes each block column by column, referring to the values through a per-block dictionary. This
+ * makes repeated values cheap and gives long runs of similar bytes that compress well.
+ * <p>
+ * A document starts with the 4-byte magic number {@code BRCR}, a 32-bit format version and the column headers: a
+ * variable-length integer (see below) with the number of columns followed by the column names as strings. It is
+ * followed by any number of records, each starting with a record type byte:
+ * <ul>
+ * <li>{@link #BLOCK_RECORD_MARKER}: a byte with flags ({@link #COMPRESSED_FLAG}), the length of the uncompressed block
+ * and the length of the block as it is stored, followed by the stored bytes. When compressed, the block is stored in
+ * the raw DEFLATE format.</li>
+ * <li>{@link #ERROR_RECORD_MARKER}: an error type byte, as in the binary format, followed by the error message.</li>
+ * <li>{@link #TABLE_END_RECORD_MARKER}: the end of the result.</li>
+ * </ul>
+ * An uncompressed block consists of:
+ * <ol>
+ * <li>the number of rows in the block;</li>
+ * <li>the number of namespaces first used in this block, followed by the namespaces. Namespaces are numbered in order
+ * of appearance over the whole document, so they are written only once;</li>
+ * <li>the number of distinct values in the block, followed by the values;</li>
+ * <li>for each column, for each row, the index of the value in the block dictionary plus one, or 0 if the row has no
+ * value for the column.</li>
+ * </ol>
+ * A value starts with a type byte. IRIs ({@link #IRI_VALUE}) are written as namespace number and local name, blank
+ * nodes ({@link #BNODE_VALUE}) as their identifier, typed literals ({@link #DATATYPE_LITERAL_VALUE}) as label,
+ * namespace number and local name of the datatype, language tagged literals ({@link #LANG_LITERAL_VALUE}) as label and
+ * language tag, and RDF-star triples ({@link #TRIPLE_VALUE}) as their subject, predicate and object values.
+ * <p>
+ * All integers except the format version are unsigned variable-length integers, 7 bits per byte with the high bit set
+ * on all but the last byte. Strings are written as the length of their UTF-8 encoding followed by the encoded bytes.
+ */
+public class ColumnarQueryResultConstants {
+
+	/**
+	 * Magic number for columnar binary tuple results.
+	 */
+	public static final byte[] MAGIC_NUMBER = new byte[] { 'B', 'R', 'C', 'R' };
+
+	/**
+	 * The version number of the current format.
+	 */
+	public static final int FORMAT_VERSION = 1;
+
+	/* RECORD TYPES */
+
+	public static final int TABLE_END_RECORD_MARKER = 0;
+
+	public static final int BLOCK_RECORD_MARKER = 1;
+
+	public static final int ERROR_RECORD_MARKER = 2;
+
+	/* BLOCK FLAGS */
+
+	public static final int COMPRESSED_FLAG = 1;
+
+	/* VALUE TYPES */
+
+	public static final int IRI_VALUE = 1;
+
+	public static final int BNODE_VALUE = 2;
+
+	public static final int DATATYPE_LITERAL_VALUE = 3;
+
+	public static final int LANG_LITERAL_VALUE = 4;
+
+	public static final int TRIPLE_VALUE = 5;
+}
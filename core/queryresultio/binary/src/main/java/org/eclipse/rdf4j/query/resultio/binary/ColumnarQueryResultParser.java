@@ -0,0 +1,330 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.MALFORMED_QUERY_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.QUERY_EVALUATION_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.BLOCK_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.BNODE_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.COMPRESSED_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.DATATYPE_LITERAL_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.ERROR_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.IRI_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.LANG_LITERAL_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.TABLE_END_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.TRIPLE_VALUE;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import org.eclipse.rdf4j.common.io.IOUtil;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.AbstractTupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+
+/**
+ * Reader for the columnar binary tuple result format. The format is explained in {@link ColumnarQueryResultConstants}.
+ */
+public class ColumnarQueryResultParser extends AbstractTupleQueryResultParser {
+
+	private final List<String> namespaces = new ArrayList<>();
+
+	/*--------------*
+	 * Constructors *
+	 *--------------*/
+
+	/**
+	 * Creates a new parser for the columnar binary query result format that will use an instance of
+	 * {@link SimpleValueFactory} to create Value objects.
+	 */
+	public ColumnarQueryResultParser() {
+		super();
+	}
+
+	/**
+	 * Creates a new parser for the columnar binary query result format that will use the supplied ValueFactory to
+	 * create Value objects.
+	 */
+	public ColumnarQueryResultParser(ValueFactory valueFactory) {
+		super(valueFactory);
+	}
+
+	/*---------*
+	 * Methods *
+	 *---------*/
+
+	@Override
+	public final TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.BINARY_COLUMNAR;
+	}
+
+	@Override
+	public synchronized void parse(InputStream in)
+			throws IOException, QueryResultParseException, TupleQueryResultHandlerException {
+		if (in == null) {
+			throw new IllegalArgumentException("Input stream can not be 'null'");
+		}
+
+		DataInputStream dataIn = new DataInputStream(in);
+
+		byte[] magicNumber = IOUtil.readBytes(in, MAGIC_NUMBER.length);
+		if (!Arrays.equals(magicNumber, MAGIC_NUMBER)) {
+			throw new QueryResultParseException("File does not contain a columnar binary RDF table result");
+		}
+
+		int formatVersion = dataIn.readInt();
+		if (formatVersion > FORMAT_VERSION || formatVersion < 1) {
+			throw new QueryResultParseException("Incompatible format version: " + formatVersion);
+		}
+
+		int columnCount = readVarInt(dataIn);
+		List<String> columnHeaders = new ArrayList<>(columnCount);
+		for (int i = 0; i < columnCount; i++) {
+			columnHeaders.add(readString(dataIn));
+		}
+		columnHeaders = Collections.unmodifiableList(columnHeaders);
+
+		if (handler != null) {
+			handler.startQueryResult(columnHeaders);
+		}
+
+		namespaces.clear();
+		Inflater inflater = null;
+		try {
+			int recordTypeMarker = dataIn.readByte();
+			while (recordTypeMarker != TABLE_END_RECORD_MARKER) {
+				if (recordTypeMarker == BLOCK_RECORD_MARKER) {
+					int flags = dataIn.readByte();
+					int length = readVarInt(dataIn);
+					int storedLength = readVarInt(dataIn);
+					byte[] stored = new byte[storedLength];
+					dataIn.readFully(stored);
+
+					byte[] block = stored;
+					if ((flags & COMPRESSED_FLAG) != 0) {
+						if (inflater == null) {
+							inflater = new Inflater(true);
+						} else {
+							inflater.reset();
+						}
+						block = inflate(inflater, stored, length);
+					}
+					processBlock(new BlockReader(block), columnHeaders);
+				} else if (recordTypeMarker == ERROR_RECORD_MARKER) {
+					processError(dataIn);
+				} else {
+					throw new QueryResultParseException("Unexpected record type: " + recordTypeMarker);
+				}
+				recordTypeMarker = dataIn.readByte();
+			}
+		} finally {
+			if (inflater != null) {
+				inflater.end();
+			}
+		}
+
+		if (handler != null) {
+			handler.endQueryResult();
+		}
+	}
+
+	private static byte[] inflate(Inflater inflater, byte[] stored, int length) throws QueryResultParseException {
+		byte[] block = new byte[length];
+		inflater.setInput(stored);
+		try {
+			int offset = 0;
+			while (offset < length) {
+				int inflated = inflater.inflate(block, offset, length - offset);
+				if (inflated == 0 && (inflater.finished() || inflater.needsInput())) {
+					break;
+				}
+				offset += inflated;
+			}
+			if (offset != length) {
+				throw new QueryResultParseException("Block is shorter than its declared length");
+			}
+		} catch (DataFormatException e) {
+			throw new QueryResultParseException(e);
+		}
+		return block;
+	}
+
+	private void processBlock(BlockReader reader, List<String> columnHeaders)
+			throws QueryResultParseException, TupleQueryResultHandlerException {
+		int rowCount = reader.readVarInt();
+
+		int namespaceCount = reader.readVarInt();
+		for (int i = 0; i < namespaceCount; i++) {
+			namespaces.add(reader.readString());
+		}
+
+		int valueCount = reader.readVarInt();
+		Value[] values = new Value[valueCount + 1];
+		for (int i = 1; i <= valueCount; i++) {
+			values[i] = readValue(reader);
+		}
+
+		int columnCount = columnHeaders.size();
+		int[][] columns = new int[columnCount][rowCount];
+		for (int column = 0; column < columnCount; column++) {
+			for (int row = 0; row < rowCount; row++) {
+				int index = reader.readVarInt();
+				if (index > valueCount) {
+					throw new QueryResultParseException("Illegal value index: " + index);
+				}
+				columns[column][row] = index;
+			}
+		}
+
+		if (handler == null) {
+			return;
+		}
+		for (int row = 0; row < rowCount; row++) {
+			Value[] rowValues = new Value[columnCount];
+			for (int column = 0; column < columnCount; column++) {
+				rowValues[column] = values[columns[column][row]];
+			}
+			handler.handleSolution(new ListBindingSet(columnHeaders, rowValues));
+		}
+	}
+
+	private Value readValue(BlockReader reader) throws QueryResultParseException {
+		int valueType = reader.readByte();
+		switch (valueType) {
+		case IRI_VALUE:
+			return readIRI(reader);
+		case BNODE_VALUE:
+			return valueFactory.createBNode(reader.readString());
+		case DATATYPE_LITERAL_VALUE:
+			String label = reader.readString();
+			return valueFactory.createLiteral(label, readIRI(reader));
+		case LANG_LITERAL_VALUE:
+			String langLabel = reader.readString();
+			return valueFactory.createLiteral(langLabel, reader.readString());
+		case TRIPLE_VALUE:
+			Value subject = readValue(reader);
+			Value predicate = readValue(reader);
+			Value object = readValue(reader);
+			if (!(subject instanceof Resource) || !(predicate instanceof IRI)) {
+				throw new QueryResultParseException("Illegal triple: " + subject + " " + predicate + " " + object);
+			}
+			return valueFactory.createTriple((Resource) subject, (IRI) predicate, object);
+		default:
+			throw new QueryResultParseException("Unexpected value type: " + valueType);
+		}
+	}
+
+	private IRI readIRI(BlockReader reader) throws QueryResultParseException {
+		int namespaceID = reader.readVarInt();
+		if (namespaceID >= namespaces.size()) {
+			throw new QueryResultParseException("Unknown namespace: " + namespaceID);
+		}
+		return valueFactory.createIRI(namespaces.get(namespaceID), reader.readString());
+	}
+
+	private static void processError(DataInputStream in) throws IOException, QueryResultParseException {
+		byte errTypeFlag = in.readByte();
+
+		QueryErrorType errType;
+		if (errTypeFlag == MALFORMED_QUERY_ERROR) {
+			errType = QueryErrorType.MALFORMED_QUERY_ERROR;
+		} else if (errTypeFlag == QUERY_EVALUATION_ERROR) {
+			errType = QueryErrorType.QUERY_EVALUATION_ERROR;
+		} else {
+			throw new QueryResultParseException("Unkown error type: " + errTypeFlag);
+		}
+
+		throw new QueryResultParseException(errType + ": " + readString(in));
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable-length integer");
+	}
+
+	private static String readString(DataInputStream in) throws IOException {
+		int length = readVarInt(in);
+		byte[] bytes = IOUtil.readBytes(in, length);
+		if (bytes.length != length) {
+			throw new EOFException("Attempted to read " + length + " bytes but no more than " + bytes.length
+					+ " were available");
+		}
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Reads the contents of an uncompressed block.
+	 */
+	private static final class BlockReader {
+
+		private final byte[] bytes;
+
+		private int position;
+
+		BlockReader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		int readByte() throws QueryResultParseException {
+			if (position >= bytes.length) {
+				throw new QueryResultParseException("Unexpected end of block");
+			}
+			return bytes[position++] & 0xFF;
+		}
+
+		int readVarInt() throws QueryResultParseException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				int b = readByte();
+				value |= (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new QueryResultParseException("Malformed variable-length integer");
+		}
+
+		String readString() throws QueryResultParseException {
+			int length = readVarInt();
+			if (length > bytes.length - position) {
+				throw new QueryResultParseException("Unexpected end of block");
+			}
+			String s = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+			return s;
+		}
+	}
+}
@@ -0,0 +1,399 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.MALFORMED_QUERY_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.BinaryQueryResultConstants.QUERY_EVALUATION_ERROR;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.BLOCK_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.BNODE_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.COMPRESSED_FLAG;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.DATATYPE_LITERAL_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.ERROR_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.FORMAT_VERSION;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.IRI_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.LANG_LITERAL_VALUE;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.MAGIC_NUMBER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.TABLE_END_RECORD_MARKER;
+import static org.eclipse.rdf4j.query.resultio.binary.ColumnarQueryResultConstants.TRIPLE_VALUE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import org.eclipse.rdf4j.common.io.ByteSink;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
+
+/**
+ * Writer for the columnar binary tuple result format. The format is explained in {@link ColumnarQueryResultConstants}.
+ * <p>
+ * Rows are buffered until a block of {@link ColumnarQueryResultWriterSettings#BLOCK_SIZE} rows is complete, so memory
+ * use is bounded by the block size rather than by the size of the result.
+ */
+public class ColumnarQueryResultWriter extends AbstractQueryResultWriter implements TupleQueryResultWriter, ByteSink {
+
+	private final DataOutputStream out;
+
+	/**
+	 * Namespace numbers, over the whole document.
+	 */
+	private final Map<String, Integer> namespaceTable = new HashMap<>(32);
+
+	/**
+	 * Namespaces that have been numbered while encoding the current block.
+	 */
+	private final List<String> newNamespaces = new ArrayList<>();
+
+	/**
+	 * Dictionary of the values in the current block.
+	 */
+	private final Map<Value, Integer> dictionary = new HashMap<>();
+
+	private final ByteArrayOutputStream valueBuffer = new ByteArrayOutputStream(64 * 1024);
+
+	private final ByteArrayOutputStream blockBuffer = new ByteArrayOutputStream(64 * 1024);
+
+	private final ByteArrayOutputStream compressedBuffer = new ByteArrayOutputStream(64 * 1024);
+
+	private final byte[] deflateBuffer = new byte[8192];
+
+	private Deflater deflater;
+
+	private List<String> bindingNames;
+
+	/**
+	 * Dictionary indexes plus one of the values of the current block, per column.
+	 */
+	private int[][] columns;
+
+	private int rowCount;
+
+	private int blockSize;
+
+	private boolean compress;
+
+	private boolean documentStarted = false;
+
+	protected boolean tupleVariablesFound = false;
+
+	public ColumnarQueryResultWriter(OutputStream out) {
+		this.out = new DataOutputStream(out);
+	}
+
+	@Override
+	public OutputStream getOutputStream() {
+		return out;
+	}
+
+	@Override
+	public final TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.BINARY_COLUMNAR;
+	}
+
+	@Override
+	public final TupleQueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		return Arrays.asList(ColumnarQueryResultWriterSettings.BLOCK_SIZE, ColumnarQueryResultWriterSettings.COMPRESS);
+	}
+
+	@Override
+	public void startDocument() throws TupleQueryResultHandlerException {
+		documentStarted = true;
+		try {
+			out.write(MAGIC_NUMBER);
+			out.writeInt(FORMAT_VERSION);
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+
+		tupleVariablesFound = true;
+
+		if (!documentStarted) {
+			startDocument();
+		}
+
+		this.bindingNames = Collections.unmodifiableList(new ArrayList<>(bindingNames));
+
+		blockSize = (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+				getWriterConfig().get(ColumnarQueryResultWriterSettings.BLOCK_SIZE)));
+		compress = getWriterConfig().get(ColumnarQueryResultWriterSettings.COMPRESS);
+		columns = new int[this.bindingNames.size()][Math.min(blockSize, 1024)];
+		rowCount = 0;
+
+		try {
+			writeVarInt(out, this.bindingNames.size());
+			for (String bindingName : this.bindingNames) {
+				writeString(out, bindingName);
+			}
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+
+		if (columns.length > 0 && rowCount == columns[0].length) {
+			for (int i = 0; i < columns.length; i++) {
+				columns[i] = Arrays.copyOf(columns[i], Math.min(blockSize, columns[i].length * 2));
+			}
+		}
+
+		for (int i = 0; i < columns.length; i++) {
+			Value value = bindingSet.getValue(bindingNames.get(i));
+			if (value == null) {
+				columns[i][rowCount] = 0;
+			} else {
+				Integer index = dictionary.get(value);
+				if (index == null) {
+					index = dictionary.size() + 1;
+					dictionary.put(value, index);
+				}
+				columns[i][rowCount] = index;
+			}
+		}
+		rowCount++;
+
+		if (rowCount >= blockSize) {
+			try {
+				writeBlock();
+			} catch (IOException e) {
+				throw new TupleQueryResultHandlerException(e);
+			}
+		}
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+
+		try {
+			if (rowCount > 0) {
+				writeBlock();
+			}
+			out.writeByte(TABLE_END_RECORD_MARKER);
+			out.flush();
+			documentStarted = false;
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		} finally {
+			if (deflater != null) {
+				deflater.end();
+				deflater = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes an error msg to the stream, after any rows that have been handled so far.
+	 *
+	 * @param errType The error type.
+	 * @param msg     The error message.
+	 * @throws IOException When the error could not be written to the stream.
+	 */
+	public void error(QueryErrorType errType, String msg) throws IOException {
+		if (rowCount > 0) {
+			writeBlock();
+		}
+		out.writeByte(ERROR_RECORD_MARKER);
+		out.writeByte(errType == QueryErrorType.MALFORMED_QUERY_ERROR ? MALFORMED_QUERY_ERROR : QUERY_EVALUATION_ERROR);
+		writeString(out, msg);
+		out.flush();
+	}
+
+	private void writeBlock() throws IOException {
+		// values first, as they determine the namespaces that are new in this block
+		valueBuffer.reset();
+		Value[] values = new Value[dictionary.size()];
+		for (Map.Entry<Value, Integer> entry : dictionary.entrySet()) {
+			values[entry.getValue() - 1] = entry.getKey();
+		}
+		for (Value value : values) {
+			writeValue(value);
+		}
+
+		blockBuffer.reset();
+		writeVarInt(blockBuffer, rowCount);
+		writeVarInt(blockBuffer, newNamespaces.size());
+		for (String namespace : newNamespaces) {
+			writeString(blockBuffer, namespace);
+		}
+		writeVarInt(blockBuffer, values.length);
+		valueBuffer.writeTo(blockBuffer);
+		for (int[] column : columns) {
+			for (int row = 0; row < rowCount; row++) {
+				writeVarInt(blockBuffer, column[row]);
+			}
+		}
+
+		int flags = 0;
+		ByteArrayOutputStream stored = blockBuffer;
+		if (compress && deflate()) {
+			flags |= COMPRESSED_FLAG;
+			stored = compressedBuffer;
+		}
+
+		out.writeByte(BLOCK_RECORD_MARKER);
+		out.writeByte(flags);
+		writeVarInt(out, blockBuffer.size());
+		writeVarInt(out, stored.size());
+		stored.writeTo(out);
+
+		rowCount = 0;
+		dictionary.clear();
+		newNamespaces.clear();
+	}
+
+	/**
+	 * Compresses the block buffer into the compressed buffer.
+	 *
+	 * @return {@code true} if compression reduced the size of the block
+	 */
+	private boolean deflate() {
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.BEST_SPEED, true);
+		} else {
+			deflater.reset();
+		}
+		compressedBuffer.reset();
+
+		byte[] input = blockBuffer.toByteArray();
+		deflater.setInput(input);
+		deflater.finish();
+		while (!deflater.finished()) {
+			int length = deflater.deflate(deflateBuffer);
+			compressedBuffer.write(deflateBuffer, 0, length);
+			if (compressedBuffer.size() >= input.length) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof IRI) {
+			valueBuffer.write(IRI_VALUE);
+			writeIRI((IRI) value);
+		} else if (value instanceof BNode) {
+			valueBuffer.write(BNODE_VALUE);
+			writeString(valueBuffer, ((BNode) value).getID());
+		} else if (value instanceof Literal) {
+			Literal literal = (Literal) value;
+			if (literal.getLanguage().isPresent()) {
+				valueBuffer.write(LANG_LITERAL_VALUE);
+				writeString(valueBuffer, literal.getLabel());
+				writeString(valueBuffer, literal.getLanguage().get());
+			} else {
+				valueBuffer.write(DATATYPE_LITERAL_VALUE);
+				writeString(valueBuffer, literal.getLabel());
+				writeIRI(literal.getDatatype());
+			}
+		} else if (value instanceof Triple) {
+			Triple triple = (Triple) value;
+			valueBuffer.write(TRIPLE_VALUE);
+			writeValue(triple.getSubject());
+			writeValue(triple.getPredicate());
+			writeValue(triple.getObject());
+		} else {
+			throw new TupleQueryResultHandlerException("Unknown Value object type: " + value.getClass());
+		}
+	}
+
+	private void writeIRI(IRI iri) throws IOException {
+		String namespace = iri.getNamespace();
+		Integer namespaceID = namespaceTable.get(namespace);
+		if (namespaceID == null) {
+			namespaceID = namespaceTable.size();
+			namespaceTable.put(namespace, namespaceID);
+			newNamespaces.add(namespace);
+		}
+		writeVarInt(valueBuffer, namespaceID);
+		writeString(valueBuffer, iri.getLocalName());
+	}
+
+	private static void writeVarInt(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	private static void writeString(OutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		writeVarInt(out, bytes.length);
+		out.write(bytes);
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// Columnar binary format does not support explicit setting of namespace prefixes.
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		// Ignored by Columnar Binary Query Results format
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		// Ignored by Columnar Binary Query Results format
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		// Ignored by Columnar Binary Query Results format
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		// Ignored by Columnar Binary Query Results format
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		throw new UnsupportedOperationException("Cannot handle boolean results");
+	}
+}
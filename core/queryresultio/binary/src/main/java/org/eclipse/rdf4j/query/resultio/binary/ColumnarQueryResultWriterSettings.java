@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.BooleanRioSetting;
+import org.eclipse.rdf4j.rio.helpers.LongRioSetting;
+
+/**
+ * Writer settings for the columnar binary tuple result format.
+ *
+ * @see ColumnarQueryResultConstants
+ */
+public class ColumnarQueryResultWriterSettings {
+
+	/**
+	 * Setting for the maximum number of rows in a block. Larger blocks compress better, but are buffered in memory
+	 * before they are written and delay the first results for the reader.
+	 * <p>
+	 * Defaults to {@code 4096}.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.query.resultio.binary.columnar.block_size}
+	 */
+	public static final RioSetting<Long> BLOCK_SIZE = new LongRioSetting(
+			"org.eclipse.rdf4j.query.resultio.binary.columnar.block_size", "Block size", 4096L);
+
+	/**
+	 * Setting for whether blocks are compressed.
+	 * <p>
+	 * Defaults to {@code true}.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.query.resultio.binary.columnar.compress}
+	 */
+	public static final RioSetting<Boolean> COMPRESS = new BooleanRioSetting(
+			"org.eclipse.rdf4j.query.resultio.binary.columnar.compress", "Compress blocks", Boolean.TRUE);
+
+	/**
+	 * Private default constructor.
+	 */
+	private ColumnarQueryResultWriterSettings() {
+	}
+}
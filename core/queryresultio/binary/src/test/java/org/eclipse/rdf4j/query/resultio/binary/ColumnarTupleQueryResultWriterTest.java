@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.query.resultio.binary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParser;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserFactory;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriterFactory;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.WriterConfig;
+import org.eclipse.rdf4j.testsuite.query.resultio.AbstractTupleQueryResultWriterTest;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the columnar binary tuple result writer.
+ */
+public class ColumnarTupleQueryResultWriterTest extends AbstractTupleQueryResultWriterTest {
+
+	@Override
+	protected TupleQueryResultParserFactory getParserFactory() {
+		return new ColumnarQueryResultParserFactory();
+	}
+
+	@Override
+	protected TupleQueryResultWriterFactory getWriterFactory() {
+		return new ColumnarQueryResultWriterFactory();
+	}
+
+	@Override
+	protected RioSetting<?>[] getExpectedSupportedSettings() {
+		return new RioSetting<?>[] { ColumnarQueryResultWriterSettings.BLOCK_SIZE,
+				ColumnarQueryResultWriterSettings.COMPRESS };
+	}
+
+	@Test
+	public void testMultipleBlocks() throws Exception {
+		List<BindingSet> bindingSets = createBindingSets(10_000);
+
+		for (boolean compress : new boolean[] { true, false }) {
+			WriterConfig config = new WriterConfig();
+			config.set(ColumnarQueryResultWriterSettings.BLOCK_SIZE, 100L);
+			config.set(ColumnarQueryResultWriterSettings.COMPRESS, compress);
+
+			byte[] written = write(new ColumnarQueryResultWriterFactory(), config, bindingSets);
+
+			QueryResultCollector collector = new QueryResultCollector();
+			TupleQueryResultParser parser = getParserFactory().getParser();
+			parser.setQueryResultHandler(collector);
+			parser.parseQueryResult(new ByteArrayInputStream(written));
+
+			assertThat(collector.getBindingNames()).containsExactly("s", "o", "n");
+			assertThat(collector.getBindingSets()).isEqualTo(bindingSets);
+		}
+	}
+
+	@Test
+	public void testSmallerThanBinaryFormat() throws Exception {
+		List<BindingSet> bindingSets = createBindingSets(10_000);
+
+		byte[] columnar = write(new ColumnarQueryResultWriterFactory(), new WriterConfig(), bindingSets);
+		byte[] binary = write(new BinaryQueryResultWriterFactory(), new WriterConfig(), bindingSets);
+
+		assertThat(columnar.length).isLessThan(binary.length / 2);
+	}
+
+	private static List<BindingSet> createBindingSets(int count) {
+		List<String> bindingNames = List.of("s", "o", "n");
+		List<BindingSet> bindingSets = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			bindingSets.add(new ListBindingSet(bindingNames, vf.createIRI("http://example.org/resource/", "r" + i),
+					i % 3 == 0 ? null : vf.createLiteral("label " + (i % 50), "en"),
+					vf.createLiteral(i % 7)));
+		}
+		return bindingSets;
+	}
+
+	private static byte[] write(TupleQueryResultWriterFactory factory, WriterConfig config,
+			List<BindingSet> bindingSets) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TupleQueryResultWriter writer = factory.getWriter(out);
+		writer.setWriterConfig(config);
+		writer.startQueryResult(List.of("s", "o", "n"));
+		bindingSets.forEach(writer::handleSolution);
+		writer.endQueryResult();
+		return out.toByteArray();
+	}
+}
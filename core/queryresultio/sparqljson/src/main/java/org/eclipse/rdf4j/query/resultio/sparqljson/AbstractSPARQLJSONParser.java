@@ -19,8 +19,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang3.StringUtils;
@@ -33,6 +35,7 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
 import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.eclipse.rdf4j.query.resultio.AbstractQueryResultParser;
 import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
@@ -99,6 +102,17 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 	 */
 	private static final String ORDERED = "ordered";
 
+	/**
+	 * Maximum number of datatype IRIs that are reused within a single document.
+	 */
+	private static final int DATATYPE_CACHE_SIZE = 1024;
+
+	/**
+	 * Datatype IRIs seen in the current document. Results typically use a handful of datatypes for millions of
+	 * literals, so these are created only once.
+	 */
+	private final Map<String, IRI> datatypeCache = new HashMap<>();
+
 	/**
 	 *
 	 */
@@ -137,7 +151,10 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 						jp.getCurrentLocation().getLineNr(), jp.getCurrentLocation().getColumnNr());
 			}
 
+			datatypeCache.clear();
+
 			List<String> varsList = new ArrayList<>();
+			String[] vars = null;
 			boolean varsFound = false;
 			Set<BindingSet> bindings = new HashSet<>();
 
@@ -169,6 +186,7 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 							while (jp.nextToken() != JsonToken.END_ARRAY) {
 								varsList.add(jp.getText());
 							}
+							vars = varsList.toArray(new String[0]);
 
 							if (this.handler != null) {
 								handler.startQueryResult(varsList);
@@ -228,26 +246,13 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 
 							while (jp.nextToken() != JsonToken.END_ARRAY) {
 
-								MapBindingSet nextBindingSet = new MapBindingSet();
-
 								if (jp.getCurrentToken() != JsonToken.START_OBJECT) {
 									throw new QueryResultParseException(
 											"Did not find object in bindings array: " + jp.getCurrentName(),
 											jp.getCurrentLocation().getLineNr(), jp.getCurrentLocation().getColumnNr());
 								}
 
-								while (jp.nextToken() != JsonToken.END_OBJECT) {
-
-									if (jp.getCurrentToken() != JsonToken.FIELD_NAME) {
-										throw new QueryResultParseException("Did not find binding name",
-												jp.getCurrentLocation().getLineNr(),
-												jp.getCurrentLocation().getColumnNr());
-									}
-
-									final String bindingStr = jp.getCurrentName();
-
-									nextBindingSet.addBinding(bindingStr, parseValue(jp, bindingStr));
-								}
+								BindingSet nextBindingSet = parseBindingSet(jp, varsFound ? vars : null, varsList);
 								// parsing of solution finished, report result return to
 								// bindings state
 								if (!varsFound) {
@@ -322,6 +327,73 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 		return result;
 	}
 
+	/**
+	 * Parses the bindings of a single solution. If the variables are known, the values are collected positionally in a
+	 * {@link ListBindingSet}. A binding for a variable that is not declared in the header, or bindings preceding the
+	 * header, are collected in a {@link MapBindingSet} instead. So is a solution that leaves a variable unbound,
+	 * because a {@link ListBindingSet} would report the unbound variable among its binding names.
+	 */
+	private BindingSet parseBindingSet(JsonParser jp, String[] vars, List<String> varsList) throws IOException {
+		Value[] values = vars != null ? new Value[vars.length] : null;
+		MapBindingSet mapBindingSet = null;
+
+		while (jp.nextToken() != JsonToken.END_OBJECT) {
+
+			if (jp.getCurrentToken() != JsonToken.FIELD_NAME) {
+				throw new QueryResultParseException("Did not find binding name",
+						jp.getCurrentLocation().getLineNr(),
+						jp.getCurrentLocation().getColumnNr());
+			}
+
+			final String bindingStr = jp.getCurrentName();
+			final Value value = parseValue(jp, bindingStr);
+
+			int index = mapBindingSet == null ? indexOf(vars, bindingStr) : -1;
+			if (index >= 0) {
+				values[index] = value;
+			} else {
+				if (mapBindingSet == null) {
+					mapBindingSet = values != null ? toMapBindingSet(vars, values) : new MapBindingSet();
+				}
+				mapBindingSet.addBinding(bindingStr, value);
+			}
+		}
+
+		if (mapBindingSet != null) {
+			return mapBindingSet;
+		}
+		if (values == null) {
+			return new MapBindingSet();
+		}
+		for (Value value : values) {
+			if (value == null) {
+				return toMapBindingSet(vars, values);
+			}
+		}
+		return new ListBindingSet(varsList, values);
+	}
+
+	private static MapBindingSet toMapBindingSet(String[] vars, Value[] values) {
+		MapBindingSet bindingSet = new MapBindingSet(vars.length);
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] != null) {
+				bindingSet.addBinding(vars[i], values[i]);
+			}
+		}
+		return bindingSet;
+	}
+
+	private static int indexOf(String[] vars, String name) {
+		if (vars != null) {
+			for (int i = 0; i < vars.length; i++) {
+				if (vars[i].equals(name)) {
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+
 	protected Value parseValue(JsonParser jp, String bindingStr) throws IOException {
 		if (jp.nextToken() != JsonToken.START_OBJECT) {
 			throw new QueryResultParseException("Did not find object for binding value",
@@ -455,19 +527,13 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 	 * @return the value corresponding to the given parameters
 	 */
 	private Value parseValue(String type, String value, String language, String datatype) {
-		logger.trace("type: {}", type);
-		logger.trace("value: {}", value);
-		logger.trace("language: {}", language);
-		logger.trace("datatype: {}", datatype);
-
 		Value result = null;
 
 		if (type.equals(LITERAL) || type.equals(TYPED_LITERAL)) {
 			if (language != null) {
 				result = valueFactory.createLiteral(value, language);
 			} else if (datatype != null) {
-				IRI datatypeIri;
-				datatypeIri = valueFactory.createIRI(datatype);
+				IRI datatypeIri = getDatatype(datatype);
 
 				// For broken SPARQL endpoints which return LANGSTRING without a language, fall back
 				// to using STRING as the datatype
@@ -489,11 +555,21 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 			result = valueFactory.createIRI(value);
 		}
 
-		logger.debug("result value: {}", result);
-
 		return result;
 	}
 
+	private IRI getDatatype(String datatype) {
+		IRI datatypeIri = datatypeCache.get(datatype);
+		if (datatypeIri == null) {
+			if (datatypeCache.size() >= DATATYPE_CACHE_SIZE) {
+				datatypeCache.clear();
+			}
+			datatypeIri = valueFactory.createIRI(datatype);
+			datatypeCache.put(datatype, datatypeIri);
+		}
+		return datatypeIri;
+	}
+
 	@Override
 	public Collection<RioSetting<?>> getSupportedSettings() {
 		Collection<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
@@ -520,12 +596,11 @@ public abstract class AbstractSPARQLJSONParser extends AbstractQueryResultParser
 	 */
 	private JsonFactory configureNewJsonFactory() {
 		final JsonFactoryBuilder builder = new JsonFactoryBuilder();
-		// Disable features that may work for most JSON where the field names are
-		// in limited supply,
-		// but does not work for SPARQL/JSON where a wide range of URIs are used for
-		// subjects and predicates
+		// Field names in SPARQL/JSON are the fixed keywords and the variable names, so canonicalizing them avoids
+		// allocating a new string for every field of every binding. Interning them in the JVM string pool is not
+		// worth the cost.
 		builder.disable(JsonFactory.Feature.INTERN_FIELD_NAMES);
-		builder.disable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES);
+		builder.enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES);
 		builder.disable(StreamWriteFeature.AUTO_CLOSE_TARGET);
 
 		if (getParserConfig().isSet(JSONSettings.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER)) {
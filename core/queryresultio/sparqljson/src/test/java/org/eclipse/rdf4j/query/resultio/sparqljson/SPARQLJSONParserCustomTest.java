@@ -12,6 +12,7 @@ package org.eclipse.rdf4j.query.resultio.sparqljson;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -20,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
@@ -27,6 +29,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.XSD;
 import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
 import org.eclipse.rdf4j.query.resultio.QueryResultIO;
 import org.eclipse.rdf4j.query.resultio.QueryResultParseException;
 import org.eclipse.rdf4j.query.resultio.QueryResultParser;
@@ -441,4 +444,45 @@ public class SPARQLJSONParserCustomTest {
 		assertEquals("http://de.dbpedia.org/resource/Hans_Lala",
 				handler.getBindingSets().get(1).getBinding("subj").getValue().stringValue());
 	}
+
+	@Test
+	public void testBindingForUndeclaredVariable() throws Exception {
+		parser.parseQueryResult(stringToInputStream("{\"head\": { \"vars\": [ \"a\" ] }, \"results\": { \"bindings\": ["
+				+ "{ \"a\": {\"value\": \"http://example.com/Obj1\", \"type\": \"uri\"}, \"b\": {\"value\": \"42\", \"type\": \"literal\", \"datatype\": \"http://www.w3.org/2001/XMLSchema#integer\"}},"
+				+ "{ \"a\": {\"value\": \"42\", \"type\": \"literal\", \"datatype\": \"http://www.w3.org/2001/XMLSchema#integer\"}}"
+				+ "]}}"));
+
+		assertEquals(2, results.getBindingSets().size());
+		BindingSet first = results.getBindingSets().get(0);
+		assertEquals(testBindingValueIRI, first.getValue("a"));
+		assertEquals(testBindingValueLiteralNumber, first.getValue("b"));
+		BindingSet second = results.getBindingSets().get(1);
+		assertEquals(testBindingValueLiteralNumber, second.getValue("a"));
+		assertEquals(1, second.size());
+
+		// datatypes are reused within a document
+		assertTrue(((Literal) first.getValue("b")).getDatatype() == ((Literal) second.getValue("a")).getDatatype());
+	}
+
+	@Test
+	public void testUnboundVariable() throws Exception {
+		parser.parseQueryResult(
+				stringToInputStream("{\"head\": { \"vars\": [ \"a\", \"b\" ] }, \"results\": { \"bindings\": ["
+						+ "{ \"a\": {\"value\": \"http://example.com/Obj1\", \"type\": \"uri\"}},"
+						+ "{ \"a\": {\"value\": \"http://example.com/Obj1\", \"type\": \"uri\"}, \"b\": {\"value\": \"42\", \"type\": \"literal\", \"datatype\": \"http://www.w3.org/2001/XMLSchema#integer\"}}"
+						+ "]}}"));
+
+		assertEquals(2, results.getBindingSets().size());
+		// only bound variables are binding names of a solution
+		BindingSet first = results.getBindingSets().get(0);
+		assertEquals(Set.of("a"), first.getBindingNames());
+		assertEquals(1, first.size());
+		assertFalse(first.hasBinding("b"));
+		MapBindingSet expected = new MapBindingSet();
+		expected.addBinding("a", testBindingValueIRI);
+		assertEquals(expected, first);
+		BindingSet second = results.getBindingSets().get(1);
+		assertEquals(Set.of("a", "b"), second.getBindingNames());
+		assertEquals(2, second.size());
+	}
 }
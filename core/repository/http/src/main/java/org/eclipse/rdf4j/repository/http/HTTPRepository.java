@@ -86,6 +86,8 @@ public class HTTPRepository extends AbstractRepository implements HttpClientDepe
 
 	private volatile Boolean compatibleMode = null;
 
+	private volatile Boolean compressUploads = null;
+
 	private volatile Map<String, String> additionalHttpHeaders = Collections.emptyMap();
 
 	private HTTPRepository() {
@@ -292,6 +294,17 @@ public class HTTPRepository extends AbstractRepository implements HttpClientDepe
 		this.password = password;
 	}
 
+	/**
+	 * Sets whether RDF data added to or removed from the remote repository is compressed while it is uploaded,
+	 * overriding the {@link RDF4JProtocolSession}'s default.
+	 *
+	 * @param compressUploads whether to compress uploads
+	 * @see RDF4JProtocolSession#setCompressUploads(boolean)
+	 */
+	public void setCompressUploads(boolean compressUploads) {
+		this.compressUploads = compressUploads;
+	}
+
 	public String getRepositoryURL() {
 		return repositoryURL;
 	}
@@ -341,6 +354,9 @@ public class HTTPRepository extends AbstractRepository implements HttpClientDepe
 		if (username != null) {
 			httpClient.setUsernameAndPassword(username, password);
 		}
+		if (compressUploads != null) {
+			httpClient.setCompressUploads(compressUploads);
+		}
 		httpClient.setAdditionalHttpHeaders(additionalHttpHeaders);
 		return httpClient;
 	}
@@ -34,6 +34,7 @@ import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
 import org.eclipse.rdf4j.common.transaction.TransactionSetting;
 import org.eclipse.rdf4j.http.client.HttpClientDependent;
 import org.eclipse.rdf4j.http.client.RDF4JProtocolSession;
+import org.eclipse.rdf4j.http.client.TransactionUploadStream;
 import org.eclipse.rdf4j.http.protocol.Protocol;
 import org.eclipse.rdf4j.http.protocol.Protocol.Action;
 import org.eclipse.rdf4j.http.protocol.transaction.operations.AddStatementOperation;
@@ -51,6 +52,7 @@ import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleNamespace;
 import org.eclipse.rdf4j.model.vocabulary.RDF4J;
@@ -78,6 +80,7 @@ import org.eclipse.rdf4j.rio.RDFHandler;
 import org.eclipse.rdf4j.rio.RDFHandlerException;
 import org.eclipse.rdf4j.rio.RDFParseException;
 import org.eclipse.rdf4j.rio.RDFParserRegistry;
+import org.eclipse.rdf4j.rio.RDFWriter;
 import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
@@ -109,6 +112,10 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 
 	private Model toRemove;
 
+	private TransactionUploadStream addStream;
+
+	private RDFWriter addStreamWriter;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -447,6 +454,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 
 		flushTransactionState(Action.ADD);
+		closeAddStream();
 		// Send bytes directly to the server
 		client.upload(in, baseURI, dataFormat, false, false, contexts);
 	}
@@ -488,6 +496,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 		}
 
 		flushTransactionState(Action.ADD);
+		closeAddStream();
 		client.upload(reader, baseURI, dataFormat, false, false, contexts);
 	}
 
@@ -552,12 +561,84 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 
 		flushTransactionState(Protocol.Action.ADD);
 
+		if (getParserConfig().get(HTTPRepositorySettings.STREAM_TRANSACTION_ADDS)) {
+			streamAdd(subject, predicate, object, contexts);
+			return;
+		}
+
 		if (toAdd == null) {
 			toAdd = new LinkedHashModel();
 		}
 		toAdd.add(subject, predicate, object, contexts);
 	}
 
+	private void streamAdd(Resource subject, IRI predicate, Value object, Resource... contexts)
+			throws RepositoryException {
+		if (toAdd != null) {
+			addModel(toAdd);
+			toAdd = null;
+		}
+
+		boolean written = false;
+		try {
+			if (addStreamWriter == null) {
+				addStream = client.openAddStream(RDFFormat.BINARY);
+				addStreamWriter = Rio.createWriter(RDFFormat.BINARY, addStream);
+				addStreamWriter.startRDF();
+			}
+			ValueFactory vf = getValueFactory();
+			if (contexts.length == 0) {
+				addStreamWriter.handleStatement(vf.createStatement(subject, predicate, object));
+			} else {
+				for (Resource context : contexts) {
+					addStreamWriter.handleStatement(vf.createStatement(subject, predicate, object, context));
+				}
+			}
+			written = true;
+		} catch (RDFHandlerException | IOException e) {
+			throw new RepositoryException(e);
+		} finally {
+			if (!written) {
+				abortAddStream();
+			}
+		}
+	}
+
+	/**
+	 * Completes the upload of statements streamed by {@link #streamAdd}, if any, and waits until the server has added
+	 * them to the transaction.
+	 */
+	private void closeAddStream() throws RepositoryException {
+		if (addStreamWriter == null) {
+			return;
+		}
+		TransactionUploadStream stream = addStream;
+		RDFWriter writer = addStreamWriter;
+		addStream = null;
+		addStreamWriter = null;
+
+		boolean closed = false;
+		try {
+			writer.endRDF();
+			stream.close();
+			closed = true;
+		} catch (RDFHandlerException | IOException e) {
+			throw new RepositoryException(e);
+		} finally {
+			if (!closed) {
+				stream.abort();
+			}
+		}
+	}
+
+	private void abortAddStream() {
+		if (addStream != null) {
+			addStream.abort();
+		}
+		addStream = null;
+		addStreamWriter = null;
+	}
+
 	private void addModel(Model m) throws RepositoryException {
 		// TODO we should dynamically pick a format from the available writers
 		// perhaps?
@@ -610,6 +691,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 				}
 				break;
 			case DELETE:
+				closeAddStream();
 				if (toAdd != null) {
 					addModel(toAdd);
 					toAdd = null;
@@ -625,6 +707,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 			case PREPARE:
 			case QUERY:
 			case SIZE:
+				closeAddStream();
 				if (toAdd != null) {
 					addModel(toAdd);
 					toAdd = null;
@@ -635,6 +718,7 @@ class HTTPRepositoryConnection extends AbstractRepositoryConnection implements H
 				}
 				break;
 			case ROLLBACK:
+				abortAddStream();
 				toAdd = null;
 				toRemove = null;
 				break;
@@ -12,6 +12,7 @@ package org.eclipse.rdf4j.repository.http.helpers;
 
 import org.eclipse.rdf4j.repository.http.HTTPRepository;
 import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.BooleanRioSetting;
 import org.eclipse.rdf4j.rio.helpers.RioSettingImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,4 +35,19 @@ public class HTTPRepositorySettings {
 	public static final RioSetting<Integer> MAX_STATEMENT_BUFFER_SIZE = new RioSettingImpl<>(
 			"org.eclipse.rdf4j.http.maxstatementbuffersize", "Maximum number of statement buffered in memory", 200000);
 
+	/**
+	 * Whether statements added inside a transaction are streamed to the server instead of buffered.
+	 * <p>
+	 * When enabled, {@link org.eclipse.rdf4j.repository.http.HTTPRepositoryConnection} opens a single chunked upload in
+	 * binary RDF format for consecutive statement additions in a transaction, which the server adds to the transaction
+	 * as they arrive. The upload is completed before the next operation of another kind. This avoids a request per
+	 * {@link #MAX_STATEMENT_BUFFER_SIZE} statements and keeps the statements out of client memory.
+	 * <p>
+	 * Defaults to {@code false}.
+	 * <p>
+	 * Can be overridden by setting system property {@code org.eclipse.rdf4j.http.streamtransactionadds}
+	 */
+	public static final RioSetting<Boolean> STREAM_TRANSACTION_ADDS = new BooleanRioSetting(
+			"org.eclipse.rdf4j.http.streamtransactionadds", "Stream statements added in a transaction", Boolean.FALSE);
+
 }
@@ -13,9 +13,14 @@ package org.eclipse.rdf4j.repository.http;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.mockserver.model.HttpRequest.request;
 import static org.mockserver.model.HttpResponse.response;
 
@@ -23,11 +28,17 @@ import java.io.InputStream;
 import java.net.URL;
 
 import org.eclipse.rdf4j.http.client.RDF4JProtocolSession;
+import org.eclipse.rdf4j.http.client.TransactionUploadStream;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.http.helpers.HTTPRepositorySettings;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.eclipse.rdf4j.rio.UnsupportedRDFormatException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockserver.client.MockServerClient;
 import org.mockserver.junit.jupiter.MockServerExtension;
 import org.mockserver.model.MediaType;
@@ -35,6 +46,8 @@ import org.mockserver.model.MediaType;
 @ExtendWith(MockServerExtension.class)
 public class HTTPRepositoryConnectionTest {
 
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
 	static HTTPRepository testRepository;
 	static RDF4JProtocolSession session;
 
@@ -113,4 +126,50 @@ public class HTTPRepositoryConnectionTest {
 		}
 	}
 
+	@Test
+	public void testStreamTransactionAdds() throws Exception {
+		RDF4JProtocolSession session = mock(RDF4JProtocolSession.class);
+		TransactionUploadStream stream = mock(TransactionUploadStream.class);
+		when(session.openAddStream(RDFFormat.BINARY)).thenReturn(stream);
+
+		try (HTTPRepositoryConnection repoConn = new HTTPRepositoryConnection(createRepository(), session)) {
+			repoConn.getParserConfig().set(HTTPRepositorySettings.STREAM_TRANSACTION_ADDS, true);
+			repoConn.begin();
+			for (int i = 0; i < 10; i++) {
+				repoConn.add(vf.createIRI("urn:s" + i), RDF.TYPE, vf.createIRI("urn:C"));
+			}
+			repoConn.commit();
+		}
+
+		InOrder inOrder = inOrder(session, stream);
+		inOrder.verify(session).openAddStream(RDFFormat.BINARY);
+		inOrder.verify(stream, atLeastOnce()).write(any(byte[].class), anyInt(), anyInt());
+		inOrder.verify(stream).close();
+		inOrder.verify(session).commitTransaction();
+		verify(session, never()).addData(any(InputStream.class), any(), any(RDFFormat.class));
+	}
+
+	@Test
+	public void testStreamTransactionAddsRollback() throws Exception {
+		RDF4JProtocolSession session = mock(RDF4JProtocolSession.class);
+		TransactionUploadStream stream = mock(TransactionUploadStream.class);
+		when(session.openAddStream(RDFFormat.BINARY)).thenReturn(stream);
+
+		try (HTTPRepositoryConnection repoConn = new HTTPRepositoryConnection(createRepository(), session)) {
+			repoConn.getParserConfig().set(HTTPRepositorySettings.STREAM_TRANSACTION_ADDS, true);
+			repoConn.begin();
+			repoConn.add(vf.createIRI("urn:s"), RDF.TYPE, vf.createIRI("urn:C"));
+			repoConn.rollback();
+		}
+
+		verify(stream).abort();
+		verify(stream, never()).close();
+		verify(session).rollbackTransaction();
+	}
+
+	private static HTTPRepository createRepository() {
+		HTTPRepository repository = mock(HTTPRepository.class);
+		when(repository.getValueFactory()).thenReturn(vf);
+		return repository;
+	}
 }
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.repository.sail;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.MalformedQueryException;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.UnsupportedQueryLanguageException;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.Datasets;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryKeys;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedDescribeQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A size-bounded cache of parsed queries, shared by all connections of a {@link SailRepository}, keyed by query
+ * language, query string and base URI. Each call returns a copy of the cached query model, so that callers and Sails
+ * can modify it. The copies are registered with {@link QueryKeys}, which lets Sails reuse the optimized plan of a
+ * repeated query as well.
+ */
+class ParsedQueryCache {
+
+	private final Cache<QueryKey, ParsedQuery> queries;
+
+	ParsedQueryCache(long maximumSize) {
+		this.queries = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	ParsedQuery parseQuery(QueryLanguage ql, String query, String baseURI)
+			throws MalformedQueryException, UnsupportedQueryLanguageException {
+		QueryKey key = new QueryKey(ql, query, baseURI);
+		ParsedQuery parsedQuery = queries.getIfPresent(key);
+		if (parsedQuery == null) {
+			parsedQuery = QueryParserUtil.parseQuery(ql, query, baseURI);
+			if (!isCopyable(parsedQuery)) {
+				return parsedQuery;
+			}
+			queries.put(key, parsedQuery);
+		}
+
+		ParsedQuery copy = copy(parsedQuery);
+		QueryKeys.set(copy.getTupleExpr(), key);
+		return copy;
+	}
+
+	ParsedTupleQuery parseTupleQuery(QueryLanguage ql, String query, String baseURI)
+			throws MalformedQueryException, UnsupportedQueryLanguageException {
+		ParsedQuery q = parseQuery(ql, query, baseURI);
+
+		if (q instanceof ParsedTupleQuery) {
+			return (ParsedTupleQuery) q;
+		}
+
+		throw new IllegalArgumentException("query is not a tuple query: " + query);
+	}
+
+	ParsedGraphQuery parseGraphQuery(QueryLanguage ql, String query, String baseURI)
+			throws MalformedQueryException, UnsupportedQueryLanguageException {
+		ParsedQuery q = parseQuery(ql, query, baseURI);
+
+		if (q instanceof ParsedGraphQuery) {
+			return (ParsedGraphQuery) q;
+		}
+
+		throw new IllegalArgumentException("query is not a graph query: " + query);
+	}
+
+	ParsedBooleanQuery parseBooleanQuery(QueryLanguage ql, String query, String baseURI)
+			throws MalformedQueryException, UnsupportedQueryLanguageException {
+		ParsedQuery q = parseQuery(ql, query, baseURI);
+
+		if (q instanceof ParsedBooleanQuery) {
+			return (ParsedBooleanQuery) q;
+		}
+
+		throw new IllegalArgumentException("query is not a boolean query: " + query);
+	}
+
+	/**
+	 * Discards all cached queries.
+	 */
+	void clear() {
+		queries.invalidateAll();
+	}
+
+	private static boolean isCopyable(ParsedQuery query) {
+		Class<?> type = query.getClass();
+		return type == ParsedTupleQuery.class || type == ParsedGraphQuery.class
+				|| type == ParsedDescribeQuery.class || type == ParsedBooleanQuery.class;
+	}
+
+	private static ParsedQuery copy(ParsedQuery query) {
+		String sourceString = query.getSourceString();
+		TupleExpr tupleExpr = query.getTupleExpr().clone();
+
+		ParsedQuery copy;
+		if (query instanceof ParsedTupleQuery) {
+			copy = new ParsedTupleQuery(sourceString, tupleExpr);
+		} else if (query instanceof ParsedBooleanQuery) {
+			copy = new ParsedBooleanQuery(sourceString, tupleExpr);
+		} else {
+			Map<String, String> namespaces = ((ParsedGraphQuery) query).getQueryNamespaces();
+			namespaces = namespaces == null ? null : new LinkedHashMap<>(namespaces);
+			if (query instanceof ParsedDescribeQuery) {
+				copy = new ParsedDescribeQuery(sourceString, tupleExpr, namespaces);
+			} else {
+				copy = new ParsedGraphQuery(sourceString, tupleExpr, namespaces);
+			}
+		}
+		copy.setDataset(Datasets.copy(query.getDataset()));
+		return copy;
+	}
+
+	private static final class QueryKey {
+
+		private final QueryLanguage ql;
+
+		private final String query;
+
+		private final String baseURI;
+
+		QueryKey(QueryLanguage ql, String query, String baseURI) {
+			this.ql = ql;
+			this.query = query;
+			this.baseURI = baseURI;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof QueryKey)) {
+				return false;
+			}
+			QueryKey other = (QueryKey) o;
+			return Objects.equals(ql, other.ql) && Objects.equals(query, other.query)
+					&& Objects.equals(baseURI, other.baseURI);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(ql, query, baseURI);
+		}
+	}
+}
@@ -62,8 +62,16 @@ public class SailRepository extends AbstractRepository implements FederatedServi
 	 * Constants *
 	 *-----------*/
 
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.repository.sail.parsedQueryCacheSize} for the maximum
+	 * number of parsed queries that are cached per repository. Defaults to {@code 0}, which disables the cache.
+	 */
+	public static final String PARSED_QUERY_CACHE_SIZE_PROPERTY = "org.eclipse.rdf4j.repository.sail.parsedQueryCacheSize";
+
 	private final Sail sail;
 
+	private final ParsedQueryCache parsedQueryCache;
+
 	/*--------------*
 	 * Constructors *
 	 *--------------*/
@@ -75,6 +83,8 @@ public class SailRepository extends AbstractRepository implements FederatedServi
 	 */
 	public SailRepository(Sail sail) {
 		this.sail = sail;
+		long parsedQueryCacheSize = Long.getLong(PARSED_QUERY_CACHE_SIZE_PROPERTY, 0);
+		this.parsedQueryCache = parsedQueryCacheSize > 0 ? new ParsedQueryCache(parsedQueryCacheSize) : null;
 	}
 
 	/*---------*
@@ -175,6 +185,13 @@ public class SailRepository extends AbstractRepository implements FederatedServi
 		}
 	}
 
+	/**
+	 * @return the cache of parsed queries shared by the connections of this repository, or {@code null} if disabled
+	 */
+	ParsedQueryCache getParsedQueryCache() {
+		return parsedQueryCache;
+	}
+
 	/**
 	 * Gets the Sail object that is on top of the Sail stack that this repository operates on.
 	 *
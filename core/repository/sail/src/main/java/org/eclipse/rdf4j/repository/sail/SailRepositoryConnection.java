@@ -260,7 +260,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 
 	@Override
 	public SailQuery prepareQuery(QueryLanguage ql, String queryString, String baseURI) throws MalformedQueryException {
-		ParsedQuery parsedQuery = QueryParserUtil.parseQuery(ql, queryString, baseURI);
+		ParsedQuery parsedQuery = parseQuery(ql, queryString, baseURI);
 
 		if (parsedQuery instanceof ParsedTupleQuery) {
 			Optional<TupleExpr> sailTupleExpr = sailConnection.prepareQuery(ql, Query.QueryType.TUPLE, queryString,
@@ -296,7 +296,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 
 		ParsedTupleQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedTupleQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseTupleQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseTupleQuery(ql, queryString, baseURI));
 		return new SailTupleQuery(parsedQuery, this);
 	}
 
@@ -307,7 +307,7 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 				baseURI);
 		ParsedGraphQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedGraphQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseGraphQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseGraphQuery(ql, queryString, baseURI));
 		return new SailGraphQuery(parsedQuery, this);
 	}
 
@@ -318,10 +318,34 @@ public class SailRepositoryConnection extends AbstractRepositoryConnection imple
 				baseURI);
 		ParsedBooleanQuery parsedQuery = sailTupleExpr
 				.map(expr -> new ParsedBooleanQuery(queryString, expr))
-				.orElse(QueryParserUtil.parseBooleanQuery(ql, queryString, baseURI));
+				.orElseGet(() -> parseBooleanQuery(ql, queryString, baseURI));
 		return new SailBooleanQuery(parsedQuery, this);
 	}
 
+	private ParsedQuery parseQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = ((SailRepository) getRepository()).getParsedQueryCache();
+		return cache != null ? cache.parseQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedTupleQuery parseTupleQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = ((SailRepository) getRepository()).getParsedQueryCache();
+		return cache != null ? cache.parseTupleQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseTupleQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedGraphQuery parseGraphQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = ((SailRepository) getRepository()).getParsedQueryCache();
+		return cache != null ? cache.parseGraphQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseGraphQuery(ql, queryString, baseURI);
+	}
+
+	private ParsedBooleanQuery parseBooleanQuery(QueryLanguage ql, String queryString, String baseURI) {
+		ParsedQueryCache cache = ((SailRepository) getRepository()).getParsedQueryCache();
+		return cache != null ? cache.parseBooleanQuery(ql, queryString, baseURI)
+				: QueryParserUtil.parseBooleanQuery(ql, queryString, baseURI);
+	}
+
 	@Override
 	public Update prepareUpdate(QueryLanguage ql, String update, String baseURI)
 			throws RepositoryException, MalformedQueryException {
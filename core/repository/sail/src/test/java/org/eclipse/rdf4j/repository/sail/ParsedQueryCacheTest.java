@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.repository.sail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryKeys;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+import org.junit.jupiter.api.Test;
+
+public class ParsedQueryCacheTest {
+
+	private final ParsedQueryCache cache = new ParsedQueryCache(10);
+
+	@Test
+	public void testRepeatedQueryIsCopied() {
+		String query = "SELECT * FROM <urn:g> WHERE { ?s ?p ?o }";
+
+		ParsedTupleQuery first = cache.parseTupleQuery(QueryLanguage.SPARQL, query, null);
+		ParsedTupleQuery second = cache.parseTupleQuery(QueryLanguage.SPARQL, query, null);
+
+		assertThat(second.getTupleExpr()).isEqualTo(first.getTupleExpr()).isNotSameAs(first.getTupleExpr());
+		assertThat(second.getDataset()).isEqualTo(first.getDataset()).isNotSameAs(first.getDataset());
+		assertThat(QueryKeys.get(second.getTupleExpr()))
+				.isEqualTo(QueryKeys.get(first.getTupleExpr()))
+				.isNotNull();
+	}
+
+	@Test
+	public void testQueryKeyDependsOnBaseURI() {
+		String query = "SELECT * WHERE { ?s <p> ?o }";
+
+		ParsedQuery first = cache.parseQuery(QueryLanguage.SPARQL, query, "urn:a:");
+		ParsedQuery second = cache.parseQuery(QueryLanguage.SPARQL, query, "urn:b:");
+
+		assertThat(QueryKeys.get(second.getTupleExpr()))
+				.isNotEqualTo(QueryKeys.get(first.getTupleExpr()));
+	}
+
+	@Test
+	public void testGraphQueryKeepsType() {
+		String query = "PREFIX ex: <urn:ex:> CONSTRUCT WHERE { ?s ex:p ?o }";
+
+		cache.parseQuery(QueryLanguage.SPARQL, query, null);
+		ParsedGraphQuery parsedQuery = cache.parseGraphQuery(QueryLanguage.SPARQL, query, null);
+
+		assertThat(parsedQuery.getQueryNamespaces()).containsEntry("ex", "urn:ex:");
+		assertThatThrownBy(() -> cache.parseTupleQuery(QueryLanguage.SPARQL, query, null))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
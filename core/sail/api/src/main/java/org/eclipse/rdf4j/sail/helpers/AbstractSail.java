@@ -23,6 +23,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
 import org.eclipse.rdf4j.sail.Sail;
 import org.eclipse.rdf4j.sail.SailConnection;
 import org.eclipse.rdf4j.sail.SailException;
@@ -54,6 +55,11 @@ public abstract class AbstractSail implements Sail {
 	 */
 	private QueryEvaluationMode defaultQueryEvaluationMode = QueryEvaluationMode.STRICT;
 
+	/**
+	 * default resource limits of queries, set to {@link QueryResourceLimits#UNLIMITED}
+	 */
+	private QueryResourceLimits defaultQueryResourceLimits = QueryResourceLimits.UNLIMITED;
+
 	/**
 	 * list of supported isolation levels. By default set to include {@link IsolationLevels#READ_UNCOMMITTED} and
 	 * {@link IsolationLevels#SERIALIZABLE}. Specific store implementations are expected to alter this list according to
@@ -419,4 +425,21 @@ public abstract class AbstractSail implements Sail {
 	public void setDefaultQueryEvaluationMode(QueryEvaluationMode defaultQueryEvaluationMode) {
 		this.defaultQueryEvaluationMode = Objects.requireNonNull(defaultQueryEvaluationMode);
 	}
+
+	/**
+	 * @return the resource limits of queries that are not evaluated with other limits
+	 */
+	public QueryResourceLimits getDefaultQueryResourceLimits() {
+		return defaultQueryResourceLimits;
+	}
+
+	/**
+	 * Sets the resource limits of queries. Individual transactions can use other limits by passing
+	 * {@link QueryResourceLimits} as a transaction setting.
+	 *
+	 * @param defaultQueryResourceLimits the defaultQueryResourceLimits to set
+	 */
+	public void setDefaultQueryResourceLimits(QueryResourceLimits defaultQueryResourceLimits) {
+		this.defaultQueryResourceLimits = Objects.requireNonNull(defaultQueryResourceLimits);
+	}
 }
@@ -139,24 +139,105 @@ public abstract class Changeset implements SailSink, ModelFactory {
 	public void prepare() throws SailException {
 		assert !closed;
 		if (prepend != null && observed != null) {
-			for (SimpleStatementPattern p : observed) {
-				Resource subj = p.getSubject();
-				IRI pred = p.getPredicate();
-				Value obj = p.getObject();
-				Resource context = p.getContext();
-				Resource[] contexts;
-				if (p.isAllContexts()) {
-					contexts = new Resource[0];
+			StatementPatternIndex index = null;
+			for (Changeset changeset : prepend) {
+				boolean changed;
+				if (changeset.getChangedStatementCount() < observed.size()) {
+					// check each changed statement against the observed patterns
+					if (index == null) {
+						index = new StatementPatternIndex(observed);
+					}
+					changed = changeset.hasChanged(index);
 				} else {
-					contexts = new Resource[] { context };
+					changed = changeset.hasChanged(observed);
+				}
+				if (changed) {
+					throw new SailConflictException("Observed State has Changed");
 				}
-				for (Changeset changeset : prepend) {
-					if (changeset.hasApproved(subj, pred, obj, contexts)
-							|| (changeset.hasDeprecated(subj, pred, obj, contexts))) {
-						throw new SailConflictException("Observed State has Changed");
+			}
+		}
+	}
+
+	private long getChangedStatementCount() {
+		boolean readLock = readWriteLock.readLock();
+		try {
+			long count = 0;
+			if (approved != null) {
+				count += approved.size();
+			}
+			if (deprecated != null) {
+				count += deprecated.size();
+			}
+			return count;
+		} finally {
+			readWriteLock.unlockReader(readLock);
+		}
+	}
+
+	/**
+	 * @return {@code true} if this changeset changed any statement that matches one of the patterns
+	 */
+	private boolean hasChanged(Set<SimpleStatementPattern> patterns) {
+		for (SimpleStatementPattern p : patterns) {
+			Resource subj = p.getSubject();
+			IRI pred = p.getPredicate();
+			Value obj = p.getObject();
+			Resource[] contexts;
+			if (p.isAllContexts()) {
+				contexts = new Resource[0];
+			} else {
+				contexts = new Resource[] { p.getContext() };
+			}
+			if (hasClearedAny(p.isAllContexts(), contexts) || hasApproved(subj, pred, obj, contexts)
+					|| hasDeprecated(subj, pred, obj, contexts)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return {@code true} if this changeset changed any statement that matches one of the indexed patterns
+	 */
+	private boolean hasChanged(StatementPatternIndex patterns) {
+		boolean readLock = readWriteLock.readLock();
+		try {
+			if (statementCleared || deprecatedContexts != null && patterns.matchesAny(deprecatedContexts)) {
+				return true;
+			}
+			if (approved != null) {
+				for (Statement st : approved) {
+					if (patterns.matches(st)) {
+						return true;
 					}
 				}
 			}
+			if (deprecated != null) {
+				for (Statement st : deprecated) {
+					if (patterns.matches(st)) {
+						return true;
+					}
+				}
+			}
+			return false;
+		} finally {
+			readWriteLock.unlockReader(readLock);
+		}
+	}
+
+	private boolean hasClearedAny(boolean allContexts, Resource[] contexts) {
+		if (statementCleared) {
+			return true;
+		}
+		Set<Resource> deprecatedContexts = this.deprecatedContexts;
+		if (deprecatedContexts == null || deprecatedContexts.isEmpty()) {
+			return false;
+		}
+		boolean readLock = readWriteLock.readLock();
+		try {
+			return allContexts || deprecatedContexts.contains(contexts[0]);
+		} finally {
+			readWriteLock.unlockReader(readLock);
 		}
 	}
 
@@ -190,7 +271,7 @@ public abstract class Changeset implements SailSink, ModelFactory {
 				}
 			}
 
-			return deprecated.contains(subj, pred, obj, contexts);
+			return deprecated != null && deprecated.contains(subj, pred, obj, contexts);
 		} finally {
 			readWriteLock.unlockReader(readLock);
 		}
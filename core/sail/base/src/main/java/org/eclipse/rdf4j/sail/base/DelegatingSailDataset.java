@@ -73,4 +73,9 @@ abstract class DelegatingSailDataset implements SailDataset {
 			Value obj) throws SailException {
 		return delegate.getTriples(subj, pred, obj);
 	}
+
+	@Override
+	public long size(Resource... contexts) throws SailException {
+		return delegate.size(contexts);
+	}
 }
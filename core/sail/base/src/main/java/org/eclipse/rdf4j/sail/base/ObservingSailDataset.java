@@ -70,4 +70,10 @@ class ObservingSailDataset extends DelegatingSailDataset {
 		return super.getStatements(subj, pred, obj, contexts);
 	}
 
+	@Override
+	public long size(Resource... contexts) throws SailException {
+		observer.observe(null, null, null, contexts);
+		return super.size(contexts);
+	}
+
 }
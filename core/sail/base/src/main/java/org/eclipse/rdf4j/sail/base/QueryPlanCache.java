@@ -0,0 +1,230 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.FunctionCall;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.Datasets;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryKeys;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * A size-bounded cache of optimized query plans, shared by all connections of a store, so that repeated queries skip
+ * the optimizer pipeline.
+ * <p>
+ * Plans are only cached for query models that were registered with {@link QueryKeys}, typically by a cache of parsed
+ * queries that hands out copies of the parsed model. The key identifies the query text the model was parsed from,
+ * which, unlike the structure of the model, identifies the query reliably. A plan is reused for the same query key,
+ * dataset, bindings and evaluation context, and only as long as the query model still equals the model the plan was
+ * created from. All plans are discarded when the total number of statements estimated by the evaluation statistics
+ * changes significantly, as join orders chosen for the old statistics may no longer be appropriate.
+ * <p>
+ * Plans of queries that call zero-argument functions, such as {@code NOW()}, are not cached, as the optimizer may
+ * replace these calls with the value for a single execution.
+ */
+class QueryPlanCache {
+
+	/**
+	 * The relative change of the estimated number of statements after which all plans are discarded.
+	 */
+	private static final double STATISTICS_CHANGE_THRESHOLD = 0.2;
+
+	private final Cache<PlanKey, Plan> plans;
+
+	private final long statisticsCheckInterval;
+
+	private volatile long lastStatisticsCheck;
+
+	private double statementCount = -1;
+
+	/**
+	 * Creates a new cache that checks the evaluation statistics for significant changes at most once per second.
+	 *
+	 * @param maximumSize the maximum number of plans to keep
+	 */
+	QueryPlanCache(long maximumSize) {
+		this(maximumSize, 1000);
+	}
+
+	/**
+	 * @param maximumSize             the maximum number of plans to keep
+	 * @param statisticsCheckInterval the minimum time between two checks of the evaluation statistics, in milliseconds
+	 */
+	QueryPlanCache(long maximumSize, long statisticsCheckInterval) {
+		this.plans = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+		this.statisticsCheckInterval = TimeUnit.MILLISECONDS.toNanos(statisticsCheckInterval);
+		this.lastStatisticsCheck = System.nanoTime() - this.statisticsCheckInterval;
+	}
+
+	/**
+	 * Returns a copy of the cached plan for the supplied query model.
+	 *
+	 * @param query      the query model to evaluate
+	 * @param dataset    the dataset the query is evaluated on, may be {@code null}
+	 * @param bindings   the bindings the query is evaluated with, may be {@code null}
+	 * @param context    any further state the plan depends on, such as evaluation settings, compared by
+	 *                   {@link Object#equals(Object)}
+	 * @param statistics the evaluation statistics of the store the query is evaluated on
+	 * @return a copy of the optimized plan, or {@code null} if no plan is cached
+	 */
+	TupleExpr get(TupleExpr query, Dataset dataset, BindingSet bindings, Object context,
+			EvaluationStatistics statistics) {
+		Object queryKey = QueryKeys.get(query);
+		if (queryKey == null) {
+			return null;
+		}
+		checkStatistics(statistics);
+
+		Plan plan = plans.getIfPresent(new PlanKey(queryKey, dataset, bindings, context));
+		if (plan == null || !plan.query.equals(query)) {
+			return null;
+		}
+		return plan.plan.clone();
+	}
+
+	/**
+	 * Caches the optimized plan for the supplied query model, if it has a registered query key.
+	 *
+	 * @param query    the query model that was optimized, before optimization
+	 * @param dataset  the dataset the query is evaluated on, may be {@code null}
+	 * @param bindings the bindings the query is evaluated with, may be {@code null}
+	 * @param context  any further state the plan depends on, as passed to
+	 *                 {@link #get(TupleExpr, Dataset, BindingSet, Object, EvaluationStatistics)}
+	 * @param plan     the optimized plan
+	 */
+	void put(TupleExpr query, Dataset dataset, BindingSet bindings, Object context, TupleExpr plan) {
+		Object queryKey = QueryKeys.get(query);
+		if (queryKey == null || callsZeroArgumentFunction(query)) {
+			return;
+		}
+		PlanKey key = new PlanKey(queryKey, Datasets.copy(dataset),
+				bindings == null ? null : new QueryBindingSet(bindings),
+				context);
+		plans.put(key, new Plan(query.clone(), plan.clone()));
+	}
+
+	/**
+	 * Discards all cached plans.
+	 */
+	void clear() {
+		plans.invalidateAll();
+	}
+
+	/**
+	 * @return the number of cached plans
+	 */
+	long size() {
+		return plans.size();
+	}
+
+	private void checkStatistics(EvaluationStatistics statistics) {
+		long now = System.nanoTime();
+		if (now - lastStatisticsCheck < statisticsCheckInterval) {
+			return;
+		}
+		synchronized (this) {
+			if (now - lastStatisticsCheck < statisticsCheckInterval) {
+				return;
+			}
+			lastStatisticsCheck = now;
+			double count = statistics
+					.getCardinality(new StatementPattern(new Var("s"), new Var("p"), new Var("o")));
+			if (statementCount >= 0
+					&& Math.abs(count - statementCount) > STATISTICS_CHANGE_THRESHOLD * Math.max(statementCount, 1)) {
+				plans.invalidateAll();
+				statementCount = count;
+			} else if (statementCount < 0) {
+				statementCount = count;
+			}
+		}
+	}
+
+	private static boolean callsZeroArgumentFunction(TupleExpr query) {
+		boolean[] found = new boolean[1];
+		query.visit(new AbstractSimpleQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(FunctionCall node) {
+				if (node.getArgs().isEmpty()) {
+					found[0] = true;
+				} else {
+					super.meet(node);
+				}
+			}
+		});
+		return found[0];
+	}
+
+	private static final class PlanKey {
+
+		private final Object queryKey;
+
+		private final Dataset dataset;
+
+		private final BindingSet bindings;
+
+		private final Object context;
+
+		private final int hashCode;
+
+		PlanKey(Object queryKey, Dataset dataset, BindingSet bindings, Object context) {
+			this.queryKey = queryKey;
+			this.dataset = dataset;
+			this.bindings = bindings == null || bindings.isEmpty() ? EmptyBindingSet.getInstance() : bindings;
+			this.context = context;
+			this.hashCode = Objects.hash(queryKey, dataset, this.bindings, context);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey other = (PlanKey) o;
+			return hashCode == other.hashCode && queryKey.equals(other.queryKey)
+					&& Objects.equals(dataset, other.dataset) && bindings.equals(other.bindings)
+					&& Objects.equals(context, other.context);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class Plan {
+
+		private final TupleExpr query;
+
+		private final TupleExpr plan;
+
+		Plan(TupleExpr query, TupleExpr plan) {
+			this.query = query;
+			this.plan = plan;
+		}
+	}
+}
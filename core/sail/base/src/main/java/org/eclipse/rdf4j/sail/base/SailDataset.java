@@ -94,4 +94,17 @@ public interface SailDataset extends SailClosable {
 		throw new SailException("RDF-star triple retrieval not supported by this store");
 	}
 
+	/**
+	 * Returns the number of statements in this dataset, if the store can determine it without iterating over the
+	 * statements, for example from counters that it maintains as statements are added and removed.
+	 *
+	 * @param contexts The context(s) to count the statements of. Note that this parameter is a vararg and as such is
+	 *                 optional. If no contexts are supplied the method counts the statements in all contexts.
+	 * @return The number of statements, or <var>-1</var> if it is not known.
+	 * @throws SailException If the store failed to determine the number of statements.
+	 */
+	default long size(Resource... contexts) throws SailException {
+		return -1;
+	}
+
 }
@@ -297,6 +297,18 @@ class SailDatasetImpl implements SailDataset {
 		}
 	}
 
+	@Override
+	public long size(Resource... contexts) throws SailException {
+		if (changes.hasApproved() || changes.hasDeprecated()) {
+			// the statements in the changeset may overlap with those of the backing dataset
+			return -1;
+		} else if (changes.isStatementCleared()) {
+			return 0;
+		} else {
+			return derivedFrom.size(contexts);
+		}
+	}
+
 	@Override
 	public CloseableIteration<? extends Triple, SailException> getTriples(Resource subj, IRI pred, Value obj)
 			throws SailException {
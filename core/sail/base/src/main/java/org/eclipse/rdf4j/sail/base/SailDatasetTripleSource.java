@@ -67,6 +67,15 @@ public class SailDatasetTripleSource implements RDFStarTripleSource {
 		return vf;
 	}
 
+	@Override
+	public long size(Resource... contexts) throws QueryEvaluationException {
+		try {
+			return dataset.size(contexts);
+		} catch (SailException e) {
+			throw new QueryEvaluationException(e);
+		}
+	}
+
 	@Override
 	public CloseableIteration<? extends Triple, QueryEvaluationException> getRdfStarTriples(Resource subj, IRI pred,
 			Value obj) throws QueryEvaluationException {
@@ -14,19 +14,24 @@ import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
 
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.ModelFactory;
+import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.DynamicModelFactory;
 import org.eclipse.rdf4j.sail.SailException;
@@ -42,6 +47,12 @@ class SailSourceBranch implements SailSource {
 
 	private static final Logger logger = LoggerFactory.getLogger(SailSourceBranch.class);
 
+	/**
+	 * The number of flushes that an open {@link SailDataset} can observe through undos, after which changes are kept in
+	 * this branch until the dataset is closed.
+	 */
+	private static final int MAX_UNDOS = 16;
+
 	/**
 	 * Used to prevent changes to this object's field from multiple threads.
 	 */
@@ -79,6 +90,30 @@ class SailSourceBranch implements SailSource {
 	 */
 	private final boolean autoFlush;
 
+	/**
+	 * If changes should also be flushed while {@link SailDataset}s of this {@link SailSource} are open, which then
+	 * observe their state through {@link UndoSailDataset}s.
+	 */
+	private final boolean flushWhileObserved;
+
+	/**
+	 * A source that keeps its statements together with those of the backing source, such that approving a statement
+	 * that it contains moves the statement out of it, or {@code null}. Such changes are not flushed while datasets are
+	 * open, because the datasets of the other source would not observe the move.
+	 */
+	private final SailSource sharedSource;
+
+	/**
+	 * Held in shared mode while an {@link UndoSailDataset} is read, and exclusively while flushing changes while
+	 * datasets are open.
+	 */
+	private final StampedLock flushLock = new StampedLock();
+
+	/**
+	 * The open {@link UndoSailDataset}s, if {@link #flushWhileObserved}.
+	 */
+	private final Collection<UndoSailDataset> undoDatasets = new ArrayList<>();
+
 	/**
 	 * Non-null when in {@link IsolationLevels#SNAPSHOT} (or higher) mode.
 	 */
@@ -122,9 +157,47 @@ class SailSourceBranch implements SailSource {
 	 * @param autoFlush
 	 */
 	public SailSourceBranch(SailSource backingSource, ModelFactory modelFactory, boolean autoFlush) {
+		this(backingSource, modelFactory, autoFlush, false);
+	}
+
+	/**
+	 * Creates a new {@link SailSource} derived from the given {@link SailSource} and if <code>autoFlush</code> is true,
+	 * will automatically call {@link #flush()} when not in use. If <code>flushWhileObserved</code> is also true,
+	 * changes are flushed while datasets are open as well, as long as none of them is being read. The open datasets
+	 * keep observing their state through a record of the statements that each flush added and removed.
+	 * <p>
+	 * This requires that each read of a dataset of the backing source observes its current state, and that the backing
+	 * source doesn't need to support RDF-star triple retrieval.
+	 *
+	 * @param backingSource
+	 * @param modelFactory
+	 * @param autoFlush
+	 * @param flushWhileObserved
+	 */
+	public SailSourceBranch(SailSource backingSource, ModelFactory modelFactory, boolean autoFlush,
+			boolean flushWhileObserved) {
+		this(backingSource, modelFactory, autoFlush, flushWhileObserved, null);
+	}
+
+	/**
+	 * Creates a new {@link SailSource} like {@link #SailSourceBranch(SailSource, ModelFactory, boolean, boolean)},
+	 * where approving a statement that the given shared source contains moves it out of that source, like explicitly
+	 * adding a statement that a store holds as inferred.
+	 *
+	 * @param backingSource
+	 * @param modelFactory
+	 * @param autoFlush
+	 * @param flushWhileObserved
+	 * @param sharedSource       a source that keeps its statements together with those of the backing source, or
+	 *                           {@code null}
+	 */
+	SailSourceBranch(SailSource backingSource, ModelFactory modelFactory, boolean autoFlush,
+			boolean flushWhileObserved, SailSource sharedSource) {
 		this.backingSource = backingSource;
 		this.modelFactory = modelFactory;
 		this.autoFlush = autoFlush;
+		this.flushWhileObserved = autoFlush && flushWhileObserved;
+		this.sharedSource = sharedSource;
 	}
 
 	@Override
@@ -390,6 +463,8 @@ class SailSourceBranch implements SailSource {
 			try {
 				if (observers.isEmpty()) {
 					flush();
+				} else if (flushWhileObserved) {
+					flushObserved();
 				}
 			} finally {
 				semaphore.unlock();
@@ -397,6 +472,125 @@ class SailSourceBranch implements SailSource {
 		}
 	}
 
+	/**
+	 * Flushes the changes while datasets are open, if none of them is being read and the effect of the changes on the
+	 * backing source can be recorded for them.
+	 */
+	private void flushObserved() throws SailException {
+		if (changes.isEmpty() || prepared != null || serializable != null || !isUndoable()) {
+			return;
+		}
+		long stamp = flushLock.tryWriteLock();
+		if (stamp == 0) {
+			// a dataset is being read
+			return;
+		}
+		try {
+			for (UndoSailDataset dataset : undoDatasets) {
+				if (dataset.getUndoCount() >= MAX_UNDOS) {
+					return;
+				}
+			}
+			UndoSailDataset.Undo undo = createUndo();
+			if (undo == null) {
+				return;
+			}
+			for (UndoSailDataset dataset : undoDatasets) {
+				dataset.addUndo(undo);
+			}
+			try {
+				flush();
+			} catch (RuntimeException e) {
+				for (UndoSailDataset dataset : undoDatasets) {
+					dataset.removeUndo(undo);
+				}
+				throw e;
+			}
+		} finally {
+			flushLock.unlockWrite(stamp);
+		}
+	}
+
+	private boolean isUndoable() {
+		for (Changeset change : changes) {
+			// clearing contexts would require recording all of their statements
+			Set<Resource> deprecatedContexts = change.getDeprecatedContexts();
+			if (change.isStatementCleared() || deprecatedContexts != null && !deprecatedContexts.isEmpty()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Determines which statements flushing the changes actually adds to and removes from the backing source.
+	 *
+	 * @return the undo of the flush, or {@code null} if the flush would also change the shared source
+	 */
+	private UndoSailDataset.Undo createUndo() throws SailException {
+		Map<Statement, Boolean> approved = new HashMap<>();
+		boolean namespacesChanged = false;
+		for (Changeset change : changes) {
+			for (Statement st : change.getDeprecatedStatements()) {
+				approved.put(st, false);
+			}
+			for (Statement st : change.getApprovedStatements()) {
+				approved.put(st, true);
+			}
+			namespacesChanged |= change.isNamespaceCleared() || change.getAddedNamespaces() != null
+					|| change.getRemovedPrefixes() != null;
+		}
+		Model added = modelFactory.createEmptyModel();
+		Model removed = modelFactory.createEmptyModel();
+		Map<String, String> namespaces = null;
+		try (SailDataset dataset = backingSource.dataset(IsolationLevels.NONE)) {
+			for (Map.Entry<Statement, Boolean> entry : approved.entrySet()) {
+				Statement st = entry.getKey();
+				boolean present = contains(dataset, st);
+				if (entry.getValue() && !present) {
+					added.add(st);
+				} else if (!entry.getValue() && present) {
+					removed.add(st);
+				}
+			}
+			if (sharedSource != null && !added.isEmpty()) {
+				try (SailDataset shared = sharedSource.dataset(IsolationLevels.NONE)) {
+					for (Statement st : added) {
+						if (contains(shared, st)) {
+							return null;
+						}
+					}
+				}
+			}
+			if (namespacesChanged) {
+				namespaces = new HashMap<>();
+				try (CloseableIteration<? extends Namespace, SailException> iter = dataset.getNamespaces()) {
+					while (iter.hasNext()) {
+						Namespace namespace = iter.next();
+						namespaces.put(namespace.getPrefix(), namespace.getName());
+					}
+				}
+			}
+		}
+		return new UndoSailDataset.Undo(added, removed, namespaces);
+	}
+
+	private static boolean contains(SailDataset dataset, Statement st) throws SailException {
+		try (CloseableIteration<? extends Statement, SailException> statements = dataset.getStatements(
+				st.getSubject(), st.getPredicate(), st.getObject(), st.getContext())) {
+			return statements.hasNext();
+		}
+	}
+
+	private void removeUndoDataset(UndoSailDataset dataset) {
+		try {
+			semaphore.lock();
+			undoDatasets.remove(dataset);
+		} finally {
+			semaphore.unlock();
+		}
+	}
+
 	private boolean isChanged(Changeset change) {
 		return change.isChanged();
 	}
@@ -445,6 +639,11 @@ class SailSourceBranch implements SailSource {
 					};
 				}
 			}
+			if (flushWhileObserved) {
+				UndoSailDataset undoDataset = new UndoSailDataset(derivedFrom, flushLock, this::removeUndoDataset);
+				undoDatasets.add(undoDataset);
+				derivedFrom = undoDataset;
+			}
 			Iterator<Changeset> iter = changes.iterator();
 			while (iter.hasNext()) {
 				derivedFrom = new SailDatasetImpl(derivedFrom, iter.next());
@@ -10,8 +10,10 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.base;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
@@ -20,6 +22,7 @@ import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
 import org.eclipse.rdf4j.common.transaction.IsolationLevels;
 import org.eclipse.rdf4j.common.transaction.QueryEvaluationMode;
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
 import org.eclipse.rdf4j.common.transaction.TransactionSetting;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Namespace;
@@ -35,11 +38,13 @@ import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategyFactory;
 import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryResourceAccountant;
 import org.eclipse.rdf4j.query.algebra.evaluation.TripleSource;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
 import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolverClient;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.DefaultEvaluationStrategyFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
 import org.eclipse.rdf4j.query.algebra.helpers.QueryModelTreeToGenericPlanNode;
 import org.eclipse.rdf4j.query.explanation.Explanation;
 import org.eclipse.rdf4j.query.explanation.ExplanationImpl;
@@ -54,6 +59,9 @@ import org.eclipse.rdf4j.sail.inferencer.InferencerConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * A {@link SailConnection} implementation that is based on an {@link SailStore} .
  *
@@ -64,6 +72,23 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 
 	private static final Logger logger = LoggerFactory.getLogger(SailSourceConnection.class);
 
+	/**
+	 * Configurable system property {@code org.eclipse.rdf4j.sail.base.queryPlanCacheSize} for the maximum number of
+	 * optimized query plans that are cached per store. Defaults to {@code 0}, which disables the cache. A cached plan
+	 * skips the optimizer pipeline, and is only discarded when the estimated number of statements in the store changes
+	 * significantly, so plans may be reused after smaller changes of the data.
+	 */
+	public static final String QUERY_PLAN_CACHE_SIZE_PROPERTY = "org.eclipse.rdf4j.sail.base.queryPlanCacheSize";
+
+	private static final long QUERY_PLAN_CACHE_SIZE = Long.getLong(QUERY_PLAN_CACHE_SIZE_PROPERTY, 0);
+
+	/**
+	 * Query plan caches, shared by all connections of a store.
+	 */
+	private static final Cache<SailStore, QueryPlanCache> QUERY_PLAN_CACHES = CacheBuilder.newBuilder()
+			.weakKeys()
+			.build();
+
 	/*-----------*
 	 * Variables *
 	 *-----------*/
@@ -149,6 +174,14 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 	// current query evaluation mode
 	private QueryEvaluationMode queryEvaluationMode;
 
+	// current resource limits of queries
+	private QueryResourceLimits queryResourceLimits;
+
+	/**
+	 * Optimized plans of queries evaluated on the store, or {@code null} if disabled.
+	 */
+	private final QueryPlanCache queryPlanCache;
+
 	/**
 	 * Creates a new {@link SailConnection}, using the given {@link SailStore} to manage the state.
 	 *
@@ -180,7 +213,17 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 				? ((FederatedServiceResolverClient) evalStratFactory).getFederatedServiceResolver()
 				: null;
 		this.queryEvaluationMode = getSailBase().getDefaultQueryEvaluationMode();
+		this.queryResourceLimits = getSailBase().getDefaultQueryResourceLimits();
 		this.evalStratFactory.setCollectionFactory(sail.getCollectionFactory());
+		this.queryPlanCache = QUERY_PLAN_CACHE_SIZE > 0 ? getQueryPlanCache(store) : null;
+	}
+
+	private static QueryPlanCache getQueryPlanCache(SailStore store) {
+		try {
+			return QUERY_PLAN_CACHES.get(store, () -> new QueryPlanCache(QUERY_PLAN_CACHE_SIZE));
+		} catch (ExecutionException e) {
+			throw new SailException(e.getCause());
+		}
 	}
 
 	/**
@@ -209,6 +252,9 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 			((FederatedServiceResolverClient) evalStrat).setFederatedServiceResolver(federatedServiceResolver);
 		}
 		evalStrat.setQueryEvaluationMode(queryEvaluationMode);
+		if (!queryResourceLimits.isUnlimited()) {
+			evalStrat.setResourceAccountant(new QueryResourceAccountant(queryResourceLimits));
+		}
 		return evalStrat;
 	}
 
@@ -217,15 +263,27 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 			Dataset dataset, BindingSet bindings, boolean includeInferred) throws SailException {
 		logger.trace("Incoming query model:\n{}", tupleExpr);
 
-		if (cloneTupleExpression) {
-			// Clone the tuple expression to allow for more aggressive optimizations
-			tupleExpr = tupleExpr.clone();
-		}
+		// plans are not cached for explanations, which need the plan of this evaluation
+		boolean usePlanCache = queryPlanCache != null && cloneTupleExpression && !trackResultSize && !trackTime;
+		EvaluationStatistics statistics = store.getEvaluationStatistics();
+		TupleExpr query = tupleExpr;
+		Object planContext = usePlanCache ? Arrays.asList(includeInferred, queryEvaluationMode, evalStratFactory)
+				: null;
+		TupleExpr plan = usePlanCache ? queryPlanCache.get(query, dataset, bindings, planContext, statistics) : null;
+
+		if (plan != null) {
+			tupleExpr = plan;
+		} else {
+			if (cloneTupleExpression) {
+				// Clone the tuple expression to allow for more aggressive optimizations
+				tupleExpr = tupleExpr.clone();
+			}
 
-		if (!(tupleExpr instanceof QueryRoot)) {
-			// Add a dummy root node to the tuple expressions to allow the
-			// optimizers to modify the actual root node
-			tupleExpr = new QueryRoot(tupleExpr);
+			if (!(tupleExpr instanceof QueryRoot)) {
+				// Add a dummy root node to the tuple expressions to allow the
+				// optimizers to modify the actual root node
+				tupleExpr = new QueryRoot(tupleExpr);
+			}
 		}
 
 		SailSource branch = null;
@@ -246,7 +304,12 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 				strategy.setTrackTime(trackTime);
 			}
 
-			tupleExpr = strategy.optimize(tupleExpr, store.getEvaluationStatistics(), bindings);
+			if (plan == null) {
+				tupleExpr = strategy.optimize(tupleExpr, statistics, bindings);
+				if (usePlanCache) {
+					queryPlanCache.put(query, dataset, bindings, planContext, tupleExpr);
+				}
+			}
 
 			logger.trace("Optimized query model:\n{}", tupleExpr);
 			QueryEvaluationStep qes = strategy.precompile(tupleExpr);
@@ -406,6 +469,27 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 
 	@Override
 	protected long sizeInternal(Resource... contexts) throws SailException {
+		SailSource branch = null;
+		SailDataset snapshot = null;
+		try {
+			branch = branch(IncludeInferred.explicitOnly);
+			snapshot = branch.dataset(getIsolationLevel());
+			long size = snapshot.size(contexts);
+			if (size >= 0) {
+				return size;
+			}
+		} finally {
+			try {
+				if (snapshot != null) {
+					snapshot.close();
+				}
+			} finally {
+				if (branch != null) {
+					branch.close();
+				}
+			}
+		}
+		// the store does not keep count of the statements in this dataset
 		try (Stream<? extends Statement> stream = getStatementsInternal(null, null, null, false, contexts).stream()) {
 			return stream.count();
 		}
@@ -442,9 +526,12 @@ public abstract class SailSourceConnection extends AbstractNotifyingSailConnecti
 	@Override
 	public void setTransactionSettings(TransactionSetting... settings) {
 		this.queryEvaluationMode = getSailBase().getDefaultQueryEvaluationMode();
+		this.queryResourceLimits = getSailBase().getDefaultQueryResourceLimits();
 		for (TransactionSetting setting : settings) {
 			if (setting instanceof QueryEvaluationMode) {
 				this.queryEvaluationMode = ((QueryEvaluationMode) setting);
+			} else if (setting instanceof QueryResourceLimits) {
+				this.queryResourceLimits = ((QueryResourceLimits) setting);
 			}
 		}
 		super.setTransactionSettings(settings);
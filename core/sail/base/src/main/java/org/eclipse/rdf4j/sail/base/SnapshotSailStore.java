@@ -46,9 +46,27 @@ public class SnapshotSailStore implements SailStore {
 	 * @param modelFactory
 	 */
 	public SnapshotSailStore(SailStore backingStore, ModelFactory modelFactory) {
+		this(backingStore, modelFactory, false);
+	}
+
+	/**
+	 * Wraps an {@link SailStore}, tracking changes in {@link ModelFactory} instances. If
+	 * <code>flushWhileObserved</code> is true, committed changes are also flushed to the backing store while datasets
+	 * are open, which then keep their state by recording what each flush changed. This requires that every read of a
+	 * dataset of the backing store observes its current state.
+	 *
+	 * @param backingStore
+	 * @param modelFactory
+	 * @param flushWhileObserved
+	 * @see SailSourceBranch#SailSourceBranch(SailSource, ModelFactory, boolean, boolean)
+	 */
+	public SnapshotSailStore(SailStore backingStore, ModelFactory modelFactory, boolean flushWhileObserved) {
 		this.backingStore = backingStore;
-		explicitAutoFlush = new SailSourceBranch(backingStore.getExplicitSailSource(), modelFactory, true);
-		inferredAutoFlush = new SailSourceBranch(backingStore.getInferredSailSource(), modelFactory, true);
+		// explicitly adding an inferred statement can turn it into an explicit statement of the backing store
+		explicitAutoFlush = new SailSourceBranch(backingStore.getExplicitSailSource(), modelFactory, true,
+				flushWhileObserved, backingStore.getInferredSailSource());
+		inferredAutoFlush = new SailSourceBranch(backingStore.getInferredSailSource(), modelFactory, true,
+				flushWhileObserved);
 	}
 
 	@Override
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.sail.base.Changeset.SimpleStatementPattern;
+
+/**
+ * Finds the {@link SimpleStatementPattern}s that match a statement without comparing the statement with every pattern.
+ * The patterns are grouped by the positions that they bind, and the values that the patterns of a group bind are kept
+ * in a hash set. A statement is matched by looking up its values at the bound positions of each group, so the cost of a
+ * match depends on the number of groups, at most sixteen, rather than on the number of patterns.
+ */
+class StatementPatternIndex {
+
+	private static final int SUBJECT = 1;
+
+	private static final int PREDICATE = 2;
+
+	private static final int OBJECT = 4;
+
+	private static final int CONTEXT = 8;
+
+	/**
+	 * The values bound by the patterns, keyed by the positions that they bind.
+	 */
+	private final Map<Integer, Set<List<Value>>> patterns = new HashMap<>();
+
+	/**
+	 * The contexts of the patterns that are restricted to a single context.
+	 */
+	private final Set<Resource> contexts = new HashSet<>();
+
+	/**
+	 * If any pattern matches statements in all contexts.
+	 */
+	private boolean allContexts;
+
+	StatementPatternIndex(Collection<SimpleStatementPattern> patterns) {
+		for (SimpleStatementPattern pattern : patterns) {
+			add(pattern);
+		}
+	}
+
+	private void add(SimpleStatementPattern pattern) {
+		int positions = 0;
+		List<Value> values = new ArrayList<>(4);
+		if (pattern.getSubject() != null) {
+			positions |= SUBJECT;
+			values.add(pattern.getSubject());
+		}
+		if (pattern.getPredicate() != null) {
+			positions |= PREDICATE;
+			values.add(pattern.getPredicate());
+		}
+		if (pattern.getObject() != null) {
+			positions |= OBJECT;
+			values.add(pattern.getObject());
+		}
+		if (pattern.isAllContexts()) {
+			allContexts = true;
+		} else {
+			// a null context stands for the default graph
+			positions |= CONTEXT;
+			values.add(pattern.getContext());
+			contexts.add(pattern.getContext());
+		}
+		this.patterns.computeIfAbsent(positions, p -> new HashSet<>()).add(values);
+	}
+
+	/**
+	 * @param st a statement
+	 * @return {@code true} if any pattern matches the statement
+	 */
+	boolean matches(Statement st) {
+		for (Map.Entry<Integer, Set<List<Value>>> entry : patterns.entrySet()) {
+			int positions = entry.getKey();
+			List<Value> values = new ArrayList<>(4);
+			if ((positions & SUBJECT) != 0) {
+				values.add(st.getSubject());
+			}
+			if ((positions & PREDICATE) != 0) {
+				values.add(st.getPredicate());
+			}
+			if ((positions & OBJECT) != 0) {
+				values.add(st.getObject());
+			}
+			if ((positions & CONTEXT) != 0) {
+				values.add(st.getContext());
+			}
+			if (entry.getValue().contains(values)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param contexts the contexts that were cleared
+	 * @return {@code true} if any pattern may match statements in one of the contexts
+	 */
+	boolean matchesAny(Collection<Resource> contexts) {
+		if (contexts.isEmpty()) {
+			return false;
+		}
+		if (allContexts) {
+			return true;
+		}
+		for (Resource context : contexts) {
+			if (this.contexts.contains(context)) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
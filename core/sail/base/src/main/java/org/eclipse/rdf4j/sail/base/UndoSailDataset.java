@@ -0,0 +1,342 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.common.iteration.AbstractCloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.DualUnionIteration;
+import org.eclipse.rdf4j.common.iteration.FilterIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Model;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.impl.SimpleNamespace;
+import org.eclipse.rdf4j.sail.SailException;
+
+/**
+ * A {@link SailDataset} that keeps observing the state that its backing {@link SailSource} had when the dataset was
+ * created, while a {@link SailSourceBranch} flushes changes to that source. Each flush that happens while the dataset
+ * is open adds an {@link Undo}, which records the statements that the flush actually added to and removed from the
+ * backing source. The added statements are hidden and the removed statements are returned again.
+ * <p>
+ * Reads hold the shared lock of the branch until their iteration is closed, and the branch only flushes while no read
+ * is in progress, so that an iteration never observes a partially flushed source.
+ *
+ * @see SailSourceBranch
+ */
+class UndoSailDataset implements SailDataset {
+
+	/**
+	 * The effect of a flush on the backing source, relative to the state before the flush.
+	 */
+	static final class Undo {
+
+		/**
+		 * Statements that were added to the backing source by the flush.
+		 */
+		private final Model added;
+
+		/**
+		 * Statements that were removed from the backing source by the flush.
+		 */
+		private final Model removed;
+
+		/**
+		 * All namespaces of the backing source before the flush, or {@code null} if the flush did not change them.
+		 */
+		private final Map<String, String> namespaces;
+
+		Undo(Model added, Model removed, Map<String, String> namespaces) {
+			this.added = added;
+			this.removed = removed;
+			this.namespaces = namespaces;
+		}
+
+		private boolean contains(Statement st) {
+			return added.contains(st) || removed.contains(st);
+		}
+	}
+
+	private final SailDataset derivedFrom;
+
+	/**
+	 * Held in shared mode while this dataset is read, and exclusively while the branch flushes.
+	 */
+	private final StampedLock flushLock;
+
+	private final Consumer<UndoSailDataset> onClose;
+
+	/**
+	 * The undos of the flushes since this dataset was created, the oldest first.
+	 */
+	private volatile List<Undo> undos = Collections.emptyList();
+
+	/**
+	 * @param derivedFrom the dataset of the backing source, will be released when this object is released
+	 * @param flushLock   the lock that the branch holds exclusively while it flushes
+	 * @param onClose     called when this dataset is closed
+	 */
+	UndoSailDataset(SailDataset derivedFrom, StampedLock flushLock, Consumer<UndoSailDataset> onClose) {
+		this.derivedFrom = derivedFrom;
+		this.flushLock = flushLock;
+		this.onClose = onClose;
+	}
+
+	/**
+	 * Records a flush of the backing source. Must be called while holding the flush lock exclusively.
+	 */
+	void addUndo(Undo undo) {
+		List<Undo> list = new ArrayList<>(undos);
+		list.add(undo);
+		undos = list;
+	}
+
+	/**
+	 * Discards an undo of a flush that failed. Must be called while holding the flush lock exclusively.
+	 */
+	void removeUndo(Undo undo) {
+		List<Undo> list = new ArrayList<>(undos);
+		list.remove(undo);
+		undos = list;
+	}
+
+	int getUndoCount() {
+		return undos.size();
+	}
+
+	@Override
+	public String toString() {
+		return undos.size() + " undos\n" + derivedFrom;
+	}
+
+	@Override
+	public void close() throws SailException {
+		try {
+			derivedFrom.close();
+		} finally {
+			onClose.accept(this);
+		}
+	}
+
+	@Override
+	public String getNamespace(String prefix) throws SailException {
+		long stamp = flushLock.readLock();
+		try {
+			Map<String, String> namespaces = getNamespaceMap(undos);
+			return namespaces != null ? namespaces.get(prefix) : derivedFrom.getNamespace(prefix);
+		} finally {
+			flushLock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public CloseableIteration<? extends Namespace, SailException> getNamespaces() throws SailException {
+		long stamp = flushLock.readLock();
+		try {
+			Map<String, String> namespaces = getNamespaceMap(undos);
+			if (namespaces != null) {
+				List<Namespace> list = namespaces.entrySet()
+						.stream()
+						.map(e -> new SimpleNamespace(e.getKey(), e.getValue()))
+						.collect(Collectors.toList());
+				return locked(new CloseableIteratorIteration<>(list.iterator()), stamp);
+			}
+			return locked(derivedFrom.getNamespaces(), stamp);
+		} catch (Throwable t) {
+			flushLock.unlockRead(stamp);
+			throw t;
+		}
+	}
+
+	@Override
+	public CloseableIteration<? extends Resource, SailException> getContextIDs() throws SailException {
+		long stamp = flushLock.readLock();
+		try {
+			List<Undo> undos = this.undos;
+			if (undos.isEmpty()) {
+				return locked(derivedFrom.getContextIDs(), stamp);
+			}
+			// the contexts of the backing source and of the removed statements, that still have statements here
+			Set<Resource> candidates = new LinkedHashSet<>();
+			try (CloseableIteration<? extends Resource, SailException> contextIDs = derivedFrom.getContextIDs()) {
+				while (contextIDs.hasNext()) {
+					candidates.add(contextIDs.next());
+				}
+			}
+			for (Undo undo : undos) {
+				candidates.addAll(undo.removed.contexts());
+			}
+			List<Resource> contexts = new ArrayList<>();
+			for (Resource context : candidates) {
+				if (context == null) {
+					continue;
+				}
+				try (CloseableIteration<? extends Statement, SailException> statements = getStatements(undos, null,
+						null, null, context)) {
+					if (statements.hasNext()) {
+						contexts.add(context);
+					}
+				}
+			}
+			return locked(new CloseableIteratorIteration<>(contexts.iterator()), stamp);
+		} catch (Throwable t) {
+			flushLock.unlockRead(stamp);
+			throw t;
+		}
+	}
+
+	@Override
+	public CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred, Value obj,
+			Resource... contexts) throws SailException {
+		long stamp = flushLock.readLock();
+		try {
+			return locked(getStatements(undos, subj, pred, obj, contexts), stamp);
+		} catch (Throwable t) {
+			flushLock.unlockRead(stamp);
+			throw t;
+		}
+	}
+
+	@Override
+	public CloseableIteration<? extends Triple, SailException> getTriples(Resource subj, IRI pred, Value obj)
+			throws SailException {
+		// undos only record statements, stores that flush while observed do not support RDF-star triple retrieval
+		long stamp = flushLock.readLock();
+		try {
+			return locked(derivedFrom.getTriples(subj, pred, obj), stamp);
+		} catch (Throwable t) {
+			flushLock.unlockRead(stamp);
+			throw t;
+		}
+	}
+
+	@Override
+	public long size(Resource... contexts) throws SailException {
+		long stamp = flushLock.readLock();
+		try {
+			// the undos may overlap with the statements of the backing dataset
+			return undos.isEmpty() ? derivedFrom.size(contexts) : -1;
+		} finally {
+			flushLock.unlockRead(stamp);
+		}
+	}
+
+	private CloseableIteration<? extends Statement, SailException> getStatements(List<Undo> undos, Resource subj,
+			IRI pred, Value obj, Resource... contexts) throws SailException {
+		if (undos.isEmpty()) {
+			return derivedFrom.getStatements(subj, pred, obj, contexts);
+		}
+		// the oldest undo of a statement tells whether it was present when this dataset was created
+		CloseableIteration<? extends Statement, SailException> present = new FilterIteration<Statement, SailException>(
+				derivedFrom.getStatements(subj, pred, obj, contexts)) {
+
+			@Override
+			protected boolean accept(Statement st) {
+				Undo oldest = getOldest(undos, st);
+				return oldest == null || oldest.removed.contains(st);
+			}
+		};
+		// removed statements that are no longer in the backing source, each from its oldest undo
+		List<Statement> removed = new ArrayList<>();
+		for (Undo undo : undos) {
+			for (Statement st : undo.removed.getStatements(subj, pred, obj, contexts)) {
+				if (getOldest(undos, st) == undo && getNewest(undos, st).removed.contains(st)) {
+					removed.add(st);
+				}
+			}
+		}
+		if (removed.isEmpty()) {
+			return present;
+		}
+		return DualUnionIteration.getWildcardInstance(present, new CloseableIteratorIteration<>(removed.iterator()));
+	}
+
+	private static Undo getOldest(List<Undo> undos, Statement st) {
+		for (Undo undo : undos) {
+			if (undo.contains(st)) {
+				return undo;
+			}
+		}
+		return null;
+	}
+
+	private static Undo getNewest(List<Undo> undos, Statement st) {
+		for (int i = undos.size() - 1; i >= 0; i--) {
+			if (undos.get(i).contains(st)) {
+				return undos.get(i);
+			}
+		}
+		return null;
+	}
+
+	private static Map<String, String> getNamespaceMap(List<Undo> undos) {
+		for (Undo undo : undos) {
+			if (undo.namespaces != null) {
+				return undo.namespaces;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Releases the shared flush lock when the iteration is closed.
+	 */
+	private <T> CloseableIteration<T, SailException> locked(CloseableIteration<? extends T, SailException> iter,
+			long stamp) {
+		return new AbstractCloseableIteration<>() {
+
+			@Override
+			public boolean hasNext() throws SailException {
+				if (isClosed()) {
+					return false;
+				}
+				boolean hasNext = iter.hasNext();
+				if (!hasNext) {
+					close();
+				}
+				return hasNext;
+			}
+
+			@Override
+			public T next() throws SailException {
+				return iter.next();
+			}
+
+			@Override
+			public void remove() throws SailException {
+				iter.remove();
+			}
+
+			@Override
+			protected void handleClose() throws SailException {
+				try {
+					iter.close();
+				} finally {
+					flushLock.unlockRead(stamp);
+				}
+			}
+		};
+	}
+}
@@ -165,6 +165,16 @@ class UnionSailDataset implements SailDataset {
 
 	}
 
+	@Override
+	public long size(Resource... contexts) throws SailException {
+		long size1 = dataset1.size(contexts);
+		if (size1 < 0) {
+			return -1;
+		}
+		long size2 = dataset2.size(contexts);
+		return size2 < 0 ? -1 : size1 + size2;
+	}
+
 	private <T> CloseableIteration<? extends T, SailException> union(
 			CloseableIteration<? extends T, SailException> iteration1,
 			CloseableIteration<? extends T, SailException> iteration2) {
@@ -10,6 +10,8 @@
  *******************************************************************************/
 package org.eclipse.rdf4j.sail.base;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 import java.util.Iterator;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
@@ -18,13 +20,16 @@ import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.SailConflictException;
 import org.eclipse.rdf4j.sail.SailException;
 import org.junit.jupiter.api.Test;
 
@@ -111,6 +116,64 @@ public class ChangesetTest {
 		executorService.shutdownNow();
 	}
 
+	@Test
+	public void testPrepareWithManyObservations() {
+		// more observations than changes, so each change is checked against the observations
+		Changeset changes = getChangeset();
+		changes.approve(vf.createStatement(vf.createIRI("urn:s1"), RDF.TYPE, RDFS.RESOURCE));
+
+		assertThat(prepare(changes, vf.createIRI("urn:s2"), RDF.TYPE, null, allGraph)).isTrue();
+		assertThat(prepare(changes, vf.createIRI("urn:s1"), RDFS.LABEL, null, allGraph)).isTrue();
+		assertThat(prepare(changes, vf.createIRI("urn:s1"), null, null, vf.createIRI("urn:g"))).isTrue();
+		assertThat(prepare(changes, vf.createIRI("urn:s1"), RDF.TYPE, null, allGraph)).isFalse();
+		assertThat(prepare(changes, null, null, RDFS.RESOURCE, (Resource) null)).isFalse();
+		assertThat(prepare(changes, null, null, null, allGraph)).isFalse();
+	}
+
+	@Test
+	public void testPrepareWithManyChanges() {
+		// more changes than observations, so each observation is looked up in the changes
+		Changeset changes = getChangeset();
+		for (int i = 0; i < 1000; i++) {
+			changes.approve(vf.createStatement(vf.createIRI("urn:s" + i), RDF.TYPE, RDFS.RESOURCE));
+		}
+
+		assertThat(prepare(changes, vf.createIRI("urn:s1000"), RDF.TYPE, null, allGraph)).isTrue();
+		assertThat(prepare(changes, vf.createIRI("urn:s999"), RDF.TYPE, null, allGraph)).isFalse();
+	}
+
+	@Test
+	public void testPrepareWithClearedContext() {
+		Changeset changes = getChangeset();
+		changes.clear(vf.createIRI("urn:g"));
+
+		assertThat(prepare(changes, null, RDF.TYPE, null, vf.createIRI("urn:other"))).isTrue();
+		assertThat(prepare(changes, null, RDF.TYPE, null, vf.createIRI("urn:g"))).isFalse();
+		// the statements that were removed are not known
+		assertThat(prepare(changes, null, RDF.TYPE, null, allGraph)).isFalse();
+	}
+
+	/**
+	 * Prepares a changeset that observed a pattern, and a hundred patterns that no change matches, after the supplied
+	 * changes were flushed.
+	 *
+	 * @return {@code true} if the changeset can be committed
+	 */
+	private boolean prepare(Changeset changes, Resource subj, IRI pred, Value obj, Resource... contexts) {
+		Changeset changeset = getChangeset();
+		for (int i = 0; i < 100; i++) {
+			changeset.observe(vf.createIRI("urn:unrelated" + i), RDF.TYPE, null, vf.createIRI("urn:unrelated"));
+		}
+		changeset.observe(subj, pred, obj, contexts);
+		changeset.prepend(changes);
+		try {
+			changeset.prepare();
+			return true;
+		} catch (SailConflictException e) {
+			return false;
+		}
+	}
+
 	private Changeset getChangeset() {
 		return new Changeset() {
 			@Override
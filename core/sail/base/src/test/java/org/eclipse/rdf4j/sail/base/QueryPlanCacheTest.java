@@ -0,0 +1,136 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.base;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.algebra.QueryRoot;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryBindingSet;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryKeys;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractQueryModelVisitor;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QueryPlanCacheTest {
+
+	private static final String QUERY = "SELECT * WHERE { ?s ?p ?o }";
+
+	private QueryPlanCache cache;
+
+	private TestStatistics statistics;
+
+	@BeforeEach
+	public void setUp() {
+		cache = new QueryPlanCache(10, 0);
+		statistics = new TestStatistics();
+	}
+
+	@Test
+	public void testUnregisteredQueryIsNotCached() {
+		TupleExpr query = parse(QUERY);
+
+		cache.put(query, null, null, null, new QueryRoot(query.clone()));
+
+		assertThat(cache.size()).isZero();
+		assertThat(cache.get(query, null, null, null, statistics)).isNull();
+	}
+
+	@Test
+	public void testCachedPlanIsCopied() {
+		TupleExpr query = register(parse(QUERY), QUERY);
+		TupleExpr plan = new QueryRoot(query.clone());
+		cache.put(query, null, null, null, plan);
+
+		TupleExpr other = register(parse(QUERY), QUERY);
+		TupleExpr first = cache.get(other, null, null, null, statistics);
+		TupleExpr second = cache.get(other, null, null, null, statistics);
+
+		assertThat(first).isEqualTo(plan).isNotSameAs(plan);
+		assertThat(second).isEqualTo(plan).isNotSameAs(first);
+	}
+
+	@Test
+	public void testPlanDependsOnBindingsAndContext() {
+		TupleExpr query = register(parse(QUERY), QUERY);
+		QueryBindingSet bindings = new QueryBindingSet();
+		bindings.addBinding("s", SimpleValueFactory.getInstance().createIRI("urn:s"));
+		cache.put(query, null, bindings, "context", new QueryRoot(query.clone()));
+
+		assertThat(cache.get(query, null, bindings, "context", statistics)).isNotNull();
+		assertThat(cache.get(query, null, null, "context", statistics)).isNull();
+		assertThat(cache.get(query, null, bindings, "other", statistics)).isNull();
+	}
+
+	@Test
+	public void testModifiedQueryIsNotServed() {
+		TupleExpr query = register(parse(QUERY), QUERY);
+		cache.put(query, null, null, null, new QueryRoot(query.clone()));
+
+		query.visit(new AbstractQueryModelVisitor<RuntimeException>() {
+
+			@Override
+			public void meet(StatementPattern node) {
+				node.getSubjectVar().setName("x");
+			}
+		});
+
+		assertThat(cache.get(query, null, null, null, statistics)).isNull();
+	}
+
+	@Test
+	public void testQueryCallingNowIsNotCached() {
+		String now = "SELECT * WHERE { ?s ?p ?o FILTER(?o < NOW()) }";
+		TupleExpr query = register(parse(now), now);
+
+		cache.put(query, null, null, null, new QueryRoot(query.clone()));
+
+		assertThat(cache.size()).isZero();
+	}
+
+	@Test
+	public void testStatisticsChangeDiscardsPlans() {
+		TupleExpr query = register(parse(QUERY), QUERY);
+		assertThat(cache.get(query, null, null, null, statistics)).isNull();
+		cache.put(query, null, null, null, new QueryRoot(query.clone()));
+
+		statistics.cardinality = 1100;
+		assertThat(cache.get(query, null, null, null, statistics)).isNotNull();
+
+		statistics.cardinality = 2000;
+		assertThat(cache.get(query, null, null, null, statistics)).isNull();
+		assertThat(cache.size()).isZero();
+	}
+
+	private static TupleExpr parse(String query) {
+		return QueryParserUtil.parseTupleQuery(QueryLanguage.SPARQL, query, null).getTupleExpr();
+	}
+
+	private static TupleExpr register(TupleExpr query, String queryString) {
+		QueryKeys.set(query, queryString);
+		return query;
+	}
+
+	private static class TestStatistics extends EvaluationStatistics {
+
+		private double cardinality = 1000;
+
+		@Override
+		public double getCardinality(TupleExpr expr) {
+			return cardinality;
+		}
+	}
+}
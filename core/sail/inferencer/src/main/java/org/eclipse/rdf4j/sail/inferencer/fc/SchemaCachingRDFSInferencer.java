@@ -106,6 +106,8 @@ public class SchemaCachingRDFSInferencer extends NotifyingSailWrapper {
 	private boolean addInferredStatementsToDefaultContext = false;
 	private volatile boolean unmodifiable;
 
+	private int inferenceThreads = 1;
+
 	/**
 	 * Instantiate a new SchemaCachingRDFSInferencer
 	 */
@@ -826,6 +828,36 @@ public class SchemaCachingRDFSInferencer extends NotifyingSailWrapper {
 		this.addInferredStatementsToDefaultContext = addInferredStatementsToDefaultContext;
 	}
 
+	/**
+	 * @return the number of threads used to compute inferred statements when all explicit statements are forward
+	 *         chained
+	 * @see #setInferenceThreads(int)
+	 */
+	public int getInferenceThreads() {
+		return inferenceThreads;
+	}
+
+	/**
+	 * <p>
+	 * Sets the number of threads used to compute inferred statements when all explicit statements need to be forward
+	 * chained, which happens when the schema changes or when statements are removed. The explicit statements are
+	 * processed in chunks that are inferred in parallel against the cached schema, while the inferred statements are
+	 * added to the base sail by the transaction's own thread. Inferred statements that are added one statement at a
+	 * time, as part of a transaction that does not change the schema, are not affected by this setting.
+	 * </p>
+	 * <p>
+	 * Default is 1, which forward chains on the transaction's thread only.
+	 * </p>
+	 *
+	 * @param inferenceThreads the number of threads, at least 1
+	 */
+	public void setInferenceThreads(int inferenceThreads) {
+		if (inferenceThreads < 1) {
+			throw new IllegalArgumentException("inferenceThreads must be at least 1, was " + inferenceThreads);
+		}
+		this.inferenceThreads = inferenceThreads;
+	}
+
 	boolean usesPredefinedSchema() {
 		return predefinedSchema != null || sharedSchema;
 	}
@@ -11,8 +11,19 @@
 
 package org.eclipse.rdf4j.sail.inferencer.fc;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.common.transaction.IsolationLevel;
@@ -43,6 +54,12 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 	private static final Logger logger = LoggerFactory.getLogger(SchemaCachingRDFSInferencerConnection.class);
 	private static final Resource[] DEFAULT_CONTEXT = { null };
+	private static final int INFERENCE_CHUNK_SIZE = 10_000;
+
+	@FunctionalInterface
+	private interface InferredStatementHandler {
+		void handle(Resource subj, IRI pred, Value obj, Resource... contexts);
+	}
 
 	private final SchemaCachingRDFSInferencer sail;
 
@@ -150,9 +167,11 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 	void doInferencing() throws SailException {
 		logger.debug("Do inferencing");
+		boolean schemaRegenerated = false;
 		if (!sail.usesPredefinedSchema() && schemaChange) {
 			regenerateCacheAndInferenceMaps(true);
 			inferredCleared = true;
+			schemaRegenerated = true;
 		}
 
 		if (!inferredCleared) {
@@ -160,16 +179,21 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 		}
 
 		logger.debug("Forward chain all explicit statements");
-		long count = 0;
 
-		try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(null, null,
-				null, false)) {
-			while (statements.hasNext()) {
-				Statement next = statements.next();
-				addStatement(false, next.getSubject(), next.getPredicate(), next.getObject(), next.getContext());
-				if (logger.isDebugEnabled()) {
-					if (++count % 1000000 == 0) {
-						logger.debug("Forward chained {} statements", count);
+		if (schemaRegenerated || sail.usesPredefinedSchema()) {
+			// the schema cache is complete, so the statements only need to be checked against the inference maps
+			forwardChainAllStatements();
+		} else {
+			long count = 0;
+			try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(null,
+					null, null, false)) {
+				while (statements.hasNext()) {
+					Statement next = statements.next();
+					addStatement(false, next.getSubject(), next.getPredicate(), next.getObject(), next.getContext());
+					if (logger.isDebugEnabled()) {
+						if (++count % 1000000 == 0) {
+							logger.debug("Forward chained {} statements", count);
+						}
 					}
 				}
 			}
@@ -180,6 +204,110 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 
 	}
 
+	/**
+	 * Adds the inferred statements for all explicit statements without updating the schema cache. With more than one
+	 * inference thread the explicit statements are read in chunks and the inferred statements of each chunk are
+	 * computed by a worker thread, while this thread adds them to the base sail in the order of the chunks. Inferred
+	 * statements that are duplicated within a chunk are only added once.
+	 */
+	private void forwardChainAllStatements() throws SailException {
+		sail.acquireExclusiveWriteLock();
+		int threads = sail.getInferenceThreads();
+		boolean defaultContext = sail.isAddInferredStatementsToDefaultContext();
+
+		if (threads <= 1) {
+			long count = 0;
+			try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(null,
+					null, null, false)) {
+				while (statements.hasNext()) {
+					Statement next = statements.next();
+					inferStatements(next.getSubject(), next.getPredicate(), next.getObject(),
+							defaultContext ? DEFAULT_CONTEXT : new Resource[] { next.getContext() },
+							this::addInferredStatementInternal);
+					if (logger.isDebugEnabled()) {
+						if (++count % 1000000 == 0) {
+							logger.debug("Forward chained {} statements", count);
+						}
+					}
+				}
+			}
+			return;
+		}
+
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(threads, (Runnable runnable) -> {
+			Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+			thread.setName("rdf4j-rdfs-inferencer-" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+
+		try {
+			Deque<Future<Collection<Statement>>> inFlight = new ArrayDeque<>();
+			long count = 0;
+			try (CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(null,
+					null, null, false)) {
+				while (statements.hasNext()) {
+					List<Statement> chunk = new ArrayList<>(INFERENCE_CHUNK_SIZE);
+					while (chunk.size() < INFERENCE_CHUNK_SIZE && statements.hasNext()) {
+						chunk.add(statements.next());
+					}
+					inFlight.add(executor.submit(() -> inferChunk(chunk, defaultContext)));
+
+					// bound the memory used by inferred statements that have not been added yet
+					if (inFlight.size() >= threads * 2) {
+						addInferredStatements(inFlight.poll());
+					}
+					if (logger.isDebugEnabled()) {
+						if ((count + chunk.size()) / 1000000 > count / 1000000) {
+							logger.debug("Forward chained {} statements", count + chunk.size());
+						}
+					}
+					count += chunk.size();
+				}
+			}
+			while (!inFlight.isEmpty()) {
+				addInferredStatements(inFlight.poll());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private Collection<Statement> inferChunk(List<Statement> chunk, boolean defaultContext) {
+		ValueFactory vf = sail.getValueFactory();
+		Set<Statement> inferred = new LinkedHashSet<>();
+		for (Statement statement : chunk) {
+			Resource[] inferredContext = defaultContext ? DEFAULT_CONTEXT : new Resource[] { statement.getContext() };
+			inferStatements(statement.getSubject(), statement.getPredicate(), statement.getObject(), inferredContext,
+					(subj, pred, obj, contexts) -> {
+						for (Resource context : contexts) {
+							inferred.add(vf.createStatement(subj, pred, obj, context));
+						}
+					});
+		}
+		return inferred;
+	}
+
+	private void addInferredStatements(Future<Collection<Statement>> future) throws SailException {
+		Collection<Statement> inferred;
+		try {
+			inferred = future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SailException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof SailException) {
+				throw (SailException) e.getCause();
+			}
+			throw new SailException(e.getCause());
+		}
+		for (Statement statement : inferred) {
+			addInferredStatementInternal(statement.getSubject(), statement.getPredicate(), statement.getObject(),
+					statement.getContext());
+		}
+	}
+
 	private void regenerateCacheAndInferenceMaps(boolean addInferredStatements) {
 		logger.debug("Regenerate cache and inference maps");
 		sail.clearInferenceTables();
@@ -243,92 +371,101 @@ public class SchemaCachingRDFSInferencerConnection extends InferencerConnectionW
 				processForSchemaCache(sail.getValueFactory().createStatement(subject, predicate, object));
 			}
 
-			if (sail.useAllRdfsRules) {
-				addInferredStatementInternal(subject, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+			inferStatements(subject, predicate, object, inferredContext, this::addInferredStatementInternal);
+		}
 
-				if (object instanceof Resource) {
-					addInferredStatementInternal((Resource) object, RDF.TYPE, RDFS.RESOURCE, inferredContext);
-				}
-			}
+		if (actuallyAdd) {
+			connection.addStatement(subject, predicate, object, context);
+		}
+	}
 
-			if (predicate.getNamespace().equals(RDF.NAMESPACE) && predicate.getLocalName().charAt(0) == '_') {
+	/**
+	 * Applies the RDFS rules to a single statement using the cached schema and passes the inferred statements to the
+	 * handler. Does not modify the schema cache or the base sail, and can therefore be called concurrently while the
+	 * schema cache is not being modified.
+	 */
+	private void inferStatements(Resource subject, IRI predicate, Value object, Resource[] inferredContext,
+			InferredStatementHandler handler) {
+		if (sail.useAllRdfsRules) {
+			handler.handle(subject, RDF.TYPE, RDFS.RESOURCE, inferredContext);
 
-				try {
-					int i = Integer.parseInt(predicate.getLocalName().substring(1));
-					if (i >= 1) {
-						addInferredStatementInternal(subject, RDFS.MEMBER, object, inferredContext);
-						addInferredStatementInternal(predicate, RDF.TYPE, RDFS.RESOURCE, inferredContext);
-						addInferredStatementInternal(predicate, RDF.TYPE, RDFS.CONTAINERMEMBERSHIPPROPERTY,
-								inferredContext);
-						addInferredStatementInternal(predicate, RDF.TYPE, RDF.PROPERTY, inferredContext);
-						addInferredStatementInternal(predicate, RDFS.SUBPROPERTYOF, predicate, inferredContext);
-						addInferredStatementInternal(predicate, RDFS.SUBPROPERTYOF, RDFS.MEMBER, inferredContext);
+			if (object instanceof Resource) {
+				handler.handle((Resource) object, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+			}
+		}
 
-					}
-				} catch (NumberFormatException e) {
-					// Ignore exception.
+		if (predicate.getNamespace().equals(RDF.NAMESPACE) && predicate.getLocalName().charAt(0) == '_') {
+
+			try {
+				int i = Integer.parseInt(predicate.getLocalName().substring(1));
+				if (i >= 1) {
+					handler.handle(subject, RDFS.MEMBER, object, inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDFS.RESOURCE, inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDFS.CONTAINERMEMBERSHIPPROPERTY,
+							inferredContext);
+					handler.handle(predicate, RDF.TYPE, RDF.PROPERTY, inferredContext);
+					handler.handle(predicate, RDFS.SUBPROPERTYOF, predicate, inferredContext);
+					handler.handle(predicate, RDFS.SUBPROPERTYOF, RDFS.MEMBER, inferredContext);
 
-					// Means that the predicate started with rdf:_ but does not
-					// comply with the container membership format of rdf:_nnn
-					// and we can safely ignore this exception since it just means
-					// that we didn't need to infer anything about container membership
 				}
+			} catch (NumberFormatException e) {
+				// Ignore exception.
 
+				// Means that the predicate started with rdf:_ but does not
+				// comply with the container membership format of rdf:_nnn
+				// and we can safely ignore this exception since it just means
+				// that we didn't need to infer anything about container membership
 			}
 
-			if (predicate.equals(RDF.TYPE)) {
-				if (!(object instanceof Resource)) {
-					throw new SailException("Expected object to a a Resource: " + object.toString());
-				}
+		}
 
-				sail.resolveTypes((Resource) object)
-						.stream()
-						.peek(inferredType -> {
-							if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-								addInferredStatementInternal(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
-							}
-						})
-						.filter(inferredType -> !inferredType.equals(object))
-						.forEach(inferredType -> addInferredStatementInternal(subject, RDF.TYPE, inferredType,
-								inferredContext));
+		if (predicate.equals(RDF.TYPE)) {
+			if (!(object instanceof Resource)) {
+				throw new SailException("Expected object to a a Resource: " + object.toString());
 			}
 
-			sail.resolveProperties(predicate)
+			sail.resolveTypes((Resource) object)
 					.stream()
-					.filter(inferredProperty -> !inferredProperty.equals(predicate))
-					.filter(inferredPropery -> inferredPropery instanceof IRI)
-					.map(inferredPropery -> ((IRI) inferredPropery))
-					.forEach(inferredProperty -> addInferredStatementInternal(subject, inferredProperty, object,
+					.peek(inferredType -> {
+						if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
+							handler.handle(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
+						}
+					})
+					.filter(inferredType -> !inferredType.equals(object))
+					.forEach(inferredType -> handler.handle(subject, RDF.TYPE, inferredType,
 							inferredContext));
+		}
 
-			if (object instanceof Resource) {
-				sail.resolveRangeTypes(predicate)
-						.stream()
-						.peek(inferredType -> {
-							if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-								addInferredStatementInternal(((Resource) object), RDFS.SUBCLASSOF, RDFS.RESOURCE,
-										inferredContext);
-							}
-						})
-						.forEach(inferredType -> addInferredStatementInternal(((Resource) object), RDF.TYPE,
-								inferredType, inferredContext));
-			}
+		sail.resolveProperties(predicate)
+				.stream()
+				.filter(inferredProperty -> !inferredProperty.equals(predicate))
+				.filter(inferredPropery -> inferredPropery instanceof IRI)
+				.map(inferredPropery -> ((IRI) inferredPropery))
+				.forEach(inferredProperty -> handler.handle(subject, inferredProperty, object,
+						inferredContext));
 
-			sail.resolveDomainTypes(predicate)
+		if (object instanceof Resource) {
+			sail.resolveRangeTypes(predicate)
 					.stream()
 					.peek(inferredType -> {
 						if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
-							addInferredStatementInternal(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
+							handler.handle(((Resource) object), RDFS.SUBCLASSOF, RDFS.RESOURCE,
+									inferredContext);
 						}
 					})
-					.forEach(inferredType -> addInferredStatementInternal((subject), RDF.TYPE, inferredType,
-							inferredContext));
-
+					.forEach(inferredType -> handler.handle(((Resource) object), RDF.TYPE,
+							inferredType, inferredContext));
 		}
 
-		if (actuallyAdd) {
-			connection.addStatement(subject, predicate, object, context);
-		}
+		sail.resolveDomainTypes(predicate)
+				.stream()
+				.peek(inferredType -> {
+					if (sail.useAllRdfsRules && inferredType.equals(RDFS.CLASS)) {
+						handler.handle(subject, RDFS.SUBCLASSOF, RDFS.RESOURCE, inferredContext);
+					}
+				})
+				.forEach(inferredType -> handler.handle((subject), RDF.TYPE, inferredType,
+						inferredContext));
 	}
 
 	void addAxiomStatements() {
@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.inferencer.fc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.Test;
+
+public class ParallelInferenceTest {
+
+	private static final SimpleValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final String NS = "http://example.com/";
+
+	private static final IRI ANIMAL = vf.createIRI(NS, "Animal");
+	private static final IRI DOG = vf.createIRI(NS, "Dog");
+	private static final IRI OWNER = vf.createIRI(NS, "Owner");
+	private static final IRI HAS_OWNER = vf.createIRI(NS, "hasOwner");
+	private static final IRI RELATED_TO = vf.createIRI(NS, "relatedTo");
+	private static final IRI GRAPH = vf.createIRI(NS, "graph");
+
+	@Test
+	public void testSameInferenceAsSingleThreaded() {
+		assertEquals(inferAll(1, false), inferAll(4, false));
+	}
+
+	@Test
+	public void testSameInferenceAsSingleThreadedAfterRemoval() {
+		assertEquals(inferAll(1, true), inferAll(4, true));
+	}
+
+	@Test
+	public void testInferredContext() {
+		SchemaCachingRDFSInferencer sail = new SchemaCachingRDFSInferencer(new MemoryStore());
+		sail.setInferenceThreads(4);
+		sail.init();
+		try (SchemaCachingRDFSInferencerConnection connection = sail.getConnection()) {
+			connection.begin();
+			connection.addStatement(DOG, RDFS.SUBCLASSOF, ANIMAL);
+			connection.addStatement(dog(1), RDF.TYPE, DOG, GRAPH);
+			connection.commit();
+
+			assertTrue(connection.hasStatement(dog(1), RDF.TYPE, ANIMAL, true, GRAPH));
+			assertFalse(connection.hasStatement(dog(1), RDF.TYPE, ANIMAL, true, (IRI) null));
+		} finally {
+			sail.shutDown();
+		}
+	}
+
+	@Test
+	public void testInvalidThreads() {
+		SchemaCachingRDFSInferencer sail = new SchemaCachingRDFSInferencer(new MemoryStore());
+		assertEquals(1, sail.getInferenceThreads());
+		assertThrows(IllegalArgumentException.class, () -> sail.setInferenceThreads(0));
+	}
+
+	private static Set<Statement> inferAll(int threads, boolean remove) {
+		SchemaCachingRDFSInferencer sail = new SchemaCachingRDFSInferencer(new MemoryStore());
+		sail.setInferenceThreads(threads);
+		sail.init();
+		try (SchemaCachingRDFSInferencerConnection connection = sail.getConnection()) {
+			connection.begin();
+			connection.addStatement(DOG, RDFS.SUBCLASSOF, ANIMAL);
+			connection.addStatement(HAS_OWNER, RDFS.SUBPROPERTYOF, RELATED_TO);
+			connection.addStatement(HAS_OWNER, RDFS.RANGE, OWNER);
+			connection.addStatement(HAS_OWNER, RDFS.DOMAIN, ANIMAL);
+			for (int i = 0; i < 25_000; i++) {
+				connection.addStatement(dog(i), RDF.TYPE, DOG);
+				connection.addStatement(dog(i), HAS_OWNER, vf.createIRI(NS, "owner" + (i % 100)));
+				connection.addStatement(dog(i), RDFS.LABEL, vf.createLiteral("dog " + i));
+			}
+			connection.commit();
+
+			if (remove) {
+				connection.begin();
+				connection.removeStatements(null, RDF.TYPE, DOG);
+				connection.commit();
+			}
+
+			Set<Statement> statements = new HashSet<>();
+			try (CloseableIteration<? extends Statement, SailException> iteration = connection.getStatements(null,
+					null, null, true)) {
+				while (iteration.hasNext()) {
+					Statement next = iteration.next();
+					statements.add(vf.createStatement(next.getSubject(), next.getPredicate(), next.getObject(),
+							next.getContext()));
+				}
+			}
+			return statements;
+		} finally {
+			sail.shutDown();
+		}
+	}
+
+	private static IRI dog(int i) {
+		return vf.createIRI(NS, "dog" + i);
+	}
+}
@@ -808,6 +808,19 @@ class LmdbSailStore implements SailStore {
 				throw new SailException("Unable to get statements", e);
 			}
 		}
+
+		@Override
+		public long size(Resource... contexts) throws SailException {
+			if (contexts.length > 0) {
+				// the number of statements per context is not kept
+				return -1;
+			}
+			try {
+				return tripleStore.size(txn, explicit);
+			} catch (IOException e) {
+				throw new SailException("Unable to determine the number of statements", e);
+			}
+		}
 	}
 
 }
@@ -504,6 +504,26 @@ class TripleStore implements Closeable {
 		}
 	}
 
+	/**
+	 * Returns the number of explicit or inferred statements in the store, as seen by the supplied read transaction. As
+	 * a statement is either explicit or inferred, and each index holds every statement, this is the number of entries
+	 * in the corresponding database of the main index.
+	 *
+	 * @param txn      The read transaction.
+	 * @param explicit Flag indicating whether explicit or inferred statements should be counted.
+	 * @return The number of statements.
+	 */
+	public long size(Txn txn, boolean explicit) throws IOException {
+		long stamp = txn.lock().readLock();
+		try (MemoryStack stack = stackPush()) {
+			MDBStat stat = MDBStat.malloc(stack);
+			E(mdb_stat(txn.get(), indexes.get(0).getDB(explicit), stat));
+			return stat.ms_entries();
+		} finally {
+			txn.lock().unlockRead(stamp);
+		}
+	}
+
 	protected double cardinality(long subj, long pred, long obj, long context) throws IOException {
 		TripleIndex index = getBestIndex(subj, pred, obj, context);
 
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lmdb;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.lmdb.config.LmdbStoreConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LmdbStoreSizeTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI p = vf.createIRI("urn:p");
+
+	private static final IRI g1 = vf.createIRI("urn:g1");
+
+	private LmdbStore store;
+
+	@BeforeEach
+	public void setUp(@TempDir File dataDir) {
+		store = new LmdbStore(dataDir, new LmdbStoreConfig("spoc,posc"));
+		try (LmdbStoreConnection connection = (LmdbStoreConnection) store.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 10; i++) {
+				connection.addStatement(vf.createIRI("urn:s" + i), p, vf.createLiteral(i));
+				connection.addStatement(vf.createIRI("urn:s" + i), p, vf.createLiteral(i), g1);
+			}
+			connection.addInferredStatement(vf.createIRI("urn:s0"), p, vf.createLiteral("inferred"), g1);
+			connection.commit();
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		store.shutDown();
+	}
+
+	@Test
+	public void testSizeFromIndex() {
+		assertSizes(20, 1);
+
+		try (LmdbStoreConnection connection = (LmdbStoreConnection) store.getConnection()) {
+			connection.begin();
+			connection.removeStatements(null, null, vf.createLiteral(0));
+			// an inferred statement that is added explicitly is no longer counted as inferred
+			connection.addStatement(vf.createIRI("urn:s0"), p, vf.createLiteral("inferred"), g1);
+			connection.commit();
+		}
+		assertSizes(19, 0);
+
+		try (LmdbStoreConnection connection = (LmdbStoreConnection) store.getConnection()) {
+			connection.begin();
+			connection.clear(g1);
+			connection.commit();
+		}
+		assertSizes(9, 0);
+	}
+
+	private void assertSizes(long explicitSize, long inferredSize) {
+		try (LmdbStoreConnection connection = (LmdbStoreConnection) store.getConnection()) {
+			assertThat(connection.size()).isEqualTo(explicitSize).isEqualTo(countStatements(connection));
+			// the size of a context is still counted by iterating over its statements
+			assertThat(connection.size(g1)).isEqualTo(countStatements(connection, g1));
+		}
+		try (SailDataset dataset = store.getSailStore()
+				.getExplicitSailSource()
+				.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			assertThat(dataset.size()).isEqualTo(explicitSize);
+			assertThat(dataset.size(g1)).isEqualTo(-1);
+		}
+		try (SailDataset dataset = store.getSailStore()
+				.getInferredSailSource()
+				.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			assertThat(dataset.size()).isEqualTo(inferredSize);
+		}
+	}
+
+	private static long countStatements(LmdbStoreConnection connection, IRI... contexts) {
+		try (Stream<? extends Statement> statements = connection.getStatements(null, null, null, false, contexts)
+				.stream()) {
+			return statements.count();
+		}
+	}
+}
@@ -452,6 +452,25 @@ public abstract class AbstractSearchIndex implements SearchIndex {
 	 */
 	@Override
 	public final synchronized void addDocuments(Resource subject, List<Statement> statements) throws IOException {
+		writeDocuments(subject, statements, false);
+	}
+
+	/**
+	 * Add or replace the complete Lucene Documents of a subject based on these statements. Unlike
+	 * {@link #addDocuments(Resource, List)}, existing documents with the same id are overwritten, so this method may be
+	 * called repeatedly for the same subject. It is not synchronized on the index and can be called concurrently for
+	 * different subjects, see {@link ParallelReindexer}. This should be called from within a begin-commit-rollback
+	 * block.
+	 *
+	 * @param subject    the subject of the documents
+	 * @param statements all statements that make up the resource
+	 * @throws IOException
+	 */
+	public final void updateDocuments(Resource subject, List<Statement> statements) throws IOException {
+		writeDocuments(subject, statements, true);
+	}
+
+	private void writeDocuments(Resource subject, List<Statement> statements, boolean replace) throws IOException {
 
 		String resourceId = SearchFields.getResourceID(subject);
 
@@ -475,7 +494,11 @@ public abstract class AbstractSearchIndex implements SearchIndex {
 				addProperty(stmt, document);
 			}
 			// add it to the index
-			batch.add(document);
+			if (replace) {
+				batch.update(document);
+			} else {
+				batch.add(document);
+			}
 		}
 		batch.end();
 	}
@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lucene;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.lucene.LuceneSailBuffer.AddRemoveOperation;
+import org.eclipse.rdf4j.sail.lucene.LuceneSailBuffer.ClearContextOperation;
+import org.eclipse.rdf4j.sail.lucene.LuceneSailBuffer.ClearOperation;
+import org.eclipse.rdf4j.sail.lucene.LuceneSailBuffer.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Applies committed {@link LuceneSailBuffer} operations to a {@link SearchIndex} on a background thread. Operations are
+ * queued by {@link LuceneSailConnection#commit()} and applied in batches every refresh interval, so that the cost of
+ * committing the index and reopening its readers is paid once per batch instead of once per sail transaction. Changes
+ * become visible to search queries when the batch that contains them has been committed.
+ * <p>
+ * The queue is bounded: when the indexer falls behind by more than the configured number of operations, committing
+ * connections block until the indexer has caught up.
+ *
+ * @see LuceneSail#ASYNC_INDEXING_KEY
+ */
+class AsyncSearchIndexUpdater {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncSearchIndexUpdater.class);
+
+	private static final class PendingOperation {
+
+		private final Operation operation;
+
+		private final long enqueuedAt;
+
+		PendingOperation(Operation operation) {
+			this.operation = operation;
+			this.enqueuedAt = System.currentTimeMillis();
+		}
+	}
+
+	private final SearchIndex index;
+
+	private final BlockingQueue<PendingOperation> queue;
+
+	private final int maxPendingOperations;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * Enqueue time of the oldest operation that has been taken from the queue but is not yet searchable, or
+	 * {@link Long#MAX_VALUE} if there is none.
+	 */
+	private volatile long applyingSince = Long.MAX_VALUE;
+
+	private final AtomicLong appliedOperations = new AtomicLong();
+
+	private final AtomicLong appliedBatches = new AtomicLong();
+
+	/**
+	 * Operations taken from the queue that have not been committed to the index yet, in the order in which they must be
+	 * applied. Only accessed while holding the lock of this updater.
+	 */
+	private final List<PendingOperation> batch = new ArrayList<>();
+
+	/**
+	 * The number of operations in {@link #batch} that are kept for the next flush after a failed one.
+	 */
+	private volatile int retainedOperations;
+
+	private volatile boolean shutDown;
+
+	AsyncSearchIndexUpdater(SearchIndex index, long refreshIntervalMillis, int maxPendingOperations) {
+		this.index = index;
+		this.queue = new LinkedBlockingQueue<>(maxPendingOperations);
+		this.maxPendingOperations = maxPendingOperations;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor((Runnable runnable) -> {
+			Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+			thread.setName("rdf4j-lucenesail-async-indexer");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::flushQuietly, refreshIntervalMillis, refreshIntervalMillis,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Queues the operations of a committed transaction. Blocks while the queue is full.
+	 *
+	 * @param operations the operations, in the order in which they must be applied
+	 * @throws SailException if the updater has been shut down or the calling thread is interrupted
+	 */
+	void enqueue(List<Operation> operations) throws SailException {
+		try {
+			for (Operation operation : operations) {
+				if (shutDown) {
+					throw new SailException("Asynchronous index updater has been shut down");
+				}
+				queue.put(new PendingOperation(operation));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SailException(e);
+		}
+	}
+
+	/**
+	 * Applies all queued operations to the index and commits it, making them visible to searches. If the index cannot
+	 * be updated, the operations that have not been committed are kept and applied again by the next flush.
+	 *
+	 * @throws IOException if the index could not be updated
+	 */
+	synchronized void flush() throws IOException {
+		// operations kept from a failed flush count towards the limit, so that committers block while it fails
+		queue.drainTo(batch, Math.max(0, maxPendingOperations - batch.size()));
+		if (batch.isEmpty()) {
+			return;
+		}
+
+		applyingSince = batch.get(0).enqueuedAt;
+		int applied = 0;
+		try {
+			logger.debug("Applying {} queued Lucene operations.", batch.size());
+
+			AddRemoveOperation merged = null;
+			for (int i = 0; i < batch.size(); i++) {
+				Operation op = batch.get(i).operation;
+				if (op instanceof AddRemoveOperation) {
+					if (merged == null) {
+						merged = new AddRemoveOperation();
+					}
+					merge(merged, (AddRemoveOperation) op);
+				} else {
+					applyAddRemove(merged);
+					merged = null;
+					applied = i;
+					if (op instanceof ClearContextOperation) {
+						index.begin();
+						index.clearContexts(((ClearContextOperation) op).getContexts());
+						index.commit();
+					} else if (op instanceof ClearOperation) {
+						index.clear();
+					} else {
+						throw new SailException(
+								"Cannot interpret operation " + op + " of type " + op.getClass().getName());
+					}
+					applied = i + 1;
+				}
+			}
+			applyAddRemove(merged);
+			applied = batch.size();
+
+			appliedBatches.incrementAndGet();
+		} catch (IOException | RuntimeException e) {
+			logger.error("Applying queued operations in lucenesail, encountered exception " + e + ". "
+					+ (batch.size() - applied) + " operations have not been stored and will be retried.", e);
+			index.rollback();
+			throw e;
+		} finally {
+			appliedOperations.addAndGet(applied);
+			batch.subList(0, applied).clear();
+			retainedOperations = batch.size();
+			applyingSince = batch.isEmpty() ? Long.MAX_VALUE : batch.get(0).enqueuedAt;
+		}
+	}
+
+	/**
+	 * Applies the remaining queued operations and stops the background thread.
+	 */
+	void shutDown() throws IOException {
+		shutDown = true;
+		scheduler.shutdown();
+		try {
+			if (!scheduler.awaitTermination(30, TimeUnit.SECONDS)) {
+				logger.warn("Asynchronous Lucene indexer did not terminate in time");
+				scheduler.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		flush();
+	}
+
+	/**
+	 * @return the number of operations that have been committed to the sail but are not yet searchable
+	 */
+	int getPendingOperations() {
+		return queue.size() + retainedOperations;
+	}
+
+	/**
+	 * @return the age in milliseconds of the oldest committed operation that is not yet searchable, or 0 if the index
+	 *         is up to date
+	 */
+	long getIndexingLag() {
+		long oldest = applyingSince;
+		PendingOperation head = queue.peek();
+		if (head != null) {
+			oldest = Math.min(oldest, head.enqueuedAt);
+		}
+		return oldest == Long.MAX_VALUE ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+	}
+
+	long getAppliedOperations() {
+		return appliedOperations.get();
+	}
+
+	long getAppliedBatches() {
+		return appliedBatches.get();
+	}
+
+	private void flushQuietly() {
+		try {
+			flush();
+		} catch (IOException | RuntimeException e) {
+			// already logged, the failed operations are retried with the next batch
+		}
+	}
+
+	private void applyAddRemove(AddRemoveOperation op) throws IOException {
+		if (op == null) {
+			return;
+		}
+		logger.debug("indexing {}/removing {} statements...", op.getAdded().size(), op.getRemoved().size());
+		index.begin();
+		index.addRemoveStatements(op.getAdded(), op.getRemoved());
+		index.commit();
+	}
+
+	/**
+	 * Folds a later add/remove operation into an earlier one, so that the net effect of consecutive transactions can be
+	 * applied to the index in a single call.
+	 */
+	private static void merge(AddRemoveOperation target, AddRemoveOperation later) {
+		for (Statement removed : later.getRemoved()) {
+			target.remove(removed);
+		}
+		for (Statement added : later.getAdded()) {
+			target.add(added);
+		}
+	}
+}
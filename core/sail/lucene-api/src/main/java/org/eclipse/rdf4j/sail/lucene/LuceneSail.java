@@ -249,6 +249,16 @@ public class LuceneSail extends NotifyingSailWrapper {
 	 */
 	public static final String REINDEX_QUERY_KEY = "reindexQuery";
 
+	/**
+	 * Set the parameter "reindexThreads=&lt;n&gt;" to rebuild the index with n worker threads in {@link #reindex()}.
+	 * With more than one thread, subjects are partitioned by hash over the workers, which read the statements of their
+	 * subjects directly from the base sail and write to the shared index. This does not require the data to be sorted,
+	 * but the {@link #REINDEX_QUERY_KEY reindex query} is not used: statements can be restricted with
+	 * {@link #registerStatementFilter(IndexableStatementFilter)} instead. Only supported by indexes that extend
+	 * {@link AbstractSearchIndex}. Default is 1.
+	 */
+	public static final String REINDEX_THREADS_KEY = "reindexThreads";
+
 	/**
 	 * Set the parameter "indexedfields=..." to configure a selection of fields to index, and projections of properties.
 	 * Only the configured fields will be indexed. A property P projected to Q will cause the index to contain Q instead
@@ -350,6 +360,30 @@ public class LuceneSail extends NotifyingSailWrapper {
 	 */
 	public static final String FUZZY_PREFIX_LENGTH_KEY = "fuzzyPrefixLength";
 
+	/**
+	 * Set the key "asyncIndexing=true" as sail parameter to apply committed changes to the search index on a background
+	 * thread instead of as part of the sail commit. Changes are applied in batches and become searchable after at most
+	 * {@link #ASYNC_INDEXING_REFRESH_INTERVAL_KEY} milliseconds (plus the time to apply the batch). Default is false.
+	 */
+	public static final String ASYNC_INDEXING_KEY = "asyncIndexing";
+
+	/**
+	 * Set the key "asyncIndexingRefreshInterval=&lt;ms&gt;" as sail parameter to configure how often queued changes are
+	 * applied and made searchable when {@link #ASYNC_INDEXING_KEY} is enabled. Default is 1000.
+	 */
+	public static final String ASYNC_INDEXING_REFRESH_INTERVAL_KEY = "asyncIndexingRefreshInterval";
+
+	/**
+	 * Set the key "asyncIndexingMaxPending=&lt;n&gt;" as sail parameter to bound the number of committed transaction
+	 * operations that may be waiting for the asynchronous indexer. Committing connections block while the limit is
+	 * reached. Default is 10000.
+	 */
+	public static final String ASYNC_INDEXING_MAX_PENDING_KEY = "asyncIndexingMaxPending";
+
+	private static final long DEFAULT_ASYNC_INDEXING_REFRESH_INTERVAL = 1000;
+
+	private static final int DEFAULT_ASYNC_INDEXING_MAX_PENDING = 10000;
+
 	/**
 	 * The LuceneIndex holding the indexed literals.
 	 */
@@ -359,6 +393,8 @@ public class LuceneSail extends NotifyingSailWrapper {
 
 	private volatile String reindexQuery = "SELECT ?s ?p ?o ?c WHERE {{?s ?p ?o} UNION {GRAPH ?c {?s ?p ?o.}}} ORDER BY ?s";
 
+	private volatile int reindexThreads = 1;
+
 	private volatile boolean incompleteQueryFails = true;
 
 	private volatile TupleFunctionEvaluationMode evaluationMode = TupleFunctionEvaluationMode.TRIPLE_SOURCE;
@@ -379,6 +415,8 @@ public class LuceneSail extends NotifyingSailWrapper {
 
 	private final AtomicBoolean closed = new AtomicBoolean(false);
 
+	private volatile AsyncSearchIndexUpdater asyncIndexUpdater;
+
 	public void setLuceneIndex(SearchIndex luceneIndex) {
 		this.luceneIndex = luceneIndex;
 	}
@@ -401,6 +439,11 @@ public class LuceneSail extends NotifyingSailWrapper {
 		if (closed.compareAndSet(false, true)) {
 			logger.debug("LuceneSail shutdown");
 			try {
+				AsyncSearchIndexUpdater toShutDownUpdater = asyncIndexUpdater;
+				asyncIndexUpdater = null;
+				if (toShutDownUpdater != null) {
+					toShutDownUpdater.shutDown();
+				}
 				SearchIndex toShutDownLuceneIndex = luceneIndex;
 				luceneIndex = null;
 				if (toShutDownLuceneIndex != null) {
@@ -459,6 +502,9 @@ public class LuceneSail extends NotifyingSailWrapper {
 			if (parameters.containsKey(REINDEX_QUERY_KEY)) {
 				setReindexQuery(parameters.getProperty(REINDEX_QUERY_KEY));
 			}
+			if (parameters.containsKey(REINDEX_THREADS_KEY)) {
+				setReindexThreads(NumberUtils.toInt(parameters.getProperty(REINDEX_THREADS_KEY), 1));
+			}
 			if (parameters.containsKey(INCOMPLETE_QUERY_FAIL_KEY)) {
 				setIncompleteQueryFails(Boolean.parseBoolean(parameters.getProperty(INCOMPLETE_QUERY_FAIL_KEY)));
 			}
@@ -471,6 +517,13 @@ public class LuceneSail extends NotifyingSailWrapper {
 			if (luceneIndex == null) {
 				initializeLuceneIndex();
 			}
+			if (Boolean.parseBoolean(parameters.getProperty(ASYNC_INDEXING_KEY))) {
+				asyncIndexUpdater = new AsyncSearchIndexUpdater(luceneIndex,
+						NumberUtils.toLong(parameters.getProperty(ASYNC_INDEXING_REFRESH_INTERVAL_KEY),
+								DEFAULT_ASYNC_INDEXING_REFRESH_INTERVAL),
+						NumberUtils.toInt(parameters.getProperty(ASYNC_INDEXING_MAX_PENDING_KEY),
+								DEFAULT_ASYNC_INDEXING_MAX_PENDING));
+			}
 		} catch (Exception e) {
 			throw new SailException("Could not initialize LuceneSail: " + e.getMessage(), e);
 		}
@@ -521,6 +574,24 @@ public class LuceneSail extends NotifyingSailWrapper {
 		this.reindexQuery = query;
 	}
 
+	/**
+	 * See REINDEX_THREADS_KEY parameter.
+	 */
+	public int getReindexThreads() {
+		return reindexThreads;
+	}
+
+	/**
+	 * See REINDEX_THREADS_KEY parameter.
+	 */
+	public void setReindexThreads(int reindexThreads) {
+		if (reindexThreads < 1) {
+			throw new IllegalArgumentException("reindexThreads must be at least 1");
+		}
+		this.setParameter(REINDEX_THREADS_KEY, Integer.toString(reindexThreads));
+		this.reindexThreads = reindexThreads;
+	}
+
 	/**
 	 * When this is true, incomplete queries will trigger a SailException. You can set this value either using
 	 * {@link #setIncompleteQueryFails(boolean)} or using the parameter "incompletequeryfail"
@@ -596,6 +667,57 @@ public class LuceneSail extends NotifyingSailWrapper {
 		super.setFederatedServiceResolver(resolver);
 	}
 
+	/**
+	 * See {@link #ASYNC_INDEXING_KEY} parameter.
+	 *
+	 * @return true if committed changes are indexed asynchronously
+	 */
+	public boolean isAsyncIndexing() {
+		return asyncIndexUpdater != null;
+	}
+
+	/**
+	 * Applies all changes queued for asynchronous indexing and makes them searchable. Does nothing when
+	 * {@link #ASYNC_INDEXING_KEY} is not enabled.
+	 *
+	 * @throws SailException if the index could not be updated
+	 */
+	public void refreshIndex() throws SailException {
+		AsyncSearchIndexUpdater updater = asyncIndexUpdater;
+		if (updater != null) {
+			try {
+				updater.flush();
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+		}
+	}
+
+	/**
+	 * Returns how far the search index lags behind the committed sail state when {@link #ASYNC_INDEXING_KEY} is
+	 * enabled.
+	 *
+	 * @return the age in milliseconds of the oldest committed change that is not yet searchable, or 0 if the index is
+	 *         up to date or indexing is synchronous
+	 */
+	public long getIndexingLag() {
+		AsyncSearchIndexUpdater updater = asyncIndexUpdater;
+		return updater != null ? updater.getIndexingLag() : 0;
+	}
+
+	/**
+	 * @return the number of committed transaction operations waiting for the asynchronous indexer, or 0 if indexing is
+	 *         synchronous
+	 */
+	public int getPendingIndexOperations() {
+		AsyncSearchIndexUpdater updater = asyncIndexUpdater;
+		return updater != null ? updater.getPendingOperations() : 0;
+	}
+
+	AsyncSearchIndexUpdater getAsyncIndexUpdater() {
+		return asyncIndexUpdater;
+	}
+
 	/**
 	 * Starts a reindexation process of the whole sail. Basically, this will delete and add all data again, a
 	 * long-lasting process.
@@ -603,12 +725,29 @@ public class LuceneSail extends NotifyingSailWrapper {
 	 * @throws SailException If the Sail could not be reindex
 	 */
 	public void reindex() throws SailException {
+		// pending changes would otherwise be applied on top of the rebuilt index
+		refreshIndex();
 		try {
 			// clear
 			logger.info("Reindexing sail: clearing...");
 			luceneIndex.clear();
 			logger.info("Reindexing sail: adding...");
 
+			int threads = reindexThreads;
+			if (threads > 1 && luceneIndex instanceof AbstractSearchIndex) {
+				try {
+					luceneIndex.begin();
+					new ParallelReindexer(this, (AbstractSearchIndex) luceneIndex, threads).run();
+					luceneIndex.commit();
+					logger.info("Reindexing sail: done.");
+				} catch (Exception e) {
+					logger.error("Rolling back", e);
+					luceneIndex.rollback();
+					throw e;
+				}
+				return;
+			}
+
 			try {
 				luceneIndex.begin();
 				// iterate
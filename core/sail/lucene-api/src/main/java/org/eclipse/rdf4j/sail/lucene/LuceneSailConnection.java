@@ -208,6 +208,10 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 	public void begin() throws SailException {
 		super.begin();
 		buffer.reset();
+		if (sail.isAsyncIndexing()) {
+			// the index is only written by the asynchronous indexer
+			return;
+		}
 		try {
 			luceneIndex.begin();
 		} catch (IOException e) {
@@ -219,6 +223,12 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 	public void commit() throws SailException {
 		super.commit();
 
+		AsyncSearchIndexUpdater asyncIndexUpdater = sail.getAsyncIndexUpdater();
+		if (asyncIndexUpdater != null) {
+			enqueueOperations(asyncIndexUpdater);
+			return;
+		}
+
 		logger.debug("Committing Lucene transaction with {} operations.", buffer.operations().size());
 		try {
 			// preprocess buffer
@@ -252,6 +262,26 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 		}
 	}
 
+	/**
+	 * Hands the buffered operations over to the asynchronous indexer. Type information is resolved here, as it requires
+	 * reading the committed state through this connection.
+	 */
+	private void enqueueOperations(AsyncSearchIndexUpdater asyncIndexUpdater) throws SailException {
+		logger.debug("Queueing Lucene transaction with {} operations.", buffer.operations().size());
+		try {
+			buffer.optimize();
+			List<Operation> operations = new ArrayList<>(buffer.operations());
+			for (Operation op : operations) {
+				if (op instanceof AddRemoveOperation) {
+					completeAddRemoveOperationWithType((AddRemoveOperation) op);
+				}
+			}
+			asyncIndexUpdater.enqueue(operations);
+		} finally {
+			buffer.reset();
+		}
+	}
+
 	private void addRemoveStatements(AddRemoveOperation op) throws IOException, SailException {
 		luceneIndex.begin();
 		try {
@@ -518,6 +548,10 @@ public class LuceneSailConnection extends NotifyingSailConnectionWrapper {
 	public void rollback() throws SailException {
 		super.rollback();
 		buffer.reset();
+		if (sail.isAsyncIndexing()) {
+			// nothing has been written to the index by this connection
+			return;
+		}
 		try {
 			luceneIndex.rollback();
 		} catch (IOException e) {
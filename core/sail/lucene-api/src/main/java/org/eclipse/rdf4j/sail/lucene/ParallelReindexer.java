@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lucene;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.Sail;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Rebuilds a search index using several worker threads.
+ * <p>
+ * A single scan over all statements of the base sail, in whatever order the store returns them, yields the subjects to
+ * index. Subjects are partitioned by hash over the workers, so a subject is always handled by the same worker. Each
+ * worker reads the statements of its subjects through its own connection and replaces their documents with
+ * {@link AbstractSearchIndex#updateDocuments(Resource, List)}, all workers writing to the shared index. No global sort
+ * is needed: a subject that is seen again later in the scan is at worst indexed twice, which is idempotent. A small
+ * per-worker cache of recently indexed subjects avoids that duplicate work for stores that return statements grouped by
+ * subject.
+ *
+ * @see LuceneSail#REINDEX_THREADS_KEY
+ */
+class ParallelReindexer {
+
+	private static final Logger logger = LoggerFactory.getLogger(ParallelReindexer.class);
+
+	private static final int QUEUE_CAPACITY = 1024;
+
+	private static final int RECENT_SUBJECTS_CACHE_SIZE = 10_000;
+
+	private static final long PROGRESS_INTERVAL_MILLIS = 30_000;
+
+	/**
+	 * Marker that tells a worker that its partition is complete. Compared by identity.
+	 */
+	private static final Resource END_OF_PARTITION = SimpleValueFactory.getInstance().createBNode();
+
+	private final LuceneSail sail;
+
+	private final Sail baseSail;
+
+	private final AbstractSearchIndex index;
+
+	private final int numThreads;
+
+	private final AtomicLong scannedSubjects = new AtomicLong();
+
+	private final AtomicLong indexedSubjects = new AtomicLong();
+
+	private final AtomicLong indexedStatements = new AtomicLong();
+
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	ParallelReindexer(LuceneSail sail, AbstractSearchIndex index, int numThreads) {
+		this.sail = sail;
+		this.baseSail = sail.getBaseSail();
+		this.index = index;
+		this.numThreads = numThreads;
+	}
+
+	/**
+	 * Indexes all subjects of the base sail. The index is expected to be cleared and the caller is responsible for
+	 * committing or rolling back.
+	 */
+	void run() throws Exception {
+		List<BlockingQueue<Resource>> queues = new ArrayList<>(numThreads);
+		AtomicInteger threadCounter = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, (Runnable runnable) -> {
+			Thread thread = Executors.defaultThreadFactory().newThread(runnable);
+			thread.setName("rdf4j-lucenesail-reindex-" + threadCounter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> workers = new ArrayList<>(numThreads);
+			for (int i = 0; i < numThreads; i++) {
+				BlockingQueue<Resource> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+				queues.add(queue);
+				workers.add(executor.submit(() -> work(queue)));
+			}
+
+			try {
+				scan(queues);
+			} finally {
+				for (BlockingQueue<Resource> queue : queues) {
+					dispatch(queue, END_OF_PARTITION);
+				}
+			}
+
+			for (Future<?> worker : workers) {
+				try {
+					worker.get();
+				} catch (ExecutionException e) {
+					failure.compareAndSet(null, e.getCause());
+				}
+			}
+			Throwable t = failure.get();
+			if (t instanceof Exception) {
+				throw (Exception) t;
+			} else if (t != null) {
+				throw new SailException(t);
+			}
+			logger.info("Reindexing sail: indexed {} subjects with {} statements.", indexedSubjects.get(),
+					indexedStatements.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void scan(List<BlockingQueue<Resource>> queues) throws InterruptedException {
+		long nextProgress = System.currentTimeMillis() + PROGRESS_INTERVAL_MILLIS;
+		try (SailConnection connection = baseSail.getConnection();
+				CloseableIteration<? extends Statement, SailException> statements = connection.getStatements(null,
+						null, null, false)) {
+			Resource previous = null;
+			while (statements.hasNext() && failure.get() == null) {
+				Resource subject = statements.next().getSubject();
+				if (subject.equals(previous)) {
+					continue;
+				}
+				previous = subject;
+				dispatch(queues.get(Math.floorMod(subject.hashCode(), queues.size())), subject);
+				scannedSubjects.incrementAndGet();
+
+				if (System.currentTimeMillis() >= nextProgress) {
+					logger.info("Reindexing sail: scanned {} subjects, indexed {} subjects with {} statements...",
+							scannedSubjects.get(), indexedSubjects.get(), indexedStatements.get());
+					nextProgress = System.currentTimeMillis() + PROGRESS_INTERVAL_MILLIS;
+				}
+			}
+		}
+	}
+
+	private void dispatch(BlockingQueue<Resource> queue, Resource subject) throws InterruptedException {
+		// don't block forever on a partition whose worker has died
+		while (!queue.offer(subject, 100, TimeUnit.MILLISECONDS)) {
+			if (failure.get() != null) {
+				return;
+			}
+		}
+	}
+
+	private void work(BlockingQueue<Resource> queue) {
+		Map<Resource, Boolean> recentSubjects = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Resource, Boolean> eldest) {
+				return size() > RECENT_SUBJECTS_CACHE_SIZE;
+			}
+		};
+
+		try (SailConnection connection = baseSail.getConnection()) {
+			List<Statement> statements = new ArrayList<>();
+			while (true) {
+				Resource subject = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (subject == END_OF_PARTITION || failure.get() != null) {
+					return;
+				}
+				if (subject == null || recentSubjects.put(subject, Boolean.TRUE) != null) {
+					continue;
+				}
+
+				statements.clear();
+				try (CloseableIteration<? extends Statement, SailException> it = connection.getStatements(subject,
+						null, null, false)) {
+					while (it.hasNext()) {
+						Statement statement = it.next();
+						if (sail.acceptStatementToIndex(statement)) {
+							statements.add(statement);
+						}
+					}
+				}
+				if (!statements.isEmpty()) {
+					logger.debug("reindexing resource {}", subject);
+					index.updateDocuments(subject, statements);
+					indexedSubjects.incrementAndGet();
+					indexedStatements.addAndGet(statements.size());
+				}
+			}
+		} catch (Throwable e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+}
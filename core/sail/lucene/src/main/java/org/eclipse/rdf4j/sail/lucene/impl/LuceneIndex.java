@@ -435,8 +435,12 @@ public class LuceneIndex extends AbstractLuceneIndex {
 		getIndexWriter().addDocument(((LuceneDocument) doc).getDocument());
 	}
 
+	/**
+	 * Not synchronized: the IndexWriter is thread-safe and analyzes documents of concurrent callers in parallel, which
+	 * is what makes {@link org.eclipse.rdf4j.sail.lucene.LuceneSail#REINDEX_THREADS_KEY parallel reindexing} scale.
+	 */
 	@Override
-	protected synchronized void updateDocument(SearchDocument doc) throws IOException {
+	protected void updateDocument(SearchDocument doc) throws IOException {
 		getIndexWriter().updateDocument(idTerm(doc.getId()), ((LuceneDocument) doc).getDocument());
 	}
 
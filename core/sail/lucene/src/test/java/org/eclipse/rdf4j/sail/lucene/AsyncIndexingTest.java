@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.lucene;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.lucene.LuceneSailBuffer.AddRemoveOperation;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class AsyncIndexingTest {
+
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+	private static final IRI SUBJECT_1 = VF.createIRI("urn:subject1");
+
+	private static final IRI SUBJECT_2 = VF.createIRI("urn:subject2");
+
+	private LuceneSail sail;
+
+	private SailRepository repository;
+
+	private void init(long refreshInterval) {
+		sail = new LuceneSail();
+		sail.setParameter(LuceneSail.LUCENE_RAMDIR_KEY, "true");
+		sail.setParameter(LuceneSail.ASYNC_INDEXING_KEY, "true");
+		sail.setParameter(LuceneSail.ASYNC_INDEXING_REFRESH_INTERVAL_KEY, Long.toString(refreshInterval));
+		sail.setBaseSail(new MemoryStore());
+		repository = new SailRepository(sail);
+		repository.init();
+	}
+
+	@AfterEach
+	public void tearDown() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void testChangesSearchableAfterRefresh() {
+		init(3_600_000);
+		assertThat(sail.isAsyncIndexing()).isTrue();
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.add(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+			connection.add(SUBJECT_2, RDFS.LABEL, VF.createLiteral("two"));
+
+			assertThat(search(connection, "one")).isEmpty();
+			assertThat(sail.getPendingIndexOperations()).isEqualTo(2);
+
+			sail.refreshIndex();
+
+			assertThat(search(connection, "one")).containsExactly(SUBJECT_1);
+			assertThat(search(connection, "two")).containsExactly(SUBJECT_2);
+			assertThat(sail.getPendingIndexOperations()).isZero();
+			assertThat(sail.getIndexingLag()).isZero();
+		}
+	}
+
+	@Test
+	public void testConsecutiveTransactionsAreMerged() {
+		init(3_600_000);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.add(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+			connection.add(SUBJECT_1, RDFS.COMMENT, VF.createLiteral("uno"));
+			connection.remove(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+
+			sail.refreshIndex();
+
+			assertThat(search(connection, "one")).isEmpty();
+			assertThat(search(connection, "uno")).containsExactly(SUBJECT_1);
+			assertThat(sail.getAsyncIndexUpdater().getAppliedOperations()).isEqualTo(3);
+			assertThat(sail.getAsyncIndexUpdater().getAppliedBatches()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testClearIsApplied() {
+		init(3_600_000);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.add(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+			sail.refreshIndex();
+			assertThat(search(connection, "one")).containsExactly(SUBJECT_1);
+
+			connection.clear();
+			connection.add(SUBJECT_2, RDFS.LABEL, VF.createLiteral("one"));
+			sail.refreshIndex();
+
+			assertThat(search(connection, "one")).containsExactly(SUBJECT_2);
+		}
+	}
+
+	@Test
+	public void testBackgroundRefresh() throws InterruptedException {
+		init(10);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.add(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (search(connection, "one").isEmpty() && System.currentTimeMillis() < deadline) {
+				Thread.sleep(10);
+			}
+			assertThat(search(connection, "one")).containsExactly(SUBJECT_1);
+		}
+	}
+
+	@Test
+	public void testPendingChangesAppliedOnShutdown() {
+		init(3_600_000);
+
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.add(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+		}
+		SearchIndex index = sail.getLuceneIndex();
+		AsyncSearchIndexUpdater updater = sail.getAsyncIndexUpdater();
+		repository.shutDown();
+		repository = null;
+
+		assertThat(updater.getAppliedOperations()).isEqualTo(1);
+		assertThat(index).isNotNull();
+	}
+
+	@Test
+	public void testFailedBatchIsRetried() throws IOException {
+		SearchIndex index = mock(SearchIndex.class);
+		doThrow(new IOException("index unavailable")).doNothing()
+				.when(index)
+				.addRemoveStatements(any(), any());
+		AsyncSearchIndexUpdater updater = new AsyncSearchIndexUpdater(index, 3_600_000, 10);
+		try {
+			Statement statement = VF.createStatement(SUBJECT_1, RDFS.LABEL, VF.createLiteral("one"));
+			AddRemoveOperation operation = new AddRemoveOperation();
+			operation.add(statement);
+			updater.enqueue(List.of(operation));
+
+			assertThatThrownBy(updater::flush).isInstanceOf(IOException.class);
+			verify(index).rollback();
+			assertThat(updater.getPendingOperations()).isEqualTo(1);
+			assertThat(updater.getIndexingLag()).isNotNegative();
+			assertThat(updater.getAppliedOperations()).isZero();
+
+			updater.flush();
+			verify(index, times(2)).addRemoveStatements(Set.of(statement), Set.of());
+			assertThat(updater.getPendingOperations()).isZero();
+			assertThat(updater.getAppliedOperations()).isEqualTo(1);
+		} finally {
+			updater.shutDown();
+		}
+	}
+
+	private static List<Value> search(SailRepositoryConnection connection, String text) {
+		String query = "PREFIX search: <" + LuceneSailSchema.NAMESPACE + "> "
+				+ "SELECT ?s WHERE { ?s search:matches [ search:query \"" + text + "\" ] }";
+		List<Value> result = new ArrayList<>();
+		try (TupleQueryResult res = connection.prepareTupleQuery(query).evaluate()) {
+			for (BindingSet bs : res) {
+				result.add(bs.getValue("s"));
+			}
+		}
+		return result;
+	}
+}
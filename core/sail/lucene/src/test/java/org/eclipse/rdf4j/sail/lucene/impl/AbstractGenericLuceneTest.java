@@ -735,6 +735,34 @@ public abstract class AbstractGenericLuceneTest {
 		testComplexQueryTwo();
 	}
 
+	@Test
+	public void testParallelReindexing() throws Exception {
+		sail.setReindexThreads(4);
+		sail.reindex();
+		testComplexQueryTwo();
+	}
+
+	@Test
+	public void testParallelReindexingManySubjects() throws Exception {
+		connection.begin();
+		for (int i = 0; i < 1000; i++) {
+			IRI subject = vf.createIRI("urn:many:" + i);
+			connection.add(subject, PREDICATE_1, vf.createLiteral("many"), CONTEXT_1);
+			connection.add(subject, PREDICATE_2, vf.createLiteral("subject" + i), CONTEXT_2);
+		}
+		connection.commit();
+
+		sail.setReindexThreads(3);
+		sail.reindex();
+
+		assertQueryResult("subject500", PREDICATE_2, vf.createIRI("urn:many:500"));
+		TupleQuery query = connection.prepareTupleQuery("SELECT DISTINCT ?Resource WHERE { ?Resource <" + MATCHES
+				+ "> [ <" + QUERY + "> \"many\" ]. }");
+		try (TupleQueryResult result = query.evaluate()) {
+			assertEquals(1000, result.stream().count());
+		}
+	}
+
 	@Test
 	public void testPropertyVar() throws MalformedQueryException, RepositoryException, QueryEvaluationException {
 		StringBuilder buffer = new StringBuilder();
@@ -14,6 +14,8 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.VarHandle;
 import java.lang.ref.Cleaner;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -120,6 +122,18 @@ class MemorySailStore implements SailStore {
 	 */
 	private volatile int currentSnapshot;
 
+	/**
+	 * The number of statements in the {@link #currentSnapshot current snapshot}.
+	 */
+	private final StatementCounts statementCounts = new StatementCounts();
+
+	/**
+	 * The number of statements that the sinks of the current transaction added and removed in the snapshot that is not
+	 * visible yet. The explicit and inferred sinks write to the same snapshot, which becomes visible with the first of
+	 * them to flush, so their changes are counted together.
+	 */
+	private final StatementCounts pendingCounts = new StatementCounts();
+
 	final SnapshotMonitor snapshotMonitor;
 
 	/**
@@ -166,6 +180,8 @@ class MemorySailStore implements SailStore {
 		}
 		valueFactory.clear();
 		statements.clear();
+		statementCounts.clear();
+		pendingCounts.clear();
 		namespaceStore.clear();
 		invalidateCache();
 	}
@@ -637,7 +653,12 @@ class MemorySailStore implements SailStore {
 		public synchronized void flush() throws SailException {
 			if (txnLock) {
 				invalidateCache();
-				currentSnapshot = Math.max(currentSnapshot, nextSnapshot);
+				int snapshot = Math.max(currentSnapshot, nextSnapshot);
+				// the counts must be up to date before readers can use the new snapshot, including the changes that
+				// the other sink of the transaction made in it
+				statementCounts.addAll(pendingCounts, snapshot);
+				pendingCounts.clear();
+				currentSnapshot = snapshot;
 				if (requireCleanup) {
 					scheduleSnapshotCleanup();
 				}
@@ -710,7 +731,7 @@ class MemorySailStore implements SailStore {
 					explicit, nextSnapshot, contexts)) {
 				while (iter.hasNext()) {
 					MemStatement st = iter.next();
-					st.setTillSnapshot(nextSnapshot);
+					deprecate(st);
 				}
 			} catch (InterruptedException e) {
 				throw convertToSailException(e);
@@ -766,7 +787,7 @@ class MemorySailStore implements SailStore {
 				MemStatement toDeprecate = (MemStatement) statement;
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
-					toDeprecate.setTillSnapshot(nextSnapshot);
+					deprecate(toDeprecate);
 				}
 			} else if (statement instanceof LinkedHashModel.ModelStatement
 					&& ((LinkedHashModel.ModelStatement) statement).getStatement() instanceof MemStatement) {
@@ -775,7 +796,7 @@ class MemorySailStore implements SailStore {
 				MemStatement toDeprecate = (MemStatement) ((LinkedHashModel.ModelStatement) statement).getStatement();
 				if ((nextSnapshot < 0 || toDeprecate.isInSnapshot(nextSnapshot))
 						&& toDeprecate.isExplicit() == explicit) {
-					toDeprecate.setTillSnapshot(nextSnapshot);
+					deprecate(toDeprecate);
 				}
 			} else {
 				try (CloseableIteration<MemStatement, SailException> iter = createStatementIterator(
@@ -783,7 +804,7 @@ class MemorySailStore implements SailStore {
 						statement.getContext())) {
 					while (iter.hasNext()) {
 						MemStatement st = iter.next();
-						st.setTillSnapshot(nextSnapshot);
+						deprecate(st);
 					}
 				} catch (InterruptedException e) {
 					throw convertToSailException(e);
@@ -791,6 +812,20 @@ class MemorySailStore implements SailStore {
 			}
 		}
 
+		private void deprecate(MemStatement st) {
+			st.setTillSnapshot(nextSnapshot);
+			count(st.getContext(), st.isExplicit(), -1);
+		}
+
+		private void count(Resource context, boolean explicit, long delta) {
+			if (nextSnapshot <= currentSnapshot) {
+				// the other sink of the transaction already flushed, so the change is visible right away
+				statementCounts.count(context, explicit, delta);
+			} else {
+				pendingCounts.count(context, explicit, delta);
+			}
+		}
+
 		private void acquireExclusiveTransactionLock() throws SailException {
 			if (!txnLock) {
 				synchronized (this) {
@@ -830,6 +865,7 @@ class MemorySailStore implements SailStore {
 			MemStatement st = new MemStatement(memSubj, memPred, memObj, memContext, explicit, nextSnapshot);
 			statements.add(st);
 			st.addToComponentLists();
+			count(memContext, explicit, 1);
 			invalidateCache();
 			return st;
 		}
@@ -844,7 +880,7 @@ class MemorySailStore implements SailStore {
 			if (memStatement != null) {
 				if (!memStatement.isExplicit() && explicit) {
 					// Implicit statement is now added explicitly
-					memStatement.setTillSnapshot(this.nextSnapshot);
+					deprecate(memStatement);
 				} else {
 					// statement already exists
 					return true;
@@ -894,7 +930,7 @@ class MemorySailStore implements SailStore {
 				while (iter.hasNext()) {
 					deprecated = true;
 					MemStatement st = iter.next();
-					st.setTillSnapshot(nextSnapshot);
+					deprecate(st);
 				}
 			} catch (InterruptedException e) {
 				throw convertToSailException(e);
@@ -1026,6 +1062,11 @@ class MemorySailStore implements SailStore {
 			}
 		}
 
+		@Override
+		public long size(Resource... contexts) {
+			return statementCounts.size(explicit, getCurrentSnapshot(), contexts);
+		}
+
 		private int getCurrentSnapshot() {
 			if (snapshot >= 0) {
 				return snapshot;
@@ -1058,6 +1099,72 @@ class MemorySailStore implements SailStore {
 		return new SailException(e);
 	}
 
+	/**
+	 * Counts explicit and inferred statements, in total and per context. The counts of the store are only valid for the
+	 * snapshot that they were last updated for.
+	 */
+	private static final class StatementCounts {
+
+		private long explicitSize;
+
+		private long inferredSize;
+
+		/**
+		 * The number of explicit and inferred statements per context, the default context is the <var>null</var> key.
+		 */
+		private final Map<Resource, long[]> contextSizes = new HashMap<>();
+
+		private int snapshot;
+
+		synchronized void count(Resource context, boolean explicit, long delta) {
+			if (explicit) {
+				explicitSize += delta;
+			} else {
+				inferredSize += delta;
+			}
+			long[] sizes = contextSizes.computeIfAbsent(context, c -> new long[2]);
+			sizes[explicit ? 0 : 1] += delta;
+			if (sizes[0] == 0 && sizes[1] == 0) {
+				contextSizes.remove(context);
+			}
+		}
+
+		synchronized void addAll(StatementCounts changes, int snapshot) {
+			for (Map.Entry<Resource, long[]> entry : changes.contextSizes.entrySet()) {
+				count(entry.getKey(), true, entry.getValue()[0]);
+				count(entry.getKey(), false, entry.getValue()[1]);
+			}
+			this.snapshot = snapshot;
+		}
+
+		synchronized void clear() {
+			explicitSize = 0;
+			inferredSize = 0;
+			contextSizes.clear();
+		}
+
+		/**
+		 * @return the number of statements in the supplied snapshot, or <var>-1</var> if the counts are for a different
+		 *         snapshot
+		 */
+		synchronized long size(boolean explicit, int snapshot, Resource... contexts) {
+			if (snapshot != this.snapshot) {
+				return -1;
+			}
+			if (contexts == null || contexts.length == 0) {
+				return explicit ? explicitSize : inferredSize;
+			}
+			long size = 0;
+			for (Resource context : new HashSet<>(Arrays.asList(contexts))) {
+				long[] sizes = contextSizes.get(context);
+				if (sizes != null) {
+					size += sizes[explicit ? 0 : 1];
+				}
+			}
+			return size;
+		}
+	}
+
 	/**
 	 * SnapshotMonitor is used to keep track of which snapshot version are no longer is use (read or write) so that we
 	 * can safely clean that snapshot version.
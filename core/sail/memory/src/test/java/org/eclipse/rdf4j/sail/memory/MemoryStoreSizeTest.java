@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.query.impl.EmptyBindingSet;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MemoryStoreSizeTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI p = vf.createIRI("urn:p");
+
+	private static final IRI g1 = vf.createIRI("urn:g1");
+
+	private static final IRI g2 = vf.createIRI("urn:g2");
+
+	private MemoryStore store;
+
+	@BeforeEach
+	public void setUp() {
+		store = new MemoryStore();
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			connection.begin();
+			for (int i = 0; i < 10; i++) {
+				connection.addStatement(vf.createIRI("urn:s" + i), p, vf.createLiteral(i));
+				connection.addStatement(vf.createIRI("urn:s" + i), p, vf.createLiteral(i), g1);
+			}
+			connection.addStatement(vf.createIRI("urn:s0"), p, vf.createLiteral(0), g2);
+			connection.addInferredStatement(vf.createIRI("urn:s0"), p, vf.createLiteral("inferred"), g1);
+			connection.commit();
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		store.shutDown();
+	}
+
+	@Test
+	public void testSizeFromCounts() {
+		assertSizes(21, 10, 10, 1);
+
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			connection.begin();
+			connection.removeStatements(null, null, vf.createLiteral(0));
+			// an inferred statement that is added explicitly is no longer counted as inferred
+			connection.addStatement(vf.createIRI("urn:s0"), p, vf.createLiteral("inferred"), g1);
+			connection.commit();
+		}
+		assertSizes(19, 9, 10, 0);
+
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			connection.begin();
+			connection.clear(g1);
+			connection.commit();
+		}
+		assertSizes(9, 9, 0, 0);
+	}
+
+	@Test
+	public void testSizeWithPendingChanges() {
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			connection.begin();
+			connection.addStatement(vf.createIRI("urn:new"), p, vf.createLiteral(0));
+			connection.removeStatements(null, null, null, g2);
+			assertThat(connection.size()).isEqualTo(21);
+			assertThat(connection.size(g2)).isZero();
+			connection.rollback();
+
+			assertThat(connection.size()).isEqualTo(21);
+			assertThat(connection.size(g2)).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void testSizeBetweenFlushesOfOneTransaction() {
+		SailSink explicitSink = store.getSailStore().getExplicitSailSource().sink(IsolationLevels.NONE);
+		SailSink inferredSink = store.getSailStore().getInferredSailSource().sink(IsolationLevels.NONE);
+		try {
+			explicitSink.approve(vf.createIRI("urn:new"), p, vf.createLiteral(0), null);
+			inferredSink.approve(vf.createIRI("urn:new"), p, vf.createLiteral("inferred"), null);
+			explicitSink.flush();
+
+			// the statements of both sinks are in the snapshot that the first flush made visible
+			assertInferredSize(2);
+			inferredSink.approve(vf.createIRI("urn:new"), p, vf.createLiteral("more"), null);
+			assertInferredSize(3);
+			inferredSink.flush();
+		} finally {
+			try {
+				inferredSink.close();
+			} finally {
+				explicitSink.close();
+			}
+		}
+		assertInferredSize(3);
+		assertSizes(22, 11, 10, 1);
+	}
+
+	@Test
+	public void testCountQuery() {
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			assertThat(count(connection, false)).isEqualTo(21);
+			assertThat(count(connection, true)).isEqualTo(22);
+
+			connection.begin();
+			connection.addStatement(vf.createIRI("urn:new"), p, vf.createLiteral(0));
+			assertThat(count(connection, false)).isEqualTo(22);
+			connection.commit();
+
+			assertThat(count(connection, false)).isEqualTo(22);
+		}
+	}
+
+	private void assertSizes(long size, long defaultGraphSize, long g1Size, long g2Size) {
+		try (MemoryStoreConnection connection = (MemoryStoreConnection) store.getConnection()) {
+			assertThat(connection.size()).isEqualTo(size).isEqualTo(countStatements(connection));
+			assertThat(connection.size((Resource) null)).isEqualTo(defaultGraphSize)
+					.isEqualTo(countStatements(connection, (Resource) null));
+			assertThat(connection.size(g1)).isEqualTo(g1Size).isEqualTo(countStatements(connection, g1));
+			assertThat(connection.size(g2, g2)).isEqualTo(g2Size);
+			assertThat(connection.size(g1, null)).isEqualTo(g1Size + defaultGraphSize);
+		}
+		// the sizes are known without iterating over the statements
+		try (SailDataset dataset = store.getSailStore()
+				.getExplicitSailSource()
+				.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			assertThat(dataset.size()).isEqualTo(size);
+			assertThat(dataset.size(g1)).isEqualTo(g1Size);
+		}
+	}
+
+	private void assertInferredSize(long size) {
+		try (SailDataset dataset = store.getSailStore()
+				.getInferredSailSource()
+				.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			assertThat(dataset.size()).isEqualTo(size);
+			try (Stream<? extends Statement> statements = dataset.getStatements(null, null, null).stream()) {
+				assertThat(statements.count()).isEqualTo(size);
+			}
+		}
+	}
+
+	private static long countStatements(MemoryStoreConnection connection, Resource... contexts) {
+		try (Stream<? extends Statement> statements = connection.getStatements(null, null, null, false, contexts)
+				.stream()) {
+			return statements.count();
+		}
+	}
+
+	private static int count(MemoryStoreConnection connection, boolean includeInferred) {
+		ParsedQuery query = QueryParserUtil.parseQuery(QueryLanguage.SPARQL,
+				"SELECT (COUNT(*) AS ?c) WHERE { ?s ?p ?o }", null);
+		List<BindingSet> result = QueryResults.asList(
+				connection.evaluate(query.getTupleExpr(), null, EmptyBindingSet.getInstance(), includeInferred));
+		assertThat(result).hasSize(1);
+		return ((Literal) result.get(0).getValue("c")).intValue();
+	}
+}
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResourceLimitException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class QueryResourceLimitsTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private MemoryStore store;
+
+	private SailRepository repository;
+
+	@BeforeEach
+	public void setUp() {
+		store = new MemoryStore();
+		repository = new SailRepository(store);
+		try (RepositoryConnection connection = repository.getConnection()) {
+			IRI p = vf.createIRI("urn:p");
+			for (int i = 0; i < 1000; i++) {
+				connection.add(vf.createIRI("urn:s" + i), p, vf.createLiteral("value " + i));
+			}
+		}
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testMaxRows() {
+		store.setDefaultQueryResourceLimits(QueryResourceLimits.UNLIMITED.withMaxRows(100));
+
+		try (RepositoryConnection connection = repository.getConnection()) {
+			assertThat(evaluate(connection, "SELECT * WHERE { ?s ?p ?o } LIMIT 100")).hasSize(100);
+			assertThatThrownBy(() -> evaluate(connection, "SELECT * WHERE { ?s ?p ?o }"))
+					.isInstanceOf(QueryResourceLimitException.class);
+		}
+	}
+
+	@Test
+	public void testMaxBufferedBytes() {
+		store.setDefaultQueryResourceLimits(QueryResourceLimits.UNLIMITED.withMaxBufferedBytes(10_000));
+
+		try (RepositoryConnection connection = repository.getConnection()) {
+			// top-k sorting only buffers a few solutions
+			assertThat(evaluate(connection, "SELECT * WHERE { ?s ?p ?o } ORDER BY ?o LIMIT 5")).hasSize(5);
+			assertThat(evaluate(connection, "SELECT (COUNT(*) AS ?c) WHERE { ?s ?p ?o }")).hasSize(1);
+
+			assertThatThrownBy(() -> evaluate(connection, "SELECT * WHERE { ?s ?p ?o } ORDER BY ?o"))
+					.isInstanceOf(QueryResourceLimitException.class);
+			assertThatThrownBy(() -> evaluate(connection, "SELECT DISTINCT ?o WHERE { ?s ?p ?o }"))
+					.isInstanceOf(QueryResourceLimitException.class);
+			assertThatThrownBy(() -> evaluate(connection, "SELECT ?s (COUNT(*) AS ?c) WHERE { ?s ?p ?o } GROUP BY ?s"))
+					.isInstanceOf(QueryResourceLimitException.class);
+		}
+	}
+
+	@Test
+	public void testMaxCpuTimeWithoutResults() {
+		store.setDefaultQueryResourceLimits(QueryResourceLimits.UNLIMITED.withMaxCpuTime(Duration.ofMillis(1)));
+
+		try (RepositoryConnection connection = repository.getConnection()) {
+			// the join compares a million pairs of solutions, and the filter discards all of them
+			assertThatThrownBy(() -> evaluate(connection,
+					"SELECT * WHERE { ?s1 ?p ?o1 . ?s2 ?p ?o2 FILTER(str(?o1) = str(?o2) && ?s1 != ?s2) }"))
+					.isInstanceOf(QueryResourceLimitException.class);
+		}
+	}
+
+	@Test
+	public void testTransactionSettingOverridesDefault() {
+		store.setDefaultQueryResourceLimits(QueryResourceLimits.UNLIMITED.withMaxRows(10));
+
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.begin(QueryResourceLimits.UNLIMITED);
+			assertThat(evaluate(connection, "SELECT * WHERE { ?s ?p ?o }")).hasSize(1000);
+			connection.commit();
+
+			connection.begin();
+			assertThatThrownBy(() -> evaluate(connection, "SELECT * WHERE { ?s ?p ?o }"))
+					.isInstanceOf(QueryResourceLimitException.class);
+			connection.rollback();
+		}
+	}
+
+	private static List<BindingSet> evaluate(RepositoryConnection connection, String query) {
+		return QueryResults.asList(connection.prepareTupleQuery(query).evaluate());
+	}
+}
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.memory.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.sail.SailConflictException;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the commit of a {@link IsolationLevels#SERIALIZABLE} transaction that has read many statements while a
+ * concurrent transaction changed many other statements. Every read is checked against every concurrent change. With
+ * {@link #conflict}, the concurrent transaction also changes the last statement that was read, so the commit fails.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 5)
+@BenchmarkMode({ Mode.AverageTime })
+@Fork(value = 1, jvmArgs = { "-Xms1G", "-Xmx1G" })
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializableReadSetBenchmark {
+
+	private static final String NS = "http://rdf.example.org/";
+
+	@Param({ "5000" })
+	public int reads;
+
+	@Param({ "5000" })
+	public int changes;
+
+	@Param({ "false", "true" })
+	public boolean conflict;
+
+	private MemoryStore store;
+
+	private SailConnection reader;
+
+	private ValueFactory vf;
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include("SerializableReadSetBenchmark") // adapt to run other benchmark tests
+				.forks(1)
+				.build();
+
+		new Runner(opt).run();
+	}
+
+	@Setup(Level.Invocation)
+	public void beforeInvocation() {
+		store = new MemoryStore();
+		store.init();
+		vf = store.getValueFactory();
+
+		reader = store.getConnection();
+		reader.begin(IsolationLevels.SERIALIZABLE);
+		for (int i = 0; i < reads; i++) {
+			reader.hasStatement(vf.createIRI(NS, "reader" + i), FOAF.KNOWS, null, false);
+		}
+		reader.addStatement(vf.createIRI(NS, "reader"), FOAF.KNOWS, vf.createIRI(NS, "writer"));
+
+		try (SailConnection writer = store.getConnection()) {
+			writer.begin(IsolationLevels.SERIALIZABLE);
+			for (int i = 0; i < changes; i++) {
+				writer.addStatement(vf.createIRI(NS, "writer" + i), FOAF.KNOWS, vf.createIRI(NS, "writer" + (i + 1)));
+			}
+			if (conflict) {
+				// the last statement that was read changes
+				writer.addStatement(vf.createIRI(NS, "reader" + (reads - 1)), FOAF.KNOWS, vf.createIRI(NS, "writer"));
+			}
+			writer.commit();
+		}
+	}
+
+	@TearDown(Level.Invocation)
+	public void afterInvocation() {
+		try {
+			if (reader.isActive()) {
+				reader.rollback();
+			}
+			reader.close();
+		} finally {
+			store.shutDown();
+		}
+	}
+
+	@Benchmark
+	public boolean commit() {
+		try {
+			reader.commit();
+		} catch (SailConflictException e) {
+			return false;
+		}
+		return true;
+	}
+}
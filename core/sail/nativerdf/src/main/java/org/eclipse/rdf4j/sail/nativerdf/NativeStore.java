@@ -128,6 +128,12 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 
 	private volatile int namespaceIDCacheSize = ValueStore.NAMESPACE_ID_CACHE_SIZE;
 
+	/**
+	 * Flag indicating whether commits should be written to disk while transactions are reading. By default, this
+	 * feature is disabled.
+	 */
+	private volatile boolean flushWhileReading = false;
+
 	private SailStore store;
 
 	// used to decide if store is writable, is true if the store was writable during initialization
@@ -248,6 +254,19 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	/**
+	 * Specifies whether commits should be written to disk while other transactions are reading, must be called before
+	 * initialization. Open transactions then keep their view by recording what each write changed, instead of holding
+	 * all later commits in memory until they end. By default, this feature is disabled.
+	 */
+	public void setFlushWhileReading(boolean flushWhileReading) {
+		this.flushWhileReading = flushWhileReading;
+	}
+
+	public boolean getFlushWhileReading() {
+		return flushWhileReading;
+	}
+
 	/**
 	 * @return Returns the {@link EvaluationStrategy}.
 	 */
@@ -341,7 +360,9 @@ public class NativeStore extends AbstractNotifyingSail implements FederatedServi
 			}
 			final NativeSailStore mainStore = new NativeSailStore(dataDir, tripleIndexes, forceSync, valueCacheSize,
 					valueIDCacheSize, namespaceCacheSize, namespaceIDCacheSize);
-			this.store = new SnapshotSailStore(mainStore, () -> new MemoryOverflowIntoNativeStore()) {
+			// datasets of the NativeSailStore read its committed state, so commits can be flushed while they are open
+			this.store = new SnapshotSailStore(mainStore, () -> new MemoryOverflowIntoNativeStore(),
+					flushWhileReading) {
 
 				@Override
 				public SailSource getExplicitSailSource() {
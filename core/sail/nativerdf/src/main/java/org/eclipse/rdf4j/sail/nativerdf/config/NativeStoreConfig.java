@@ -11,6 +11,7 @@
 package org.eclipse.rdf4j.sail.nativerdf.config;
 
 import static org.eclipse.rdf4j.model.util.Values.literal;
+import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.FLUSH_WHILE_READING;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.FORCE_SYNC;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_CACHE_SIZE;
 import static org.eclipse.rdf4j.sail.nativerdf.config.NativeStoreSchema.NAMESPACE_ID_CACHE_SIZE;
@@ -40,6 +41,7 @@ public class NativeStoreConfig extends BaseSailConfig {
 	private int valueIDCacheSize = -1;
 	private int namespaceCacheSize = -1;
 	private int namespaceIDCacheSize = -1;
+	private boolean flushWhileReading = false;
 
 	public NativeStoreConfig() {
 		super(NativeStoreFactory.SAIL_TYPE);
@@ -107,6 +109,14 @@ public class NativeStoreConfig extends BaseSailConfig {
 		this.namespaceIDCacheSize = namespaceIDCacheSize;
 	}
 
+	public boolean getFlushWhileReading() {
+		return flushWhileReading;
+	}
+
+	public void setFlushWhileReading(boolean flushWhileReading) {
+		this.flushWhileReading = flushWhileReading;
+	}
+
 	@Override
 	public Resource export(Model m) {
 		Resource implNode = super.export(m);
@@ -154,6 +164,13 @@ public class NativeStoreConfig extends BaseSailConfig {
 				m.add(implNode, NAMESPACE_ID_CACHE_SIZE, literal(namespaceIDCacheSize));
 			}
 		}
+		if (flushWhileReading) {
+			if (USE_CONFIG) {
+				m.add(implNode, CONFIG.Native.flushWhileReading, literal(flushWhileReading));
+			} else {
+				m.add(implNode, FLUSH_WHILE_READING, literal(flushWhileReading));
+			}
+		}
 
 		return implNode;
 	}
@@ -221,6 +238,17 @@ public class NativeStoreConfig extends BaseSailConfig {
 											+ " property, found " + lit);
 						}
 					});
+
+			Configurations.getLiteralValue(m, implNode, CONFIG.Native.flushWhileReading, FLUSH_WHILE_READING)
+					.ifPresent(lit -> {
+						try {
+							setFlushWhileReading(lit.booleanValue());
+						} catch (IllegalArgumentException e) {
+							throw new SailConfigException(
+									"Boolean value required for " + CONFIG.Native.flushWhileReading
+											+ " property, found " + lit);
+						}
+					});
 		} catch (ModelException e) {
 			throw new SailConfigException(e.getMessage(), e);
 		}
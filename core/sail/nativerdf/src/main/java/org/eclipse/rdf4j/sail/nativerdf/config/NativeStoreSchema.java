@@ -73,6 +73,13 @@ public class NativeStoreSchema {
 	 */
 	public final static IRI NAMESPACE_ID_CACHE_SIZE;
 
+	/**
+	 * <var>http://www.openrdf.org/config/sail/native#flushWhileReading</var>
+	 *
+	 * @deprecated use {@link CONFIG.Native#flushWhileReading} instead.
+	 */
+	public final static IRI FLUSH_WHILE_READING;
+
 	static {
 		ValueFactory factory = SimpleValueFactory.getInstance();
 		TRIPLE_INDEXES = factory.createIRI(NAMESPACE, "tripleIndexes");
@@ -81,5 +88,6 @@ public class NativeStoreSchema {
 		VALUE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "valueIDCacheSize");
 		NAMESPACE_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceCacheSize");
 		NAMESPACE_ID_CACHE_SIZE = factory.createIRI(NAMESPACE, "namespaceIDCacheSize");
+		FLUSH_WHILE_READING = factory.createIRI(NAMESPACE, "flushWhileReading");
 	}
 }
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.transaction.QueryResourceLimits;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResourceLimitException;
+import org.eclipse.rdf4j.query.QueryResults;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Tests that DISTINCT reports its memory to the query resource limits, whether the solutions are kept in memory or in
+ * the disk based sets of the store.
+ */
+public class NativeQueryResourceLimitsTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@TempDir
+	File dataDir;
+
+	@ParameterizedTest
+	@ValueSource(longs = { 0, 100_000 })
+	public void testDistinctMaxBufferedBytes(long iterationCacheSyncThreshold) {
+		NativeStore store = new NativeStore(dataDir);
+		store.setIterationCacheSyncThreshold(iterationCacheSyncThreshold);
+		store.setDefaultQueryResourceLimits(QueryResourceLimits.UNLIMITED.withMaxBufferedBytes(10_000));
+		SailRepository repository = new SailRepository(store);
+		try (RepositoryConnection connection = repository.getConnection()) {
+			IRI p = vf.createIRI("urn:p");
+			for (int i = 0; i < 1000; i++) {
+				connection.add(vf.createIRI("urn:s" + i), p, vf.createLiteral("value " + i));
+			}
+			assertThatThrownBy(() -> evaluate(connection, "SELECT DISTINCT ?o WHERE { ?s ?p ?o }"))
+					.isInstanceOf(QueryResourceLimitException.class);
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	private static List<BindingSet> evaluate(RepositoryConnection connection, String query) {
+		return QueryResults.asList(connection.prepareTupleQuery(query).evaluate());
+	}
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.nativerdf;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.List;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+import org.eclipse.rdf4j.sail.base.SnapshotSailStore;
+import org.eclipse.rdf4j.sail.inferencer.InferencerConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that open readers of a {@link NativeStore} keep their state while commits are flushed to disk.
+ */
+public class NativeStoreSnapshotReaderTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final IRI CTX = vf.createIRI("urn:ctx");
+
+	private static final Statement S0 = vf.createStatement(vf.createIRI("urn:s0"), RDFS.LABEL, vf.createLiteral("0"));
+
+	private static final Statement S1 = vf.createStatement(vf.createIRI("urn:s1"), RDFS.LABEL, vf.createLiteral("1"),
+			CTX);
+
+	@TempDir
+	File dataDir;
+
+	private SnapshotSailStore store;
+
+	private SailSource backingSource;
+
+	private SailSource branch;
+
+	@BeforeEach
+	public void setUp() throws Exception {
+		NativeSailStore nativeSailStore = new NativeSailStore(dataDir, "spoc,posc");
+		store = new SnapshotSailStore(nativeSailStore, LinkedHashModel::new, true);
+		backingSource = nativeSailStore.getExplicitSailSource();
+		branch = store.getExplicitSailSource();
+		commit(sink -> sink.approve(S0));
+	}
+
+	@AfterEach
+	public void tearDown() {
+		store.close();
+	}
+
+	@Test
+	public void testFlushWhileReaderIsOpen() {
+		try (SailDataset reader = branch.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			assertThat(getStatements(reader)).containsExactly(S0);
+
+			commit(sink -> {
+				sink.deprecate(S0);
+				sink.approve(S1);
+				sink.setNamespace("ex", "urn:ex#");
+			});
+
+			// the commit is on disk, but the reader still observes the state it started with
+			try (SailDataset dataset = backingSource.dataset(IsolationLevels.NONE)) {
+				assertThat(getStatements(dataset)).containsExactly(S1);
+				assertThat(dataset.getNamespace("ex")).isEqualTo("urn:ex#");
+			}
+			assertThat(getStatements(reader)).containsExactly(S0);
+			assertThat(getStatements(reader, CTX)).isEmpty();
+			assertThat(Iterations.asList(reader.getContextIDs())).isEmpty();
+			assertThat(reader.getNamespace("ex")).isNull();
+
+			commit(sink -> {
+				sink.deprecate(S1);
+				sink.approve(S0);
+			});
+			assertThat(getStatements(reader)).containsExactly(S0);
+
+			try (SailDataset dataset = branch.dataset(IsolationLevels.SNAPSHOT_READ)) {
+				assertThat(getStatements(dataset)).containsExactly(S0);
+				assertThat(Iterations.asList(dataset.getNamespaces())).extracting(Namespace::getPrefix)
+						.containsExactly("ex");
+			}
+		}
+	}
+
+	@Test
+	public void testNoFlushWhileReading() {
+		try (SailDataset reader = branch.dataset(IsolationLevels.SNAPSHOT_READ)) {
+			try (CloseableIteration<? extends Statement, SailException> statements = reader.getStatements(null, null,
+					null)) {
+				commit(sink -> sink.approve(S1));
+				assertThat(getStatements(backingSource)).containsExactly(S0);
+				assertThat(statements.next()).isEqualTo(S0);
+				assertThat(statements.hasNext()).isFalse();
+			}
+			assertThat(getStatements(reader)).containsExactly(S0);
+		}
+		// the changes are flushed once the reader is closed
+		assertThat(getStatements(backingSource)).containsExactlyInAnyOrder(S0, S1);
+	}
+
+	@Test
+	public void testSnapshotTransaction(@TempDir File storeDir) {
+		NativeStore sail = new NativeStore(storeDir);
+		sail.setFlushWhileReading(true);
+		SailRepository repository = new SailRepository(sail);
+		try (RepositoryConnection reader = repository.getConnection()) {
+			try (RepositoryConnection connection = repository.getConnection()) {
+				connection.add(S0);
+			}
+			reader.begin(IsolationLevels.SNAPSHOT);
+			assertThat(reader.size()).isEqualTo(1);
+
+			try (RepositoryConnection connection = repository.getConnection()) {
+				connection.begin();
+				connection.remove(S0);
+				connection.add(S1);
+				connection.commit();
+			}
+			assertThat(reader.hasStatement(S0, false)).isTrue();
+			assertThat(reader.hasStatement(S1, false)).isFalse();
+			reader.commit();
+
+			assertThat(reader.hasStatement(S0, false)).isFalse();
+			assertThat(reader.hasStatement(S1, false, CTX)).isTrue();
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void testExplicitlyAddInferredStatement(@TempDir File storeDir) {
+		NativeStore sail = new NativeStore(storeDir);
+		sail.setFlushWhileReading(true);
+		sail.init();
+		try (SailConnection reader = sail.getConnection()) {
+			try (InferencerConnection connection = (InferencerConnection) sail.getConnection()) {
+				connection.begin();
+				connection.addInferredStatement(S0.getSubject(), S0.getPredicate(), S0.getObject());
+				connection.commit();
+			}
+			reader.begin(IsolationLevels.SNAPSHOT);
+			assertThat(reader.hasStatement(S0.getSubject(), S0.getPredicate(), S0.getObject(), true)).isTrue();
+
+			// the statement becomes explicit, but the reader must still see it as inferred
+			try (SailConnection connection = sail.getConnection()) {
+				connection.begin();
+				connection.addStatement(S0.getSubject(), S0.getPredicate(), S0.getObject());
+				connection.commit();
+			}
+			assertThat(reader.hasStatement(S0.getSubject(), S0.getPredicate(), S0.getObject(), true)).isTrue();
+			assertThat(reader.hasStatement(S0.getSubject(), S0.getPredicate(), S0.getObject(), false)).isFalse();
+			reader.commit();
+
+			assertThat(reader.hasStatement(S0.getSubject(), S0.getPredicate(), S0.getObject(), false)).isTrue();
+		} finally {
+			sail.shutDown();
+		}
+	}
+
+	private void commit(Change change) {
+		SailSink sink = branch.sink(IsolationLevels.NONE);
+		try {
+			change.apply(sink);
+			sink.flush();
+		} finally {
+			sink.close();
+		}
+	}
+
+	private static List<Statement> getStatements(SailSource source) {
+		try (SailDataset dataset = source.dataset(IsolationLevels.NONE)) {
+			return getStatements(dataset);
+		}
+	}
+
+	private static List<Statement> getStatements(SailDataset dataset, Resource... contexts) {
+		return Iterations.asList(dataset.getStatements(null, null, null, contexts));
+	}
+
+	private interface Change {
+		void apply(SailSink sink);
+	}
+}
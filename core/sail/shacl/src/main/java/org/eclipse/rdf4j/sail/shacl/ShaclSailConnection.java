@@ -519,8 +519,7 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 			Stream<Callable<ValidationResultIterator>> callableStream = shapes
 					.stream()
-					.flatMap(contextWithShapes -> contextWithShapes.getShapes()
-							.stream()
+					.flatMap(contextWithShapes -> getShapesToValidate(contextWithShapes, validateEntireBaseSail)
 							.map(shape -> new ShapeValidationContainer(
 									shape,
 									() -> shape.generatePlans(connectionsGroup,
@@ -913,6 +912,22 @@ public class ShaclSailConnection extends NotifyingSailConnectionWrapper implemen
 
 	}
 
+	/**
+	 * Shapes that don't depend on any of the predicates or classes changed in this transaction can't produce new
+	 * validation results and are skipped without generating a validation plan.
+	 */
+	private Stream<Shape> getShapesToValidate(ContextWithShapes contextWithShapes, boolean validateEntireBaseSail) {
+		if (validateEntireBaseSail || stats == null) {
+			return contextWithShapes.getShapes().stream();
+		}
+
+		Set<Shape> affectedShapes = contextWithShapes.getDependencyIndex()
+				.getAffectedShapes(stats.getChangedPredicates(), stats.getChangedClasses(),
+						sail.isRdfsSubClassReasoning());
+
+		return contextWithShapes.getShapes().stream().filter(affectedShapes::contains);
+	}
+
 	private boolean isEmpty(List<ContextWithShapes> shapesList) {
 		if (shapesList == null) {
 			return true;
@@ -11,8 +11,14 @@
 
 package org.eclipse.rdf4j.sail.shacl;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 
 /**
  * @apiNote This feature is for internal use only: its existence, signature or behavior may change without warning from
@@ -26,12 +32,45 @@ public class Stats {
 	private boolean hasRemoved;
 	private Boolean emptyIncludingCurrentTransaction;
 
+	// added and removed statements are recorded concurrently, so they are tracked separately
+	private final Set<IRI> addedPredicates = new HashSet<>();
+	private final Set<IRI> removedPredicates = new HashSet<>();
+	private final Set<Resource> addedClasses = new HashSet<>();
+	private final Set<Resource> removedClasses = new HashSet<>();
+
 	public void added(Statement statement) {
 		hasAdded = true;
+		record(statement, addedPredicates, addedClasses);
 	}
 
 	public void removed(Statement statement) {
 		hasRemoved = true;
+		record(statement, removedPredicates, removedClasses);
+	}
+
+	private static void record(Statement statement, Set<IRI> predicates, Set<Resource> classes) {
+		predicates.add(statement.getPredicate());
+		if (statement.getPredicate().equals(RDF.TYPE) && statement.getObject().isResource()) {
+			classes.add((Resource) statement.getObject());
+		}
+	}
+
+	/**
+	 * @return the predicates of all statements added or removed in this transaction
+	 */
+	public Set<IRI> getChangedPredicates() {
+		Set<IRI> changed = new HashSet<>(addedPredicates);
+		changed.addAll(removedPredicates);
+		return changed;
+	}
+
+	/**
+	 * @return the objects of all rdf:type statements added or removed in this transaction
+	 */
+	public Set<Resource> getChangedClasses() {
+		Set<Resource> changed = new HashSet<>(addedClasses);
+		changed.addAll(removedClasses);
+		return changed;
 	}
 
 	/**
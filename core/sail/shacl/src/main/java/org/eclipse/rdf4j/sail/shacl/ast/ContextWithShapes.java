@@ -25,6 +25,7 @@ public class ContextWithShapes {
 	private final Resource[] dataGraph;
 	private final Resource[] shapeGraph;
 	private final List<Shape> shapes;
+	private volatile ShapeDependencyIndex dependencyIndex;
 
 	public ContextWithShapes(Resource[] dataGraph, Resource[] shapeGraph, List<Shape> shapes) {
 		this.shapeGraph = shapeGraph;
@@ -40,6 +41,19 @@ public class ContextWithShapes {
 		return shapes;
 	}
 
+	/**
+	 * @return an index from predicates and classes to the shapes in this context that depend on them, built on first
+	 *         use
+	 */
+	public ShapeDependencyIndex getDependencyIndex() {
+		ShapeDependencyIndex dependencyIndex = this.dependencyIndex;
+		if (dependencyIndex == null) {
+			dependencyIndex = new ShapeDependencyIndex(shapes);
+			this.dependencyIndex = dependencyIndex;
+		}
+		return dependencyIndex;
+	}
+
 	public Resource[] getDataGraph() {
 		return dataGraph;
 	}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl.ast;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+
+/**
+ * Collects the data a shape depends on, i.e. the predicates of all statements that are read when the shape is
+ * validated. A change to a statement with any other predicate can not change the validation result of the shape.
+ * <p>
+ * Statements with the predicate rdf:type can be narrowed down further to the classes that are relevant. Parts of a
+ * shape that can read arbitrary statements (e.g. SPARQL-based constraints and targets, or sh:closed) mark the shape as
+ * depending on any predicate.
+ *
+ * @apiNote This feature is for internal use only: its existence, signature or behavior may change without warning from
+ *          one release to the next.
+ * @see ShapeDependencyIndex
+ */
+@InternalUseOnly
+public class DependencyCollector {
+
+	private final Set<IRI> predicates = new HashSet<>();
+	private final Set<Resource> classes = new HashSet<>();
+	private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+	private boolean anyPredicate;
+
+	/**
+	 * The shape depends on statements with this predicate.
+	 */
+	public void addPredicate(IRI predicate) {
+		predicates.add(predicate);
+	}
+
+	/**
+	 * The shape depends on rdf:type statements with this class as object.
+	 */
+	public void addClass(Resource clazz) {
+		classes.add(clazz);
+	}
+
+	/**
+	 * The shape may depend on statements with any predicate.
+	 */
+	public void addAnyPredicate() {
+		anyPredicate = true;
+	}
+
+	/**
+	 * Used for cycle detection in recursive shapes.
+	 *
+	 * @return true if the element has not been visited before
+	 */
+	public boolean visit(Object element) {
+		return visited.add(element);
+	}
+
+	public Set<IRI> getPredicates() {
+		return predicates;
+	}
+
+	public Set<Resource> getClasses() {
+		return classes;
+	}
+
+	public boolean isAnyPredicate() {
+		return anyPredicate;
+	}
+}
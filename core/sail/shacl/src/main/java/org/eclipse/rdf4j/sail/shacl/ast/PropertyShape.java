@@ -307,4 +307,9 @@ public class PropertyShape extends Shape {
 		return SourceConstraintComponent.PropertyConstraintComponent;
 	}
 
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		super.collectDependencies(collector);
+		getPath().collectDependencies(collector);
+	}
 }
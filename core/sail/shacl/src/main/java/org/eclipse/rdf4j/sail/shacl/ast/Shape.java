@@ -714,4 +714,17 @@ abstract public class Shape implements ConstraintComponent, Identifiable {
 		}
 
 	}
+
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		if (!collector.visit(this)) {
+			return;
+		}
+		for (Target t : target) {
+			t.collectDependencies(collector);
+		}
+		for (ConstraintComponent constraintComponent : constraintComponents) {
+			constraintComponent.collectDependencies(collector);
+		}
+	}
 }
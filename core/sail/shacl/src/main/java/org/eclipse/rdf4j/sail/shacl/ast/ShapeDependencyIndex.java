@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl.ast;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.rdf4j.common.annotation.InternalUseOnly;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+
+/**
+ * Maps predicates and classes to the shapes that depend on them, see {@link DependencyCollector}. Used to skip planning
+ * and validating shapes that can not be affected by the statements added or removed in a transaction.
+ *
+ * @apiNote This feature is for internal use only: its existence, signature or behavior may change without warning from
+ *          one release to the next.
+ */
+@InternalUseOnly
+public class ShapeDependencyIndex {
+
+	private final List<Shape> shapes;
+	private final Map<IRI, List<Shape>> shapesByPredicate = new HashMap<>();
+	private final Map<Resource, List<Shape>> shapesByClass = new HashMap<>();
+	private final List<Shape> shapesWithClassDependencies = new ArrayList<>();
+	private final List<Shape> shapesDependingOnAnyPredicate = new ArrayList<>();
+
+	public ShapeDependencyIndex(List<Shape> shapes) {
+		this.shapes = shapes;
+		for (Shape shape : shapes) {
+			DependencyCollector collector = new DependencyCollector();
+			shape.collectDependencies(collector);
+
+			if (collector.isAnyPredicate()) {
+				shapesDependingOnAnyPredicate.add(shape);
+				continue;
+			}
+			for (IRI predicate : collector.getPredicates()) {
+				shapesByPredicate.computeIfAbsent(predicate, k -> new ArrayList<>()).add(shape);
+			}
+			for (Resource clazz : collector.getClasses()) {
+				shapesByClass.computeIfAbsent(clazz, k -> new ArrayList<>()).add(shape);
+			}
+			if (!collector.getClasses().isEmpty()) {
+				shapesWithClassDependencies.add(shape);
+			}
+		}
+	}
+
+	/**
+	 * @param changedPredicates     the predicates of all statements added or removed in the transaction
+	 * @param changedClasses        the objects of all rdf:type statements added or removed in the transaction
+	 * @param rdfsSubClassReasoning if rdfs:subClassOf reasoning is enabled, in which case a change to the type of a
+	 *                              resource can affect shapes that depend on any of its superclasses
+	 * @return the shapes that may be affected by the changes, each shape at most once
+	 */
+	public Set<Shape> getAffectedShapes(Set<IRI> changedPredicates, Set<Resource> changedClasses,
+			boolean rdfsSubClassReasoning) {
+		Set<Shape> affected = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		if (rdfsSubClassReasoning && changedPredicates.contains(RDFS.SUBCLASSOF)) {
+			affected.addAll(shapes);
+			return affected;
+		}
+
+		affected.addAll(shapesDependingOnAnyPredicate);
+		for (IRI predicate : changedPredicates) {
+			List<Shape> dependent = shapesByPredicate.get(predicate);
+			if (dependent != null) {
+				affected.addAll(dependent);
+			}
+		}
+
+		if (changedPredicates.contains(RDF.TYPE)) {
+			if (rdfsSubClassReasoning) {
+				affected.addAll(shapesWithClassDependencies);
+			} else {
+				for (Resource clazz : changedClasses) {
+					List<Shape> dependent = shapesByClass.get(clazz);
+					if (dependent != null) {
+						affected.addAll(dependent);
+					}
+				}
+			}
+		}
+
+		return affected;
+	}
+}
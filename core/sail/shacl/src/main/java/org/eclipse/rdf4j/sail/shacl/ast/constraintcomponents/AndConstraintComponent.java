@@ -24,6 +24,7 @@ import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.ValidationSettings;
 import org.eclipse.rdf4j.sail.shacl.ast.Cache;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.NodeShape;
 import org.eclipse.rdf4j.sail.shacl.ast.PropertyShape;
 import org.eclipse.rdf4j.sail.shacl.ast.ShaclAstLists;
@@ -174,4 +175,10 @@ public class AndConstraintComponent extends LogicalOperatorConstraintComponent {
 		return List.of();
 	}
 
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		for (Shape shape : and) {
+			shape.collectDependencies(collector);
+		}
+	}
 }
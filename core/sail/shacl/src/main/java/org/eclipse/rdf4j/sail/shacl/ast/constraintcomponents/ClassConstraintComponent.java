@@ -23,6 +23,7 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.ValidationSettings;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher.Variable;
@@ -362,4 +363,9 @@ public class ClassConstraintComponent extends AbstractConstraintComponent {
 	public List<Literal> getDefaultMessage() {
 		return List.of();
 	}
+
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		collector.addClass(clazz);
+	}
 }
@@ -18,6 +18,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.ValidationSettings;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.Exportable;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
@@ -78,4 +79,13 @@ public interface ConstraintComponent extends Exportable, TargetChainInterface {
 		nodeShape,
 		propertyShape
 	}
+
+	/**
+	 * Adds the predicates and classes that the outcome of this constraint component depends on to the collector. The
+	 * collected dependencies are used to skip validation of shapes that cannot be affected by a transaction, so an
+	 * implementation must never leave out a dependency. The default is to depend on any predicate.
+	 */
+	default void collectDependencies(DependencyCollector collector) {
+		collector.addAnyPredicate();
+	}
 }
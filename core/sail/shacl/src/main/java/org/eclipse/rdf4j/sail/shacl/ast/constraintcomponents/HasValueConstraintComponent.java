@@ -24,6 +24,7 @@ import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
 import org.eclipse.rdf4j.sail.shacl.ValidationSettings;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher.Variable;
@@ -226,4 +227,9 @@ public class HasValueConstraintComponent extends AbstractConstraintComponent {
 	public List<Literal> getDefaultMessage() {
 		return List.of();
 	}
+
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		// only inspects the value nodes
+	}
 }
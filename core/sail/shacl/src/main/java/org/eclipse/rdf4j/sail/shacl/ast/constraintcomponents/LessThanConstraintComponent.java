@@ -20,6 +20,7 @@ import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.shacl.SourceConstraintComponent;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 
 public class LessThanConstraintComponent extends AbstractConstraintComponent {
 
@@ -48,4 +49,9 @@ public class LessThanConstraintComponent extends AbstractConstraintComponent {
 	public List<Literal> getDefaultMessage() {
 		return List.of();
 	}
+
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		collector.addPredicate(predicate);
+	}
 }
@@ -19,6 +19,7 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.Exportable;
 import org.eclipse.rdf4j.sail.shacl.ast.Identifiable;
 import org.eclipse.rdf4j.sail.shacl.ast.ShaclUnsupportedException;
@@ -108,4 +109,10 @@ public abstract class Path implements Identifiable, Exportable, Targetable {
 		return Set.of();
 	}
 
+	/**
+	 * Adds the predicates traversed by this path to the collector.
+	 */
+	public void collectDependencies(DependencyCollector collector) {
+		collector.addAnyPredicate();
+	}
 }
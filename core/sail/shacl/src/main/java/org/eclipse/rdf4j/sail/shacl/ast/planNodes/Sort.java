@@ -11,25 +11,58 @@
 
 package org.eclipse.rdf4j.sail.shacl.ast.planNodes;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
 
 import org.apache.commons.text.StringEscapeUtils;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.sail.SailException;
-
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sorts the tuples of the parent by their active target. Up to a threshold the tuples are sorted in memory. Beyond it,
+ * sorted runs of tuples are spilled to temporary files and merged while iterating, so that sorting the focus nodes of a
+ * large bulk validation does not need to keep all tuples on the heap. Tuples that carry validation results can not be
+ * spilled and are always kept in memory.
+ */
 public class Sort implements PlanNode {
 
+	private static final Logger logger = LoggerFactory.getLogger(Sort.class);
+
+	/**
+	 * System property for the number of tuples that are sorted in memory before they are spilled to disk. Set to 0 to
+	 * never spill.
+	 */
+	public static final String SPILL_THRESHOLD_PROPERTY = "org.eclipse.rdf4j.sail.shacl.sortSpillThreshold";
+
+	private static final int DEFAULT_SPILL_THRESHOLD = Integer.getInteger(SPILL_THRESHOLD_PROPERTY, 1_000_000);
+
 	private final PlanNode parent;
+	private final int spillThreshold;
 	private boolean printed = false;
 	private ValidationExecutionLogger validationExecutionLogger;
 
 	public Sort(PlanNode parent) {
+		this(parent, DEFAULT_SPILL_THRESHOLD);
+	}
+
+	Sort(PlanNode parent, int spillThreshold) {
 		this.parent = PlanNodeHelper.handleSorting(this, parent);
+		this.spillThreshold = spillThreshold;
 	}
 
 	@Override
@@ -41,6 +74,8 @@ public class Sort implements PlanNode {
 
 			Iterator<ValidationTuple> sortedTuplesIterator;
 
+			List<SpilledRun> spilledRuns;
+
 			protected void init() {
 				assert sortedTuples == null;
 
@@ -50,13 +85,14 @@ public class Sort implements PlanNode {
 					sortedTuples = new ArrayList<>(1);
 					alreadySorted = true;
 					ValidationTuple prev = null;
+					int nextSpill = spillThreshold;
 					while (iterator.hasNext()) {
 						ValidationTuple next = iterator.next();
 						sortedTuples.add(next);
 
 						// quick break out if sortedTuples is guaranteed to be of size 1 since we don't need to sort
 						// it then
-						if (sortedTuples.size() == 1 && !iterator.hasNext()) {
+						if (sortedTuples.size() == 1 && spilledRuns == null && !iterator.hasNext()) {
 							sortedTuplesIterator = sortedTuples.iterator();
 							return;
 						}
@@ -65,23 +101,104 @@ public class Sort implements PlanNode {
 							alreadySorted = false;
 						}
 						prev = next;
+
+						if (spillThreshold > 0 && sortedTuples.size() >= nextSpill) {
+							spill();
+							alreadySorted = sortedTuples.size() <= 1;
+							prev = sortedTuples.isEmpty() ? null : sortedTuples.get(sortedTuples.size() - 1);
+							nextSpill = sortedTuples.size() + spillThreshold;
+						}
 					}
 
 					assert !iterator.hasNext() : "Iterator: " + iterator;
 				}
 
 				if (!alreadySorted && sortedTuples.size() > 1) {
-					if (sortedTuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
-						ValidationTuple[] objects = sortedTuples.toArray(new ValidationTuple[0]);
-						Arrays.parallelSort(objects, ValidationTuple::compareActiveTarget);
-						sortedTuples = Arrays.asList(objects);
+					sortedTuples = sort(sortedTuples);
+				}
+
+				if (spilledRuns == null) {
+					sortedTuplesIterator = sortedTuples.iterator();
+				} else {
+					sortedTuplesIterator = merge();
+				}
+
+			}
+
+			private List<ValidationTuple> sort(List<ValidationTuple> tuples) {
+				if (tuples.size() > 8192) { // MIN_ARRAY_SORT_GRAN in Arrays.parallelSort(...)
+					ValidationTuple[] objects = tuples.toArray(new ValidationTuple[0]);
+					Arrays.parallelSort(objects, ValidationTuple::compareActiveTarget);
+					return Arrays.asList(objects);
+				} else {
+					tuples.sort(ValidationTuple::compareActiveTarget);
+					return tuples;
+				}
+			}
+
+			/**
+			 * Sorts and writes all tuples that can be serialized to a temporary file. Tuples that can't be serialized
+			 * stay in memory.
+			 */
+			private void spill() {
+				List<ValidationTuple> toSpill = new ArrayList<>(sortedTuples.size());
+				List<ValidationTuple> toKeep = new ArrayList<>();
+				for (ValidationTuple tuple : sortedTuples) {
+					if (ValidationTupleSerializer.isSerializable(tuple)) {
+						toSpill.add(tuple);
 					} else {
-						sortedTuples.sort(ValidationTuple::compareActiveTarget);
+						toKeep.add(tuple);
+					}
+				}
+				if (toSpill.isEmpty()) {
+					return;
+				}
+
+				toSpill = sort(toSpill);
+				if (spilledRuns == null) {
+					spilledRuns = new ArrayList<>();
+				}
+				SpilledRun run = new SpilledRun();
+				spilledRuns.add(run);
+				run.write(toSpill);
+				logger.debug("Spilled {} tuples to {}", toSpill.size(), run.file);
+
+				sortedTuples = toKeep;
+			}
+
+			private Iterator<ValidationTuple> merge() {
+				PriorityQueue<RunCursor> cursors = new PriorityQueue<>();
+				int index = 0;
+				for (SpilledRun run : spilledRuns) {
+					RunCursor cursor = new RunCursor(run.read(), index++);
+					if (cursor.advance()) {
+						cursors.add(cursor);
 					}
 				}
+				RunCursor inMemory = new RunCursor(sortedTuples.iterator(), index);
+				if (inMemory.advance()) {
+					cursors.add(inMemory);
+				}
 
-				sortedTuplesIterator = sortedTuples.iterator();
+				return new Iterator<>() {
+					@Override
+					public boolean hasNext() {
+						return !cursors.isEmpty();
+					}
 
+					@Override
+					public ValidationTuple next() {
+						RunCursor cursor = cursors.poll();
+						if (cursor == null) {
+							throw new NoSuchElementException();
+						}
+						ValidationTuple next = cursor.head;
+						if (cursor.advance()) {
+							cursors.add(cursor);
+						}
+						return next;
+					}
+				};
 			}
 
 			@Override
@@ -98,12 +215,115 @@ public class Sort implements PlanNode {
 			public void localClose() {
 				sortedTuplesIterator = Collections.emptyIterator();
 				sortedTuples = null;
+				if (spilledRuns != null) {
+					spilledRuns.forEach(SpilledRun::delete);
+					spilledRuns = null;
+				}
 			}
 
 		};
 
 	}
 
+	/**
+	 * A sorted run of tuples in a temporary file.
+	 */
+	private static class SpilledRun {
+
+		private Path file;
+		private DataInputStream in;
+		private int size;
+
+		void write(List<ValidationTuple> tuples) {
+			try {
+				file = Files.createTempFile("rdf4j-shacl-sort-", ".bin");
+				try (DataOutputStream out = new DataOutputStream(
+						new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+					for (ValidationTuple tuple : tuples) {
+						ValidationTupleSerializer.write(tuple, out);
+					}
+				}
+				size = tuples.size();
+			} catch (IOException e) {
+				delete();
+				throw new SailException("Could not spill sorted tuples to disk", e);
+			}
+		}
+
+		Iterator<ValidationTuple> read() {
+			try {
+				in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+			} catch (IOException e) {
+				throw new SailException(e);
+			}
+
+			return new Iterator<>() {
+				int read = 0;
+
+				@Override
+				public boolean hasNext() {
+					return read < size;
+				}
+
+				@Override
+				public ValidationTuple next() {
+					if (read >= size) {
+						throw new NoSuchElementException();
+					}
+					try {
+						read++;
+						ValidationTuple tuple = ValidationTupleSerializer.read(in);
+						if (read == size) {
+							in.close();
+						}
+						return tuple;
+					} catch (IOException e) {
+						throw new SailException(e);
+					}
+				}
+			};
+		}
+
+		void delete() {
+			try {
+				if (in != null) {
+					in.close();
+				}
+				if (file != null) {
+					Files.deleteIfExists(file);
+				}
+			} catch (IOException e) {
+				logger.warn("Could not delete temporary file {}", file, e);
+			}
+		}
+	}
+
+	private static class RunCursor implements Comparable<RunCursor> {
+
+		private final Iterator<ValidationTuple> iterator;
+		private final int index;
+		private ValidationTuple head;
+
+		RunCursor(Iterator<ValidationTuple> iterator, int index) {
+			this.iterator = iterator;
+			this.index = index;
+		}
+
+		boolean advance() {
+			head = iterator.hasNext() ? iterator.next() : null;
+			return head != null;
+		}
+
+		@Override
+		public int compareTo(RunCursor o) {
+			int compare = head.compareActiveTarget(o.head);
+			if (compare != 0) {
+				return compare;
+			}
+			return Integer.compare(index, o.index);
+		}
+	}
+
 	@Override
 	public int depth() {
 		return parent.depth() + 1;
@@ -479,6 +479,13 @@ public class ValidationTuple {
 		return validationTuple;
 	}
 
+	/**
+	 * @return true if this is a property shape scoped tuple where the last element of the chain is the value
+	 */
+	boolean isPropertyShapeScopeWithValue() {
+		return propertyShapeScopeWithValue;
+	}
+
 	public Resource[] getContexts() {
 		return contexts;
 	}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl.ast.planNodes;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
+
+/**
+ * Writes and reads {@link ValidationTuple}s in a compact binary form so that they can be spilled to disk. Only tuples
+ * without validation results and compressed tuples can be serialized, see {@link #isSerializable(ValidationTuple)}.
+ * Values are read back as simple values, which are equal to the values they were created from.
+ */
+final class ValidationTupleSerializer {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	private static final byte NULL = 0;
+	private static final byte IRI_VALUE = 1;
+	private static final byte BNODE_VALUE = 2;
+	private static final byte LITERAL_VALUE = 3;
+	private static final byte LANG_LITERAL_VALUE = 4;
+	private static final byte TRIPLE_VALUE = 5;
+
+	private static final ConstraintComponent.Scope[] scopes = ConstraintComponent.Scope.values();
+
+	private ValidationTupleSerializer() {
+	}
+
+	static boolean isSerializable(ValidationTuple tuple) {
+		return tuple.getValidationResult().isEmpty() && tuple.getCompressedTuples().isEmpty();
+	}
+
+	static void write(ValidationTuple tuple, DataOutput out) throws IOException {
+		assert isSerializable(tuple);
+
+		List<Value> chain = tuple.getTargetChain(true);
+		out.writeInt(chain.size());
+		for (Value value : chain) {
+			writeValue(value, out);
+		}
+
+		ConstraintComponent.Scope scope = tuple.getScope();
+		out.writeByte(scope == null ? -1 : scope.ordinal());
+		out.writeBoolean(tuple.isPropertyShapeScopeWithValue());
+
+		Resource[] contexts = tuple.getContexts();
+		if (contexts == null) {
+			out.writeInt(-1);
+		} else {
+			out.writeInt(contexts.length);
+			for (Resource context : contexts) {
+				writeValue(context, out);
+			}
+		}
+	}
+
+	static ValidationTuple read(DataInput in) throws IOException {
+		Value[] chain = new Value[in.readInt()];
+		for (int i = 0; i < chain.length; i++) {
+			chain[i] = readValue(in);
+		}
+
+		byte scopeOrdinal = in.readByte();
+		ConstraintComponent.Scope scope = scopeOrdinal < 0 ? null : scopes[scopeOrdinal];
+		boolean propertyShapeScopeWithValue = in.readBoolean();
+
+		int contextsLength = in.readInt();
+		Resource[] contexts = null;
+		if (contextsLength >= 0) {
+			contexts = new Resource[contextsLength];
+			for (int i = 0; i < contextsLength; i++) {
+				contexts[i] = (Resource) readValue(in);
+			}
+		}
+
+		return new ValidationTuple(chain, scope, propertyShapeScopeWithValue, contexts);
+	}
+
+	private static void writeValue(Value value, DataOutput out) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value.isIRI()) {
+			out.writeByte(IRI_VALUE);
+			writeString(value.stringValue(), out);
+		} else if (value.isBNode()) {
+			out.writeByte(BNODE_VALUE);
+			writeString(((BNode) value).getID(), out);
+		} else if (value.isLiteral()) {
+			Literal literal = (Literal) value;
+			if (literal.getLanguage().isPresent()) {
+				out.writeByte(LANG_LITERAL_VALUE);
+				writeString(literal.getLabel(), out);
+				writeString(literal.getLanguage().get(), out);
+			} else {
+				out.writeByte(LITERAL_VALUE);
+				writeString(literal.getLabel(), out);
+				writeString(literal.getDatatype().stringValue(), out);
+			}
+		} else if (value.isTriple()) {
+			Triple triple = (Triple) value;
+			out.writeByte(TRIPLE_VALUE);
+			writeValue(triple.getSubject(), out);
+			writeValue(triple.getPredicate(), out);
+			writeValue(triple.getObject(), out);
+		} else {
+			throw new IllegalArgumentException("Unsupported value type: " + value.getClass().getName());
+		}
+	}
+
+	private static Value readValue(DataInput in) throws IOException {
+		byte type = in.readByte();
+		switch (type) {
+		case NULL:
+			return null;
+		case IRI_VALUE:
+			return vf.createIRI(readString(in));
+		case BNODE_VALUE:
+			return vf.createBNode(readString(in));
+		case LITERAL_VALUE:
+			String label = readString(in);
+			return vf.createLiteral(label, vf.createIRI(readString(in)));
+		case LANG_LITERAL_VALUE:
+			String langLabel = readString(in);
+			return vf.createLiteral(langLabel, readString(in));
+		case TRIPLE_VALUE:
+			Resource subject = (Resource) readValue(in);
+			IRI predicate = (IRI) readValue(in);
+			Value object = readValue(in);
+			return vf.createTriple(subject, predicate, object);
+		default:
+			throw new IOException("Unknown value type: " + type);
+		}
+	}
+
+	// DataOutput.writeUTF(...) is limited to 64KB, which is not enough for large literals
+	private static void writeString(String string, DataOutput out) throws IOException {
+		byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(DataInput in) throws IOException {
+		byte[] bytes = new byte[in.readInt()];
+		in.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -13,6 +13,7 @@ package org.eclipse.rdf4j.sail.shacl.ast.targets;
 
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.Exportable;
 import org.eclipse.rdf4j.sail.shacl.ast.Targetable;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
@@ -29,4 +30,12 @@ public abstract class Target implements Exportable, Targetable {
 	public abstract PlanNode getTargetFilter(ConnectionsGroup connectionsGroup, Resource[] dataGraph,
 			PlanNode parent);
 
+	/**
+	 * Adds the data that determines the focus nodes of this target to the collector. Targets whose focus nodes are
+	 * validated when they appear in any changed statement, such as sh:targetNode and rsx:targetShape, depend on any
+	 * predicate.
+	 */
+	public void collectDependencies(DependencyCollector collector) {
+		collector.addAnyPredicate();
+	}
 }
@@ -24,6 +24,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
@@ -214,4 +215,10 @@ public class TargetClass extends Target {
 		return Objects.hash(targetClass);
 	}
 
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		for (Resource clazz : targetClass) {
+			collector.addClass(clazz);
+		}
+	}
 }
@@ -22,6 +22,7 @@ import org.eclipse.rdf4j.model.Namespace;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.vocabulary.SHACL;
 import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.shacl.ast.DependencyCollector;
 import org.eclipse.rdf4j.sail.shacl.ast.SparqlFragment;
 import org.eclipse.rdf4j.sail.shacl.ast.StatementMatcher;
 import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
@@ -146,4 +147,11 @@ public class TargetSubjectsOf extends Target {
 	public int hashCode() {
 		return Objects.hash(targetSubjectsOf);
 	}
+
+	@Override
+	public void collectDependencies(DependencyCollector collector) {
+		for (IRI predicate : targetSubjectsOf) {
+			collector.addPredicate(predicate);
+		}
+	}
 }
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.sail.shacl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.shacl.ast.ContextWithShapes;
+import org.eclipse.rdf4j.sail.shacl.ast.Shape;
+import org.eclipse.rdf4j.sail.shacl.ast.ShapeDependencyIndex;
+import org.junit.jupiter.api.Test;
+
+public class ShapeDependencyIndexTest {
+
+	private static final IRI SHAPE_1 = Utils.Ex.createIri("shape1");
+	private static final IRI SHAPE_2 = Utils.Ex.createIri("shape2");
+	private static final IRI OTHER_PERSON = Utils.Ex.createIri("OtherPerson");
+
+	@Test
+	public void testAffectedShapes() throws IOException, InterruptedException {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		try {
+			shaclSail.init();
+			Utils.loadShapeData(shaclSail, "reduceNumberOfPlansTest/shacl.trig");
+
+			List<ContextWithShapes> contexts = shaclSail.getCachedShapes().getDataAndRelease();
+			assertThat(contexts).hasSize(1);
+			ShapeDependencyIndex index = contexts.get(0).getDependencyIndex();
+
+			assertThat(affected(index, Set.of(Utils.Ex.ssn), Set.of(), false)).containsOnly(SHAPE_1);
+			assertThat(affected(index, Set.of(RDFS.LABEL), Set.of(), false)).isEmpty();
+			assertThat(affected(index, Set.of(RDF.TYPE), Set.of(Utils.Ex.Person), false)).containsOnly(SHAPE_1);
+			assertThat(affected(index, Set.of(RDF.TYPE), Set.of(OTHER_PERSON), false)).containsOnly(SHAPE_2);
+			assertThat(affected(index, Set.of(RDF.TYPE), Set.of(RDFS.RESOURCE), false)).isEmpty();
+
+			// with reasoning, any type change may affect a class based target
+			assertThat(affected(index, Set.of(RDF.TYPE), Set.of(RDFS.RESOURCE), true)).containsOnly(SHAPE_1,
+					SHAPE_2);
+			assertThat(affected(index, Set.of(RDFS.SUBCLASSOF), Set.of(), true)).containsOnly(SHAPE_1, SHAPE_2);
+		} finally {
+			shaclSail.shutDown();
+		}
+	}
+
+	@Test
+	public void testValidationOfAffectedShapes() throws IOException {
+		ShaclSail shaclSail = new ShaclSail(new MemoryStore());
+		SailRepository repository = new SailRepository(shaclSail);
+		try {
+			repository.init();
+			Utils.loadShapeData(repository, "reduceNumberOfPlansTest/shacl.trig");
+			ValueFactory vf = repository.getValueFactory();
+			IRI person = Utils.Ex.createIri();
+
+			try (SailRepositoryConnection connection = repository.getConnection()) {
+				connection.add(RDF.TYPE, RDF.TYPE, RDF.PROPERTY);
+
+				connection.begin();
+				connection.add(person, RDF.TYPE, Utils.Ex.Person);
+				connection.add(person, Utils.Ex.ssn, vf.createLiteral("a"));
+				connection.add(person, Utils.Ex.ssn, vf.createLiteral("b"));
+				connection.add(person, Utils.Ex.name, vf.createLiteral("c"));
+				connection.commit();
+
+				// unrelated predicate, no shape is validated
+				connection.begin();
+				connection.add(person, RDFS.LABEL, vf.createLiteral("label"));
+				connection.commit();
+
+				connection.begin();
+				connection.remove(person, Utils.Ex.name, null);
+				assertThrows(RepositoryException.class, connection::commit);
+				connection.rollback();
+
+				connection.begin();
+				connection.add(person, RDF.TYPE, OTHER_PERSON);
+				assertThrows(RepositoryException.class, connection::commit);
+				connection.rollback();
+			}
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	private static List<Resource> affected(ShapeDependencyIndex index, Set<IRI> predicates, Set<Resource> classes,
+			boolean rdfsSubClassReasoning) {
+		return index.getAffectedShapes(predicates, classes, rdfsSubClassReasoning)
+				.stream()
+				.map(Shape::getId)
+				.distinct()
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.sail.shacl.ast.planNodes;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.sail.shacl.ast.constraintcomponents.ConstraintComponent;
+import org.eclipse.rdf4j.sail.shacl.mock.MockConsumePlanNode;
+import org.eclipse.rdf4j.sail.shacl.mock.MockInputPlanNode;
+import org.junit.jupiter.api.Test;
+
+public class SortTest {
+
+	private static final ValueFactory vf = SimpleValueFactory.getInstance();
+
+	@Test
+	public void testInMemory() {
+		List<ValidationTuple> tuples = randomTuples(1000);
+
+		List<ValidationTuple> sorted = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples), 0)).asList();
+
+		assertThat(sorted).isEqualTo(expected(tuples));
+	}
+
+	@Test
+	public void testSpilled() {
+		List<ValidationTuple> tuples = randomTuples(1000);
+
+		List<ValidationTuple> sorted = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples), 64)).asList();
+
+		assertThat(sorted).isEqualTo(expected(tuples));
+	}
+
+	@Test
+	public void testSpilledValuesAreEqual() {
+		Resource[] contexts = { vf.createIRI("http://example.com/graph"), null };
+		List<Value> chain = List.of(
+				vf.createBNode("b1"),
+				vf.createIRI("http://example.com/p"),
+				vf.createLiteral("hello", "en"),
+				vf.createLiteral(42),
+				vf.createTriple(vf.createIRI("http://example.com/s"), RDF.TYPE, vf.createLiteral("x".repeat(70_000))));
+		ValidationTuple tuple = new ValidationTuple(chain, ConstraintComponent.Scope.propertyShape, true, contexts);
+		List<ValidationTuple> tuples = new ArrayList<>(randomTuples(10));
+		tuples.add(tuple);
+
+		List<ValidationTuple> sorted = new MockConsumePlanNode(new Sort(new MockInputPlanNode(tuples), 2)).asList();
+
+		assertThat(sorted).contains(tuple);
+		ValidationTuple read = sorted.get(sorted.indexOf(tuple));
+		assertThat(read.getContexts()).containsExactly(contexts);
+		assertThat(read.getTargetChain(true)).isEqualTo(chain);
+	}
+
+	private static List<ValidationTuple> randomTuples(int size) {
+		Random random = new Random(size);
+		List<ValidationTuple> tuples = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			Value target;
+			switch (random.nextInt(3)) {
+			case 0:
+				target = vf.createIRI("http://example.com/" + random.nextInt(size));
+				break;
+			case 1:
+				target = vf.createBNode("node" + random.nextInt(size));
+				break;
+			default:
+				target = vf.createLiteral(Integer.toString(random.nextInt(size)), XSD.INTEGER);
+			}
+			tuples.add(
+					new ValidationTuple(List.of(target, vf.createLiteral(i)), ConstraintComponent.Scope.propertyShape,
+							true, MockInputPlanNode.CONTEXTS));
+		}
+		return tuples;
+	}
+
+	private static List<ValidationTuple> expected(List<ValidationTuple> tuples) {
+		List<ValidationTuple> expected = new ArrayList<>(tuples);
+		expected.sort(ValidationTuple::compareActiveTarget);
+		return expected;
+	}
+}
@@ -95,6 +95,24 @@ public class ReasoningBenchmark {
 		checkSize(sail);
 	}
 
+	@Benchmark
+	public void forwardChainingSchemaCachingRDFSInferencerParallel() throws IOException {
+		SchemaCachingRDFSInferencer inferencer = new SchemaCachingRDFSInferencer(new MemoryStore());
+		inferencer.setInferenceThreads(Runtime.getRuntime().availableProcessors());
+		SailRepository sail = new SailRepository(inferencer);
+
+		try (SailRepositoryConnection connection = sail.getConnection()) {
+			connection.begin();
+
+			connection.add(resourceAsStream("schema.ttl"), "", RDFFormat.TURTLE);
+			addAllDataSingleTransaction(connection);
+
+			connection.commit();
+		}
+
+		checkSize(sail);
+	}
+
 	private void checkSize(SailRepository sail) {
 
 		assert getSize(sail) == expectedCount : "Was " + getSize(sail) + " but expected " + expectedCount;
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.benchmark.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.rdf4j.http.client.Http2ClientSessionManager;
+import org.eclipse.rdf4j.http.client.HttpClientSessionManager;
+import org.eclipse.rdf4j.http.client.SPARQLProtocolSession;
+import org.eclipse.rdf4j.http.client.SharedHttpClientSessionManager;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for many small concurrent SPARQL queries against a local embedded server that speaks both HTTP/1.1 and
+ * cleartext HTTP/2, comparing the pooled HTTP/1.1 {@link SharedHttpClientSessionManager} with the multiplexing
+ * {@link Http2ClientSessionManager}.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@BenchmarkMode({ Mode.Throughput })
+@Threads(32)
+@Fork(value = 1, jvmArgs = { "-Xms1g", "-Xmx1g" })
+public class SessionManagerBenchmark {
+
+	@Param({
+			"http1",
+			"http2",
+	})
+	public String sessionManager;
+
+	/**
+	 * Simulated evaluation time of each query on the server, in milliseconds.
+	 */
+	@Param({
+			"0",
+			"20",
+	})
+	public int serverDelay;
+
+	private Server server;
+
+	private HttpClientSessionManager manager;
+
+	private SPARQLProtocolSession session;
+
+	@Setup(Level.Trial)
+	public void setup() throws Exception {
+		byte[] result = createResult();
+
+		HttpConfiguration config = new HttpConfiguration();
+		server = new Server();
+		ServerConnector connector = new ServerConnector(server, new HttpConnectionFactory(config),
+				new HTTP2CServerConnectionFactory(config));
+		connector.setPort(0);
+		server.addConnector(connector);
+		server.setHandler(new AbstractHandler() {
+			@Override
+			public void handle(String target, Request baseRequest, HttpServletRequest request,
+					HttpServletResponse response) throws IOException {
+				if (serverDelay > 0) {
+					try {
+						Thread.sleep(serverDelay);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				response.setContentType(TupleQueryResultFormat.SPARQL.getDefaultMIMEType());
+				response.setContentLength(result.length);
+				response.getOutputStream().write(result);
+				baseRequest.setHandled(true);
+			}
+		});
+		server.start();
+
+		manager = "http2".equals(sessionManager) ? new Http2ClientSessionManager()
+				: new SharedHttpClientSessionManager();
+		String endpoint = "http://localhost:" + connector.getLocalPort() + "/sparql";
+		session = manager.createSPARQLProtocolSession(endpoint, endpoint);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		session.close();
+		manager.shutDown();
+		server.stop();
+	}
+
+	@Benchmark
+	public int query() throws Exception {
+		QueryResultCollector collector = new QueryResultCollector();
+		session.sendTupleQuery(QueryLanguage.SPARQL, "SELECT ?s WHERE { ?s ?p ?o } LIMIT 10", null, null, true, -1,
+				collector);
+		return collector.getBindingSets().size();
+	}
+
+	private static byte[] createResult() throws IOException {
+		List<BindingSet> bindingSets = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			bindingSets.add(new ListBindingSet(List.of("s"),
+					SimpleValueFactory.getInstance().createIRI("http://example.org/resource" + i)));
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		QueryResultIO.writeTuple(new IteratingTupleQueryResult(List.of("s"), bindingSets),
+				TupleQueryResultFormat.SPARQL, out);
+		return out.toByteArray();
+	}
+}
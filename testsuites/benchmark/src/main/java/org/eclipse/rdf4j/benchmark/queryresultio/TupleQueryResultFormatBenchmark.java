@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+
+package org.eclipse.rdf4j.benchmark.queryresultio;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.QueryResultIO;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.util.NullOutputStream;
+
+/**
+ * Benchmark for writing and parsing tuple query results in the different result formats. The result mimics a typical
+ * SELECT over a knowledge graph: resources from a handful of namespaces, repeated property values and some unbound
+ * optional variables.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@BenchmarkMode({ Mode.AverageTime })
+@Fork(value = 1, jvmArgs = { "-Xms4g", "-Xmx4g", "-XX:+UseSerialGC" })
+public class TupleQueryResultFormatBenchmark {
+	public static final int TOTAL_ROWS = 200_000;
+
+	private static final List<String> BINDING_NAMES = List.of("s", "type", "label", "value");
+
+	@Param({
+			"brt",
+			"brc",
+			"srj",
+			"srx",
+	})
+	public String format;
+	private TupleQueryResultFormat resultFormat;
+
+	private List<BindingSet> bindingSets;
+
+	private byte[] serialized;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		resultFormat = (TupleQueryResultFormat) QueryResultIO.getWriterFormatForFileName("dummy." + format)
+				.orElseThrow();
+
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		Random random = new Random(42);
+		bindingSets = new ArrayList<>(TOTAL_ROWS);
+		for (int i = 0; i < TOTAL_ROWS; i++) {
+			bindingSets.add(new ListBindingSet(BINDING_NAMES,
+					vf.createIRI("http://example.org/ns" + (i % 5) + "/", "resource" + i),
+					vf.createIRI("http://example.org/ontology#", "Class" + random.nextInt(20)),
+					random.nextInt(4) == 0 ? null : vf.createLiteral("label " + random.nextInt(1000), "en"),
+					vf.createLiteral(random.nextInt(100))));
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		QueryResultIO.writeTuple(new IteratingTupleQueryResult(BINDING_NAMES, bindingSets), resultFormat, out);
+		serialized = out.toByteArray();
+	}
+
+	@Benchmark
+	public void write() throws IOException {
+		QueryResultIO.writeTuple(new IteratingTupleQueryResult(BINDING_NAMES, bindingSets), resultFormat,
+				new NullOutputStream());
+	}
+
+	@Benchmark
+	public List<BindingSet> parse() throws IOException {
+		QueryResultCollector collector = new QueryResultCollector();
+		QueryResultIO.parseTuple(new ByteArrayInputStream(serialized), resultFormat, collector,
+				SimpleValueFactory.getInstance());
+		return collector.getBindingSets();
+	}
+
+}
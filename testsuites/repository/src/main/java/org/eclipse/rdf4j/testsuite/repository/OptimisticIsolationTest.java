@@ -26,6 +26,7 @@ import org.eclipse.rdf4j.testsuite.repository.optimistic.LinearTest;
 import org.eclipse.rdf4j.testsuite.repository.optimistic.ModificationTest;
 import org.eclipse.rdf4j.testsuite.repository.optimistic.MonotonicTest;
 import org.eclipse.rdf4j.testsuite.repository.optimistic.RemoveIsolationTest;
+import org.eclipse.rdf4j.testsuite.repository.optimistic.SerializableReadSetTest;
 import org.eclipse.rdf4j.testsuite.repository.optimistic.SerializableTest;
 import org.eclipse.rdf4j.testsuite.repository.optimistic.SnapshotTest;
 import org.junit.AfterClass;
@@ -40,7 +41,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({ DeadLockTest.class, DeleteInsertTest.class, LinearTest.class, ModificationTest.class,
 		RemoveIsolationTest.class, IsolationLevelTest.class, MonotonicTest.class, SnapshotTest.class,
-		SerializableTest.class })
+		SerializableTest.class, SerializableReadSetTest.class })
 public abstract class OptimisticIsolationTest {
 
 	@BeforeClass
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.testsuite.repository.optimistic;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.eclipse.rdf4j.common.transaction.IsolationLevel;
+import org.eclipse.rdf4j.common.transaction.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.sail.SailConflictException;
+import org.eclipse.rdf4j.testsuite.repository.OptimisticIsolationTest;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Commits {@link IsolationLevels#SERIALIZABLE} transactions that read many statements while a concurrent transaction
+ * changes many other statements, and checks that a conflict is detected only if one of the reads was changed.
+ */
+public class SerializableReadSetTest {
+
+	private static final int READS = 50;
+
+	private static final int CHANGES = 50;
+
+	@BeforeClass
+	public static void setUpClass() throws Exception {
+		System.setProperty("org.eclipse.rdf4j.repository.debug", "true");
+	}
+
+	@AfterClass
+	public static void afterClass() throws Exception {
+		System.setProperty("org.eclipse.rdf4j.repository.debug", "false");
+	}
+
+	private final IsolationLevel level = IsolationLevels.SERIALIZABLE;
+
+	private final String NS = "http://rdf.example.org/";
+
+	private Repository repo;
+
+	private RepositoryConnection a;
+
+	private RepositoryConnection b;
+
+	private ValueFactory vf;
+
+	private IRI KNOWS;
+
+	@Before
+	public void setUp() throws Exception {
+		repo = OptimisticIsolationTest.getEmptyInitializedRepository(SerializableReadSetTest.class);
+		vf = repo.getValueFactory();
+		KNOWS = vf.createIRI(NS, "knows");
+		a = repo.getConnection();
+		b = repo.getConnection();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		try {
+			a.close();
+		} finally {
+			try {
+				b.close();
+			} finally {
+				repo.shutDown();
+			}
+		}
+	}
+
+	@Test
+	public void testLargeReadSet() throws Exception {
+		a.begin(level);
+		b.begin(level);
+		readAll(a, "reader");
+		a.add(vf.createIRI(NS, "reader"), KNOWS, vf.createIRI(NS, "writer"));
+		changeAll(b, "writer");
+		b.commit();
+
+		a.commit();
+
+		assertTrue(a.hasStatement(vf.createIRI(NS, "reader"), KNOWS, vf.createIRI(NS, "writer"), false));
+	}
+
+	@Test
+	public void testLargeReadSetConflict() throws Exception {
+		a.begin(level);
+		b.begin(level);
+		readAll(a, "reader");
+		a.add(vf.createIRI(NS, "reader"), KNOWS, vf.createIRI(NS, "writer"));
+		changeAll(b, "writer");
+		// the last statement that was read changes
+		b.add(vf.createIRI(NS, "reader" + (READS - 1)), KNOWS, vf.createIRI(NS, "writer"));
+		b.commit();
+
+		try {
+			a.commit();
+			fail("Conflict not detected");
+		} catch (RepositoryException e) {
+			assertTrue(e.getCause() instanceof SailConflictException);
+		}
+		a.rollback();
+
+		assertFalse(a.hasStatement(vf.createIRI(NS, "reader"), KNOWS, vf.createIRI(NS, "writer"), false));
+	}
+
+	private void readAll(RepositoryConnection con, String prefix) {
+		for (int i = 0; i < READS; i++) {
+			con.hasStatement(vf.createIRI(NS, prefix + i), KNOWS, null, false);
+		}
+	}
+
+	private void changeAll(RepositoryConnection con, String prefix) {
+		for (int i = 0; i < CHANGES; i++) {
+			con.add(vf.createIRI(NS, prefix + i), KNOWS, vf.createIRI(NS, prefix + (i + 1)));
+		}
+	}
+}
@@ -12,11 +12,20 @@ package org.eclipse.rdf4j.http.server;
 
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_ACCEPTABLE;
+import static javax.servlet.http.HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.LinkedHashSet;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -223,4 +232,57 @@ public class ProtocolUtil {
 			logger.debug("Acceptable formats: " + acceptable);
 		}
 	}
+
+	/**
+	 * Gets the body of the request, decoding it according to its {@code Content-Encoding} header. Clients may compress
+	 * large uploads with {@code gzip} or {@code deflate}. A compressing filter in front of the server that already
+	 * decoded the body also removes the header, in which case the body is returned as is.
+	 *
+	 * @param request the {@link HttpServletRequest} to read the body of
+	 * @return the decoded request body
+	 * @throws ClientHTTPException if the request uses an unsupported content encoding, or if its body does not start
+	 *                             with a valid gzip header. Errors in the compressed data that are only detected while
+	 *                             reading the body can be answered with {@link #checkContentEncoding(Throwable)}.
+	 */
+	public static InputStream getRequestInputStream(HttpServletRequest request)
+			throws IOException, ClientHTTPException {
+		String contentEncoding = request.getHeader("Content-Encoding");
+		if (contentEncoding == null) {
+			return request.getInputStream();
+		}
+		switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+		case "":
+		case "identity":
+			return request.getInputStream();
+		case "gzip":
+		case "x-gzip":
+			try {
+				return new GZIPInputStream(request.getInputStream(), 8192);
+			} catch (ZipException | EOFException e) {
+				throw new ClientHTTPException(SC_BAD_REQUEST, "Invalid gzip request body: " + e.getMessage());
+			}
+		case "deflate":
+			return new InflaterInputStream(request.getInputStream());
+		default:
+			throw new ClientHTTPException(SC_UNSUPPORTED_MEDIA_TYPE,
+					"Unsupported content encoding: " + contentEncoding);
+		}
+	}
+
+	/**
+	 * Answers a request whose compressed body could not be decoded with a client error instead of a server error.
+	 * Callers reading a body obtained from {@link #getRequestInputStream(HttpServletRequest)} invoke this with the
+	 * exception that reading failed with, before reporting it as a server error.
+	 *
+	 * @param e the exception that reading the request body failed with
+	 * @throws ClientHTTPException with status {@code 400} if the exception, or one of its causes, is a
+	 *                             {@link ZipException} or a {@link DataFormatException} of the inflater
+	 */
+	public static void checkContentEncoding(Throwable e) throws ClientHTTPException {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ZipException || cause instanceof DataFormatException) {
+				throw new ClientHTTPException(SC_BAD_REQUEST, "Invalid compressed request body: " + cause.getMessage());
+			}
+		}
+	}
 }
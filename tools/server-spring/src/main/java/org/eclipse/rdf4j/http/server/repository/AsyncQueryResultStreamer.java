@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.eclipse.rdf4j.query.QueryInterruptedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Streams a query result to the client with non-blocking servlet I/O.
+ * <p>
+ * Results are serialized in chunks into a bounded buffer, which is only written when the container reports that the
+ * client can accept more data. While the client is slow, no thread is held and evaluation of the query result is
+ * paused, since the result is only advanced to fill the next chunk. An optional deadline bounds the total time spent
+ * streaming a result, after which the result is closed and the response is aborted.
+ * <p>
+ * Asynchronous streaming is disabled unless the system property {@value #ASYNC_STREAMING_PROPERTY} is {@code true}, and
+ * is only used when the servlet and all filters of the request support asynchronous processing. Otherwise, the views
+ * write results with blocking I/O as before.
+ */
+class AsyncQueryResultStreamer implements WriteListener, AsyncListener {
+
+	/**
+	 * Configurable system property {@code rdf4j.server.query.asyncStreaming} for enabling non-blocking streaming of
+	 * query results.
+	 */
+	static final String ASYNC_STREAMING_PROPERTY = "rdf4j.server.query.asyncStreaming";
+
+	/**
+	 * Configurable system property {@code rdf4j.server.query.asyncStreaming.bufferSize} for the size, in bytes, of the
+	 * chunks in which results are serialized. Defaults to 64 KiB.
+	 */
+	static final String BUFFER_SIZE_PROPERTY = "rdf4j.server.query.asyncStreaming.bufferSize";
+
+	/**
+	 * Configurable system property {@code rdf4j.server.query.asyncStreaming.timeout} for the maximum time, in
+	 * milliseconds, that streaming a single query result may take. Defaults to 0, meaning no deadline.
+	 */
+	static final String TIMEOUT_PROPERTY = "rdf4j.server.query.asyncStreaming.timeout";
+
+	static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncQueryResultStreamer.class);
+
+	/**
+	 * Serializes the next part of a query result.
+	 */
+	interface ChunkWriter {
+
+		/**
+		 * Serializes results until the buffer holds at least the requested number of bytes or the result is exhausted.
+		 *
+		 * @return {@code true} if there are more results to write, {@code false} if the result is complete
+		 */
+		boolean writeChunk(int chunkSize) throws Exception;
+
+		/**
+		 * Releases the query result and any associated resources. Called exactly once.
+		 */
+		void close();
+	}
+
+	/**
+	 * @return {@code true} if the result of the supplied request should be streamed asynchronously
+	 */
+	static boolean isEnabled(HttpServletRequest request) {
+		return Boolean.getBoolean(ASYNC_STREAMING_PROPERTY) && request.isAsyncSupported();
+	}
+
+	/**
+	 * Starts asynchronous processing of the request and streams the result. Returns immediately; the response is
+	 * completed, and the chunk writer closed, when the result has been written, on error, or when the deadline has
+	 * passed.
+	 *
+	 * @param request  the request
+	 * @param response the response, with status and headers already set
+	 * @param buffer   the buffer that the chunk writer serializes into
+	 * @param writer   the chunk writer
+	 */
+	static void start(HttpServletRequest request, HttpServletResponse response, ByteArrayOutputStream buffer,
+			ChunkWriter writer) throws IOException {
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(Long.getLong(TIMEOUT_PROPERTY, 0));
+
+		AsyncQueryResultStreamer streamer = new AsyncQueryResultStreamer(asyncContext, response, buffer, writer,
+				Integer.getInteger(BUFFER_SIZE_PROPERTY, DEFAULT_BUFFER_SIZE));
+		asyncContext.addListener(streamer);
+		streamer.out.setWriteListener(streamer);
+	}
+
+	private final AsyncContext asyncContext;
+
+	private final HttpServletResponse response;
+
+	private final ServletOutputStream out;
+
+	private final ByteArrayOutputStream buffer;
+
+	private final ChunkWriter writer;
+
+	private final int chunkSize;
+
+	private boolean done;
+
+	private AsyncQueryResultStreamer(AsyncContext asyncContext, HttpServletResponse response,
+			ByteArrayOutputStream buffer, ChunkWriter writer, int chunkSize) throws IOException {
+		this.asyncContext = asyncContext;
+		this.response = response;
+		this.out = response.getOutputStream();
+		this.buffer = buffer;
+		this.writer = writer;
+		this.chunkSize = chunkSize;
+	}
+
+	@Override
+	public synchronized void onWritePossible() throws IOException {
+		try {
+			while (!done && out.isReady()) {
+				buffer.reset();
+				boolean more = writer.writeChunk(chunkSize);
+				if (buffer.size() > 0) {
+					buffer.writeTo(out);
+				}
+				if (!more) {
+					finish();
+					return;
+				}
+			}
+		} catch (QueryInterruptedException e) {
+			logger.error("Query interrupted", e);
+			fail(SC_SERVICE_UNAVAILABLE, "Query evaluation took too long");
+		} catch (IOException e) {
+			logger.debug("Client aborted streaming of query result", e);
+			fail(0, null);
+		} catch (Exception e) {
+			logger.error("Query evaluation error", e);
+			fail(SC_INTERNAL_SERVER_ERROR, "Query evaluation error: " + e.getMessage());
+		}
+	}
+
+	@Override
+	public synchronized void onError(Throwable t) {
+		logger.debug("Error while streaming query result", t);
+		fail(0, null);
+	}
+
+	@Override
+	public synchronized void onTimeout(AsyncEvent event) {
+		logger.warn("Streaming of query result exceeded its deadline of {} ms", asyncContext.getTimeout());
+		fail(SC_SERVICE_UNAVAILABLE, "Query result streaming took too long");
+	}
+
+	@Override
+	public synchronized void onError(AsyncEvent event) {
+		onError(event.getThrowable());
+	}
+
+	@Override
+	public void onComplete(AsyncEvent event) {
+		// nothing to do, resources are released before completing
+	}
+
+	@Override
+	public void onStartAsync(AsyncEvent event) {
+		// not used
+	}
+
+	private void finish() {
+		done = true;
+		writer.close();
+		asyncContext.complete();
+	}
+
+	private void fail(int status, String message) {
+		if (done) {
+			return;
+		}
+		done = true;
+		try {
+			writer.close();
+		} catch (RuntimeException e) {
+			logger.warn("Unable to close query result", e);
+		}
+		try {
+			// marks the response as failed even if it has already been committed, so that it is not cached
+			response.sendError(status == 0 ? SC_INTERNAL_SERVER_ERROR : status, message);
+		} catch (IOException | IllegalStateException e) {
+			// response already committed or client gone
+		}
+		asyncContext.complete();
+	}
+}
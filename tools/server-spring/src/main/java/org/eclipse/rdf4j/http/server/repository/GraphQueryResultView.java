@@ -14,6 +14,7 @@ import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Map;
@@ -71,11 +72,15 @@ public class GraphQueryResultView extends QueryResultView {
 		boolean headersOnly = (Boolean) model.get(HEADERS_ONLY);
 
 		if (!headersOnly) {
+			GraphQueryResult graphQueryResult = (GraphQueryResult) model.get(QUERY_RESULT_KEY);
+			if (AsyncQueryResultStreamer.isEnabled(request)) {
+				renderAsync(model, request, response, rdfWriterFactory, graphQueryResult);
+				return;
+			}
 			try (OutputStream out = response.getOutputStream()) {
 				// ensure we handle exceptions _before_ closing the stream
 				try {
 					RDFWriter rdfWriter = rdfWriterFactory.getWriter(out);
-					GraphQueryResult graphQueryResult = (GraphQueryResult) model.get(QUERY_RESULT_KEY);
 					QueryResults.report(graphQueryResult, rdfWriter);
 				} catch (QueryInterruptedException e) {
 					logger.error("Query interrupted", e);
@@ -91,4 +96,45 @@ public class GraphQueryResultView extends QueryResultView {
 		}
 		logEndOfRequest(request);
 	}
+
+	@SuppressWarnings("rawtypes")
+	private void renderAsync(Map model, HttpServletRequest request, HttpServletResponse response,
+			RDFWriterFactory rdfWriterFactory, GraphQueryResult graphQueryResult) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(AsyncQueryResultStreamer.DEFAULT_BUFFER_SIZE);
+		RDFWriter rdfWriter = rdfWriterFactory.getWriter(buffer);
+
+		AsyncQueryResultStreamer.start(request, response, buffer, new AsyncQueryResultStreamer.ChunkWriter() {
+
+			private boolean started;
+
+			@Override
+			public boolean writeChunk(int chunkSize) {
+				if (!started) {
+					rdfWriter.startRDF();
+					for (Map.Entry<String, String> entry : graphQueryResult.getNamespaces().entrySet()) {
+						rdfWriter.handleNamespace(entry.getKey(), entry.getValue());
+					}
+					started = true;
+				}
+				while (buffer.size() < chunkSize && graphQueryResult.hasNext()) {
+					rdfWriter.handleStatement(graphQueryResult.next());
+				}
+				if (graphQueryResult.hasNext()) {
+					return true;
+				}
+				rdfWriter.endRDF();
+				return false;
+			}
+
+			@Override
+			public void close() {
+				try {
+					graphQueryResult.close();
+				} finally {
+					closeConnection(model);
+					logEndOfRequest(request);
+				}
+			}
+		});
+	}
 }
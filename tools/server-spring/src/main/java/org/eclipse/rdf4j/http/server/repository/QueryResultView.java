@@ -62,16 +62,26 @@ public abstract class QueryResultView implements View {
 	@SuppressWarnings("rawtypes")
 	@Override
 	public final void render(Map model, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		boolean asyncStarted = false;
 		try {
 			renderInternal(model, request, response);
+			asyncStarted = request.isAsyncStarted();
 		} finally {
-			RepositoryConnection conn = (RepositoryConnection) model.get(CONNECTION_KEY);
-			if (conn != null) {
-				conn.close();
+			// a result that is streamed asynchronously closes the connection when it is done
+			if (!asyncStarted) {
+				closeConnection(model);
 			}
 		}
 	}
 
+	@SuppressWarnings("rawtypes")
+	protected void closeConnection(Map model) {
+		RepositoryConnection conn = (RepositoryConnection) model.get(CONNECTION_KEY);
+		if (conn != null) {
+			conn.close();
+		}
+	}
+
 	@SuppressWarnings("rawtypes")
 	protected abstract void renderInternal(Map model, HttpServletRequest request, HttpServletResponse response)
 			throws IOException;
@@ -14,6 +14,7 @@ import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_OK;
 import static javax.servlet.http.HttpServletResponse.SC_SERVICE_UNAVAILABLE;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Map;
@@ -75,31 +76,16 @@ public class TupleQueryResultView extends QueryResultView {
 
 		final Boolean headersOnly = (Boolean) model.get(HEADERS_ONLY);
 		if (headersOnly == null || !headersOnly.booleanValue()) {
+			TupleQueryResult tupleQueryResult = (TupleQueryResult) model.get(QUERY_RESULT_KEY);
+			if (AsyncQueryResultStreamer.isEnabled(request)) {
+				renderAsync(model, request, response, qrWriterFactory, tupleQueryResult);
+				return;
+			}
 			try (OutputStream out = response.getOutputStream()) {
 				// ensure we handle exceptions _before_ closing the stream
 				try {
 					TupleQueryResultWriter qrWriter = qrWriterFactory.getWriter(out);
-					TupleQueryResult tupleQueryResult = (TupleQueryResult) model.get(QUERY_RESULT_KEY);
-
-					if (qrWriter.getSupportedSettings().contains(BasicQueryWriterSettings.JSONP_CALLBACK)) {
-						String parameter = request.getParameter(DEFAULT_JSONP_CALLBACK_PARAMETER);
-
-						if (parameter != null) {
-							parameter = parameter.trim();
-
-							if (parameter.isEmpty()) {
-								parameter = BasicQueryWriterSettings.JSONP_CALLBACK.getDefaultValue();
-							}
-
-							// check callback function name is a valid javascript function
-							// name
-							if (!JSONP_VALIDATOR.matcher(parameter).matches()) {
-								throw new IOException("Callback function name was invalid");
-							}
-
-							qrWriter.getWriterConfig().set(BasicQueryWriterSettings.JSONP_CALLBACK, parameter);
-						}
-					}
+					configureWriter(qrWriter, request);
 
 					QueryResults.report(tupleQueryResult, qrWriter);
 				} catch (QueryInterruptedException e) {
@@ -116,4 +102,70 @@ public class TupleQueryResultView extends QueryResultView {
 		}
 		logEndOfRequest(request);
 	}
+
+	@SuppressWarnings("rawtypes")
+	private void renderAsync(Map model, HttpServletRequest request, HttpServletResponse response,
+			TupleQueryResultWriterFactory qrWriterFactory, TupleQueryResult tupleQueryResult) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream(AsyncQueryResultStreamer.DEFAULT_BUFFER_SIZE);
+		TupleQueryResultWriter qrWriter = qrWriterFactory.getWriter(buffer);
+		try {
+			configureWriter(qrWriter, request);
+		} catch (IOException e) {
+			tupleQueryResult.close();
+			throw e;
+		}
+
+		AsyncQueryResultStreamer.start(request, response, buffer, new AsyncQueryResultStreamer.ChunkWriter() {
+
+			private boolean started;
+
+			@Override
+			public boolean writeChunk(int chunkSize) {
+				if (!started) {
+					qrWriter.startQueryResult(tupleQueryResult.getBindingNames());
+					started = true;
+				}
+				while (buffer.size() < chunkSize && tupleQueryResult.hasNext()) {
+					qrWriter.handleSolution(tupleQueryResult.next());
+				}
+				if (tupleQueryResult.hasNext()) {
+					return true;
+				}
+				qrWriter.endQueryResult();
+				return false;
+			}
+
+			@Override
+			public void close() {
+				try {
+					tupleQueryResult.close();
+				} finally {
+					closeConnection(model);
+					logEndOfRequest(request);
+				}
+			}
+		});
+	}
+
+	private void configureWriter(TupleQueryResultWriter qrWriter, HttpServletRequest request) throws IOException {
+		if (qrWriter.getSupportedSettings().contains(BasicQueryWriterSettings.JSONP_CALLBACK)) {
+			String parameter = request.getParameter(DEFAULT_JSONP_CALLBACK_PARAMETER);
+
+			if (parameter != null) {
+				parameter = parameter.trim();
+
+				if (parameter.isEmpty()) {
+					parameter = BasicQueryWriterSettings.JSONP_CALLBACK.getDefaultValue();
+				}
+
+				// check callback function name is a valid javascript function
+				// name
+				if (!JSONP_VALIDATOR.matcher(parameter).matches()) {
+					throw new IOException("Callback function name was invalid");
+				}
+
+				qrWriter.getWriterConfig().set(BasicQueryWriterSettings.JSONP_CALLBACK, parameter);
+			}
+		}
+	}
 }
@@ -171,7 +171,7 @@ public class GraphController extends AbstractController {
 			logger.info("no base URI specified, using '{}'", baseURI);
 		}
 
-		InputStream in = request.getInputStream();
+		InputStream in = ProtocolUtil.getRequestInputStream(request);
 		try (RepositoryConnection repositoryCon = RepositoryInterceptor.getRepositoryConnection(request)) {
 			boolean localTransaction = !repositoryCon.isActive();
 
@@ -196,6 +196,7 @@ public class GraphController extends AbstractController {
 			ErrorInfo errInfo = new ErrorInfo(ErrorType.MALFORMED_DATA, e.getMessage());
 			throw new ClientHTTPException(SC_BAD_REQUEST, errInfo.toString());
 		} catch (IOException e) {
+			ProtocolUtil.checkContentEncoding(e);
 			throw new ServerHTTPException("Failed to read data: " + e.getMessage(), e);
 		} catch (RepositoryException e) {
 			throw new ServerHTTPException("Repository update error: " + e.getMessage(), e);
@@ -49,8 +49,19 @@ public abstract class AbstractQueryRequestHandler implements QueryRequestHandler
 
 	private final RepositoryResolver repositoryResolver;
 
+	private final QueryResultCache resultCache;
+
 	public AbstractQueryRequestHandler(RepositoryResolver repositoryResolver) {
+		this(repositoryResolver, QueryResultCache.getInstance());
+	}
+
+	/**
+	 * @param repositoryResolver the resolver for the repository and connection of a request
+	 * @param resultCache        the cache for serialized query results
+	 */
+	public AbstractQueryRequestHandler(RepositoryResolver repositoryResolver, QueryResultCache resultCache) {
 		this.repositoryResolver = repositoryResolver;
+		this.resultCache = resultCache;
 	}
 
 	@Override
@@ -61,15 +72,27 @@ public abstract class AbstractQueryRequestHandler implements QueryRequestHandler
 
 		try {
 			Repository repository = repositoryResolver.getRepository(request);
-			repositoryCon = repositoryResolver.getRepositoryConnection(request, repository);
 
 			String queryString = getQueryString(request, requestMethod);
 
 			logQuery(requestMethod, queryString);
 
+			boolean headersOnly = requestMethod == RequestMethod.HEAD;
+
+			QueryResultCache.Key cacheKey = headersOnly ? null
+					: resultCache.createKey(repository, request, queryString);
+			if (cacheKey != null) {
+				View cachedView = resultCache.getCachedView(cacheKey);
+				if (cachedView != null) {
+					logger.debug("serving cached result for query {}", queryString.hashCode());
+					return new ModelAndView(cachedView);
+				}
+			}
+
+			repositoryCon = repositoryResolver.getRepositoryConnection(request, repository);
+
 			Query query = getQuery(request, repositoryCon, queryString);
 
-			boolean headersOnly = requestMethod == RequestMethod.HEAD;
 			long limit = getLimit(request);
 			long offset = getOffset(request);
 			boolean distinct = isDistinct(request);
@@ -96,7 +119,12 @@ public abstract class AbstractQueryRequestHandler implements QueryRequestHandler
 							"Unknown view for query of type: " + query.getClass().getName());
 				}
 
-				return getModelAndView(request, response, headersOnly, repositoryCon, view, queryResponse, registry);
+				ModelAndView modelAndView = getModelAndView(request, response, headersOnly, repositoryCon, view,
+						queryResponse, registry);
+				if (cacheKey != null && modelAndView.getView() != null) {
+					modelAndView.setView(resultCache.createCachingView(cacheKey, modelAndView.getView()));
+				}
+				return modelAndView;
 
 			} catch (QueryInterruptedException e) {
 				logger.info("Query interrupted", e);
@@ -75,6 +75,10 @@ public class DefaultQueryRequestHandler extends AbstractQueryRequestHandler {
 		super(repositoryResolver);
 	}
 
+	public DefaultQueryRequestHandler(RepositoryResolver repositoryResolver, QueryResultCache resultCache) {
+		super(repositoryResolver, resultCache);
+	}
+
 	@Override
 	protected Object evaluateQuery(Query query, long limit, long offset, boolean distinct) throws ClientHTTPException {
 		if (query instanceof TupleQuery) {
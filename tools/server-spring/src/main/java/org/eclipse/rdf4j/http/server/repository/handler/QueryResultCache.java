@@ -0,0 +1,538 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.handler;
+
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+
+import static org.eclipse.rdf4j.http.protocol.Protocol.QUERY_PARAM_NAME;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.NotifyingSail;
+import org.eclipse.rdf4j.sail.Sail;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.servlet.View;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * Opt-in cache of serialized query results, shared by all repositories of the server.
+ * <p>
+ * Entries are keyed on the repository, the query string with insignificant whitespace collapsed, all other request
+ * parameters (dataset, bindings, inference, limit, offset, ...) and the requested result format, and hold the bytes
+ * that were written to the client. The cache is bounded by the total size of the stored results.
+ * <p>
+ * Only repositories whose changes can be observed are cached, i.e. {@link SailRepository SailRepositories} on top of a
+ * {@link NotifyingSail}. Every commit on such a repository moves it to a new generation, which invalidates all of its
+ * cached results. Queries that are not deterministic, such as queries using {@code RAND()}, {@code NOW()} or
+ * {@code SERVICE}, are never cached.
+ * <p>
+ * The cache is disabled unless the system property {@value #MAX_SIZE_PROPERTY} is set to a positive number of bytes.
+ */
+public class QueryResultCache {
+
+	/**
+	 * Configurable system property {@code rdf4j.server.query.cache.maxSize} for the maximum total size, in bytes, of
+	 * all cached query results. The cache is disabled if this is not set or not positive.
+	 */
+	public static final String MAX_SIZE_PROPERTY = "rdf4j.server.query.cache.maxSize";
+
+	/**
+	 * Configurable system property {@code rdf4j.server.query.cache.maxEntrySize} for the maximum size, in bytes, of a
+	 * single cached query result. Defaults to a tenth of the maximum total size.
+	 */
+	public static final String MAX_ENTRY_SIZE_PROPERTY = "rdf4j.server.query.cache.maxEntrySize";
+
+	private static final Logger logger = LoggerFactory.getLogger(QueryResultCache.class);
+
+	private static final Pattern NON_DETERMINISTIC = Pattern
+			.compile("\\b(RAND|NOW|UUID|STRUUID|BNODE)\\s*\\(|\\bSERVICE\\b", Pattern.CASE_INSENSITIVE);
+
+	private static final QueryResultCache INSTANCE = new QueryResultCache(
+			Long.getLong(MAX_SIZE_PROPERTY, 0),
+			Long.getLong(MAX_ENTRY_SIZE_PROPERTY, Long.getLong(MAX_SIZE_PROPERTY, 0) / 10));
+
+	/**
+	 * @return the server-wide cache, configured by the system properties {@value #MAX_SIZE_PROPERTY} and
+	 *         {@value #MAX_ENTRY_SIZE_PROPERTY}
+	 */
+	public static QueryResultCache getInstance() {
+		return INSTANCE;
+	}
+
+	private final long maxEntrySize;
+
+	private final Cache<Key, CachedResult> results;
+
+	/**
+	 * Observed repositories. Weak keys, so that repositories that have been removed from the server are not retained.
+	 */
+	private final Cache<Repository, Generation> generations;
+
+	/**
+	 * @param maxSize      the maximum total size in bytes of all cached results, or 0 to disable the cache
+	 * @param maxEntrySize the maximum size in bytes of a single cached result
+	 */
+	public QueryResultCache(long maxSize, long maxEntrySize) {
+		if (maxSize > 0) {
+			this.maxEntrySize = Math.min(maxEntrySize, Integer.MAX_VALUE - 8);
+			this.results = CacheBuilder.newBuilder()
+					.maximumWeight(maxSize)
+					.weigher((Key key, CachedResult result) -> result.weight(key))
+					.recordStats()
+					.build();
+			this.generations = CacheBuilder.newBuilder().weakKeys().build();
+		} else {
+			this.maxEntrySize = 0;
+			this.results = null;
+			this.generations = null;
+		}
+	}
+
+	public boolean isEnabled() {
+		return results != null;
+	}
+
+	/**
+	 * Creates the cache key for a query request.
+	 *
+	 * @param repository  the repository the query is evaluated on
+	 * @param request     the request
+	 * @param queryString the query string
+	 * @return the key, or {@code null} if the result of the request must not be cached
+	 */
+	Key createKey(Repository repository, HttpServletRequest request, String queryString) {
+		if (!isEnabled()) {
+			return null;
+		}
+		Generation generation = getGeneration(repository);
+		if (generation == null) {
+			return null;
+		}
+		String normalizedQuery = normalize(queryString);
+		if (NON_DETERMINISTIC.matcher(normalizedQuery).find()) {
+			return null;
+		}
+
+		Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+		parameters.remove(QUERY_PARAM_NAME);
+
+		StringBuilder sb = new StringBuilder();
+		for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+			sb.append(parameter.getKey()).append('=').append(Arrays.toString(parameter.getValue())).append('&');
+		}
+		sb.append("accept=").append(request.getHeader("Accept"));
+
+		return new Key(generation, generation.current(), normalizedQuery, sb.toString());
+	}
+
+	/**
+	 * @return a view that writes the cached result for the supplied key, or {@code null} if there is none
+	 */
+	View getCachedView(Key key) {
+		CachedResult result = results.getIfPresent(key);
+		if (result == null) {
+			return null;
+		}
+		return new CachedResultView(result);
+	}
+
+	/**
+	 * Wraps a view so that the result it renders is also stored in the cache, provided it completes successfully and
+	 * does not exceed the maximum entry size.
+	 */
+	View createCachingView(Key key, View view) {
+		return new CachingView(key, view);
+	}
+
+	/**
+	 * @return statistics on hits, misses and evictions of cached results
+	 */
+	public CacheStats getStats() {
+		return isEnabled() ? results.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+	}
+
+	/**
+	 * @return the number of cached results
+	 */
+	public long getSize() {
+		return isEnabled() ? results.size() : 0;
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public void clear() {
+		if (isEnabled()) {
+			results.invalidateAll();
+		}
+	}
+
+	private Generation getGeneration(Repository repository) {
+		if (!(repository instanceof SailRepository)) {
+			return null;
+		}
+		Sail sail = ((SailRepository) repository).getSail();
+		if (!(sail instanceof NotifyingSail)) {
+			return null;
+		}
+		try {
+			return generations.get(repository, () -> {
+				Generation generation = new Generation();
+				((NotifyingSail) sail).addSailChangedListener(event -> invalidate(generation));
+				return generation;
+			});
+		} catch (ExecutionException e) {
+			logger.warn("Unable to observe repository for query result caching", e);
+			return null;
+		}
+	}
+
+	private void invalidate(Generation generation) {
+		generation.next();
+		results.asMap().keySet().removeIf(key -> key.generation == generation);
+	}
+
+	private void put(Key key, CachedResult result) {
+		// a commit may have happened while the result was being computed
+		if (key.generationNumber == key.generation.current()) {
+			results.put(key, result);
+		}
+	}
+
+	/**
+	 * Collapses runs of whitespace outside of string literals and IRIs into a single space and trims the query.
+	 */
+	static String normalize(String queryString) {
+		StringBuilder sb = new StringBuilder(queryString.length());
+		char quote = 0;
+		boolean pendingSpace = false;
+		for (int i = 0; i < queryString.length(); i++) {
+			char c = queryString.charAt(i);
+			if (quote != 0) {
+				sb.append(c);
+				if (c == '\\' && quote != '>' && i + 1 < queryString.length()) {
+					sb.append(queryString.charAt(++i));
+				} else if (c == quote) {
+					quote = 0;
+				}
+			} else if (Character.isWhitespace(c)) {
+				pendingSpace = sb.length() > 0;
+			} else {
+				if (pendingSpace) {
+					sb.append(' ');
+					pendingSpace = false;
+				}
+				sb.append(c);
+				if (c == '"' || c == '\'') {
+					quote = c;
+				} else if (c == '<') {
+					quote = '>';
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Counts the commits of an observed repository.
+	 */
+	private static final class Generation {
+
+		private final AtomicLong counter = new AtomicLong();
+
+		long current() {
+			return counter.get();
+		}
+
+		void next() {
+			counter.incrementAndGet();
+		}
+	}
+
+	static final class Key {
+
+		private final Generation generation;
+
+		private final long generationNumber;
+
+		private final String query;
+
+		private final String parameters;
+
+		private final int hashCode;
+
+		private Key(Generation generation, long generationNumber, String query, String parameters) {
+			this.generation = generation;
+			this.generationNumber = generationNumber;
+			this.query = query;
+			this.parameters = parameters;
+			this.hashCode = Objects.hash(System.identityHashCode(generation), generationNumber, query, parameters);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return generation == other.generation && generationNumber == other.generationNumber
+					&& query.equals(other.query) && parameters.equals(other.parameters);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static final class CachedResult {
+
+		private final String contentType;
+
+		private final String contentDisposition;
+
+		private final byte[] content;
+
+		CachedResult(String contentType, String contentDisposition, byte[] content) {
+			this.contentType = contentType;
+			this.contentDisposition = contentDisposition;
+			this.content = content;
+		}
+
+		int weight(Key key) {
+			long weight = (long) content.length + 2L * (key.query.length() + key.parameters.length());
+			return (int) Math.min(Integer.MAX_VALUE, weight);
+		}
+	}
+
+	/**
+	 * Writes a cached result.
+	 */
+	private static final class CachedResultView implements View {
+
+		private final CachedResult result;
+
+		CachedResultView(CachedResult result) {
+			this.result = result;
+		}
+
+		@Override
+		public String getContentType() {
+			return result.contentType;
+		}
+
+		@Override
+		public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+				throws IOException {
+			response.setStatus(SC_OK);
+			response.setContentType(result.contentType);
+			if (result.contentDisposition != null) {
+				response.setHeader("Content-Disposition", result.contentDisposition);
+			}
+			response.setContentLength(result.content.length);
+			try (ServletOutputStream out = response.getOutputStream()) {
+				out.write(result.content);
+			}
+		}
+	}
+
+	/**
+	 * Renders a result with a delegate view, copying everything written to the client into a buffer that is stored in
+	 * the cache when rendering completes successfully.
+	 */
+	private final class CachingView implements View {
+
+		private final Key key;
+
+		private final View delegate;
+
+		CachingView(Key key, View delegate) {
+			this.key = key;
+			this.delegate = delegate;
+		}
+
+		@Override
+		public String getContentType() {
+			return delegate.getContentType();
+		}
+
+		@Override
+		public void render(Map<String, ?> model, HttpServletRequest request, HttpServletResponse response)
+				throws Exception {
+			RecordingResponse recordingResponse = new RecordingResponse(response, maxEntrySize);
+			delegate.render(model, request, recordingResponse);
+
+			if (request.isAsyncStarted()) {
+				// the result is still being streamed, store it once the response is complete
+				request.getAsyncContext().addListener(new AsyncListener() {
+
+					@Override
+					public void onComplete(AsyncEvent event) {
+						store(recordingResponse);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+						recordingResponse.failed = true;
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+						recordingResponse.failed = true;
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+						// not used
+					}
+				});
+			} else {
+				store(recordingResponse);
+			}
+		}
+
+		private void store(RecordingResponse recordingResponse) {
+			byte[] content = recordingResponse.getRecordedContent();
+			if (content != null) {
+				put(key, new CachedResult(recordingResponse.getContentType(),
+						recordingResponse.contentDisposition, content));
+			}
+		}
+	}
+
+	private static final class RecordingResponse extends HttpServletResponseWrapper {
+
+		private final long maxSize;
+
+		private volatile ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+		private ServletOutputStream outputStream;
+
+		private String contentDisposition;
+
+		private volatile boolean failed;
+
+		RecordingResponse(HttpServletResponse response, long maxSize) {
+			super(response);
+			this.maxSize = maxSize;
+		}
+
+		/**
+		 * @return the content written to the response, or {@code null} if it was not a complete, successful response of
+		 *         at most the maximum size
+		 */
+		byte[] getRecordedContent() {
+			if (failed || buffer == null || getStatus() != SC_OK) {
+				return null;
+			}
+			return buffer.toByteArray();
+		}
+
+		@Override
+		public void setHeader(String name, String value) {
+			super.setHeader(name, value);
+			if ("Content-Disposition".equalsIgnoreCase(name)) {
+				contentDisposition = value;
+			}
+		}
+
+		@Override
+		public void sendError(int sc) throws IOException {
+			failed = true;
+			super.sendError(sc);
+		}
+
+		@Override
+		public void sendError(int sc, String msg) throws IOException {
+			failed = true;
+			super.sendError(sc, msg);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (outputStream == null) {
+				ServletOutputStream out = super.getOutputStream();
+				outputStream = new ServletOutputStream() {
+
+					@Override
+					public void write(int b) throws IOException {
+						out.write(b);
+						record(new byte[] { (byte) b }, 0, 1);
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						out.write(b, off, len);
+						record(b, off, len);
+					}
+
+					@Override
+					public void flush() throws IOException {
+						out.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						out.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return out.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						out.setWriteListener(writeListener);
+					}
+				};
+			}
+			return outputStream;
+		}
+
+		private void record(byte[] b, int off, int len) {
+			if (buffer == null) {
+				return;
+			}
+			if (buffer.size() + (long) len > maxSize) {
+				// too large to cache, stop recording
+				buffer = null;
+			} else {
+				buffer.write(b, off, len);
+			}
+		}
+	}
+}
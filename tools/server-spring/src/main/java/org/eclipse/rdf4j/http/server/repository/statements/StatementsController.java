@@ -324,7 +324,7 @@ public class StatementsController extends AbstractController {
 	 */
 	private ModelAndView getTransactionResultResult(Repository repository, HttpServletRequest request,
 			HttpServletResponse response) throws IOException, ClientHTTPException, ServerHTTPException, HTTPException {
-		InputStream in = request.getInputStream();
+		InputStream in = ProtocolUtil.getRequestInputStream(request);
 		try (RepositoryConnection repositoryCon = RepositoryInterceptor.getRepositoryConnection(request)) {
 			logger.debug("Processing transaction...");
 
@@ -347,6 +347,7 @@ public class StatementsController extends AbstractController {
 		} catch (SAXException e) {
 			throw new ServerHTTPException("Failed to parse transaction data: " + e.getMessage(), e);
 		} catch (IOException e) {
+			ProtocolUtil.checkContentEncoding(e);
 			throw new ServerHTTPException("Failed to read data: " + e.getMessage(), e);
 		} catch (RepositoryException e) {
 			if (e.getCause() != null && e.getCause() instanceof HTTPException) {
@@ -386,7 +387,7 @@ public class StatementsController extends AbstractController {
 			baseURIString = baseURI.toString();
 		}
 
-		InputStream in = request.getInputStream();
+		InputStream in = ProtocolUtil.getRequestInputStream(request);
 		try (RepositoryConnection repositoryCon = RepositoryInterceptor.getRepositoryConnection(request)) {
 			repositoryCon.begin();
 
@@ -409,6 +410,7 @@ public class StatementsController extends AbstractController {
 			ErrorInfo errInfo = new ErrorInfo(ErrorType.MALFORMED_DATA, e.getMessage());
 			throw new ClientHTTPException(SC_BAD_REQUEST, errInfo.toString());
 		} catch (IOException e) {
+			ProtocolUtil.checkContentEncoding(e);
 			throw new ServerHTTPException("Failed to read data: " + e.getMessage(), e);
 		} catch (RepositoryException e) {
 			if (e.getCause() != null && e.getCause() instanceof HTTPException) {
@@ -19,6 +19,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -54,8 +55,6 @@ import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 /**
  * A transaction encapsulates a single {@link Thread} and a {@link RepositoryConnection}, to enable executing all
  * operations that are part of the transaction from a single, dedicated thread. This is necessary because
@@ -86,10 +85,10 @@ class Transaction implements AutoCloseable {
 	private final RepositoryConnection txnConnection;
 
 	/**
-	 * The {@link ExecutorService} that performs all of the operations related to this Transaction.
+	 * The {@link ExecutorService} that performs all of the operations related to this Transaction. Its thread is either
+	 * a platform or a virtual thread, see {@link TransactionThreads}.
 	 */
-	private final ExecutorService executor = Executors
-			.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("rdf4j-transaction-%d").build());
+	private final ExecutorService executor;
 
 	/**
 	 * Counter of the active operations submitted to the executor
@@ -104,8 +103,22 @@ class Transaction implements AutoCloseable {
 	 * @throws ExecutionException   if an error occurs while opening the connection.
 	 */
 	Transaction(Repository repository) throws InterruptedException, ExecutionException {
+		this(repository, TransactionThreads.threadFactory());
+	}
+
+	/**
+	 * Create a new Transaction for the given {@link Repository} that executes its operations on a thread of the given
+	 * factory.
+	 *
+	 * @param repository    the {@link Repository} on which to open a transaction.
+	 * @param threadFactory the factory of the transaction thread.
+	 * @throws InterruptedException if the transaction thread is interrupted while opening a connection.
+	 * @throws ExecutionException   if an error occurs while opening the connection.
+	 */
+	Transaction(Repository repository, ThreadFactory threadFactory) throws InterruptedException, ExecutionException {
 		this.id = UUID.randomUUID();
 		this.rep = repository;
+		this.executor = Executors.newSingleThreadExecutor(threadFactory);
 		this.txnConnection = getTransactionConnection();
 	}
 
@@ -249,12 +249,13 @@ public class TransactionController extends AbstractController implements Disposa
 			case ADD:
 				format = Rio.getParserFormatForMIMEType(request.getContentType())
 						.orElseThrow(Rio.unsupportedFormat(request.getContentType()));
-				transaction.add(request.getInputStream(), baseURI, format, preserveNodeIds, contexts);
+				transaction.add(ProtocolUtil.getRequestInputStream(request), baseURI, format, preserveNodeIds,
+						contexts);
 				break;
 			case DELETE:
 				format = Rio.getParserFormatForMIMEType(request.getContentType())
 						.orElseThrow(Rio.unsupportedFormat(request.getContentType()));
-				transaction.delete(format, request.getInputStream(), baseURI);
+				transaction.delete(format, ProtocolUtil.getRequestInputStream(request), baseURI);
 				break;
 			case UPDATE:
 				return getSparqlUpdateResult(transaction, request, response);
@@ -278,6 +279,7 @@ public class TransactionController extends AbstractController implements Disposa
 			if (e instanceof ClientHTTPException) {
 				throw (ClientHTTPException) e;
 			} else {
+				ProtocolUtil.checkContentEncoding(e);
 				throw new ServerHTTPException(HttpServletResponse.SC_INTERNAL_SERVER_ERROR,
 						"Transaction handling error: " + e.getMessage(), e);
 			}
@@ -354,7 +356,12 @@ public class TransactionController extends AbstractController implements Disposa
 		final String contentType = request.getContentType();
 		if (contentType != null && contentType.contains(Protocol.SPARQL_QUERY_MIME_TYPE)) {
 			Charset charset = getCharset(request);
-			queryStr = IOUtils.toString(request.getInputStream(), charset);
+			try {
+				queryStr = IOUtils.toString(ProtocolUtil.getRequestInputStream(request), charset);
+			} catch (IOException e) {
+				ProtocolUtil.checkContentEncoding(e);
+				throw e;
+			}
 		} else {
 			queryStr = request.getParameter(QUERY_PARAM_NAME);
 		}
@@ -539,7 +546,7 @@ public class TransactionController extends AbstractController implements Disposa
 		if (contentType != null && contentType.contains(Protocol.SPARQL_UPDATE_MIME_TYPE)) {
 			try {
 				Charset charset = getCharset(request);
-				sparqlUpdateString = IOUtils.toString(request.getInputStream(), charset);
+				sparqlUpdateString = IOUtils.toString(ProtocolUtil.getRequestInputStream(request), charset);
 			} catch (IOException e) {
 				logger.warn("error reading sparql update string from request body", e);
 				throw new ClientHTTPException(SC_BAD_REQUEST,
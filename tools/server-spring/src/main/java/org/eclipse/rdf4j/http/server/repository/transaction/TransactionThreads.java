@@ -0,0 +1,109 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.transaction;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates the threads that execute the operations of a {@link Transaction}. Every transaction has a dedicated thread
+ * for its whole lifetime, because sails may depend on all operations of a connection being executed by the same thread.
+ * <p>
+ * By default these are platform threads, which limits the number of concurrently open transactions to the number of
+ * native threads the server can create. If the system property {@value #VIRTUAL_THREADS_PROPERTY} is set to
+ * <code>true</code> and the server runs on a Java version that supports virtual threads, transactions are executed on
+ * virtual threads instead. A virtual thread only occupies a carrier thread while an operation is running, so an open
+ * transaction that is waiting for its next request does not tie up a native thread. The property is read once, when the
+ * first transaction is created.
+ */
+class TransactionThreads {
+
+	/**
+	 * System property to enable executing transactions on virtual threads.
+	 */
+	static final String VIRTUAL_THREADS_PROPERTY = "rdf4j.server.txn.virtualThreads";
+
+	private static final Logger logger = LoggerFactory.getLogger(TransactionThreads.class);
+
+	private static final String THREAD_NAME_PREFIX = "rdf4j-transaction-";
+
+	private static final ThreadFactory platformThreadFactory = new ThreadFactoryBuilder()
+			.setNameFormat(THREAD_NAME_PREFIX + "%d")
+			.build();
+
+	private static final ThreadFactory virtualThreadFactory = createVirtualThreadFactory();
+
+	private TransactionThreads() {
+	}
+
+	/**
+	 * @return the {@link ThreadFactory} for the thread of a new transaction, according to the value of
+	 *         {@value #VIRTUAL_THREADS_PROPERTY} when the first transaction was created
+	 */
+	static ThreadFactory threadFactory() {
+		return ThreadFactoryHolder.THREAD_FACTORY;
+	}
+
+	/**
+	 * @param virtualThreads whether virtual threads should be used if they are supported
+	 * @return the {@link ThreadFactory} for the threads of transactions
+	 */
+	static ThreadFactory threadFactory(boolean virtualThreads) {
+		if (virtualThreads) {
+			if (virtualThreadFactory != null) {
+				return virtualThreadFactory;
+			}
+			logger.warn("Property {} is set, but virtual threads are not supported by this Java version. "
+					+ "Transactions will use platform threads.", VIRTUAL_THREADS_PROPERTY);
+		}
+		return platformThreadFactory;
+	}
+
+	/**
+	 * @return true if this Java version supports virtual threads
+	 */
+	static boolean isVirtualThreadsSupported() {
+		return virtualThreadFactory != null;
+	}
+
+	/**
+	 * Creates a virtual thread factory through reflection, since the server is compiled for a Java version that doesn't
+	 * have the virtual thread API.
+	 *
+	 * @return the factory, or null if virtual threads are not available
+	 */
+	private static ThreadFactory createVirtualThreadFactory() {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Method name = builderClass.getMethod("name", String.class, long.class);
+			builder = name.invoke(builder, THREAD_NAME_PREFIX, 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+			// not available, or a preview feature that has not been enabled
+			logger.debug("Virtual threads are not available", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Resolves the thread factory of transactions on first use, so that the configuration is logged only once.
+	 */
+	private static class ThreadFactoryHolder {
+
+		private static final ThreadFactory THREAD_FACTORY = threadFactory(Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY));
+	}
+}
@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.impl.IteratingTupleQueryResult;
+import org.eclipse.rdf4j.query.impl.ListBindingSet;
+import org.eclipse.rdf4j.query.resultio.helpers.QueryResultCollector;
+import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONParser;
+import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriterFactory;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class AsyncQueryResultStreamerTest {
+
+	private static final int ROWS = 10_000;
+
+	private MockHttpServletRequest request;
+
+	private SlowClientResponse response;
+
+	private RepositoryConnection connection;
+
+	private AtomicInteger consumed;
+
+	private boolean resultClosed;
+
+	private Map<String, Object> model;
+
+	@BeforeEach
+	public void setUp() {
+		System.setProperty(AsyncQueryResultStreamer.ASYNC_STREAMING_PROPERTY, "true");
+		System.setProperty(AsyncQueryResultStreamer.BUFFER_SIZE_PROPERTY, "1024");
+
+		request = new MockHttpServletRequest();
+		request.setAsyncSupported(true);
+		response = new SlowClientResponse();
+		connection = mock(RepositoryConnection.class);
+		consumed = new AtomicInteger();
+
+		List<BindingSet> bindingSets = new ArrayList<>();
+		for (int i = 0; i < ROWS; i++) {
+			bindingSets.add(new ListBindingSet(List.of("x"), SimpleValueFactory.getInstance().createLiteral(i)));
+		}
+		Iterator<BindingSet> iterator = bindingSets.iterator();
+		Iterator<BindingSet> countingIterator = new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return iterator.hasNext();
+			}
+
+			@Override
+			public BindingSet next() {
+				consumed.incrementAndGet();
+				return iterator.next();
+			}
+		};
+
+		model = new HashMap<>();
+		model.put(QueryResultView.FACTORY_KEY, new SPARQLResultsJSONWriterFactory());
+		model.put(QueryResultView.QUERY_RESULT_KEY, new IteratingTupleQueryResult(List.of("x"), countingIterator) {
+			@Override
+			protected void handleClose() {
+				resultClosed = true;
+				super.handleClose();
+			}
+		});
+		model.put(QueryResultView.CONNECTION_KEY, connection);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		System.clearProperty(AsyncQueryResultStreamer.ASYNC_STREAMING_PROPERTY);
+		System.clearProperty(AsyncQueryResultStreamer.BUFFER_SIZE_PROPERTY);
+	}
+
+	@Test
+	public void testEvaluationPausesWhileClientIsSlow() throws Exception {
+		TupleQueryResultView.getInstance().render(model, request, response);
+
+		assertThat(request.isAsyncStarted()).isTrue();
+		verify(connection, never()).close();
+
+		response.stream.allowWrites(1);
+		int afterFirstChunk = consumed.get();
+		assertThat(afterFirstChunk).isGreaterThan(0).isLessThan(ROWS);
+
+		// the client does not accept data, so no further results are evaluated
+		response.stream.listener.onWritePossible();
+		assertThat(consumed.get()).isEqualTo(afterFirstChunk);
+
+		while (request.isAsyncStarted()) {
+			response.stream.allowWrites(1);
+		}
+
+		assertThat(consumed.get()).isEqualTo(ROWS);
+		assertThat(resultClosed).isTrue();
+		verify(connection).close();
+
+		assertThat(parse(response.stream.content.toByteArray())).hasSize(ROWS);
+	}
+
+	@Test
+	public void testDeadlineClosesResult() throws Exception {
+		TupleQueryResultView.getInstance().render(model, request, response);
+		response.stream.allowWrites(1);
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+
+		assertThat(request.isAsyncStarted()).isFalse();
+		assertThat(consumed.get()).isLessThan(ROWS);
+		assertThat(resultClosed).isTrue();
+		verify(connection).close();
+	}
+
+	@Test
+	public void testBlockingWhenAsyncNotSupported() throws Exception {
+		request.setAsyncSupported(false);
+		MockHttpServletResponse blockingResponse = new MockHttpServletResponse();
+
+		TupleQueryResultView.getInstance().render(model, request, blockingResponse);
+
+		assertThat(request.isAsyncStarted()).isFalse();
+		assertThat(consumed.get()).isEqualTo(ROWS);
+		verify(connection).close();
+		assertThat(parse(blockingResponse.getContentAsByteArray())).hasSize(ROWS);
+	}
+
+	private static List<BindingSet> parse(byte[] content) throws IOException {
+		QueryResultCollector collector = new QueryResultCollector();
+		SPARQLResultsJSONParser parser = new SPARQLResultsJSONParser();
+		parser.setQueryResultHandler(collector);
+		parser.parseQueryResult(new ByteArrayInputStream(content));
+		return collector.getBindingSets();
+	}
+
+	/**
+	 * A response whose output stream only accepts a write when the test allows it.
+	 */
+	private static final class SlowClientResponse extends MockHttpServletResponse {
+
+		private final SlowClientOutputStream stream = new SlowClientOutputStream();
+
+		@Override
+		public ServletOutputStream getOutputStream() {
+			return stream;
+		}
+	}
+
+	private static final class SlowClientOutputStream extends ServletOutputStream {
+
+		private final ByteArrayOutputStream content = new ByteArrayOutputStream();
+
+		private WriteListener listener;
+
+		private int permits;
+
+		void allowWrites(int writes) throws IOException {
+			permits += writes;
+			listener.onWritePossible();
+		}
+
+		@Override
+		public boolean isReady() {
+			return permits > 0;
+		}
+
+		@Override
+		public void setWriteListener(WriteListener writeListener) {
+			this.listener = writeListener;
+		}
+
+		@Override
+		public void write(int b) {
+			write(new byte[] { (byte) b }, 0, 1);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			assertThat(permits).isPositive();
+			permits--;
+			content.write(b, off, len);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+
+import org.eclipse.rdf4j.http.protocol.Protocol;
+import org.eclipse.rdf4j.http.server.repository.resolver.RepositoryResolver;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDFS;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.ModelAndView;
+
+public class QueryResultCacheTest {
+
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+	private static final String QUERY = "SELECT ?s WHERE { ?s ?p \"a  b\" }";
+
+	private SailRepository repository;
+
+	private QueryResultCache cache;
+
+	private DefaultQueryRequestHandler handler;
+
+	@BeforeEach
+	public void setUp() {
+		repository = new SailRepository(new MemoryStore());
+		repository.init();
+
+		RepositoryResolver resolver = mock(RepositoryResolver.class);
+		when(resolver.getRepository(any())).thenReturn(repository);
+		when(resolver.getRepositoryConnection(any(), any())).thenAnswer(invocation -> repository.getConnection());
+
+		cache = new QueryResultCache(1_000_000, 100_000);
+		handler = new DefaultQueryRequestHandler(resolver, cache);
+	}
+
+	@AfterEach
+	public void tearDown() {
+		repository.shutDown();
+	}
+
+	@Test
+	public void testRepeatedQueryIsServedFromCache() throws Exception {
+		add("urn:s1");
+
+		String first = query(QUERY);
+		String second = query("  SELECT ?s\n WHERE {\t?s ?p \"a  b\" }  ");
+
+		assertThat(first).contains("urn:s1");
+		assertThat(second).isEqualTo(first);
+		assertThat(cache.getStats().missCount()).isEqualTo(1);
+		assertThat(cache.getStats().hitCount()).isEqualTo(1);
+		assertThat(cache.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	public void testCommitInvalidatesCache() throws Exception {
+		add("urn:s1");
+		assertThat(query(QUERY)).contains("urn:s1").doesNotContain("urn:s2");
+
+		add("urn:s2");
+		assertThat(cache.getSize()).isZero();
+
+		assertThat(query(QUERY)).contains("urn:s1").contains("urn:s2");
+		assertThat(cache.getStats().hitCount()).isZero();
+	}
+
+	@Test
+	public void testParametersArePartOfKey() throws Exception {
+		add("urn:s1");
+
+		query(QUERY);
+		MockHttpServletRequest request = request(QUERY);
+		request.addParameter(Protocol.LIMIT_PARAM_NAME, "1");
+		render(request);
+
+		assertThat(cache.getStats().hitCount()).isZero();
+		assertThat(cache.getSize()).isEqualTo(2);
+	}
+
+	@Test
+	public void testNonDeterministicQueryIsNotCached() throws Exception {
+		query("SELECT (RAND() AS ?r) WHERE {}");
+		query("SELECT (RAND() AS ?r) WHERE {}");
+
+		assertThat(cache.getSize()).isZero();
+		assertThat(cache.getStats().requestCount()).isZero();
+	}
+
+	@Test
+	public void testDisabledCache() {
+		QueryResultCache disabled = new QueryResultCache(0, 0);
+
+		assertThat(disabled.isEnabled()).isFalse();
+		assertThat(disabled.createKey(repository, request(QUERY), QUERY)).isNull();
+	}
+
+	@Test
+	public void testNormalize() {
+		assertThat(QueryResultCache.normalize("\n SELECT  *\tWHERE { ?s ?p 'x  \\'  y' . ?s <urn:a  b> ?o }\n"))
+				.isEqualTo("SELECT * WHERE { ?s ?p 'x  \\'  y' . ?s <urn:a  b> ?o }");
+	}
+
+	private void add(String subject) {
+		try (RepositoryConnection connection = repository.getConnection()) {
+			connection.add(VF.createIRI(subject), RDFS.LABEL, VF.createLiteral("a  b"));
+		}
+	}
+
+	private String query(String query) throws Exception {
+		return render(request(query));
+	}
+
+	private MockHttpServletRequest request(String query) {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setMethod(RequestMethod.GET.name());
+		request.addParameter(Protocol.QUERY_PARAM_NAME, query);
+		request.addHeader("Accept", TupleQueryResultFormat.JSON.getDefaultMIMEType());
+		return request;
+	}
+
+	private String render(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		ModelAndView modelAndView = handler.handleQueryRequest(request, RequestMethod.GET, response);
+		modelAndView.getView().render(modelAndView.getModel(), request, response);
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).startsWith(TupleQueryResultFormat.JSON.getDefaultMIMEType());
+		return response.getContentAsString();
+	}
+}
@@ -11,14 +11,25 @@
 
 package org.eclipse.rdf4j.http.server.repository.statements;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
 import org.eclipse.rdf4j.http.protocol.Protocol;
 import org.eclipse.rdf4j.http.server.ClientHTTPException;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.Update;
+import org.eclipse.rdf4j.rio.RDFFormat;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -75,4 +86,76 @@ public class TestStatementsController extends TestStatementsCommon {
 		});
 		assertTrue(exception.getMessage().contains("Updates must be non-empty"));
 	}
+
+	@Test
+	public void shouldDecodeCompressedUpload() throws Exception {
+		final String data = "<urn:s> <urn:p> <urn:o> .\n";
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(data.getBytes(StandardCharsets.UTF_8));
+		}
+		request.setContentType(RDFFormat.NTRIPLES.getDefaultMIMEType());
+		request.addHeader("Content-Encoding", "gzip");
+		request.setContent(compressed.toByteArray());
+		Mockito.when(repMock.getValueFactory()).thenReturn(SimpleValueFactory.getInstance());
+
+		List<String> uploaded = new ArrayList<>();
+		Mockito.doAnswer(invocation -> {
+			uploaded.add(IOUtils.toString((InputStream) invocation.getArgument(0), StandardCharsets.UTF_8));
+			return null;
+		})
+				.when(connectionMock)
+				.add(Mockito.any(InputStream.class), Mockito.any(), Mockito.eq(RDFFormat.NTRIPLES));
+
+		controller.handleRequest(request, response);
+
+		assertEquals(List.of(data), uploaded);
+	}
+
+	@Test
+	public void shouldRejectUnsupportedContentEncoding() {
+		request.setContentType(RDFFormat.NTRIPLES.getDefaultMIMEType());
+		request.addHeader("Content-Encoding", "br");
+		request.setContent(new byte[] { 1, 2, 3 });
+		Mockito.when(repMock.getValueFactory()).thenReturn(SimpleValueFactory.getInstance());
+
+		ClientHTTPException exception = Assertions.assertThrows(ClientHTTPException.class,
+				() -> controller.handleRequest(request, response));
+		assertEquals(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, exception.getStatusCode());
+	}
+
+	@Test
+	public void shouldRejectInvalidGzipHeader() {
+		request.setContentType(RDFFormat.NTRIPLES.getDefaultMIMEType());
+		request.addHeader("Content-Encoding", "gzip");
+		request.setContent("<urn:s> <urn:p> <urn:o> .\n".getBytes(StandardCharsets.UTF_8));
+		Mockito.when(repMock.getValueFactory()).thenReturn(SimpleValueFactory.getInstance());
+
+		ClientHTTPException exception = Assertions.assertThrows(ClientHTTPException.class,
+				() -> controller.handleRequest(request, response));
+		assertEquals(HttpServletResponse.SC_BAD_REQUEST, exception.getStatusCode());
+	}
+
+	@Test
+	public void shouldRejectCorruptCompressedData() throws Exception {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write("<urn:s> <urn:p> <urn:o> .\n".getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] content = compressed.toByteArray();
+		// the first deflate block after the 10 byte gzip header gets an invalid block type
+		content[10] = (byte) 0xFF;
+		request.setContentType(RDFFormat.NTRIPLES.getDefaultMIMEType());
+		request.addHeader("Content-Encoding", "gzip");
+		request.setContent(content);
+		Mockito.when(repMock.getValueFactory()).thenReturn(SimpleValueFactory.getInstance());
+		Mockito.doAnswer(
+				invocation -> IOUtils.toString((InputStream) invocation.getArgument(0), StandardCharsets.UTF_8))
+				.when(connectionMock)
+				.add(Mockito.any(InputStream.class), Mockito.any(), Mockito.eq(RDFFormat.NTRIPLES));
+
+		ClientHTTPException exception = Assertions.assertThrows(ClientHTTPException.class,
+				() -> controller.handleRequest(request, response));
+		assertEquals(HttpServletResponse.SC_BAD_REQUEST, exception.getStatusCode());
+	}
 }
@@ -0,0 +1,122 @@
+/*******************************************************************************
+ * Copyright (c) 2023 Eclipse RDF4J contributors.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Distribution License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * SPDX-License-Identifier: BSD-3-Clause
+ *******************************************************************************/
+package org.eclipse.rdf4j.http.server.repository.transaction;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadFactory;
+
+import org.eclipse.rdf4j.common.io.FileUtil;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class TestTransactionThreads {
+
+	private File dataDir;
+	private Repository repository;
+
+	@BeforeEach
+	public void setUp() throws IOException {
+		dataDir = Files.createTempDirectory("transaction-threads").toFile();
+		repository = new SailRepository(new NativeStore(dataDir));
+		repository.init();
+	}
+
+	@AfterEach
+	public void tearDown() throws IOException {
+		repository.shutDown();
+		FileUtil.deleteDir(dataDir);
+	}
+
+	@Test
+	public void testPlatformThreads() {
+		Thread thread = TransactionThreads.threadFactory(false).newThread(() -> {
+		});
+
+		Assertions.assertTrue(thread.getName().startsWith("rdf4j-transaction-"));
+		Assertions.assertFalse(isVirtual(thread));
+	}
+
+	@Test
+	public void testVirtualThreadsIfSupported() {
+		Thread thread = TransactionThreads.threadFactory(true).newThread(() -> {
+		});
+
+		Assertions.assertTrue(thread.getName().startsWith("rdf4j-transaction-"));
+		Assertions.assertEquals(TransactionThreads.isVirtualThreadsSupported(), isVirtual(thread));
+	}
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	public void testManyConcurrentlyOpenTransactions(boolean virtualThreads) throws Exception {
+		ThreadFactory threadFactory = TransactionThreads.threadFactory(virtualThreads);
+		List<Thread> threads = new CopyOnWriteArrayList<>();
+		List<Transaction> transactions = new ArrayList<>();
+		try {
+			for (int i = 0; i < 200; i++) {
+				Transaction transaction = new Transaction(repository, runnable -> {
+					Thread thread = threadFactory.newThread(runnable);
+					threads.add(thread);
+					return thread;
+				});
+				transactions.add(transaction);
+				transaction.begin();
+				String data = "<urn:s" + i + "> <urn:p> <urn:o> .";
+				transaction.add(new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)), "",
+						RDFFormat.NTRIPLES, false);
+			}
+			for (Transaction transaction : transactions) {
+				transaction.commit();
+			}
+		} finally {
+			for (Transaction transaction : transactions) {
+				transaction.close();
+			}
+		}
+
+		try (RepositoryConnection connection = repository.getConnection()) {
+			Assertions.assertEquals(200, connection.size());
+		}
+		Assertions.assertEquals(200, threads.size());
+		boolean expectVirtual = virtualThreads && TransactionThreads.isVirtualThreadsSupported();
+		for (Thread thread : threads) {
+			Assertions.assertEquals(expectVirtual, isVirtual(thread));
+		}
+	}
+
+	@Test
+	public void testThreadFactoryIsResolvedOnce() {
+		Assertions.assertSame(TransactionThreads.threadFactory(), TransactionThreads.threadFactory());
+	}
+
+	private static boolean isVirtual(Thread thread) {
+		try {
+			return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+		} catch (ReflectiveOperationException e) {
+			return false;
+		}
+	}
+}